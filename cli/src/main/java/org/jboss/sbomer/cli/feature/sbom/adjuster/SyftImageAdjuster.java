@@ -33,6 +33,7 @@ import static org.jboss.sbomer.core.features.sbom.utils.SbomUtils.addMissingCont
 import java.io.IOException;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -48,6 +49,7 @@ import org.jboss.sbomer.core.features.sbom.Constants;
 import org.jboss.sbomer.core.features.sbom.config.SyftImageConfig;
 import org.jboss.sbomer.core.features.sbom.enums.GeneratorType;
 import org.jboss.sbomer.core.features.sbom.utils.ObjectMapperProvider;
+import org.jboss.sbomer.core.features.sbom.utils.PurlCache;
 import org.jboss.sbomer.core.features.sbom.utils.PurlSanitizer;
 import org.jboss.sbomer.core.features.sbom.utils.SbomUtils;
 
@@ -180,22 +182,28 @@ public class SyftImageAdjuster extends AbstractAdjuster {
                     "Sources metadata is empty, there are no Golang standard library feature components to add to the main manifest...");
         }
 
-        // Remove components from manifest according to 'paths' and 'includeRpms' parameters
-        log.debug("Filtering out all components that do not meet requirements...");
+        // Remove components from manifest according to 'paths' and 'includeRpms' parameters and adjust the remaining
+        // ones, in a single pass over the component tree
+        log.debug("Filtering out all components that do not meet requirements and adjusting the remaining ones...");
+
+        adjustComponents(bom.getComponents(), true);
+
+        Component mainComponent = bom.getMetadata().getComponent();
 
-        filterComponents(bom.getComponents());
         adjustProperties(bom);
         adjustNameAndPurl(bom);
 
-        cleanupComponents(bom);
+        cleanupComponent(mainComponent);
+        cleanupComponents(mainComponent.getComponents());
+
+        // Adjust the publisher name
+        adjustComponentPublisher(mainComponent);
 
         adjustMainComponent(bom);
 
         // Populate the dependencies section with components
         adjustDependencies(bom);
 
-        // Adjust the publisher name
-        adjustPublisher(bom);
         // Adjust the metadata supplier
         addMissingMetadataSupplier(bom);
 
@@ -227,67 +235,118 @@ public class SyftImageAdjuster extends AbstractAdjuster {
     }
 
     /**
-     * Removes all components from the component tree that do not meet requirements: as defined by
-     * {@link SyftImageAdjuster#includeRpms} and {@link SyftImageAdjuster#paths}.
+     * <p>
+     * Visits the component tree once, removing all components that do not meet requirements, as defined by
+     * {@link SyftImageAdjuster#includeRpms} and {@link SyftImageAdjuster#paths}, and adjusting the remaining ones.
+     * </p>
      *
-     * @param components the components to filter
+     * <p>
+     * For each component the purl is parsed once and reused. Top level components get their properties
+     * (see {@link SyftImageAdjuster#adjustProperties(List)}) and publisher adjusted, all components are cleaned up (see
+     * {@link SyftImageAdjuster#cleanupComponent(Component)}).
+     * </p>
+     *
+     * @param components the components to adjust
+     * @param topLevel whether the components are the top level ones, listed in {@link Bom#getComponents()}
      * @see SyftImageAdjuster#includeRpms
      * @see SyftImageAdjuster#paths
      */
-    private void filterComponents(List<Component> components) {
+    private void adjustComponents(List<Component> components, boolean topLevel) {
         if (components == null) {
             return;
         }
 
-        components.removeIf(c -> {
-            if (c.getPurl() == null) {
+        List<Component> retained = new ArrayList<>(components.size());
+
+        for (Component component : components) {
+            if (component.getPurl() == null) {
                 log.debug(
                         "Component (of type '{}', cpe: '{}') does not have purl assigned, marked for removal",
-                        c.getType(),
-                        c.getCpe());
-                return true;
+                        component.getType(),
+                        component.getCpe());
+                continue;
             }
 
-            if (!SbomUtils.hasValidOrSanitizablePurl(c)) {
-                log.debug("Component has a purl ({}) which cannot be made valid!", c.getPurl());
-                return true;
-            }
+            PackageURL purl = parsePurl(component.getPurl());
 
-            // Handle RPMs
-            try {
-                PackageURL purl = new PackageURL(c.getPurl());
-                log.debug("Handling component '{}'", purl);
-                if (PackageURL.StandardTypes.RPM.equals(purl.getType())) {
-                    // Remove all components that are RPMs if the includeRpms is not set to true
-                    log.debug("Component is of type RPM, to be removed: '{}' (includeRpms: {})", purl, includeRpms);
-                    return !includeRpms;
+            if (purl == null) {
+                if (!SbomUtils.hasValidOrSanitizablePurl(component)) {
+                    log.debug("Component has a purl ({}) which cannot be made valid!", component.getPurl());
+                    continue;
+                }
+
+                purl = parsePurl(component.getPurl());
+
+                if (purl == null) {
+                    log.warn("Could not parse the PURL: '{}'", component.getPurl());
                 }
-            } catch (MalformedPackageURLException e) {
-                log.warn("Could not parse the PURL: '{}'", c.getPurl(), e);
             }
 
-            // Handle everything else
+            if (!isRetained(component, purl)) {
+                continue;
+            }
 
-            // If paths are not specified, include everything
-            if (paths == null || paths.isEmpty()) {
-                log.debug("No paths provided, component won't be removed");
-                return false;
+            if (topLevel) {
+                adjustProperties(component.getProperties());
+                adjustComponentPublisher(component);
             }
 
-            // Remove all components that are not on the paths we are interested in
-            boolean onPath = c.getProperties()
-                    .stream()
-                    .filter(p -> p.getName().equals("syft:location:0:path") && isOnPath(p.getValue()))
-                    .findAny()
-                    .isEmpty();
+            cleanupComponent(component, purl);
 
-            log.debug("Component on path: {}", onPath);
+            // Go deep
+            adjustComponents(component.getComponents(), false);
 
-            return onPath;
-        });
+            retained.add(component);
+        }
+
+        if (retained.size() != components.size()) {
+            components.clear();
+            components.addAll(retained);
+        }
+    }
+
+    private static PackageURL parsePurl(String purl) {
+        try {
+            return PurlCache.parse(purl);
+        } catch (MalformedPackageURLException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Checks whether the component meets requirements: as defined by {@link SyftImageAdjuster#includeRpms} and
+     * {@link SyftImageAdjuster#paths}.
+     *
+     * @param component the component
+     * @param purl the parsed purl of the component, {@code null} if it could not be parsed
+     * @return {@code true} if the component should be retained in the manifest
+     */
+    private boolean isRetained(Component component, PackageURL purl) {
+        log.debug("Handling component '{}'", purl);
+
+        // Handle RPMs
+        if (purl != null && PackageURL.StandardTypes.RPM.equals(purl.getType())) {
+            // Remove all components that are RPMs if the includeRpms is not set to true
+            log.debug("Component is of type RPM, to be removed: '{}' (includeRpms: {})", purl, includeRpms);
+            return includeRpms;
+        }
+
+        // Handle everything else
+
+        // If paths are not specified, include everything
+        if (paths == null || paths.isEmpty()) {
+            log.debug("No paths provided, component won't be removed");
+            return true;
+        }
 
-        // Go deep
-        components.forEach(c -> filterComponents(c.getComponents()));
+        // Remove all components that are not on the paths we are interested in
+        boolean onPath = component.getProperties()
+                .stream()
+                .anyMatch(p -> p.getName().equals("syft:location:0:path") && isOnPath(p.getValue()));
+
+        log.debug("Component on path: {}", onPath);
+
+        return onPath;
     }
 
     /**
@@ -300,8 +359,8 @@ public class SyftImageAdjuster extends AbstractAdjuster {
      * </p>
      *
      * <p>
-     * Adjusts any properties in the main component as well as for each component found in the component list
-     * (recursively). See {@link SyftImageAdjuster#adjustProperties(List)}.
+     * Adjusts any properties in the main component, see {@link SyftImageAdjuster#adjustProperties(List)}. Properties
+     * of other components are adjusted by {@link SyftImageAdjuster#adjustComponents(List, boolean)}.
      * </p>
      *
      * @param bom The manifest to adjust the properties of.
@@ -328,46 +387,17 @@ public class SyftImageAdjuster extends AbstractAdjuster {
             bom.getMetadata().setProperties(null);
         }
 
-        // Adjust main component's properties...
-        adjustProperties(bom.getMetadata().getComponent().getProperties());
-        // ...and any other properties found in the component tree.
-        bom.getComponents().forEach(c -> adjustProperties(c.getProperties()));
+        // Adjust main component's properties
+        adjustProperties(mainComponent.getProperties());
 
         log.info("Properties adjusted!");
     }
 
     /**
-     * <p>
-     * Adjusts the publisher name for Red Hat components.
-     * </p>
+     * If the publisher is set to "Red Hat, Inc.", update it to "Red Hat" for consistency.
      *
-     * <p>
-     * If the publisher is set to "Red Hat, Inc.", update it to "Red Hat" for consistency
-     * </p>
-     *
-     * <p>
-     * Adjusts any values in the main component as well as for each component found in the component list (recursively).
-     * </p>
-     *
-     * @param bom The manifest to adjust the properties of.
+     * @param component the component to adjust
      */
-    private void adjustPublisher(Bom bom) {
-        log.info("Adjusting manifest publisher...");
-
-        if (bom == null) {
-            return;
-        }
-
-        // Adjust the publisher for the main component
-        Component mainComponent = bom.getMetadata() != null ? bom.getMetadata().getComponent() : null;
-        adjustComponentPublisher(mainComponent);
-
-        // Adjust the publisher for all components in the BOM
-        if (bom.getComponents() != null) {
-            bom.getComponents().forEach(this::adjustComponentPublisher);
-        }
-    }
-
     private void adjustComponentPublisher(Component component) {
         if (component == null) {
             return;
@@ -453,19 +483,27 @@ public class SyftImageAdjuster extends AbstractAdjuster {
      * @param bom the manifest to adjust the dependencies of
      */
     private void adjustDependencies(Bom bom) {
-        List<Dependency> dependencies = new ArrayList<>();
+        List<Component> components = bom.getComponents();
+        List<Dependency> dependencies = new ArrayList<>(components.size());
 
-        populateDependencies(dependencies, bom.getComponents());
+        populateDependencies(dependencies, new HashSet<>(), components);
 
         // The image itself is the first element
         Dependency productDependency = dependencies.get(0);
 
-        // If there are more dependencies (besides the main image), add all of them
-        // as a product dependency
-        if (dependencies.size() > 1) {
-            for (Component component : bom.getComponents().subList(1, dependencies.size())) {
-                productDependency.addDependency(SbomUtils.createDependency(component.getBomRef()));
+        // If there are more components (besides the main image), add all of them as a product dependency. Duplicates
+        // are skipped with a set of refs, Dependency#addDependency would scan all the added ones.
+        if (components.size() > 1) {
+            Set<String> productRefs = new HashSet<>();
+            List<Dependency> productDependsOn = new ArrayList<>(components.size() - 1);
+
+            for (Component component : components.subList(1, components.size())) {
+                if (productRefs.add(component.getBomRef())) {
+                    productDependsOn.add(SbomUtils.createDependency(component.getBomRef()));
+                }
             }
+
+            productDependency.setDependencies(productDependsOn);
         }
 
         bom.setDependencies(dependencies);
@@ -479,22 +517,28 @@ public class SyftImageAdjuster extends AbstractAdjuster {
      * <p>
      * CAse where a component has nested components is handled as well.
      * </p>
+     *
+     * @param dependencies the dependencies to add to
+     * @param refs the refs of all {@code dependencies}
+     * @param components the components to add dependencies for
      */
-    private void populateDependencies(List<Dependency> dependencies, List<Component> components) {
+    private void populateDependencies(List<Dependency> dependencies, Set<String> refs, List<Component> components) {
         if (components == null) {
             return;
         }
 
-        components.forEach(component -> {
+        for (Component component : components) {
             // Check that there isn't already a dependency with the bom-ref equals to the new purl, otherwise do not
             // update it
-            if (!dependencies.stream().map(Dependency::getRef).toList().contains(component.getPurl())) {
+            if (!refs.contains(component.getPurl())) {
                 component.setBomRef(component.getPurl());
             }
+
             dependencies.add(SbomUtils.createDependency(component.getBomRef()));
-            populateDependencies(dependencies, component.getComponents());
-        });
+            refs.add(component.getBomRef());
 
+            populateDependencies(dependencies, refs, component.getComponents());
+        }
     }
 
     /**
@@ -515,47 +559,50 @@ public class SyftImageAdjuster extends AbstractAdjuster {
             return;
         }
 
-        // Adjust property names
-        properties.forEach(p -> {
-            String newName = p.getName()
+        properties.removeIf(property -> {
+            // Adjust property name
+            String name = property.getName()
                     .replace(CONTAINER_PROPERTY_SYFT_PREFIX, CONTAINER_PROPERTY_SYFT_REPLACEMENT_PREFIX);
 
-            // log.debug("Adjusting property name from '{}' to '{}'", p.getName(), newName);
-
-            p.setName(newName);
-        });
+            property.setName(name);
 
-        // Remove properties we don't care about
-        properties.removeIf(prop -> {
-            boolean supportedProp = ALLOWED_PROPERTY_PREFIXES.stream()
-                    .anyMatch(prefix -> prop.getName().startsWith(prefix));
+            // Remove properties we don't care about
+            if (!isAllowedProperty(name)) {
+                return true;
+            }
 
-            // if (!supportedProp) {
-            // log.debug(
-            // "Property '{}' with value '{}' is not on the supported properties list, removing...",
-            // prop.getName(),
-            // prop.getValue());
-            // }
+            if ((CONTAINER_PROPERTY_IMAGE_LABEL_VENDOR.equals(name)
+                    || CONTAINER_PROPERTY_IMAGE_LABEL_MANTAINER.equals(name))
+                    && "Red Hat, Inc.".equals(property.getValue())) {
+                property.setValue(Constants.SUPPLIER_NAME);
+            }
 
-            return !supportedProp;
+            return false;
         });
+    }
 
-        properties.stream()
-                .filter(
-                        property -> (CONTAINER_PROPERTY_IMAGE_LABEL_VENDOR).equals(property.getName())
-                                || (CONTAINER_PROPERTY_IMAGE_LABEL_MANTAINER).equals(property.getName()))
-                .forEach(property -> {
-                    if ("Red Hat, Inc.".equals(property.getValue())) {
-                        property.setValue(Constants.SUPPLIER_NAME);
-                    }
-                });
+    private static boolean isAllowedProperty(String name) {
+        for (String prefix : ALLOWED_PROPERTY_PREFIXES) {
+            if (name.startsWith(prefix)) {
+                return true;
+            }
+        }
 
+        return false;
     }
 
     @Override
     protected void cleanupComponent(Component component) {
-        // log.debug("Cleaning up component '{}'", component.getPurl());
+        cleanupComponent(component, null);
+    }
 
+    /**
+     * Cleans up the component, see {@link SyftImageAdjuster#cleanupComponent(Component)}.
+     *
+     * @param component the component
+     * @param purl the already parsed purl of the component, or {@code null} if it should be parsed when needed
+     */
+    private void cleanupComponent(Component component, PackageURL purl) {
         // Remove CPE, we don't use it now
         component.setCpe(null);
 
@@ -580,7 +627,7 @@ public class SyftImageAdjuster extends AbstractAdjuster {
                         // 'epoch'...",
                         // component.getPurl());
 
-                        cleanupPurl(component);
+                        cleanupPurl(component, purl);
                         break;
 
                     default:
@@ -593,9 +640,9 @@ public class SyftImageAdjuster extends AbstractAdjuster {
         log.debug("Component '{}' adjusted", component.getPurl());
     }
 
-    private void cleanupPurl(Component component) {
+    private void cleanupPurl(Component component, PackageURL purl) {
         try {
-            String cleanedUpPurl = doCleanupPurl(component.getPurl());
+            String cleanedUpPurl = doCleanupPurl(purl != null ? purl : PurlCache.parse(component.getPurl()));
             component.setPurl(cleanedUpPurl);
         } catch (MalformedPackageURLException e) {
             String sanitizedPurl = PurlSanitizer.sanitizePurl(component.getPurl());
@@ -603,7 +650,7 @@ public class SyftImageAdjuster extends AbstractAdjuster {
             component.setPurl(sanitizedPurl);
 
             try {
-                String cleanedUpPurl = doCleanupPurl(component.getPurl());
+                String cleanedUpPurl = doCleanupPurl(PurlCache.parse(component.getPurl()));
                 component.setPurl(cleanedUpPurl);
             } catch (MalformedPackageURLException e1) {
                 log.warn("Could not clean up purl '{}'", component.getPurl(), e);
@@ -611,9 +658,7 @@ public class SyftImageAdjuster extends AbstractAdjuster {
         }
     }
 
-    private String doCleanupPurl(String purl) throws MalformedPackageURLException {
-        PackageURL packageURL = new PackageURL(purl);
-
+    private String doCleanupPurl(PackageURL packageURL) throws MalformedPackageURLException {
         Map<String, String> origQualifiers = packageURL.getQualifiers();
         if (origQualifiers == null) {
             return packageURL.toString();
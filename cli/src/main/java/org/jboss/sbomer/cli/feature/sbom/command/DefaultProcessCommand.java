@@ -20,13 +20,17 @@ package org.jboss.sbomer.cli.feature.sbom.command;
 import java.nio.file.Path;
 
 import org.cyclonedx.model.Bom;
+import org.jboss.sbomer.cli.feature.sbom.command.mixin.EnrichmentConcurrencyMixin;
+import org.jboss.sbomer.cli.feature.sbom.command.mixin.LookupCacheMixin;
 import org.jboss.sbomer.cli.feature.sbom.processor.DefaultProcessor;
+import org.jboss.sbomer.cli.feature.sbom.service.LookupCachePrewarmer;
 import org.jboss.sbomer.core.features.sbom.enums.ProcessorType;
 import org.jboss.sbomer.core.features.sbom.utils.MDCUtils;
 
 import jakarta.inject.Inject;
 import lombok.Getter;
 import picocli.CommandLine.Command;
+import picocli.CommandLine.Mixin;
 import picocli.CommandLine.ParentCommand;
 
 @Command(
@@ -42,6 +46,15 @@ public class DefaultProcessCommand extends AbstractProcessCommand {
     @Inject
     DefaultProcessor defaultProcessor;
 
+    @Inject
+    LookupCachePrewarmer lookupCachePrewarmer;
+
+    @Mixin
+    EnrichmentConcurrencyMixin enrichmentConcurrency;
+
+    @Mixin
+    LookupCacheMixin lookupCache;
+
     @Override
     public ProcessorType getImplementationType() {
         return defaultProcessor.getType();
@@ -49,7 +62,11 @@ public class DefaultProcessCommand extends AbstractProcessCommand {
 
     @Override
     public Bom doProcess(Bom bom) {
-        return defaultProcessor.process(bom);
+        if (lookupCache.getPrewarmFrom() != null) {
+            lookupCachePrewarmer.prewarm(lookupCache.getPrewarmFrom());
+        }
+
+        return defaultProcessor.withConcurrency(enrichmentConcurrency.toEnrichmentConcurrency()).process(bom);
     }
 
     @Override
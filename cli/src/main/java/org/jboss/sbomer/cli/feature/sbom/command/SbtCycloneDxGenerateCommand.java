@@ -24,6 +24,7 @@ import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Date;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -45,6 +46,7 @@ import org.jboss.sbomer.core.errors.ApplicationException;
 import org.jboss.sbomer.core.features.sbom.Constants;
 import org.jboss.sbomer.core.features.sbom.enums.GeneratorType;
 import org.jboss.sbomer.core.features.sbom.utils.SbomUtils;
+import org.jboss.sbomer.core.pnc.ArtifactQuery;
 
 import com.github.packageurl.PackageURL.StandardTypes;
 
@@ -278,16 +280,24 @@ public class SbtCycloneDxGenerateCommand extends AbstractSbtGenerateCommand {
                         Hash.Algorithm.SHA_256);
             }
         }
-        Stream.ofNullable(rootBom.getComponents()).flatMap(Collection::stream).forEach(c -> {
-            if (c.getHashes() == null || c.getHashes().isEmpty()) {
-                Artifact artifact = pncService
-                        .getArtifact(c.getPurl(), Optional.empty(), Optional.empty(), Optional.empty());
-                if (artifact != null) {
-                    // Make sure the component has hashes
-                    SbomUtils.addHashIfMissing(c, artifact.getMd5(), Hash.Algorithm.MD5);
-                    SbomUtils.addHashIfMissing(c, artifact.getSha1(), Hash.Algorithm.SHA1);
-                    SbomUtils.addHashIfMissing(c, artifact.getSha256(), Hash.Algorithm.SHA_256);
-                }
+        List<Component> componentsWithoutHashes = Stream.ofNullable(rootBom.getComponents())
+                .flatMap(Collection::stream)
+                .filter(c -> c.getHashes() == null || c.getHashes().isEmpty())
+                .toList();
+
+        // Look up all the artifacts at once, instead of a request for every component
+        Map<ArtifactQuery, Artifact> artifacts = pncService.getArtifacts(
+                componentsWithoutHashes.stream()
+                        .map(c -> ArtifactQuery.of(c.getPurl(), Optional.empty()))
+                        .collect(Collectors.toCollection(LinkedHashSet::new)));
+
+        componentsWithoutHashes.forEach(c -> {
+            Artifact artifact = artifacts.get(ArtifactQuery.of(c.getPurl(), Optional.empty()));
+            if (artifact != null) {
+                // Make sure the component has hashes
+                SbomUtils.addHashIfMissing(c, artifact.getMd5(), Hash.Algorithm.MD5);
+                SbomUtils.addHashIfMissing(c, artifact.getSha1(), Hash.Algorithm.SHA1);
+                SbomUtils.addHashIfMissing(c, artifact.getSha256(), Hash.Algorithm.SHA_256);
             }
         });
     }
@@ -36,6 +36,7 @@ import org.cyclonedx.model.Pedigree;
 import org.cyclonedx.model.Property;
 import org.cyclonedx.model.Variants;
 import org.jboss.sbomer.core.errors.ApplicationException;
+import org.jboss.sbomer.core.features.sbom.utils.PurlCache;
 import org.jboss.sbomer.core.features.sbom.utils.SbomUtils;
 
 import com.github.packageurl.MalformedPackageURLException;
@@ -155,7 +156,7 @@ public class SyftImageCatalogCommand extends AbstractCatalogCommand {
 
     private String getContainerArch(Component component) {
         try {
-            PackageURL purl = new PackageURL(component.getPurl());
+            PackageURL purl = PurlCache.parse(component.getPurl());
             Map<String, String> qualifiers = purl.getQualifiers();
             if (qualifiers != null) {
                 String arch = qualifiers.get("arch");
@@ -0,0 +1,49 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.cli.feature.sbom.command.mixin;
+
+import org.jboss.sbomer.cli.feature.sbom.processor.EnrichmentConcurrency;
+
+import lombok.Getter;
+import picocli.CommandLine.Option;
+
+@Getter
+public class EnrichmentConcurrencyMixin {
+    @Option(
+            names = { "--concurrency" },
+            defaultValue = "1",
+            description = "Number of components enriched in parallel. Default: ${DEFAULT-VALUE} (sequential).")
+    int concurrency;
+
+    @Option(
+            names = { "--pnc-concurrency" },
+            description = "Maximum number of concurrent requests to PNC. Defaults to the value of --concurrency.")
+    Integer pncConcurrency;
+
+    @Option(
+            names = { "--koji-concurrency" },
+            description = "Maximum number of concurrent requests to Koji. Defaults to the value of --concurrency.")
+    Integer kojiConcurrency;
+
+    public EnrichmentConcurrency toEnrichmentConcurrency() {
+        return new EnrichmentConcurrency(
+                concurrency,
+                pncConcurrency != null ? pncConcurrency : concurrency,
+                kojiConcurrency != null ? kojiConcurrency : concurrency);
+    }
+}
@@ -0,0 +1,32 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.cli.feature.sbom.command.mixin;
+
+import java.nio.file.Path;
+
+import lombok.Getter;
+import picocli.CommandLine.Option;
+
+@Getter
+public class LookupCacheMixin {
+    @Option(
+            names = { "--prewarm-cache" },
+            paramLabel = "FILE",
+            description = "Path to a manifest produced by a previous run, used to prewarm the lookup cache with the PNC artifacts it was enriched with. Requires the lookup cache to be enabled.")
+    Path prewarmFrom;
+}
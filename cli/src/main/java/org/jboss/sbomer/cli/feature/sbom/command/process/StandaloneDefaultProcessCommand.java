@@ -21,11 +21,15 @@ import java.nio.file.Path;
 
 import org.cyclonedx.model.Bom;
 import org.jboss.sbomer.cli.feature.sbom.command.AbstractProcessCommand;
+import org.jboss.sbomer.cli.feature.sbom.command.mixin.EnrichmentConcurrencyMixin;
+import org.jboss.sbomer.cli.feature.sbom.command.mixin.LookupCacheMixin;
 import org.jboss.sbomer.cli.feature.sbom.processor.DefaultProcessor;
+import org.jboss.sbomer.cli.feature.sbom.service.LookupCachePrewarmer;
 import org.jboss.sbomer.core.features.sbom.enums.ProcessorType;
 
 import jakarta.inject.Inject;
 import picocli.CommandLine.Command;
+import picocli.CommandLine.Mixin;
 import picocli.CommandLine.ParentCommand;
 
 @Command(
@@ -40,6 +44,15 @@ public class StandaloneDefaultProcessCommand extends AbstractProcessCommand {
     @Inject
     DefaultProcessor defaultProcessor;
 
+    @Inject
+    LookupCachePrewarmer lookupCachePrewarmer;
+
+    @Mixin
+    EnrichmentConcurrencyMixin enrichmentConcurrency;
+
+    @Mixin
+    LookupCacheMixin lookupCache;
+
     @Override
     public ProcessorType getImplementationType() {
         return defaultProcessor.getType();
@@ -47,7 +60,11 @@ public class StandaloneDefaultProcessCommand extends AbstractProcessCommand {
 
     @Override
     public Bom doProcess(Bom bom) {
-        return defaultProcessor.process(bom);
+        if (lookupCache.getPrewarmFrom() != null) {
+            lookupCachePrewarmer.prewarm(lookupCache.getPrewarmFrom());
+        }
+
+        return defaultProcessor.withConcurrency(enrichmentConcurrency.toEnrichmentConcurrency()).process(bom);
     }
 
     @Override
@@ -32,12 +32,25 @@ import static org.jboss.sbomer.core.features.sbom.utils.SbomUtils.setBrewBuildMe
 import static org.jboss.sbomer.core.features.sbom.utils.SbomUtils.setPncBuildMetadata;
 import static org.jboss.sbomer.core.features.sbom.utils.SbomUtils.setPublisher;
 import static org.jboss.sbomer.core.features.sbom.utils.SbomUtils.setSupplier;
-import static org.jboss.sbomer.core.features.sbom.utils.SbomUtils.updatePurl;
-
-import java.util.HashMap;
+import static org.jboss.sbomer.core.features.sbom.utils.SbomUtils.updatePurls;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.cyclonedx.model.Bom;
 import org.cyclonedx.model.Component;
@@ -49,10 +62,14 @@ import org.jboss.pnc.dto.Artifact;
 import org.jboss.sbomer.cli.feature.sbom.adjuster.PncBuildAdjuster;
 import org.jboss.sbomer.cli.feature.sbom.service.KojiService;
 import org.jboss.sbomer.core.errors.ApplicationException;
+import org.jboss.sbomer.core.errors.ClientException;
 import org.jboss.sbomer.core.features.sbom.enums.ProcessorType;
+import org.jboss.sbomer.core.features.sbom.utils.PurlCache;
 import org.jboss.sbomer.core.features.sbom.utils.RhVersionPattern;
 import org.jboss.sbomer.core.features.sbom.utils.SbomUtils;
+import org.jboss.sbomer.core.pnc.ArtifactQuery;
 import org.jboss.sbomer.core.pnc.PncService;
+import org.slf4j.MDC;
 
 import com.github.packageurl.MalformedPackageURLException;
 import com.github.packageurl.PackageURL;
@@ -68,19 +85,80 @@ public class DefaultProcessor implements Processor {
 
     protected final KojiService kojiService;
 
+    protected final EnrichmentConcurrency concurrency;
+
+    private final Semaphore pncPermits;
+
+    private final Semaphore kojiPermits;
+
     public DefaultProcessor(PncService pncService, KojiService kojiService) {
+        this(pncService, kojiService, EnrichmentConcurrency.SEQUENTIAL);
+    }
+
+    public DefaultProcessor(PncService pncService, KojiService kojiService, EnrichmentConcurrency concurrency) {
         this.pncService = pncService;
         this.kojiService = kojiService;
+        this.concurrency = concurrency;
+        this.pncPermits = new Semaphore(concurrency.pnc());
+        this.kojiPermits = new Semaphore(concurrency.koji());
     }
 
-    private final Map<String, String> purlRelocations = new HashMap<>();
+    /**
+     * Returns a processor using the same services as this one, with the provided concurrency settings.
+     *
+     * @param concurrency the concurrency settings
+     * @return the processor
+     */
+    public DefaultProcessor withConcurrency(EnrichmentConcurrency concurrency) {
+        if (this.concurrency.equals(concurrency)) {
+            return this;
+        }
+
+        return new DefaultProcessor(pncService, kojiService, concurrency);
+    }
+
+    /**
+     * State of a single {@link #process(Bom)} call, the processor itself is shared by all the calls.
+     *
+     * @param prefetchedArtifacts results of the batch lookup of artifacts, done before components are enriched
+     * @param purlRelocations new purls, by component (compared by identity); components can be enriched in parallel,
+     *        so these are merged afterward in component order, see {@link #purlRelocations(Bom, ProcessingState)}
+     */
+    protected record ProcessingState(
+            Map<ArtifactQuery, Artifact> prefetchedArtifacts,
+            Map<Component, String> purlRelocations) {
+    }
+
+    @FunctionalInterface
+    private interface Lookup<T, E extends Exception> {
+        T call() throws E;
+    }
+
+    /**
+     * Executes a remote lookup, making sure that the concurrency limit of the given backend is not exceeded.
+     */
+    private static <T, E extends Exception> T lookup(Semaphore permits, Lookup<T, E> lookup) throws E {
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ApplicationException("Interrupted while waiting to perform a lookup", e);
+        }
+
+        try {
+            return lookup.call();
+        } finally {
+            permits.release();
+        }
+    }
 
     /**
      * Performs processing for a given {@link Component}.
      *
      * @param component the component to process
+     * @param state the state of the current processing
      */
-    protected void processComponent(Component component) {
+    protected void processComponent(Component component, ProcessingState state) {
         log.debug("Processing '{}'...", component.getPurl());
 
         if (component.getPurl() == null) {
@@ -94,9 +172,7 @@ public class DefaultProcessor implements Processor {
         }
 
         // If the component does not have "pnc-build-id" nor "pnc-environment-image" nor "brew-build-id", query it
-        if (!hasExternalReference(component, ExternalReference.Type.BUILD_SYSTEM, SBOM_RED_HAT_PNC_BUILD_ID)
-                && !hasExternalReference(component, ExternalReference.Type.BUILD_META, SBOM_RED_HAT_ENVIRONMENT_IMAGE)
-                && !hasExternalReference(component, ExternalReference.Type.BUILD_SYSTEM, SBOM_RED_HAT_BREW_BUILD_ID)) {
+        if (!isEnriched(component)) {
 
             Optional<String> sha256 = getHash(component, Hash.Algorithm.SHA_256);
             Optional<String> sha1 = getHash(component, Hash.Algorithm.SHA1);
@@ -105,7 +181,7 @@ public class DefaultProcessor implements Processor {
             // First, try to look up the artifact with the purl given and with optional SHA256 hash to filter out
             // results
             // Even though we may have different hashes, we specifically specify only SHA256 here.
-            Artifact artifact = pncService.getArtifact(component.getPurl(), sha256, Optional.empty(), Optional.empty());
+            Artifact artifact = findArtifact(state, ArtifactQuery.of(component.getPurl(), sha256));
 
             // Artifact wasn't found, so we will try lookup using different methods
             if (artifact == null) {
@@ -123,7 +199,7 @@ public class DefaultProcessor implements Processor {
                     log.debug("Looking up '{}' artifact in PNC using hashes only", component.getPurl());
 
                     // Let's try a lookup with hashes only, because the generated purl can be wrongly constructed
-                    artifact = pncService.getArtifact(null, sha256, sha1, md5);
+                    artifact = lookup(pncPermits, () -> pncService.getArtifact(null, sha256, sha1, md5));
                 }
 
                 // No luck, let's try to see if we can find hashes in build-meta external references
@@ -147,7 +223,7 @@ public class DefaultProcessor implements Processor {
                     // This means that the purl most probably is incorrect in the manifest, so let's update it.
                     log.debug("Updating component's purl from '{}' to '{}'", oldPurl, newPurl);
 
-                    purlRelocations.put(oldPurl, newPurl);
+                    state.purlRelocations().put(component, newPurl);
                 }
             }
 
@@ -201,13 +277,85 @@ public class DefaultProcessor implements Processor {
         }
     }
 
+    private static boolean isEnriched(Component component) {
+        return hasExternalReference(component, ExternalReference.Type.BUILD_SYSTEM, SBOM_RED_HAT_PNC_BUILD_ID)
+                || hasExternalReference(component, ExternalReference.Type.BUILD_META, SBOM_RED_HAT_ENVIRONMENT_IMAGE)
+                || hasExternalReference(component, ExternalReference.Type.BUILD_SYSTEM, SBOM_RED_HAT_BREW_BUILD_ID);
+    }
+
+    /**
+     * Returns the artifact for the given query, using the result of the batch lookup done by
+     * {@link #prefetchArtifacts(Bom)} if the query was part of it.
+     */
+    private Artifact findArtifact(ProcessingState state, ArtifactQuery query) {
+        if (state.prefetchedArtifacts().containsKey(query)) {
+            return state.prefetchedArtifacts().get(query);
+        }
+
+        return lookup(
+                pncPermits,
+                () -> pncService.getArtifact(
+                        query.purl(),
+                        Optional.ofNullable(query.sha256()),
+                        Optional.empty(),
+                        Optional.empty()));
+    }
+
+    /**
+     * Looks up the PNC artifacts of all components which will need it in a few batch requests, instead of a request
+     * for every component. In case the batch lookup fails, components are looked up one by one.
+     *
+     * @param bom the manifest
+     * @return the artifacts found, for every query looked up
+     */
+    private Map<ArtifactQuery, Artifact> prefetchArtifacts(Bom bom) {
+        Set<ArtifactQuery> queries = new LinkedHashSet<>();
+
+        if (bom.getMetadata() != null && bom.getMetadata().getComponent() != null
+                && bom.getMetadata().getComponent().getType() != Component.Type.CONTAINER) {
+            addArtifactQuery(queries, bom.getMetadata().getComponent());
+        }
+
+        if (bom.getComponents() != null) {
+            bom.getComponents()
+                    .stream()
+                    .filter(c -> c.getType() != Component.Type.CONTAINER && c.getPurl() != null)
+                    .filter(c -> !PackageURL.StandardTypes.RPM.equals(getPackageURL(c).getType()))
+                    .forEach(c -> addArtifactQuery(queries, c));
+        }
+
+        if (queries.size() < 2) {
+            return Map.of();
+        }
+
+        log.debug("Looking up {} artifacts in PNC in batches", queries.size());
+
+        try {
+            Map<ArtifactQuery, Artifact> artifacts = pncService.getArtifacts(queries);
+
+            if (artifacts != null) {
+                return artifacts;
+            }
+        } catch (ClientException e) {
+            log.warn("Batch lookup of artifacts in PNC failed, artifacts will be looked up one by one", e);
+        }
+
+        return Map.of();
+    }
+
+    private static void addArtifactQuery(Set<ArtifactQuery> queries, Component component) {
+        if (component.getPurl() != null && component.getVersion() != null && !isEnriched(component)) {
+            queries.add(ArtifactQuery.of(component.getPurl(), getHash(component, Hash.Algorithm.SHA_256)));
+        }
+    }
+
     // FIXME: 'Optional<String>' used as type for parameter 'sha256'
     private boolean hasAnyHash(Optional<String> sha256, Optional<String> sha1, Optional<String> md5) {
         return (sha256.orElse(null) != null || sha1.orElse(null) != null || md5.orElse(null) != null);
     }
 
     protected void processBrewBuild(Component component, Artifact artifact) {
-        KojiBuild brewBuild = kojiService.findBuild(artifact);
+        KojiBuild brewBuild = lookup(kojiPermits, () -> kojiService.findBuild(artifact));
         if (brewBuild != null) {
 
             log.debug(
@@ -230,34 +378,30 @@ public class DefaultProcessor implements Processor {
         // TODO: this should be moved to its own workflow
         new PncBuildAdjuster().adjust(bom);
 
+        ProcessingState state = new ProcessingState(
+                prefetchArtifacts(bom),
+                Collections.synchronizedMap(new IdentityHashMap<>()));
+
         if (bom.getMetadata() != null && bom.getMetadata().getComponent() != null) {
             Component component = bom.getMetadata().getComponent();
 
             // For container images, there is nothing to do for the metadata component.
             // All modifications are done in the main component.
             if (Objects.requireNonNull(component.getType()) != Component.Type.CONTAINER) {
-                processComponent(component);
+                processComponent(component, state);
             }
         }
 
         if (bom.getComponents() != null) {
-            for (Component c : bom.getComponents()) {
-
-                if (Objects.requireNonNull(c.getType()) == Component.Type.CONTAINER) {
-                    processContainerImageComponent(c);
-                } else {
-                    PackageURL purl = getPackageURL(c);
-                    if (PackageURL.StandardTypes.RPM.equals(purl.getType())) {
-                        processRpmComponent(c, purl);
-                    } else {
-                        processComponent(c);
-                    }
-                }
+            if (concurrency.isSequential()) {
+                bom.getComponents().forEach(component -> enrichComponent(component, state));
+            } else {
+                enrichComponentsConcurrently(bom.getComponents(), state);
             }
         }
 
-        // If there are any purl relocations, process these.
-        purlRelocations.forEach((oldPurl, newPurl) -> updatePurl(bom, oldPurl, newPurl));
+        // If there are any purl relocations, process these all at once.
+        updatePurls(bom, purlRelocations(bom, state));
 
         if (SbomUtils.isNotEmpty(bom.getComponents())) {
             WorkaroundMissingNpmDependencies workaround = new WorkaroundMissingNpmDependencies(pncService);
@@ -268,6 +412,125 @@ public class DefaultProcessor implements Processor {
         return bom;
     }
 
+    /**
+     * Merges the purl relocations found for the components in component order, the metadata component first. In case
+     * components sharing a purl were relocated differently, the last one wins, whichever order these were enriched in.
+     *
+     * @param bom the manifest
+     * @param state the state of the current processing
+     * @return the new purls, by the purls to update
+     */
+    private static Map<String, String> purlRelocations(Bom bom, ProcessingState state) {
+        Map<String, String> relocations = new LinkedHashMap<>();
+
+        if (state.purlRelocations().isEmpty()) {
+            return relocations;
+        }
+
+        List<Component> components = new ArrayList<>();
+
+        if (bom.getMetadata() != null && bom.getMetadata().getComponent() != null) {
+            components.add(bom.getMetadata().getComponent());
+        }
+
+        if (bom.getComponents() != null) {
+            components.addAll(bom.getComponents());
+        }
+
+        for (Component component : components) {
+            String newPurl = state.purlRelocations().get(component);
+
+            if (newPurl != null) {
+                relocations.put(component.getPurl(), newPurl);
+            }
+        }
+
+        return relocations;
+    }
+
+    private void enrichComponent(Component c, ProcessingState state) {
+        if (Objects.requireNonNull(c.getType()) == Component.Type.CONTAINER) {
+            processContainerImageComponent(c);
+        } else {
+            PackageURL purl = getPackageURL(c);
+            if (PackageURL.StandardTypes.RPM.equals(purl.getType())) {
+                processRpmComponent(c, purl);
+            } else {
+                processComponent(c, state);
+            }
+        }
+    }
+
+    /**
+     * Enriches the components using a bounded pool of workers. Every component is modified by a single worker only,
+     * so the resulting manifest is the same as with sequential processing. In case of failures, the failure of the
+     * first component (in manifest order) is rethrown.
+     *
+     * @param components the components to enrich
+     * @param state the state of the current processing
+     */
+    private void enrichComponentsConcurrently(List<Component> components, ProcessingState state) {
+        log.debug(
+                "Enriching {} components with {} workers (PNC limit: {}, Koji limit: {})",
+                components.size(),
+                concurrency.workers(),
+                concurrency.pnc(),
+                concurrency.koji());
+
+        Map<String, String> context = MDC.getCopyOfContextMap();
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency.workers(), new EnrichmentThreadFactory());
+
+        try {
+            List<Future<?>> futures = new ArrayList<>(components.size());
+
+            for (Component component : components) {
+                futures.add(executor.submit(() -> {
+                    if (context != null) {
+                        MDC.setContextMap(context);
+                    }
+
+                    try {
+                        enrichComponent(component, state);
+                    } finally {
+                        MDC.clear();
+                    }
+                }));
+            }
+
+            for (Future<?> future : futures) {
+                await(future);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void await(Future<?> future) {
+        try {
+            future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ApplicationException("Interrupted while enriching components", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+
+            throw new ApplicationException("Enrichment of component failed", e.getCause());
+        }
+    }
+
+    private static class EnrichmentThreadFactory implements ThreadFactory {
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "enrichment-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+
     private void processRpmComponent(Component component, PackageURL purl) {
         Map<String, String> qualifiers = purl.getQualifiers();
         String arch = null;
@@ -284,7 +547,7 @@ public class DefaultProcessor implements Processor {
         KojiBuildInfo buildInfo;
         try {
             String nvra = purl.getName() + "-" + purl.getVersion() + "." + arch;
-            buildInfo = kojiService.findBuildByRPM(nvra);
+            buildInfo = lookup(kojiPermits, () -> kojiService.findBuildByRPM(nvra));
         } catch (KojiClientException e) {
             log.error("Lookup in Brew failed due to {}", e.getMessage() == null ? e.toString() : e.getMessage(), e);
             return;
@@ -330,7 +593,7 @@ public class DefaultProcessor implements Processor {
         KojiBuildInfo buildInfo;
 
         try {
-            buildInfo = kojiService.findBuild(nvr);
+            buildInfo = lookup(kojiPermits, () -> kojiService.findBuild(nvr));
         } catch (KojiClientException e) {
             log.error("Lookup in Brew failed due to {}", e.getMessage() == null ? e.toString() : e.getMessage(), e);
             return;
@@ -360,7 +623,7 @@ public class DefaultProcessor implements Processor {
 
     public static PackageURL getPackageURL(Component component) {
         try {
-            return new PackageURL(component.getPurl());
+            return PurlCache.parse(component.getPurl());
         } catch (MalformedPackageURLException e) {
             throw new ApplicationException("Unable to parse provided purl: '{}'", component.getPurl(), e);
         }
@@ -0,0 +1,52 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.cli.feature.sbom.processor;
+
+/**
+ * Concurrency settings for the component enrichment done by the {@link DefaultProcessor}.
+ *
+ * @param workers number of components enriched in parallel, {@code 1} means sequential processing on the calling
+ *        thread
+ * @param pnc maximum number of concurrent requests to PNC
+ * @param koji maximum number of concurrent requests to Koji (Brew)
+ */
+public record EnrichmentConcurrency(int workers, int pnc, int koji) {
+
+    public static final EnrichmentConcurrency SEQUENTIAL = new EnrichmentConcurrency(1, 1, 1);
+
+    public EnrichmentConcurrency {
+        if (workers < 1 || pnc < 1 || koji < 1) {
+            throw new IllegalArgumentException(
+                    "Concurrency levels must be positive, got workers=" + workers + ", pnc=" + pnc + ", koji=" + koji);
+        }
+    }
+
+    /**
+     * Creates settings where each backend is limited to the number of workers.
+     *
+     * @param workers number of components enriched in parallel
+     * @return the concurrency settings
+     */
+    public static EnrichmentConcurrency of(int workers) {
+        return new EnrichmentConcurrency(workers, workers, workers);
+    }
+
+    public boolean isSequential() {
+        return workers == 1;
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.cli.feature.sbom.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.jboss.pnc.dto.Artifact;
+import org.jboss.pnc.dto.Build;
+import org.jboss.sbomer.core.pnc.ArtifactQuery;
+import org.jboss.sbomer.core.pnc.PncService;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * A {@link PncService} which keeps the results of artifact and build lookups in a {@link LookupCache}, so that
+ * subsequent runs of the CLI do not need to query PNC for the same content again.
+ */
+@Slf4j
+public class CachingPncService extends PncService {
+
+    static final String ARTIFACTS = "pnc-artifacts";
+    static final String BUILDS = "pnc-builds";
+    static final String NPM_DEPENDENCIES = "pnc-npm-dependencies";
+
+    private final LookupCache cache;
+
+    public CachingPncService(String apiUrl, LookupCache cache) {
+        super(apiUrl);
+        this.cache = cache;
+    }
+
+    static String artifactKey(String purl, String sha256, String sha1, String md5) {
+        return String.join(
+                "|",
+                Optional.ofNullable(purl).orElse(""),
+                Optional.ofNullable(sha256).orElse(""),
+                Optional.ofNullable(sha1).orElse(""),
+                Optional.ofNullable(md5).orElse(""));
+    }
+
+    static String artifactKey(ArtifactQuery query) {
+        return artifactKey(query.purl(), query.sha256(), query.sha1(), query.md5());
+    }
+
+    @Override
+    public Artifact getArtifact(String purl, Optional<String> sha256, Optional<String> sha1, Optional<String> md5) {
+        return cache.get(
+                ARTIFACTS,
+                artifactKey(purl, sha256.orElse(null), sha1.orElse(null), md5.orElse(null)),
+                Artifact.class,
+                () -> super.getArtifact(purl, sha256, sha1, md5));
+    }
+
+    @Override
+    public Map<ArtifactQuery, Artifact> getArtifacts(Collection<ArtifactQuery> queries) {
+        Map<String, Artifact> cached = cache
+                .getAll(ARTIFACTS, queries.stream().map(CachingPncService::artifactKey).toList(), Artifact.class);
+
+        Map<ArtifactQuery, Artifact> result = new HashMap<>();
+        List<ArtifactQuery> missing = queries.stream().filter(q -> {
+            String key = artifactKey(q);
+
+            if (cached.containsKey(key)) {
+                result.put(q, cached.get(key));
+                return false;
+            }
+
+            return true;
+        }).toList();
+
+        log.debug("Found {} of {} artifact queries in the lookup cache", result.size(), queries.size());
+
+        if (!missing.isEmpty()) {
+            super.getArtifacts(missing).forEach((query, artifact) -> {
+                cache.put(ARTIFACTS, artifactKey(query), artifact);
+                result.put(query, artifact);
+            });
+        }
+
+        return result;
+    }
+
+    @Override
+    public Build getBuild(String buildId) {
+        return cache.get(BUILDS, buildId, Build.class, () -> super.getBuild(buildId));
+    }
+
+    @Override
+    public Collection<Artifact> getNPMDependencies(String buildID) {
+        return cache.get(
+                NPM_DEPENDENCIES,
+                buildID,
+                new TypeReference<List<Artifact>>() {
+                },
+                () -> new ArrayList<>(super.getNPMDependencies(buildID)));
+    }
+}
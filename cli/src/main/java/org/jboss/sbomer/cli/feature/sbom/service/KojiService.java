@@ -32,6 +32,7 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
+import java.util.concurrent.TimeoutException;
 import java.util.stream.Collectors;
 
 import org.apache.commons.collections4.MultiValuedMap;
@@ -83,6 +84,11 @@ public class KojiService {
     public static final String SOURCES_FILE_ARCHIVE_SUFFIX = ".tar.gz";
     public static final String SOURCES_FILE_METADATA_SUFFIX = ".json";
 
+    static final String ARCHIVE_BUILDS = "koji-archive-builds";
+    static final String RPM_BUILDS = "koji-rpm-builds";
+    static final String BUILDS = "koji-builds";
+    static final String NVR_BUILDS = "koji-nvr-builds";
+
     @Inject
     ManagedExecutor executor;
 
@@ -99,6 +105,10 @@ public class KojiService {
     @Setter
     KojiDownloadClient kojiDownloadClient;
 
+    @Inject
+    @Setter
+    LookupCache lookupCache = LookupCache.disabled();
+
     /**
      * Executes analysis of the provided archives identified by URLs, which must be downloadable using HTTP(S). The
      * operation is executed synchronously, but the analysis itself runs several executors in parallel.
@@ -195,7 +205,11 @@ public class KojiService {
         if (finderTask.isDone()) {
             return finderTask.get();
         }
-        return Collections.emptyList();
+
+        // Not an empty result, which would be cached as if no build was found
+        finderTask.cancel(true);
+        throw new ExecutionException(
+                new TimeoutException("Analysis did not finish within " + MAX_BREW_WAIT_5_MIN / 1000 + " seconds"));
     }
 
     public KojiBuild findBuild(Artifact artifact) {
@@ -204,35 +218,49 @@ public class KojiService {
             return null;
         }
 
+        // Failed lookups, including the ones which timed out, are not cached, only the builds found (or not found) are
         try {
-            FinderStatus status = new FinderStatus();
-            log.trace("Searching for artifact '{}' in Brew...", artifact.getPublicUrl());
-            List<KojiBuild> brewBuilds = find(artifact.getPublicUrl(), status, status);
-            if (brewBuilds.size() == 1) {
-                log.trace(
-                        "Found Brew build with id {} of artifact: '{}'",
-                        brewBuilds.get(0).getId(),
-                        artifact.getPublicUrl());
-                return brewBuilds.get(0);
-            } else if (brewBuilds.size() > 1) {
-                String brewBuildIds = brewBuilds.stream().map(KojiBuild::getId).collect(Collectors.joining(", "));
-                log.warn(
-                        "Multiple builds (with ids: {}) where found in Brew of the artifact '{}', picking the first one!",
-                        brewBuildIds,
-                        artifact.getPublicUrl());
-                return brewBuilds.get(0);
-            }
+            return lookupCache.get(
+                    ARCHIVE_BUILDS,
+                    artifact.getSha256() != null ? artifact.getSha256() : artifact.getPublicUrl(),
+                    KojiBuild.class,
+                    () -> findBuildOfArchive(artifact));
         } catch (Throwable e) {
             log.error("Lookup in Brew failed due to {}", e.getMessage() == null ? e.toString() : e.getMessage(), e);
         }
         return null;
     }
 
+    private KojiBuild findBuildOfArchive(Artifact artifact) throws Throwable {
+        FinderStatus status = new FinderStatus();
+        log.trace("Searching for artifact '{}' in Brew...", artifact.getPublicUrl());
+        List<KojiBuild> brewBuilds = find(artifact.getPublicUrl(), status, status);
+        if (brewBuilds.size() == 1) {
+            log.trace(
+                    "Found Brew build with id {} of artifact: '{}'",
+                    brewBuilds.get(0).getId(),
+                    artifact.getPublicUrl());
+            return brewBuilds.get(0);
+        } else if (brewBuilds.size() > 1) {
+            String brewBuildIds = brewBuilds.stream().map(KojiBuild::getId).collect(Collectors.joining(", "));
+            log.warn(
+                    "Multiple builds (with ids: {}) where found in Brew of the artifact '{}', picking the first one!",
+                    brewBuildIds,
+                    artifact.getPublicUrl());
+            return brewBuilds.get(0);
+        }
+        return null;
+    }
+
     public KojiBuildInfo findBuildByRPM(String nvra) throws KojiClientException {
         if (nvra == null) {
             return null;
         }
 
+        return lookupCache.get(RPM_BUILDS, nvra, KojiBuildInfo.class, () -> findBuildByRPMInBrew(nvra));
+    }
+
+    private KojiBuildInfo findBuildByRPMInBrew(String nvra) throws KojiClientException {
         log.debug("Finding Brew build for RPM '{}'...", nvra);
 
         List<KojiRpmInfo> rpm = kojiSession.getRPM(List.of(new KojiIdOrName(nvra)));
@@ -269,6 +297,10 @@ public class KojiService {
     }
 
     public KojiBuildInfo findBuild(int id) throws KojiClientException {
+        return lookupCache.get(BUILDS, String.valueOf(id), KojiBuildInfo.class, () -> findBuildInBrew(id));
+    }
+
+    private KojiBuildInfo findBuildInBrew(int id) throws KojiClientException {
         log.debug("Retrieving Brew build with id '{}'...", id);
 
         KojiBuildInfo build = kojiSession.getBuild(id);
@@ -286,6 +318,10 @@ public class KojiService {
             return null;
         }
 
+        return lookupCache.get(NVR_BUILDS, nvr, KojiBuildInfo.class, () -> findBuildInBrew(nvr));
+    }
+
+    private KojiBuildInfo findBuildInBrew(String nvr) throws KojiClientException {
         log.debug("Finding Brew build for NVR '{}'...", nvr);
 
         List<KojiBuildInfo> builds = kojiSession.getBuild(List.of(KojiIdOrName.getFor(nvr)));
@@ -0,0 +1,403 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.cli.feature.sbom.service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.jboss.sbomer.core.errors.ApplicationException;
+import org.jboss.sbomer.core.features.sbom.utils.ObjectMapperProvider;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.NullNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * <p>
+ * A persistent cache for the results of lookups in remote systems (PNC, Koji), stored as JSON files on disk, so that
+ * these can be reused across runs of the CLI.
+ * </p>
+ *
+ * <p>
+ * Every entry is stored in its own file within a directory of the given namespace, named after the SHA-256 of the key.
+ * Found values are kept for {@code ttl}, negative results (lookups which did not return anything) are kept for
+ * {@code negativeTtl} only, as the missing content can show up later. When the number of entries exceeds
+ * {@code maxEntries}, the least recently used entries are evicted.
+ * </p>
+ *
+ * <p>
+ * Any error reading or writing an entry is logged and handled as a cache miss, the cache never fails a lookup.
+ * </p>
+ */
+@Slf4j
+public class LookupCache {
+
+    /**
+     * Performs the actual lookup in case there is no cached value.
+     *
+     * @param <T> type of the value
+     * @param <E> type of the exception thrown by the lookup
+     */
+    @FunctionalInterface
+    public interface Loader<T, E extends Throwable> {
+        T load() throws E;
+    }
+
+    private static final String FIELD_KEY = "key";
+    private static final String FIELD_CREATED = "created";
+    private static final String FIELD_VALUE = "value";
+
+    private static final LookupCache DISABLED = new LookupCache(
+            null,
+            0,
+            Duration.ZERO,
+            Duration.ZERO,
+            Clock.systemUTC());
+
+    // Lookup results, like KojiBuild, can have Optional properties
+    private final ObjectMapper mapper = ObjectMapperProvider.json()
+            .copy()
+            .registerModule(new Jdk8Module())
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+    @Getter
+    private final Path directory;
+
+    private final int maxEntries;
+
+    private final Duration ttl;
+
+    private final Duration negativeTtl;
+
+    private final Clock clock;
+
+    // Entry files in access order, the eldest one is evicted first
+    private final LinkedHashMap<Path, Boolean> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    public LookupCache(Path directory, int maxEntries, Duration ttl, Duration negativeTtl) {
+        this(directory, maxEntries, ttl, negativeTtl, Clock.systemUTC());
+    }
+
+    public LookupCache(Path directory, int maxEntries, Duration ttl, Duration negativeTtl, Clock clock) {
+        this.directory = directory;
+        this.maxEntries = maxEntries;
+        this.ttl = ttl;
+        this.negativeTtl = negativeTtl;
+        this.clock = clock;
+
+        if (directory != null) {
+            load();
+        }
+    }
+
+    /**
+     * Returns a cache which does not store anything, every lookup is performed.
+     *
+     * @return the disabled cache
+     */
+    public static LookupCache disabled() {
+        return DISABLED;
+    }
+
+    public boolean isEnabled() {
+        return directory != null;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Indexes existing entries, oldest first, so that eviction continues where the previous run stopped.
+     */
+    private void load() {
+        try {
+            Files.createDirectories(directory);
+
+            try (Stream<Path> files = Files.walk(directory, 2)) {
+                // Modification time of every file is read once, not on every comparison
+                List<Path> existing = files.filter(p -> p.toString().endsWith(".json"))
+                        .map(p -> Map.entry(p, lastModified(p)))
+                        .sorted(Map.Entry.comparingByValue())
+                        .map(Map.Entry::getKey)
+                        .toList();
+
+                synchronized (this) {
+                    existing.forEach(p -> entries.put(p, Boolean.TRUE));
+                }
+            }
+
+            log.debug("Using lookup cache at '{}' with {} entries", directory.toAbsolutePath(), entries.size());
+
+            evict();
+        } catch (IOException e) {
+            throw new ApplicationException("Unable to initialize lookup cache at '{}'", directory, e);
+        }
+    }
+
+    private static FileTime lastModified(Path path) {
+        try {
+            return Files.getLastModifiedTime(path);
+        } catch (IOException e) {
+            return FileTime.fromMillis(0);
+        }
+    }
+
+    /**
+     * Returns the cached value for the given key, or performs the lookup and caches its result.
+     *
+     * @param namespace the namespace of the key, for example the name of the looked up type
+     * @param key the key
+     * @param type the type of the value
+     * @param loader the lookup to perform in case there is no valid cached value
+     * @return the value, or {@code null} if the lookup did not return anything
+     * @throws E if the lookup fails
+     */
+    public <T, E extends Throwable> T get(String namespace, String key, Class<T> type, Loader<T, E> loader)
+            throws E {
+        return get(namespace, key, mapper.constructType(type), loader);
+    }
+
+    /**
+     * Same as {@link #get(String, String, Class, Loader)}, for generic types.
+     */
+    public <T, E extends Throwable> T get(
+            String namespace,
+            String key,
+            TypeReference<T> type,
+            Loader<T, E> loader) throws E {
+        return get(namespace, key, mapper.getTypeFactory().constructType(type), loader);
+    }
+
+    private <T, E extends Throwable> T get(String namespace, String key, JavaType type, Loader<T, E> loader)
+            throws E {
+        if (!isEnabled() || key == null) {
+            return loader.load();
+        }
+
+        Path path = pathFor(namespace, key);
+        JsonNode entry = read(path, key);
+
+        if (entry != null) {
+            try {
+                log.trace("Using cached '{}' lookup result for '{}'", namespace, key);
+                return mapper.convertValue(entry.get(FIELD_VALUE), type);
+            } catch (IllegalArgumentException e) {
+                log.warn("Unable to read cached entry '{}', ignoring it", path, e);
+                remove(path);
+            }
+        }
+
+        T value = loader.load();
+        put(path, key, value);
+
+        return value;
+    }
+
+    /**
+     * Returns the valid cached entries for the given keys. Keys without a valid entry are not part of the returned
+     * map, negative results are returned as {@code null} values.
+     *
+     * @param namespace the namespace of the keys
+     * @param keys the keys
+     * @param type the type of the values
+     * @return a map of the keys to the cached values
+     */
+    public <T> Map<String, T> getAll(String namespace, Collection<String> keys, Class<T> type) {
+        Map<String, T> cached = new HashMap<>();
+
+        if (!isEnabled()) {
+            return cached;
+        }
+
+        for (String key : keys) {
+            Path path = pathFor(namespace, key);
+            JsonNode entry = read(path, key);
+
+            if (entry != null) {
+                try {
+                    cached.put(key, mapper.convertValue(entry.get(FIELD_VALUE), type));
+                } catch (IllegalArgumentException e) {
+                    log.warn("Unable to read cached entry '{}', ignoring it", path, e);
+                    remove(path);
+                }
+            }
+        }
+
+        return cached;
+    }
+
+    /**
+     * Stores the value for the given key, {@code null} values are stored as negative results.
+     *
+     * @param namespace the namespace of the key
+     * @param key the key
+     * @param value the value
+     */
+    public void put(String namespace, String key, Object value) {
+        if (isEnabled() && key != null) {
+            put(pathFor(namespace, key), key, value);
+        }
+    }
+
+    /**
+     * Checks whether there is a valid entry for the given key.
+     *
+     * @param namespace the namespace of the key
+     * @param key the key
+     * @return {@code true} if there is a valid entry
+     */
+    public boolean contains(String namespace, String key) {
+        return isEnabled() && key != null && read(pathFor(namespace, key), key) != null;
+    }
+
+    private Path pathFor(String namespace, String key) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8));
+            return directory.resolve(namespace).resolve(HexFormat.of().formatHex(digest) + ".json");
+        } catch (NoSuchAlgorithmException e) {
+            throw new ApplicationException("SHA-256 is not available", e);
+        }
+    }
+
+    private JsonNode read(Path path, String key) {
+        synchronized (this) {
+            if (entries.get(path) == null) {
+                return null;
+            }
+        }
+
+        try {
+            JsonNode entry = mapper.readTree(path.toFile());
+
+            // Just to be sure that there is no hash collision
+            if (!key.equals(entry.path(FIELD_KEY).asText())) {
+                return null;
+            }
+
+            JsonNode value = entry.get(FIELD_VALUE);
+            Duration maxAge = value == null || value.isNull() ? negativeTtl : ttl;
+
+            if (clock.millis() - entry.path(FIELD_CREATED).asLong() > maxAge.toMillis()) {
+                log.trace("Cached entry for '{}' expired", key);
+                remove(path);
+                return null;
+            }
+
+            Files.setLastModifiedTime(path, FileTime.fromMillis(clock.millis()));
+
+            return entry;
+        } catch (IOException e) {
+            log.warn("Unable to read cached entry '{}', ignoring it", path, e);
+            remove(path);
+            return null;
+        }
+    }
+
+    private void put(Path path, String key, Object value) {
+        ObjectNode entry = mapper.createObjectNode();
+        entry.put(FIELD_KEY, key);
+        entry.put(FIELD_CREATED, clock.millis());
+        entry.set(FIELD_VALUE, value == null ? NullNode.getInstance() : mapper.valueToTree(value));
+
+        try {
+            Files.createDirectories(path.getParent());
+
+            // Write to a temporary file first, so that concurrent readers never see a partial entry
+            Path tmp = Files.createTempFile(path.getParent(), path.getFileName().toString(), ".tmp");
+            mapper.writeValue(tmp.toFile(), entry);
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | IllegalArgumentException e) {
+            log.warn("Unable to cache the lookup result for '{}'", key, e);
+            return;
+        }
+
+        synchronized (this) {
+            entries.put(path, Boolean.TRUE);
+        }
+
+        evict();
+    }
+
+    private void remove(Path path) {
+        synchronized (this) {
+            entries.remove(path);
+        }
+
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.debug("Unable to remove cached entry '{}'", path, e);
+        }
+    }
+
+    private void evict() {
+        List<Path> evicted;
+
+        synchronized (this) {
+            int excess = entries.size() - maxEntries;
+
+            if (excess <= 0) {
+                return;
+            }
+
+            evicted = new ArrayList<>(excess);
+            Iterator<Map.Entry<Path, Boolean>> it = entries.entrySet().iterator();
+
+            while (excess-- > 0 && it.hasNext()) {
+                evicted.add(it.next().getKey());
+                it.remove();
+            }
+        }
+
+        log.debug("Evicting {} least recently used entries from the lookup cache", evicted.size());
+
+        for (Path path : evicted) {
+            try {
+                Files.deleteIfExists(path);
+            } catch (IOException e) {
+                log.debug("Unable to remove cached entry '{}'", path, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,212 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.cli.feature.sbom.service;
+
+import static org.jboss.sbomer.core.features.sbom.Constants.SBOM_RED_HAT_ENVIRONMENT_IMAGE;
+import static org.jboss.sbomer.core.features.sbom.Constants.SBOM_RED_HAT_PNC_ARTIFACT_ID;
+import static org.jboss.sbomer.core.features.sbom.Constants.SBOM_RED_HAT_PNC_BUILD_ID;
+import static org.jboss.sbomer.core.features.sbom.utils.SbomUtils.getExternalReferences;
+import static org.jboss.sbomer.core.features.sbom.utils.SbomUtils.getHash;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.cyclonedx.model.Bom;
+import org.cyclonedx.model.Commit;
+import org.cyclonedx.model.Component;
+import org.cyclonedx.model.ExternalReference;
+import org.cyclonedx.model.Hash;
+import org.cyclonedx.model.Metadata;
+import org.cyclonedx.model.Pedigree;
+import org.jboss.pnc.dto.Artifact;
+import org.jboss.pnc.dto.Build;
+import org.jboss.pnc.dto.BuildConfigurationRevisionRef;
+import org.jboss.pnc.dto.Environment;
+import org.jboss.pnc.dto.SCMRepository;
+import org.jboss.sbomer.core.features.sbom.utils.SbomUtils;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * <p>
+ * Populates the {@link LookupCache} with the PNC artifacts of the components of a manifest, typically the manifest
+ * produced by a previous run for the same content, so that the following processing finds most of them in the cache.
+ * </p>
+ *
+ * <p>
+ * Nothing is looked up in PNC, the artifacts and their builds are rebuilt from the purls, hashes, external references
+ * and pedigree added to the components when the previous manifest was enriched. Only components built in PNC, whose
+ * enrichment can be reproduced exactly, are cached; other components are looked up as usual.
+ * </p>
+ */
+@Slf4j
+@ApplicationScoped
+public class LookupCachePrewarmer {
+
+    @Inject
+    @Setter
+    LookupCache lookupCache;
+
+    public void prewarm(Path manifestPath) {
+        if (!lookupCache.isEnabled()) {
+            log.warn("Lookup cache is disabled, ignoring request to prewarm it from '{}'", manifestPath);
+            return;
+        }
+
+        Bom bom = SbomUtils.fromPath(manifestPath);
+
+        if (bom == null) {
+            log.warn("Unable to read manifest '{}', lookup cache will not be prewarmed", manifestPath);
+            return;
+        }
+
+        List<Component> components = Stream.concat(
+                Stream.ofNullable(bom.getMetadata()).map(Metadata::getComponent),
+                Stream.ofNullable(bom.getComponents()).flatMap(List::stream))
+                .filter(c -> c != null && c.getPurl() != null && c.getType() != Component.Type.CONTAINER)
+                .filter(c -> !c.getPurl().startsWith("pkg:rpm/"))
+                .toList();
+
+        int cached = 0;
+
+        for (Component component : components) {
+            Artifact artifact = toArtifact(component);
+
+            if (artifact == null) {
+                continue;
+            }
+
+            // Keys of the lookups done by the processing: by purl, with and without hash, and by hashes only
+            Stream.of(
+                    CachingPncService.artifactKey(artifact.getPurl(), artifact.getSha256(), null, null),
+                    CachingPncService.artifactKey(artifact.getPurl(), null, null, null),
+                    CachingPncService.artifactKey(null, artifact.getSha256(), artifact.getSha1(), artifact.getMd5()))
+                    .distinct()
+                    .filter(key -> !lookupCache.contains(CachingPncService.ARTIFACTS, key))
+                    .forEach(key -> lookupCache.put(CachingPncService.ARTIFACTS, key, artifact));
+
+            cached++;
+        }
+
+        log.info(
+                "Prewarmed lookup cache with {} of {} artifacts from '{}'",
+                cached,
+                components.size(),
+                manifestPath);
+    }
+
+    /**
+     * Rebuilds the PNC artifact of a component enriched with its PNC build.
+     *
+     * @param component the component
+     * @return the artifact, or {@code null} if the component was not enriched with a PNC build or its enrichment cannot
+     *         be reproduced from the artifact rebuilt
+     */
+    static Artifact toArtifact(Component component) {
+        Optional<String> artifactId = lastSegment(
+                getExternalReferences(component, ExternalReference.Type.BUILD_SYSTEM, SBOM_RED_HAT_PNC_ARTIFACT_ID));
+        Optional<String> buildId = lastSegment(
+                getExternalReferences(component, ExternalReference.Type.BUILD_SYSTEM, SBOM_RED_HAT_PNC_BUILD_ID));
+        Optional<String> environmentImage = url(
+                getExternalReferences(component, ExternalReference.Type.BUILD_META, SBOM_RED_HAT_ENVIRONMENT_IMAGE));
+        Optional<String> sha256 = getHash(component, Hash.Algorithm.SHA_256);
+
+        List<Commit> commits = Optional.ofNullable(component.getPedigree())
+                .map(Pedigree::getCommits)
+                .orElse(List.of());
+
+        if (artifactId.isEmpty() || buildId.isEmpty() || environmentImage.isEmpty() || sha256.isEmpty()
+                || commits.isEmpty() || commits.size() > 2 || environmentImage.get().lastIndexOf('/') < 0) {
+            return null;
+        }
+
+        // Pedigree commits are added as "<scm url>#<tag>" and, in case the build configuration revision is not
+        // internal, as "<external scm url>#<build configuration revision>"
+        String[] buildCommit = splitUrl(commits.get(0));
+        String[] revisionCommit = commits.size() > 1 ? splitUrl(commits.get(1)) : null;
+
+        if (buildCommit == null || (commits.size() > 1 && revisionCommit == null)) {
+            return null;
+        }
+
+        String externalUrl = revisionCommit != null ? revisionCommit[0]
+                : url(getExternalReferences(component, ExternalReference.Type.VCS)).orElse(null);
+
+        int imageSeparator = environmentImage.get().lastIndexOf('/');
+
+        Build build = Build.builder()
+                .id(buildId.get())
+                .environment(
+                        Environment.builder()
+                                .systemImageRepositoryUrl(environmentImage.get().substring(0, imageSeparator))
+                                .systemImageId(environmentImage.get().substring(imageSeparator + 1))
+                                .build())
+                .scmRepository(SCMRepository.builder().externalUrl(externalUrl).build())
+                .scmUrl(buildCommit[0])
+                .scmTag(buildCommit[1])
+                .scmRevision(commits.get(0).getUid())
+                .scmBuildConfigRevision(revisionCommit != null ? commits.get(1).getUid() : null)
+                .scmBuildConfigRevisionInternal(revisionCommit == null)
+                .buildConfigRevision(
+                        BuildConfigurationRevisionRef.refBuilder()
+                                .scmRevision(revisionCommit != null ? revisionCommit[1] : null)
+                                .build())
+                .build();
+
+        return Artifact.builder()
+                .id(artifactId.get())
+                .purl(component.getPurl())
+                .sha256(sha256.get())
+                .sha1(getHash(component, Hash.Algorithm.SHA1).orElse(null))
+                .md5(getHash(component, Hash.Algorithm.MD5).orElse(null))
+                .build(build)
+                .build();
+    }
+
+    /**
+     * Returns the URL of the only reference, there is none if the references are ambiguous.
+     */
+    private static Optional<String> url(List<ExternalReference> references) {
+        if (references.size() != 1) {
+            return Optional.empty();
+        }
+
+        return Optional.ofNullable(references.get(0).getUrl());
+    }
+
+    private static Optional<String> lastSegment(List<ExternalReference> references) {
+        return url(references).filter(url -> url.lastIndexOf('/') >= 0)
+                .map(url -> url.substring(url.lastIndexOf('/') + 1))
+                .filter(segment -> !segment.isEmpty());
+    }
+
+    private static String[] splitUrl(Commit commit) {
+        String url = commit.getUrl();
+
+        if (url == null || commit.getUid() == null || url.indexOf('#') < 0) {
+            return null;
+        }
+
+        return new String[] { url.substring(0, url.indexOf('#')), url.substring(url.indexOf('#') + 1) };
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.cli.feature.sbom.service;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Optional;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.Produces;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+@Getter
+@ApplicationScoped
+@Slf4j
+public class LookupCacheProducer {
+
+    @ConfigProperty(name = "sbomer.cache.enabled", defaultValue = "false")
+    boolean enabled;
+
+    // Not relative to the working directory, so that runs from different directories share the cache
+    @ConfigProperty(name = "sbomer.cache.path")
+    Optional<Path> path;
+
+    @ConfigProperty(name = "sbomer.cache.max-entries", defaultValue = "100000")
+    int maxEntries;
+
+    @ConfigProperty(name = "sbomer.cache.ttl", defaultValue = "P7D")
+    Duration ttl;
+
+    @ConfigProperty(name = "sbomer.cache.negative-ttl", defaultValue = "PT1H")
+    Duration negativeTtl;
+
+    @Produces
+    @ApplicationScoped
+    public LookupCache produceLookupCache() {
+        if (!enabled) {
+            log.debug("Lookup cache is disabled");
+            return LookupCache.disabled();
+        }
+
+        Path directory = path.orElseGet(LookupCacheProducer::defaultPath);
+
+        log.debug("Creating new lookup cache in '{}'...", directory.toAbsolutePath());
+        return new LookupCache(directory, maxEntries, ttl, negativeTtl);
+    }
+
+    /**
+     * @return the {@code sbomer/lookups} directory within the cache directory of the user, {@code $XDG_CACHE_HOME} or
+     *         {@code ~/.cache}
+     */
+    static Path defaultPath() {
+        String cacheHome = System.getenv("XDG_CACHE_HOME");
+        Path cacheDirectory = cacheHome == null || cacheHome.isBlank()
+                ? Path.of(System.getProperty("user.home"), ".cache")
+                : Path.of(cacheHome);
+
+        return cacheDirectory.resolve("sbomer").resolve("lookups");
+    }
+}
@@ -23,6 +23,7 @@ import org.jboss.sbomer.core.pnc.PncService;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.enterprise.inject.Disposes;
 import jakarta.enterprise.inject.Produces;
+import jakarta.inject.Inject;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
@@ -34,9 +35,17 @@ public class PncServiceProducer {
     @ConfigProperty(name = "sbomer.pnc.host")
     String apiUrl;
 
+    @Inject
+    LookupCache lookupCache;
+
     @Produces
     @ApplicationScoped
     public PncService producePncService() {
+        if (lookupCache.isEnabled()) {
+            log.debug("Creating new PNC service bean with lookup cache...");
+            return new CachingPncService(apiUrl, lookupCache);
+        }
+
         log.debug("Creating new PNC service bean...");
         return new PncService(apiUrl);
     }
@@ -0,0 +1,188 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.cli.test.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.cyclonedx.model.Bom;
+import org.cyclonedx.model.Component;
+import org.cyclonedx.model.ExternalReference;
+import org.cyclonedx.model.Metadata;
+import org.cyclonedx.model.Property;
+import org.jboss.sbomer.cli.feature.sbom.adjuster.SyftImageAdjuster;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link SyftImageAdjuster#adjust(Bom)} on manifests shaped like the Syft output for large container images:
+ * a mix of RPMs with the full set of qualifiers, Java archives, Go modules and npm packages, each with the usual Syft
+ * properties. Run it on two revisions to compare these.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = { "-Xmx4g" })
+@State(Scope.Benchmark)
+public class SyftImageAdjusterBenchmark {
+
+    @Param({ "5000", "20000" })
+    int components;
+
+    @Param({ "true", "false" })
+    boolean includeRpms;
+
+    Path workDir;
+
+    Bom bom;
+
+    @Setup(Level.Trial)
+    public void setupWorkDir() throws IOException {
+        workDir = Files.createTempDirectory("sbomer-benchmark");
+        Files.writeString(
+                workDir.resolve("skopeo.json"),
+                "{\"Name\":\"registry.example.com/org/image\",\"Digest\":\"sha256:0123456789abcdef\","
+                        + "\"Labels\":{\"name\":\"org/image\"},\"Architecture\":\"amd64\",\"Os\":\"linux\"}");
+    }
+
+    @TearDown(Level.Trial)
+    public void cleanupWorkDir() throws IOException {
+        Files.deleteIfExists(workDir.resolve("skopeo.json"));
+        Files.deleteIfExists(workDir);
+    }
+
+    @Setup(Level.Iteration)
+    public void setup() {
+        bom = createBom(components);
+    }
+
+    @Benchmark
+    public Bom adjust() {
+        return new SyftImageAdjuster(workDir, null, includeRpms, null, null).adjust(bom);
+    }
+
+    static Property property(String name, String value) {
+        Property property = new Property();
+        property.setName(name);
+        property.setValue(value);
+        return property;
+    }
+
+    static Bom createBom(int size) {
+        Bom bom = new Bom();
+
+        Component main = new Component();
+        main.setType(Component.Type.CONTAINER);
+        main.setName("registry.example.com/org/image");
+        main.setVersion("sha256:0123456789abcdef");
+        main.setBomRef("main-image");
+        main.setProperties(
+                new ArrayList<>(
+                        List.of(
+                                property("syft:image:labels:version", "1.0"),
+                                property("syft:image:labels:release", "1"),
+                                property("syft:image:labels:vendor", "Red Hat, Inc."))));
+
+        Metadata metadata = new Metadata();
+        metadata.setComponent(main);
+        bom.setMetadata(metadata);
+
+        List<Component> componentList = new ArrayList<>(size);
+
+        for (int i = 0; i < size; i++) {
+            componentList.add(createComponent(i));
+        }
+
+        bom.setComponents(componentList);
+        bom.setDependencies(new ArrayList<>());
+
+        return bom;
+    }
+
+    static Component createComponent(int i) {
+        Component component = new Component();
+        component.setType(Component.Type.LIBRARY);
+        component.setName("component-" + i);
+        component.setVersion("1.0." + i);
+        component.setBomRef("syft-" + Integer.toHexString(i));
+        component.setCpe("cpe:2.3:a:example:component-" + i + ":1.0." + i + ":*:*:*:*:*:*:*");
+        component.setPublisher("Red Hat, Inc.");
+
+        String type;
+        String path;
+
+        switch (i % 4) {
+            case 0 -> {
+                type = "rpm";
+                path = "/var/lib/rpm/rpmdb.sqlite";
+                component.setPurl(
+                        "pkg:rpm/redhat/component-" + i + "@1.0." + i
+                                + "-1.el9?arch=x86_64&distro=rhel-9.4&epoch=1&upstream=component-" + i
+                                + "-1.0.src.rpm");
+            }
+            case 1 -> {
+                type = "java-archive";
+                path = "/opt/app/lib/component-" + i + ".jar";
+                component.setPurl("pkg:maven/org.example/component-" + i + "@1.0." + i);
+            }
+            case 2 -> {
+                type = "go-module";
+                path = "/usr/bin/app";
+                component.setPurl("pkg:golang/github.com/example/component-" + i + "@v1.0." + i);
+            }
+            default -> {
+                type = "npm";
+                path = "/opt/app/node_modules/component-" + i + "/package.json";
+                component.setPurl("pkg:npm/component-" + i + "@1.0." + i);
+            }
+        }
+
+        component.setProperties(
+                new ArrayList<>(
+                        List.of(
+                                property("syft:package:foundBy", type + "-cataloger"),
+                                property("syft:package:language", "go"),
+                                property("syft:package:type", type),
+                                property("syft:location:0:layerID", "sha256:fedcba9876543210"),
+                                property("syft:location:0:path", path),
+                                property("syft:metadata:virtualPath", path))));
+
+        ExternalReference reference = new ExternalReference();
+        reference.setType(ExternalReference.Type.WEBSITE);
+        reference.setUrl("https://example.com/component-" + i);
+        component.setExternalReferences(new ArrayList<>(List.of(reference)));
+
+        return component;
+    }
+}
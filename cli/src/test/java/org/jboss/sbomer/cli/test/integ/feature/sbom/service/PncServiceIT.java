@@ -25,6 +25,7 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 
@@ -45,6 +46,7 @@ import org.jboss.pnc.dto.ProductVersionRef;
 import org.jboss.pnc.dto.response.AnalyzedArtifact;
 import org.jboss.sbomer.cli.test.utils.PncWireMock;
 import org.jboss.sbomer.core.features.sbom.utils.SbomUtils;
+import org.jboss.sbomer.core.pnc.ArtifactQuery;
 import org.jboss.sbomer.core.pnc.PncService;
 import org.junit.jupiter.api.Test;
 
@@ -78,6 +80,39 @@ class PncServiceIT {
         assertNull(service.getArtifact("purlnonexisting", Optional.empty(), Optional.empty(), Optional.empty()));
     }
 
+    @Test
+    void testFetchArtifactsInBatch() {
+        ArtifactQuery existing = new ArtifactQuery(
+                "pkg:maven/org.jboss.logging/commons-logging-jboss-logging@1.0.0.Final-redhat-1?type=jar",
+                null,
+                null,
+                null);
+        ArtifactQuery nonExisting = new ArtifactQuery("purlnonexisting", null, null, null);
+
+        Map<ArtifactQuery, Artifact> artifacts = service.getArtifacts(List.of(existing, nonExisting));
+
+        assertEquals(2, artifacts.size());
+        assertEquals("312123", artifacts.get(existing).getId());
+        assertTrue(artifacts.containsKey(nonExisting));
+        assertNull(artifacts.get(nonExisting));
+    }
+
+    @Test
+    void testFetchOverlappingArtifactsInBatch() {
+        // Artifact 1000 is returned by both the purl and the checksum query, the older artifact 999 only by the
+        // checksum query
+        ArtifactQuery query = new ArtifactQuery(
+                "pkg:maven/org.jboss.sbomer/overlapping@1.0.0.redhat-00001?type=jar",
+                "5b0a1e0c52e2a1a5b5fd0b2ed2f5b44dd2e43b5e30f7b5bbc5bcd0e0a4e5a2b1",
+                null,
+                null);
+
+        Map<ArtifactQuery, Artifact> artifacts = service.getArtifacts(List.of(query));
+
+        assertEquals(1, artifacts.size());
+        assertEquals("1000", artifacts.get(query).getId());
+    }
+
     @Test
     void testGetProductVersionMissingBuild() {
         assertEquals(Collections.emptyList(), service.getProductVersions("NOTEXISTING"));
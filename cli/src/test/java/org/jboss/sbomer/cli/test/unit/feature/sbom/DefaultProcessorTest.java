@@ -4,12 +4,21 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.io.IOException;
 import java.net.URL;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
 
 import org.cyclonedx.model.Bom;
 import org.cyclonedx.model.Commit;
@@ -18,16 +27,19 @@ import org.cyclonedx.model.Dependency;
 import org.cyclonedx.model.ExternalReference;
 import org.cyclonedx.model.ExternalReference.Type;
 import org.cyclonedx.model.Hash;
+import org.cyclonedx.model.Metadata;
 import org.jboss.pnc.build.finder.core.BuildConfig;
 import org.jboss.pnc.dto.Artifact;
 import org.jboss.pnc.dto.Build;
 import org.jboss.pnc.dto.BuildConfigurationRevisionRef;
 import org.jboss.pnc.enums.BuildType;
 import org.jboss.sbomer.cli.feature.sbom.processor.DefaultProcessor;
+import org.jboss.sbomer.cli.feature.sbom.processor.EnrichmentConcurrency;
 import org.jboss.sbomer.cli.feature.sbom.service.KojiService;
 import org.jboss.sbomer.core.features.sbom.Constants;
 import org.jboss.sbomer.core.features.sbom.utils.ObjectMapperProvider;
 import org.jboss.sbomer.core.features.sbom.utils.SbomUtils;
+import org.jboss.sbomer.core.pnc.ArtifactQuery;
 import org.jboss.sbomer.core.pnc.PncService;
 import org.jboss.sbomer.core.test.TestResources;
 import org.junit.jupiter.api.Test;
@@ -142,6 +154,159 @@ class DefaultProcessorTest {
         assertEquals("https://git.com/repo#hash", commit.getUrl());
     }
 
+    @Test
+    void testConcurrentEnrichmentProducesSameManifest() throws IOException, KojiClientException {
+        PncService pncServiceMock = Mockito.mock(PncService.class);
+        KojiService kojiServiceMock = Mockito.mock(KojiService.class);
+
+        KojiBuildInfo kojiBuildInfo = new KojiBuildInfo();
+        kojiBuildInfo.setId(12345);
+        kojiBuildInfo.setSource("https://git.com/repo#hash");
+
+        BuildConfig buildConfig = new BuildConfig();
+        buildConfig.setKojiWebURL(new URL("https://koji.web"));
+
+        when(kojiServiceMock.getConfig()).thenReturn(buildConfig);
+        when(kojiServiceMock.findBuild("amqstreams-console-ui-container-2.7.0-8.1718294415")).thenReturn(kojiBuildInfo);
+        when(kojiServiceMock.findBuildByRPM(anyString())).thenReturn(kojiBuildInfo);
+
+        // Components with a sha1 are found by their hash only and relocated, after a random delay so that these
+        // finish in a different order on every run
+        when(pncServiceMock.getArtifact(isNull(), any(), any(), any())).thenAnswer(invocation -> {
+            Optional<String> sha1 = invocation.getArgument(2);
+
+            if (sha1.isEmpty()) {
+                return null;
+            }
+
+            Thread.sleep(ThreadLocalRandom.current().nextInt(5));
+
+            return Artifact.builder()
+                    .id(sha1.get())
+                    .purl("pkg:maven/org.example/relocated-" + sha1.get() + "@1.0.0?type=jar")
+                    .sha1(sha1.get())
+                    .build();
+        });
+
+        Bom sequential = new DefaultProcessor(pncServiceMock, kojiServiceMock).process(bomWithRelocations());
+
+        for (int i = 0; i < 5; i++) {
+            Bom concurrent = new DefaultProcessor(pncServiceMock, kojiServiceMock, new EnrichmentConcurrency(8, 4, 2))
+                    .process(bomWithRelocations());
+
+            assertEquals(SbomUtils.toJsonNode(sequential), SbomUtils.toJsonNode(concurrent));
+        }
+
+        // The relocation of the last of the components sharing a purl wins
+        assertTrue(
+                sequential.getComponents()
+                        .stream()
+                        .filter(c -> "shared".equals(c.getName()))
+                        .allMatch(c -> "pkg:maven/org.example/relocated-shared-9@1.0.0?type=jar".equals(c.getPurl())));
+    }
+
+    /**
+     * Returns the test manifest with components sharing a purl added, all of these relocated to different purls.
+     */
+    private static Bom bomWithRelocations() throws IOException {
+        Bom bom = SbomUtils.fromString(TestResources.asString("boms/image-after-adjustments.json"));
+
+        for (int i = 0; i < 10; i++) {
+            Component component = SbomUtils.createComponent(
+                    "org.example",
+                    "shared",
+                    "1.0.0",
+                    null,
+                    "pkg:maven/org.example/shared@1.0.0?type=jar",
+                    Component.Type.LIBRARY);
+            component.addHash(new Hash(Hash.Algorithm.SHA1, "shared-" + i));
+            bom.addComponent(component);
+        }
+
+        return bom;
+    }
+
+    @Test
+    void testUsesBatchArtifactLookup() {
+        PncService pncServiceMock = Mockito.mock(PncService.class);
+        KojiService kojiServiceMock = Mockito.mock(KojiService.class);
+
+        Bom bom = new Bom();
+        bom.setMetadata(new Metadata());
+        Component first = SbomUtils.createComponent(
+                "org.example",
+                "first",
+                "1.0.0.redhat-00001",
+                null,
+                "pkg:maven/org.example/first@1.0.0.redhat-00001?type=jar",
+                Component.Type.LIBRARY);
+        Component second = SbomUtils.createComponent(
+                "org.example",
+                "second",
+                "1.0.0",
+                null,
+                "pkg:maven/org.example/second@1.0.0?type=jar",
+                Component.Type.LIBRARY);
+        bom.addComponent(first);
+        bom.addComponent(second);
+
+        Artifact artifact = Artifact.builder().id("1234").purl(first.getPurl()).sha256("aaaa").build();
+
+        Map<ArtifactQuery, Artifact> artifacts = new HashMap<>();
+        artifacts.put(ArtifactQuery.of(first.getPurl(), Optional.empty()), artifact);
+        artifacts.put(ArtifactQuery.of(second.getPurl(), Optional.empty()), null);
+
+        when(pncServiceMock.getArtifacts(any())).thenReturn(artifacts);
+
+        new DefaultProcessor(pncServiceMock, kojiServiceMock).process(bom);
+
+        verify(pncServiceMock, times(1)).getArtifacts(any());
+        verify(pncServiceMock, never()).getArtifact(any(), any(), any(), any());
+        assertEquals("aaaa", SbomUtils.getHash(first, Hash.Algorithm.SHA_256).orElseThrow());
+        assertTrue(SbomUtils.getHash(second, Hash.Algorithm.SHA_256).isEmpty());
+    }
+
+    private static Bom bomWithComponent(String purl) {
+        Bom bom = new Bom();
+        bom.setMetadata(new Metadata());
+        Component component = SbomUtils
+                .createComponent("org.example", "old", "1.0.0", null, purl, Component.Type.LIBRARY);
+        bom.addComponent(component);
+        bom.addDependency(SbomUtils.createDependency(component.getBomRef()));
+        return bom;
+    }
+
+    @Test
+    void testDoesNotShareStateBetweenRuns() {
+        PncService pncServiceMock = Mockito.mock(PncService.class);
+        KojiService kojiServiceMock = Mockito.mock(KojiService.class);
+
+        String oldPurl = "pkg:maven/org.example/old@1.0.0?type=jar";
+        Artifact artifact = Artifact.builder()
+                .id("1234")
+                .purl("pkg:maven/org.example/new@1.0.0?type=jar")
+                .sha1("bbbb")
+                .build();
+
+        when(pncServiceMock.getArtifact(null, Optional.empty(), Optional.of("bbbb"), Optional.empty()))
+                .thenReturn(artifact);
+
+        DefaultProcessor defaultProcessor = new DefaultProcessor(pncServiceMock, kojiServiceMock);
+
+        // Found by its hash only, the purl is updated
+        Bom relocated = bomWithComponent(oldPurl);
+        relocated.getComponents().get(0).addHash(new Hash(Hash.Algorithm.SHA1, "bbbb"));
+        defaultProcessor.process(relocated);
+
+        assertEquals(artifact.getPurl(), relocated.getComponents().get(0).getPurl());
+
+        // Not found, the relocation found by the previous run does not apply
+        Bom notFound = bomWithComponent(oldPurl);
+        defaultProcessor.process(notFound);
+
+        assertEquals(oldPurl, notFound.getComponents().get(0).getPurl());
+    }
+
     @Test
     void testUpdateComponentAndDependency() throws IOException {
         PncService pncServiceMock = Mockito.mock(PncService.class);
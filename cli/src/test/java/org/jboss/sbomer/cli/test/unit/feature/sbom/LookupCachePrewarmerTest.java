@@ -0,0 +1,132 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.cli.test.unit.feature.sbom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import org.cyclonedx.model.Bom;
+import org.cyclonedx.model.Component;
+import org.cyclonedx.model.Hash;
+import org.jboss.pnc.dto.Artifact;
+import org.jboss.pnc.dto.Build;
+import org.jboss.pnc.dto.BuildConfigurationRevisionRef;
+import org.jboss.pnc.dto.Environment;
+import org.jboss.pnc.dto.SCMRepository;
+import org.jboss.sbomer.cli.feature.sbom.service.CachingPncService;
+import org.jboss.sbomer.cli.feature.sbom.service.LookupCache;
+import org.jboss.sbomer.cli.feature.sbom.service.LookupCachePrewarmer;
+import org.jboss.sbomer.core.features.sbom.utils.ObjectMapperProvider;
+import org.jboss.sbomer.core.features.sbom.utils.SbomUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class LookupCachePrewarmerTest {
+
+    private static final String PNC_API_URL = "pnc.example.com";
+
+    private static Artifact artifact(String purl, String sha256) {
+        return Artifact.builder()
+                .id("1234")
+                .purl(purl)
+                .sha256(sha256)
+                .sha1("sha1-" + sha256)
+                .md5("md5-" + sha256)
+                .build(
+                        Build.builder()
+                                .id("ABCD")
+                                .environment(
+                                        Environment.builder()
+                                                .systemImageRepositoryUrl("quay.io/rh-newcastle")
+                                                .systemImageId("builder-rhel-8-j17:1.0.0")
+                                                .build())
+                                .scmRepository(
+                                        SCMRepository.builder()
+                                                .externalUrl("https://github.com/example/project.git")
+                                                .build())
+                                .scmUrl("https://code.example.com/example/project.git")
+                                .scmTag("1.0.0.redhat-00001")
+                                .scmRevision("aaaa")
+                                .scmBuildConfigRevision("bbbb")
+                                .scmBuildConfigRevisionInternal(false)
+                                .buildConfigRevision(
+                                        BuildConfigurationRevisionRef.refBuilder().scmRevision("1.0.0").build())
+                                .build())
+                .build();
+    }
+
+    private static Component component(String name, String purl) {
+        Component component = new Component();
+        component.setType(Component.Type.LIBRARY);
+        component.setName(name);
+        component.setPurl(purl);
+        component.setBomRef(purl);
+        return component;
+    }
+
+    // Same as the processing does
+    private static Component enrich(Artifact artifact) {
+        Component component = component("project", artifact.getPurl());
+        component.setHashes(
+                List.of(
+                        new Hash(Hash.Algorithm.MD5, artifact.getMd5()),
+                        new Hash(Hash.Algorithm.SHA1, artifact.getSha1()),
+                        new Hash(Hash.Algorithm.SHA_256, artifact.getSha256())));
+        SbomUtils.setArtifactMetadata(component, artifact, PNC_API_URL);
+        SbomUtils.setPncBuildMetadata(component, artifact.getBuild(), PNC_API_URL);
+        return component;
+    }
+
+    @Test
+    void shouldCacheArtifactsOfPreviousManifest(@TempDir Path dir) {
+        Artifact artifact = artifact("pkg:maven/org.example/project@1.0.0.redhat-00001?type=jar", "cafe");
+        Component enriched = enrich(artifact);
+
+        // Not built in PNC, nothing to cache
+        Component other = component("other", "pkg:maven/org.example/other@1.0.0?type=jar");
+
+        Bom bom = SbomUtils.createBom();
+        bom.setComponents(List.of(enriched, other));
+
+        Path manifest = dir.resolve("bom.json");
+        SbomUtils.toPath(bom, manifest);
+
+        LookupCache cache = new LookupCache(dir.resolve("cache"), 100, Duration.ofDays(7), Duration.ofHours(1));
+        LookupCachePrewarmer prewarmer = new LookupCachePrewarmer();
+        prewarmer.setLookupCache(cache);
+        prewarmer.prewarm(manifest);
+
+        // By purl and hash, by purl only and by hashes only
+        assertEquals(3, cache.size());
+
+        Artifact cached = new CachingPncService(PNC_API_URL, cache)
+                .getArtifact(artifact.getPurl(), Optional.of("cafe"), Optional.empty(), Optional.empty());
+
+        assertNotNull(cached);
+
+        // Enriching the component again with the cached artifact gives the same result
+        assertEquals(
+                ObjectMapperProvider.json().valueToTree(enriched),
+                ObjectMapperProvider.json().valueToTree(enrich(cached)));
+    }
+}
@@ -0,0 +1,174 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.cli.test.unit.feature.sbom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.jboss.pnc.build.finder.koji.KojiBuild;
+import org.jboss.sbomer.cli.feature.sbom.service.LookupCache;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.redhat.red.build.koji.model.xmlrpc.KojiBuildInfo;
+
+class LookupCacheTest {
+
+    static class TestClock extends Clock {
+        final AtomicLong millis = new AtomicLong(1_000_000L);
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(millis.get());
+        }
+
+        void advance(Duration duration) {
+            millis.addAndGet(duration.toMillis());
+        }
+    }
+
+    @Test
+    void shouldCacheValuesAcrossInstances(@TempDir Path dir) {
+        AtomicInteger lookups = new AtomicInteger();
+
+        LookupCache cache = new LookupCache(dir, 10, Duration.ofDays(1), Duration.ofHours(1));
+        assertEquals("value", cache.get("test", "key", String.class, () -> {
+            lookups.incrementAndGet();
+            return "value";
+        }));
+        assertEquals("value", cache.get("test", "key", String.class, () -> "other" + lookups.getAndIncrement()));
+
+        LookupCache reopened = new LookupCache(dir, 10, Duration.ofDays(1), Duration.ofHours(1));
+        assertEquals(1, reopened.size());
+        assertEquals(
+                List.of("a", "b"),
+                reopened.get("test", "list", new TypeReference<List<String>>() {
+                }, () -> List.of("a", "b")));
+        assertEquals("value", reopened.get("test", "key", String.class, () -> "other" + lookups.getAndIncrement()));
+
+        assertEquals(1, lookups.get());
+    }
+
+    @Test
+    void shouldExpireNegativeResultsSooner(@TempDir Path dir) {
+        TestClock clock = new TestClock();
+        LookupCache cache = new LookupCache(dir, 10, Duration.ofDays(1), Duration.ofHours(1), clock);
+
+        assertNull(cache.get("test", "missing", String.class, () -> null));
+        cache.put("test", "found", "value");
+
+        clock.advance(Duration.ofMinutes(30));
+        assertTrue(cache.contains("test", "missing"));
+
+        clock.advance(Duration.ofMinutes(31));
+        assertFalse(cache.contains("test", "missing"));
+        assertTrue(cache.contains("test", "found"));
+        assertEquals("now found", cache.get("test", "missing", String.class, () -> "now found"));
+
+        clock.advance(Duration.ofDays(1));
+        assertFalse(cache.contains("test", "found"));
+    }
+
+    @Test
+    void shouldEvictLeastRecentlyUsedEntries(@TempDir Path dir) {
+        LookupCache cache = new LookupCache(dir, 2, Duration.ofDays(1), Duration.ofHours(1));
+
+        cache.put("test", "a", "a");
+        cache.put("test", "b", "b");
+
+        // Access "a", so that "b" becomes the least recently used entry
+        assertTrue(cache.contains("test", "a"));
+
+        cache.put("test", "c", "c");
+
+        assertEquals(2, cache.size());
+        assertTrue(cache.contains("test", "a"));
+        assertFalse(cache.contains("test", "b"));
+        assertTrue(cache.contains("test", "c"));
+    }
+
+    @Test
+    void shouldCacheKojiBuilds(@TempDir Path dir) {
+        KojiBuildInfo buildInfo = new KojiBuildInfo(12345, 678, "name", "1.0.0", "1.el9");
+        buildInfo.setSource("https://git.com/repo#hash");
+        buildInfo.setCreationTime(new Date(1_700_000_000_000L));
+
+        LookupCache cache = new LookupCache(dir, 10, Duration.ofDays(1), Duration.ofHours(1));
+        cache.put("builds", "12345", buildInfo);
+        cache.put("archive-builds", "sha256", new KojiBuild(buildInfo));
+
+        // Both are stored, a value which cannot be serialized is not
+        LookupCache reopened = new LookupCache(dir, 10, Duration.ofDays(1), Duration.ofHours(1));
+        assertEquals(2, reopened.size());
+
+        KojiBuildInfo cachedInfo = reopened.get("builds", "12345", KojiBuildInfo.class, () -> {
+            throw new IllegalStateException("Not cached");
+        });
+
+        assertEquals(12345, cachedInfo.getId());
+        assertEquals("name", cachedInfo.getName());
+        assertEquals("1.0.0", cachedInfo.getVersion());
+        assertEquals("1.el9", cachedInfo.getRelease());
+        assertEquals("https://git.com/repo#hash", cachedInfo.getSource());
+        assertEquals(buildInfo.getCreationTime(), cachedInfo.getCreationTime());
+
+        KojiBuild cachedBuild = reopened.get("archive-builds", "sha256", KojiBuild.class, () -> {
+            throw new IllegalStateException("Not cached");
+        });
+
+        assertEquals("12345", cachedBuild.getId());
+        assertEquals(Optional.of("https://git.com/repo#hash"), cachedBuild.getSource());
+    }
+
+    @Test
+    void shouldAlwaysPerformLookupWhenDisabled() {
+        LookupCache cache = LookupCache.disabled();
+        AtomicInteger lookups = new AtomicInteger();
+
+        cache.get("test", "key", Integer.class, lookups::incrementAndGet);
+        cache.get("test", "key", Integer.class, lookups::incrementAndGet);
+
+        assertFalse(cache.isEnabled());
+        assertEquals(2, lookups.get());
+    }
+}
@@ -0,0 +1,42 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.core.errors;
+
+import lombok.Getter;
+
+/**
+ * Thrown when the requested byte range of a resource cannot be satisfied, for example when it starts past its end.
+ */
+public class RangeNotSatisfiableException extends ClientException {
+
+    /**
+     * The size of the resource in bytes, reported to the client in the {@code Content-Range} header.
+     */
+    @Getter
+    private final long length;
+
+    @Override
+    public int getCode() {
+        return 416;
+    }
+
+    public RangeNotSatisfiableException(long length, String message, Object... params) {
+        super(message, params);
+        this.length = length;
+    }
+}
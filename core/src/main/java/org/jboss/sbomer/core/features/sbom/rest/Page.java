@@ -49,7 +49,7 @@ public class Page<T> {
     private int totalPages;
 
     /**
-     * Number of all hits (not only this page).
+     * Number of all hits (not only this page), or -1 if unknown. Can be an estimate if requested so.
      */
     private long totalHits;
 
@@ -58,7 +58,17 @@ public class Page<T> {
      */
     private Collection<T> content;
 
+    /**
+     * Opaque token to pass as the {@code cursor} to fetch the next page, or {@code null} if there are no more pages or
+     * the query does not support cursors.
+     */
+    private String nextCursor;
+
     public Page() {
         content = Collections.emptyList();
     }
+
+    public Page(int pageIndex, int pageSize, int totalPages, long totalHits, Collection<T> content) {
+        this(pageIndex, pageSize, totalPages, totalHits, content, null);
+    }
 }
@@ -0,0 +1,313 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.core.features.sbom.utils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import org.cyclonedx.model.Bom;
+import org.cyclonedx.model.Component;
+import org.cyclonedx.model.Dependency;
+
+/**
+ * <p>
+ * An indexed view over a {@link Bom}, keeping lookups by bom-ref for components, dependency nodes (at any depth of
+ * the {@code dependsOn} and {@code provides} hierarchy) and the reverse edges (dependents) of every node.
+ * </p>
+ *
+ * <p>
+ * The index is built in a single traversal of the manifest and all updates done through it modify the underlying
+ * {@link Bom} in place, keeping the index consistent. Modifying the {@link Bom} directly after the index was created
+ * is not reflected in the index.
+ * </p>
+ *
+ * <p>
+ * Only the metadata component and the top-level components are indexed, the same set of components that
+ * {@link SbomUtils#updatePurl(Bom, String, String)} operates on.
+ * </p>
+ */
+public class BomIndex {
+
+    /**
+     * Position of a dependency node within the list holding it. The ref of a {@link Dependency} cannot be changed, so
+     * renaming a node means replacing it in its slot, keeping its children as they are.
+     */
+    private record Slot(List<Dependency> list, int position) {
+        Dependency get() {
+            return list.get(position);
+        }
+
+        void replace(String newRef) {
+            Dependency old = list.get(position);
+            Dependency replacement = new Dependency(newRef);
+            replacement.setDependencies(old.getDependencies());
+            replacement.setProvides(old.getProvides());
+            list.set(position, replacement);
+        }
+    }
+
+    private final Bom bom;
+
+    private final Map<String, List<Component>> componentsByRef = new HashMap<>();
+
+    private final Map<String, List<Slot>> dependencyNodesByRef = new HashMap<>();
+
+    private final Map<String, Set<String>> dependentsByRef = new HashMap<>();
+
+    private final Map<String, Slot> topLevelDependencies = new HashMap<>();
+
+    private BomIndex(Bom bom) {
+        this.bom = bom;
+    }
+
+    /**
+     * Creates the index for the provided {@link Bom}.
+     *
+     * @param bom the BOM to index
+     * @return the {@link BomIndex}
+     */
+    public static BomIndex of(Bom bom) {
+        BomIndex index = new BomIndex(bom);
+
+        if (bom.getMetadata() != null && bom.getMetadata().getComponent() != null) {
+            index.indexComponent(bom.getMetadata().getComponent());
+        }
+
+        if (bom.getComponents() != null) {
+            bom.getComponents().forEach(index::indexComponent);
+        }
+
+        if (bom.getDependencies() != null) {
+            // Dependencies of the BOM are always held in a mutable list
+            List<Dependency> dependencies = bom.getDependencies();
+
+            for (int i = 0; i < dependencies.size(); i++) {
+                Slot slot = new Slot(dependencies, i);
+                index.topLevelDependencies.putIfAbsent(slot.get().getRef(), slot);
+                index.indexDependency(slot);
+            }
+        }
+
+        return index;
+    }
+
+    private static List<Dependency> mutable(List<Dependency> dependencies) {
+        return dependencies instanceof ArrayList ? dependencies : new ArrayList<>(dependencies);
+    }
+
+    private void indexComponent(Component component) {
+        if (component.getBomRef() != null) {
+            componentsByRef.computeIfAbsent(component.getBomRef(), k -> new ArrayList<>(1)).add(component);
+        }
+    }
+
+    private void indexDependency(Slot slot) {
+        Dependency dependency = slot.get();
+        dependencyNodesByRef.computeIfAbsent(dependency.getRef(), k -> new ArrayList<>(1)).add(slot);
+
+        if (dependency.getDependencies() != null) {
+            dependency.setDependencies(mutable(dependency.getDependencies()));
+            indexChildren(dependency.getRef(), dependency.getDependencies());
+        }
+
+        if (dependency.getProvides() != null) {
+            dependency.setProvides(mutable(dependency.getProvides()));
+            indexChildren(dependency.getRef(), dependency.getProvides());
+        }
+    }
+
+    private void indexChildren(String parentRef, List<Dependency> children) {
+        for (int i = 0; i < children.size(); i++) {
+            Slot slot = new Slot(children, i);
+            dependentsByRef.computeIfAbsent(slot.get().getRef(), k -> new HashSet<>()).add(parentRef);
+            indexDependency(slot);
+        }
+    }
+
+    public Bom getBom() {
+        return bom;
+    }
+
+    /**
+     * Returns the first component with the given bom-ref.
+     *
+     * @param ref the bom-ref
+     * @return the component, if found
+     */
+    public Optional<Component> getComponent(String ref) {
+        List<Component> components = componentsByRef.get(ref);
+
+        if (components == null || components.isEmpty()) {
+            return Optional.empty();
+        }
+
+        return Optional.of(components.get(0));
+    }
+
+    /**
+     * Returns all dependency nodes with the given ref, at any depth of the dependency hierarchy.
+     *
+     * @param ref the bom-ref
+     * @return the list of dependency nodes
+     */
+    public List<Dependency> getDependencyNodes(String ref) {
+        return dependencyNodesByRef.getOrDefault(ref, List.of()).stream().map(Slot::get).toList();
+    }
+
+    /**
+     * Returns the top-level dependency node with the given ref.
+     *
+     * @param ref the bom-ref
+     * @return the top-level dependency, if found
+     */
+    public Optional<Dependency> getDependency(String ref) {
+        return Optional.ofNullable(topLevelDependencies.get(ref)).map(Slot::get);
+    }
+
+    /**
+     * Returns the refs of all dependency nodes which depend on, or provide, the given ref.
+     *
+     * @param ref the bom-ref
+     * @return the refs of the dependents
+     */
+    public Set<String> getDependents(String ref) {
+        return Collections.unmodifiableSet(dependentsByRef.getOrDefault(ref, Set.of()));
+    }
+
+    /**
+     * <p>
+     * Applies all the provided purl relocations in a single pass over the indexed components. This is equivalent to
+     * calling {@link SbomUtils#updatePurl(Bom, String, String)} for every entry, but it does not copy the dependency
+     * hierarchy and its cost does not depend on the number of relocations.
+     * </p>
+     *
+     * <p>
+     * Relocations are not chained: a component whose purl matches a key is updated to the corresponding value, and
+     * the value itself is not looked up again.
+     * </p>
+     *
+     * @param relocations a map of old purls to new purls
+     */
+    public void relocatePurls(Map<String, String> relocations) {
+        if (relocations == null || relocations.isEmpty()) {
+            return;
+        }
+
+        if (bom.getMetadata() != null && bom.getMetadata().getComponent() != null) {
+            relocatePurl(bom.getMetadata().getComponent(), relocations);
+        }
+
+        if (bom.getComponents() != null) {
+            bom.getComponents().forEach(component -> relocatePurl(component, relocations));
+        }
+    }
+
+    private void relocatePurl(Component component, Map<String, String> relocations) {
+        String oldPurl = component.getPurl();
+
+        if (oldPurl == null) {
+            return;
+        }
+
+        String newPurl = relocations.get(oldPurl);
+
+        if (newPurl == null) {
+            return;
+        }
+
+        component.setPurl(newPurl);
+
+        // Same rules as in SbomUtils#updateBomRef: there might be components (mainly detected by Syft) sharing the
+        // same purl but having different bom-refs, so the bom-ref is updated only if there is no dependency already
+        // using it.
+        if (oldPurl.equals(component.getBomRef()) && !topLevelDependencies.containsKey(newPurl)) {
+            updateBomRef(component, oldPurl, newPurl);
+        }
+    }
+
+    /**
+     * Updates the bom-ref of the given component and all dependency nodes referencing it. Only the renamed nodes are
+     * replaced, their children are kept as they are.
+     *
+     * @param component the component
+     * @param oldRef the old bom-ref
+     * @param newRef the new bom-ref
+     */
+    public void updateBomRef(Component component, String oldRef, String newRef) {
+        component.setBomRef(newRef);
+        reindexComponent(component, oldRef, newRef);
+
+        List<Slot> slots = dependencyNodesByRef.remove(oldRef);
+
+        if (slots != null) {
+            for (Slot slot : slots) {
+                slot.replace(newRef);
+                renameDependent(slot.get().getDependencies(), oldRef, newRef);
+                renameDependent(slot.get().getProvides(), oldRef, newRef);
+            }
+
+            dependencyNodesByRef.computeIfAbsent(newRef, k -> new ArrayList<>(slots.size())).addAll(slots);
+        }
+
+        Set<String> dependents = dependentsByRef.remove(oldRef);
+
+        if (dependents != null) {
+            dependentsByRef.computeIfAbsent(newRef, k -> new HashSet<>()).addAll(dependents);
+        }
+
+        Slot topLevel = topLevelDependencies.remove(oldRef);
+
+        if (topLevel != null) {
+            topLevelDependencies.putIfAbsent(newRef, topLevel);
+        }
+    }
+
+    private void renameDependent(List<Dependency> children, String oldRef, String newRef) {
+        if (children == null) {
+            return;
+        }
+
+        for (Dependency child : children) {
+            Set<String> dependents = dependentsByRef.get(child.getRef());
+
+            if (dependents != null && dependents.remove(oldRef)) {
+                dependents.add(newRef);
+            }
+        }
+    }
+
+    private void reindexComponent(Component component, String oldRef, String newRef) {
+        List<Component> components = componentsByRef.get(oldRef);
+
+        if (components != null) {
+            components.removeIf(c -> c == component);
+
+            if (components.isEmpty()) {
+                componentsByRef.remove(oldRef);
+            }
+        }
+
+        componentsByRef.computeIfAbsent(newRef, k -> new ArrayList<>(1)).add(component);
+    }
+}
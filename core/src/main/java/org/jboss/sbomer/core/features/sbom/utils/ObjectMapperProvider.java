@@ -48,6 +48,9 @@ public class ObjectMapperProvider {
             .enable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
             .disable(SerializationFeature.FAIL_ON_UNWRAPPED_TYPE_IDENTIFIERS);
 
+    // Same configuration as used by the CycloneDX JsonParser
+    static final ObjectMapper cycloneDxObjectMapper = new ObjectMapper();
+
     public static ObjectMapper yaml() {
         return yamlObjectMapper;
     }
@@ -55,4 +58,12 @@ public class ObjectMapperProvider {
     public static ObjectMapper json() {
         return jsonObjectMapper;
     }
+
+    /**
+     * Returns the object mapper to read CycloneDX manifests with, configured the same way as the one of the CycloneDX
+     * {@code JsonParser}. It is shared, it must not be reconfigured by the callers.
+     */
+    public static ObjectMapper cycloneDx() {
+        return cycloneDxObjectMapper;
+    }
 }
@@ -23,6 +23,7 @@ import static org.jboss.sbomer.core.features.sbom.utils.MDCUtils.MDC_TRACE_ID_KE
 import static org.jboss.sbomer.core.features.sbom.utils.MDCUtils.MDC_TRACE_STATE_KEY;
 
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Supplier;
 
 import org.jboss.pnc.common.otel.OtelUtils;
@@ -193,6 +194,68 @@ public class OtelHelper {
             Map<String, String> mdcContext,
             Supplier<R> action) {
 
+        Span span = startSpan(callerClass, spanSuffix, spanAttributes, mdcContext);
+
+        try (Scope scope = span.makeCurrent()) {
+            return action.get();
+        } catch (Throwable t) {
+            recordFailure(span, t);
+            throw t;
+        } finally {
+            span.end();
+        }
+    }
+
+    /**
+     * Executes an asynchronous action within an OpenTelemetry span context, see
+     * {@link #withSpan(Class, String, Map, Map, Supplier)}. The span is ended when the future returned by the action
+     * completes, instead of when the action returns.
+     *
+     * @param callerClass the class executing the action
+     * @param spanSuffix a suffix used to name the span and log context
+     * @param spanAttributes the attributes to be associated with the span
+     * @param mdcContext the MDC context map
+     * @param action the action starting the asynchronous work
+     * @return a future completed with the result of the future returned by the action, after the span is ended
+     */
+    public <R> CompletableFuture<R> withSpanAsync(
+            Class<?> callerClass,
+            String spanSuffix,
+            Map<String, String> spanAttributes,
+            Map<String, String> mdcContext,
+            Supplier<CompletableFuture<R>> action) {
+
+        Span span = startSpan(callerClass, spanSuffix, spanAttributes, mdcContext);
+        CompletableFuture<R> future;
+
+        try (Scope scope = span.makeCurrent()) {
+            future = action.get();
+        } catch (Throwable t) {
+            recordFailure(span, t);
+            span.end();
+            throw t;
+        }
+
+        return future.whenComplete((result, t) -> {
+            if (t != null) {
+                recordFailure(span, t);
+            }
+
+            span.end();
+        });
+    }
+
+    private Span startSpan(
+            Class<?> callerClass,
+            String spanSuffix,
+            Map<String, String> spanAttributes,
+            Map<String, String> mdcContext) {
+
+        if (mdcContext == null) {
+            // No MDC context set in the calling thread
+            mdcContext = Map.of();
+        }
+
         String traceId = mdcContext.get(MDC_TRACE_ID_KEY);
         String spanId = mdcContext.get(MDC_SPAN_ID_KEY);
         String traceFlags = mdcContext.getOrDefault(MDC_TRACE_FLAGS_KEY, "01");
@@ -230,15 +293,12 @@ public class OtelHelper {
                 span.getSpanContext().getSpanId(),
                 span.getSpanContext().getTraceFlags().asHex());
 
-        try (Scope scope = span.makeCurrent()) {
-            return action.get();
-        } catch (Throwable t) {
-            span.recordException(t);
-            span.setStatus(StatusCode.ERROR, t.getMessage());
-            throw t;
-        } finally {
-            span.end();
-        }
+        return span;
+    }
+
+    private void recordFailure(Span span, Throwable t) {
+        span.recordException(t);
+        span.setStatus(StatusCode.ERROR, t.getMessage());
     }
 
     public static String getEffectiveClassName(Object obj) {
@@ -0,0 +1,237 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.core.features.sbom.utils;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import com.github.packageurl.MalformedPackageURLException;
+import com.github.packageurl.PackageURL;
+
+/**
+ * <p>
+ * A bounded, thread-safe cache of parsed and sanitized purls, shared by everything processing manifests in the JVM.
+ * </p>
+ *
+ * <p>
+ * Manifests repeat the same purls many times (components, dependencies, evidence identities) and the adjusters and
+ * processors validate, sanitize and parse each of them several times. {@link PackageURL} instances are immutable, so
+ * a parsed purl is safe to share. Failures are remembered too, so an invalid purl is not parsed again just to fail
+ * the same way.
+ * </p>
+ *
+ * <p>
+ * Canonical forms returned by {@link #canonicalize(String)} and {@link #sanitize(String)} are the same {@link String}
+ * instance for equal purls, so components holding them do not keep a copy each.
+ * </p>
+ *
+ * <p>
+ * Entries are kept in two generations of at most {@link #MAX_SIZE} / 2 entries each. Once the young generation is
+ * full, it replaces the old one, dropping the entries which were not used since the previous rotation.
+ * </p>
+ */
+public final class PurlCache {
+
+    static final int MAX_SIZE = 100_000;
+
+    /**
+     * Result of parsing a purl: either the purl along with its canonical form, or the error message.
+     */
+    private record Parsed(PackageURL purl, String canonical, String error) {
+    }
+
+    /**
+     * Result of sanitizing a purl: either the sanitized purl or the failure.
+     */
+    private record Sanitized(String purl, IllegalArgumentException error) {
+    }
+
+    private static final Generations<Parsed> PARSED = new Generations<>(MAX_SIZE / 2);
+
+    private static final Generations<Sanitized> SANITIZED = new Generations<>(MAX_SIZE / 2);
+
+    private PurlCache() {
+        throw new IllegalStateException("This is a utility class that should not be instantiated");
+    }
+
+    /**
+     * Parses the purl, the same way as {@link PackageURL#PackageURL(String)} does.
+     *
+     * @param purl the purl
+     * @return the parsed purl, shared with other callers
+     * @throws MalformedPackageURLException if the purl is not valid
+     */
+    public static PackageURL parse(String purl) throws MalformedPackageURLException {
+        Parsed parsed = parsed(purl);
+
+        if (parsed.error() != null) {
+            throw new MalformedPackageURLException(parsed.error());
+        }
+
+        return parsed.purl();
+    }
+
+    /**
+     * @param purl the purl
+     * @return {@code true} if the purl can be parsed, {@code false} otherwise
+     */
+    public static boolean isValid(String purl) {
+        return parsed(purl).error() == null;
+    }
+
+    /**
+     * Returns the canonical form of the purl, see {@link PackageURL#canonicalize()}.
+     *
+     * @param purl the purl
+     * @return the canonical form of the purl
+     * @throws MalformedPackageURLException if the purl is not valid
+     */
+    public static String canonicalize(String purl) throws MalformedPackageURLException {
+        Parsed parsed = parsed(purl);
+
+        if (parsed.error() != null) {
+            throw new MalformedPackageURLException(parsed.error());
+        }
+
+        return parsed.canonical();
+    }
+
+    /**
+     * Sanitizes the purl with {@link PurlSanitizer#sanitizePurl(String)}, remembering the result.
+     *
+     * @param purl the purl
+     * @return the sanitized purl
+     * @throws IllegalArgumentException if the purl is empty or could not be sanitized
+     */
+    public static String sanitize(String purl) {
+        if (purl == null || purl.isEmpty()) {
+            return PurlSanitizer.doSanitizePurl(purl);
+        }
+
+        Sanitized sanitized = SANITIZED.get(purl, key -> {
+            try {
+                return new Sanitized(PurlSanitizer.doSanitizePurl(key), null);
+            } catch (IllegalArgumentException e) {
+                return new Sanitized(null, e);
+            }
+        });
+
+        if (sanitized.error() != null) {
+            throw new IllegalArgumentException(sanitized.error().getMessage(), sanitized.error().getCause());
+        }
+
+        return sanitized.purl();
+    }
+
+    /**
+     * Removes all cached entries.
+     */
+    public static void clear() {
+        PARSED.clear();
+        SANITIZED.clear();
+    }
+
+    /**
+     * @return the number of cached entries
+     */
+    public static int size() {
+        return PARSED.size() + SANITIZED.size();
+    }
+
+    private static Parsed parsed(String purl) {
+        if (purl == null) {
+            // Not cacheable, fails the same way
+            return parse(null, purl);
+        }
+
+        return PARSED.get(purl, key -> parse(key, key));
+    }
+
+    private static Parsed parse(String key, String purl) {
+        try {
+            PackageURL packageURL = new PackageURL(purl);
+            String canonical = packageURL.canonicalize();
+
+            // Keep a single instance when the purl is already canonical
+            return new Parsed(packageURL, canonical.equals(key) ? key : canonical, null);
+        } catch (MalformedPackageURLException e) {
+            return new Parsed(null, null, e.getMessage());
+        }
+    }
+
+    /**
+     * Two maps, the young one taking all new entries and the old one keeping the entries of the previous rotation.
+     * Entries found in the old map are moved to the young one.
+     */
+    private static final class Generations<V> {
+
+        private final int generationSize;
+
+        private volatile Map<String, V> young = new ConcurrentHashMap<>();
+
+        private volatile Map<String, V> old = new ConcurrentHashMap<>();
+
+        Generations(int generationSize) {
+            this.generationSize = generationSize;
+        }
+
+        V get(String key, Function<String, V> compute) {
+            Map<String, V> current = young;
+            V value = current.get(key);
+
+            if (value != null) {
+                return value;
+            }
+
+            value = old.get(key);
+
+            if (value == null) {
+                // Not under a lock, the same key might be computed more than once concurrently
+                value = compute.apply(key);
+            }
+
+            current.put(key, value);
+
+            if (current.size() > generationSize) {
+                rotate(current);
+            }
+
+            return value;
+        }
+
+        private synchronized void rotate(Map<String, V> full) {
+            // Somebody else rotated already
+            if (young != full) {
+                return;
+            }
+
+            old = full;
+            young = new ConcurrentHashMap<>();
+        }
+
+        synchronized void clear() {
+            old = new ConcurrentHashMap<>();
+            young = new ConcurrentHashMap<>();
+        }
+
+        int size() {
+            return young.size() + old.size();
+        }
+    }
+}
@@ -152,7 +152,7 @@ public class PurlRebuilder {
         String version = PurlSanitizer.sanitizeVersion(component.getVersion());
 
         PackageURL purl = new PackageURL(type, namespace, name, version, null, null);
-        return purl.toString();
+        return PurlCache.canonicalize(purl.toString());
     }
 
 }
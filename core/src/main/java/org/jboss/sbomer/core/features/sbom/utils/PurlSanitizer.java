@@ -36,12 +36,17 @@ public class PurlSanitizer {
     }
 
     /**
-     * Sanitize a given PURL string by replacing invalid characters in each component.
+     * Sanitize a given PURL string by replacing invalid characters in each component. Results are cached in
+     * {@link PurlCache}.
      *
      * @param purl the original PURL string
      * @return sanitized PURL string
      */
     public static String sanitizePurl(String purl) {
+        return PurlCache.sanitize(purl);
+    }
+
+    static String doSanitizePurl(String purl) {
         if (purl == null || purl.isEmpty()) {
             throw new IllegalArgumentException("PURL cannot be null or empty");
         }
@@ -50,8 +55,7 @@ public class PurlSanitizer {
 
         // Attempt to parse the PURL using PackageURL
         try {
-            PackageURL parsedPurl = new PackageURL(purl);
-            return parsedPurl.canonicalize();
+            return PurlCache.canonicalize(purl);
         } catch (MalformedPackageURLException e) {
             // If parsing fails, proceed to manual sanitization
             log.error("Malformed PURL detected, attempting to sanitize: '{}'", purl, e);
@@ -109,6 +109,7 @@ import org.jboss.sbomer.core.features.sbom.config.OperationConfig;
 import org.jboss.sbomer.core.features.sbom.config.PncBuildConfig;
 import org.jboss.sbomer.core.features.sbom.config.runtime.ProductConfig;
 import org.jboss.sbomer.core.features.sbom.config.runtime.RedHatProductProcessorConfig;
+import org.jboss.sbomer.core.features.sbom.validation.CycloneDxSchemaValidator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -553,9 +554,7 @@ public class SbomUtils {
     }
 
     public static List<ParseException> validate(JsonNode jsonNode) throws IOException {
-        return new JsonParser().validate(
-                jsonNode.isTextual() ? jsonNode.textValue().getBytes() : jsonNode.toString().getBytes(),
-                schemaVersion());
+        return CycloneDxSchemaValidator.validate(jsonNode, schemaVersion());
     }
 
     public static Tool createTool(String version) { // NOSONAR: Tool is deprecated, but this is for legacy support
@@ -605,6 +604,21 @@ public class SbomUtils {
         }
     }
 
+    /**
+     * For a given {@link Bom} apply all the purl relocations (old purl to new purl) in a single pass. See
+     * {@link BomIndex#relocatePurls(Map)}.
+     *
+     * @param bom the BOM
+     * @param relocations a map of old purls to new purls
+     */
+    public static void updatePurls(Bom bom, Map<String, String> relocations) {
+        if (relocations == null || relocations.isEmpty()) {
+            return;
+        }
+
+        BomIndex.of(bom).relocatePurls(relocations);
+    }
+
     /**
      * Updates the purl for the given component if it matches the old purl.
      *
@@ -1048,14 +1062,41 @@ public class SbomUtils {
         }
 
         try {
-            final String content = jsonNode.isTextual() ? jsonNode.textValue() : jsonNode.toString();
-            return new JsonParser().parse(content.getBytes(UTF_8));
-        } catch (ParseException e) {
+            if (jsonNode.isTextual()) {
+                return new JsonParser().parse(jsonNode.textValue().getBytes(UTF_8));
+            }
+
+            // Bind directly from the tree, serializing it first would hold the manifest in memory three times
+            return ObjectMapperProvider.cycloneDx().treeToValue(jsonNode, Bom.class);
+        } catch (ParseException | JsonProcessingException | IllegalArgumentException e) {
             log.error(e.getMessage(), e);
             return null;
         }
     }
 
+    /**
+     * Reads the purl of the main component ({@code metadata.component.purl}) directly from the {@link JsonNode},
+     * without converting it into a CycloneDX {@link Bom}.
+     *
+     * @param jsonNode The {@link JsonNode} representation of the manifest.
+     * @return The purl of the main component or <code>null</code> if it is not available.
+     */
+    public static String getRootPurl(JsonNode jsonNode) {
+        if (jsonNode == null) {
+            return null;
+        }
+
+        JsonNode node = jsonNode.isTextual() ? toJsonNode(jsonNode.textValue()) : jsonNode;
+
+        if (node == null) {
+            return null;
+        }
+
+        JsonNode purl = node.path("metadata").path("component").path("purl");
+
+        return purl.isTextual() ? purl.textValue() : null;
+    }
+
     public static List<String> computeNVRFromContainerManifest(JsonNode jsonNode) {
         Bom bom = fromJsonNode(jsonNode);
         if (bom == null || !isNotEmpty(bom.getComponents())) {
@@ -1412,12 +1453,7 @@ public class SbomUtils {
     }
 
     public static boolean isValidPurl(String purl) {
-        try {
-            new PackageURL(purl);
-            return true;
-        } catch (MalformedPackageURLException e) {
-            return false;
-        }
+        return PurlCache.isValid(purl);
     }
 
     public static String sanitizePurl(String purl) {
@@ -1462,7 +1498,7 @@ public class SbomUtils {
         }
 
         try {
-            PackageURL purl = new PackageURL(component.getPurl());
+            PackageURL purl = PurlCache.parse(component.getPurl());
             PackageURLBuilder builder = purl.toBuilder();
             qualifiers.forEach(builder::withQualifier);
             return builder.build().toString();
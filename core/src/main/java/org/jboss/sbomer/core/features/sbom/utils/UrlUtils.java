@@ -53,7 +53,7 @@ public class UrlUtils {
      */
     public static String removeQualifiersFromPurl(String purl, List<String> removeList) {
         try {
-            PackageURL packageURL = new PackageURL(purl);
+            PackageURL packageURL = PurlCache.parse(purl);
             Map<String, String> qualifiers = packageURL.getQualifiers();
             if (qualifiers == null || qualifiers.isEmpty() || removeList == null || removeList.isEmpty()) {
                 // Nothing to remove!
@@ -0,0 +1,155 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.core.features.sbom.validation;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.cyclonedx.Format;
+import org.cyclonedx.Version;
+import org.cyclonedx.exception.ParseException;
+import org.cyclonedx.parsers.JsonParser;
+import org.jboss.sbomer.core.features.sbom.utils.ObjectMapperProvider;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.networknt.schema.JsonSchema;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * <p>
+ * Validates CycloneDX manifests against the JSON schema of the given spec version.
+ * </p>
+ *
+ * <p>
+ * The schema of every spec version is loaded and compiled once and shared across all callers, manifests are validated
+ * as {@link JsonNode} trees directly, without serializing them first. The returned errors are the same as the ones
+ * returned by {@link JsonParser#validate(JsonNode, Version)}.
+ * </p>
+ */
+@Slf4j
+public class CycloneDxSchemaValidator {
+
+    /**
+     * Notified about every performed validation, for example to record metrics.
+     */
+    @FunctionalInterface
+    public interface Listener {
+        void onValidation(Version version, Duration duration, int errors);
+    }
+
+    private static final Map<Version, JsonSchema> SCHEMAS = new ConcurrentHashMap<>();
+
+    private static final List<Listener> LISTENERS = new CopyOnWriteArrayList<>();
+
+    private CycloneDxSchemaValidator() {
+        // This is a utility class
+    }
+
+    public static void addListener(Listener listener) {
+        LISTENERS.add(listener);
+    }
+
+    public static void removeListener(Listener listener) {
+        LISTENERS.remove(listener);
+    }
+
+    /**
+     * Returns the compiled JSON schema for the given spec version, loading it on first use.
+     *
+     * @param version the CycloneDX spec version
+     * @return the compiled schema
+     * @throws IOException if the schema cannot be loaded
+     */
+    private static JsonSchema schema(Version version) throws IOException {
+        try {
+            return SCHEMAS.computeIfAbsent(version, v -> {
+                log.debug("Loading CycloneDX {} JSON schema", v.getVersionString());
+
+                try {
+                    JsonSchema schema = new JsonParser().getJsonSchema(v, ObjectMapperProvider.cycloneDx());
+                    // Resolve all references now, instead of on the first validation
+                    schema.initializeValidators();
+                    return schema;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Loads and compiles the JSON schema for the given spec version, if not done already.
+     *
+     * @param version the CycloneDX spec version
+     * @throws IOException if the schema cannot be loaded
+     */
+    public static void preload(Version version) throws IOException {
+        schema(version);
+    }
+
+    /**
+     * Validates the manifest against the JSON schema of the given spec version.
+     *
+     * @param jsonNode the manifest, either as a tree or as a textual node holding the JSON content
+     * @param version the CycloneDX spec version
+     * @return the validation errors, empty if the manifest is valid
+     * @throws IOException if the schema cannot be loaded or the textual content cannot be parsed
+     */
+    public static List<ParseException> validate(JsonNode jsonNode, Version version) throws IOException {
+        if (!version.getFormats().contains(Format.JSON)) {
+            return List.of(
+                    new ParseException(
+                            "CycloneDX version " + version.getVersionString() + " does not support the JSON format"));
+        }
+
+        long start = System.nanoTime();
+
+        JsonNode tree = jsonNode.isTextual() ? ObjectMapperProvider.cycloneDx().readTree(jsonNode.textValue())
+                : jsonNode;
+        List<ParseException> errors = schema(version).validate(tree)
+                .stream()
+                .map(message -> new ParseException(message.getMessage()))
+                .toList();
+
+        Duration duration = Duration.ofNanos(System.nanoTime() - start);
+
+        log.debug(
+                "CycloneDX {} schema validation finished in {} ms with {} errors",
+                version.getVersionString(),
+                duration.toMillis(),
+                errors.size());
+
+        for (Listener listener : LISTENERS) {
+            try {
+                listener.onValidation(version, duration, errors.size());
+            } catch (RuntimeException e) {
+                log.warn("Validation listener failed", e);
+            }
+        }
+
+        return errors;
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.core.pnc;
+
+import java.util.Optional;
+
+import org.jboss.pnc.dto.Artifact;
+
+/**
+ * A key used to look up an {@link Artifact} in PNC, see {@link PncService#getArtifacts(java.util.Collection)}. An
+ * artifact matches the query if any of the provided (non-{@code null}) values matches.
+ *
+ * @param purl the purl of the artifact
+ * @param sha256 the SHA-256 hash of the artifact
+ * @param sha1 the SHA-1 hash of the artifact
+ * @param md5 the MD5 hash of the artifact
+ */
+public record ArtifactQuery(String purl, String sha256, String sha1, String md5) {
+
+    /**
+     * Creates a query for the given purl, optionally matching the SHA-256 hash as well.
+     *
+     * @param purl the purl of the artifact
+     * @param sha256 the SHA-256 hash of the artifact
+     * @return the query
+     */
+    public static ArtifactQuery of(String purl, Optional<String> sha256) {
+        return new ArtifactQuery(purl, sha256.orElse(null), null, null);
+    }
+
+    public boolean isEmpty() {
+        return purl == null && sha256 == null && sha1 == null && md5 == null;
+    }
+
+    /**
+     * Checks whether the given artifact matches any of the values of this query.
+     *
+     * @param artifact the artifact
+     * @return {@code true} if the artifact matches
+     */
+    public boolean matches(Artifact artifact) {
+        return matches(purl, artifact.getPurl()) || matches(sha256, artifact.getSha256())
+                || matches(sha1, artifact.getSha1()) || matches(md5, artifact.getMd5());
+    }
+
+    private static boolean matches(String expected, String actual) {
+        return expected != null && expected.equals(actual);
+    }
+}
@@ -20,9 +20,16 @@ package org.jboss.sbomer.core.pnc;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 import org.jboss.pnc.client.ArtifactClient;
 import org.jboss.pnc.client.BuildClient;
@@ -61,6 +68,19 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class PncService {
 
+    /**
+     * Maximum number of values in a single {@code =in=} query used for batch artifact lookups, this keeps the length
+     * of the request URL reasonable.
+     */
+    public static final int ARTIFACT_BATCH_SIZE = 50;
+
+    private static final String NPM_REDHAT_SCOPE = "pkg:npm/%40redhat/";
+
+    // Artifact ids in PNC are numeric, newer artifacts have higher ids
+    private static final Comparator<Artifact> BY_ID = Comparator.comparing(
+            Artifact::getId,
+            Comparator.comparingInt(String::length).thenComparing(Comparator.naturalOrder()));
+
     @Getter
     final String apiUrl;
 
@@ -367,8 +387,8 @@ public class PncService {
         // artifacts returned
         if (purl != null) {
             // We need to make a small tweak to find the NPM purls because PNC does not like the % in the purl
-            if (purl.startsWith("pkg:npm/%40redhat/")) {
-                query.add("purl=like=\"" + purl.replace("pkg:npm/%40redhat/", "pkg:npm/?40redhat/") + "\"");
+            if (purl.startsWith(NPM_REDHAT_SCOPE)) {
+                query.add("purl=like=\"" + purl.replace(NPM_REDHAT_SCOPE, "pkg:npm/?40redhat/") + "\"");
             } else {
                 query.add("purl==\"" + purl + "\"");
             }
@@ -403,18 +423,163 @@ public class PncService {
             return remoteArtifacts.iterator().next();
         }
 
+        return selectArtifact(remoteArtifacts.getAll());
+    }
+
+    /**
+     * Selects the best artifact out of multiple results of a query: the first one associated with a build or, if there
+     * is no such artifact, the newest one.
+     */
+    private static Artifact selectArtifact(Collection<Artifact> allArtifacts) {
+        if (allArtifacts.isEmpty()) {
+            return null;
+        }
+
+        if (allArtifacts.size() == 1) {
+            return allArtifacts.iterator().next();
+        }
+
         // First try to select artifacts with an associated build
-        Collection<Artifact> allArtifacts = remoteArtifacts.getAll();
         Optional<Artifact> artifact = allArtifacts.stream().filter(a -> a.getBuild() != null).findFirst();
         if (artifact.isPresent()) {
-            log.debug("Found {} results, returning the artifact associated with a build", remoteArtifacts.size());
+            log.debug("Found {} results, returning the artifact associated with a build", allArtifacts.size());
             return artifact.get();
         }
         // If no artifact has a build, return the newest one
-        log.debug("Found {} results, returning newest one", remoteArtifacts.size());
+        log.debug("Found {} results, returning newest one", allArtifacts.size());
         return allArtifacts.stream().skip(allArtifacts.size() - 1L).findFirst().orElse(null);
     }
 
+    /**
+     * <p>
+     * Looks up artifacts for multiple queries at once. Instead of querying PNC for every single {@link ArtifactQuery},
+     * the purls and hashes of all queries are combined into {@code =in=} RSQL queries of at most
+     * {@link #ARTIFACT_BATCH_SIZE} values each, so that thousands of components can be resolved with a few dozen
+     * requests.
+     * </p>
+     *
+     * <p>
+     * The same rules as in {@link #getArtifact(String, Optional, Optional, Optional)} apply to every query: all
+     * artifacts matching any of the values of a query are considered, and the one associated with a build (or the
+     * newest one) is selected. Purls of Red Hat scoped NPM packages cannot be combined and are looked up one by one.
+     * </p>
+     *
+     * <p>
+     * The returned map contains an entry for every query; the value is {@code null} if no artifact was found.
+     * </p>
+     *
+     * @param queries the artifact queries
+     * @return a map of the queries to the artifacts found
+     */
+    public Map<ArtifactQuery, Artifact> getArtifacts(Collection<ArtifactQuery> queries) {
+        Map<ArtifactQuery, Artifact> result = new HashMap<>();
+
+        Set<String> purls = new LinkedHashSet<>();
+        Set<String> sha256s = new LinkedHashSet<>();
+        Set<String> sha1s = new LinkedHashSet<>();
+        Set<String> md5s = new LinkedHashSet<>();
+
+        for (ArtifactQuery query : queries) {
+            if (query.isEmpty()) {
+                result.put(query, null);
+                continue;
+            }
+
+            // PNC does not support the % character in purls, these need a 'like' query, so these are looked up one by
+            // one, see getArtifact()
+            if (query.purl() != null && query.purl().startsWith(NPM_REDHAT_SCOPE)) {
+                result.put(
+                        query,
+                        getArtifact(
+                                query.purl(),
+                                Optional.ofNullable(query.sha256()),
+                                Optional.ofNullable(query.sha1()),
+                                Optional.ofNullable(query.md5())));
+                continue;
+            }
+
+            addIfNotNull(purls, query.purl());
+            addIfNotNull(sha256s, query.sha256());
+            addIfNotNull(sha1s, query.sha1());
+            addIfNotNull(md5s, query.md5());
+        }
+
+        // Artifacts by id, in the order in which these were returned
+        Map<String, Artifact> artifacts = new LinkedHashMap<>();
+
+        queryArtifacts("purl", purls, true, artifacts);
+        queryArtifacts("sha256", sha256s, false, artifacts);
+        queryArtifacts("sha1", sha1s, false, artifacts);
+        queryArtifacts("md5", md5s, false, artifacts);
+
+        log.debug("Found {} artifacts for {} queries", artifacts.size(), queries.size());
+
+        Map<String, List<Artifact>> artifactsByValue = new HashMap<>();
+
+        artifacts.values().forEach(artifact -> {
+            Stream.of(artifact.getPurl(), artifact.getSha256(), artifact.getSha1(), artifact.getMd5())
+                    .filter(Objects::nonNull)
+                    .distinct()
+                    .forEach(value -> artifactsByValue.computeIfAbsent(value, k -> new ArrayList<>()).add(artifact));
+        });
+
+        for (ArtifactQuery query : queries) {
+            if (result.containsKey(query)) {
+                continue;
+            }
+
+            // Candidates are merged from the results of different queries, these are sorted by id so that the last one
+            // is the newest one
+            List<Artifact> candidates = Stream.of(query.purl(), query.sha256(), query.sha1(), query.md5())
+                    .filter(Objects::nonNull)
+                    .flatMap(value -> artifactsByValue.getOrDefault(value, List.of()).stream())
+                    .filter(query::matches)
+                    .distinct()
+                    .sorted(BY_ID)
+                    .toList();
+
+            result.put(query, selectArtifact(candidates));
+        }
+
+        return result;
+    }
+
+    private static void addIfNotNull(Set<String> values, String value) {
+        if (value != null) {
+            values.add(value);
+        }
+    }
+
+    private void queryArtifacts(String field, Set<String> values, boolean quote, Map<String, Artifact> artifacts) {
+        List<String> chunk = new ArrayList<>(ARTIFACT_BATCH_SIZE);
+
+        for (String value : values) {
+            chunk.add(quote ? "\"" + value + "\"" : value);
+
+            if (chunk.size() == ARTIFACT_BATCH_SIZE) {
+                queryArtifacts(field + "=in=(" + String.join(",", chunk) + ")", artifacts);
+                chunk.clear();
+            }
+        }
+
+        if (!chunk.isEmpty()) {
+            queryArtifacts(field + "=in=(" + String.join(",", chunk) + ")", artifacts);
+        }
+    }
+
+    private void queryArtifacts(String rsql, Map<String, Artifact> artifacts) {
+        log.debug("Using following rsql query to search for artifacts: '{}'", rsql);
+
+        try {
+            // Pages are fetched lazily while iterating over the collection
+            for (Artifact artifact : artifactClient.getAll(null, null, null, Optional.empty(), Optional.of(rsql))) {
+                artifacts.putIfAbsent(artifact.getId(), artifact);
+            }
+        } catch (RemoteResourceException ex) {
+            throw new ClientException("Querying artifacts failed, PNC responded with an error, query: '{}'", rsql, ex);
+        }
+    }
+
     /**
      * Fetch all the {@link AnalyzedArtifact} which have been analyzed in a {@link DeliverableAnalyzerReport} .
      *
@@ -17,9 +17,12 @@
  */
 package org.jboss.sbomer.core.utils;
 
+import java.util.Locale;
+
 import org.eclipse.microprofile.openapi.annotations.parameters.Parameter;
 
 import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.PositiveOrZero;
 import jakarta.ws.rs.DefaultValue;
@@ -36,6 +39,20 @@ public class PaginationParameters {
             + MAX_PAGE_SIZE + ".";
     public static final String PAGE_SIZE_QUERY_PARAM = "pageSize";
     public static final String PAGE_SIZE_DEFAULT_VALUE = "50";
+    public static final String CURSOR_DESCRIPTION = "Token returned as 'nextCursor' of the previous page. If provided, the page following the previous one is returned, regardless of the page index, which is only reported back.";
+    public static final String CURSOR_QUERY_PARAM = "cursor";
+    public static final String COUNT_DESCRIPTION = "How to count the total number of hits: 'exact' (default), 'estimate' (based on table statistics when no query is provided, exact otherwise) or 'none'.";
+    public static final String COUNT_QUERY_PARAM = "count";
+    public static final String COUNT_DEFAULT_VALUE = "exact";
+
+    /**
+     * How the total number of hits is counted.
+     */
+    public enum CountMode {
+        EXACT,
+        ESTIMATE,
+        NONE
+    }
 
     /**
      * {@value #PAGE_INDEX_DESCRIPTION}
@@ -56,4 +73,24 @@ public class PaginationParameters {
     @Max(value = MAX_PAGE_SIZE)
     protected int pageSize;
 
+    /**
+     * {@value #CURSOR_DESCRIPTION}
+     */
+    @Parameter(description = CURSOR_DESCRIPTION)
+    @QueryParam(value = CURSOR_QUERY_PARAM)
+    protected String cursor;
+
+    /**
+     * {@value #COUNT_DESCRIPTION}
+     */
+    @Parameter(description = COUNT_DESCRIPTION)
+    @QueryParam(value = COUNT_QUERY_PARAM)
+    @DefaultValue(value = COUNT_DEFAULT_VALUE)
+    @Pattern(regexp = "(?i)exact|estimate|none")
+    protected String count;
+
+    public CountMode getCountMode() {
+        return count == null ? CountMode.EXACT : CountMode.valueOf(count.toUpperCase(Locale.ROOT));
+    }
+
 }
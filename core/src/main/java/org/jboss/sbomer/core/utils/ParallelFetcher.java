@@ -0,0 +1,99 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.core.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * Fetches items concurrently on an executor, with a bounded number of fetches in progress at a time.
+ */
+public class ParallelFetcher {
+
+    private final Executor executor;
+
+    private final int parallelism;
+
+    /**
+     * @param executor executor running the fetches
+     * @param parallelism maximum number of fetches in progress at a time
+     */
+    public ParallelFetcher(Executor executor, int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be positive, got " + parallelism);
+        }
+
+        this.executor = executor;
+        this.parallelism = parallelism;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Applies {@code fetch} to all {@code items} concurrently, with at most {@link #getParallelism()} of these in
+     * progress at a time. Stops submitting new items after the first failure, which is rethrown.
+     *
+     * @param items the items to fetch
+     * @param fetch the function fetching a single item
+     * @return the results, in the order of {@code items}
+     */
+    public <T, R> List<R> fetchAll(List<T> items, Function<T, R> fetch) {
+        if (items.isEmpty()) {
+            return List.of();
+        }
+
+        Semaphore permits = new Semaphore(parallelism);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        List<CompletableFuture<R>> futures = new ArrayList<>(items.size());
+
+        for (T item : items) {
+            permits.acquireUninterruptibly();
+
+            if (failure.get() != null) {
+                permits.release();
+                break;
+            }
+
+            futures.add(CompletableFuture.supplyAsync(() -> fetch.apply(item), executor).whenComplete((r, e) -> {
+                if (e != null) {
+                    failure.compareAndSet(null, e);
+                }
+
+                permits.release();
+            }));
+        }
+
+        try {
+            return futures.stream().map(CompletableFuture::join).toList();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+
+            throw e;
+        }
+    }
+}
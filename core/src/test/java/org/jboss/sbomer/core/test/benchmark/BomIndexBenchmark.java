@@ -0,0 +1,149 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.core.test.benchmark;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.cyclonedx.model.Bom;
+import org.cyclonedx.model.Component;
+import org.cyclonedx.model.Dependency;
+import org.cyclonedx.model.Metadata;
+import org.jboss.sbomer.core.features.sbom.utils.SbomUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares applying a batch of purl relocations one by one through {@link SbomUtils#updatePurl(Bom, String, String)}
+ * with the single pass done by {@link SbomUtils#updatePurls(Bom, Map)}.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = { "-Xmx4g" })
+@State(Scope.Benchmark)
+public class BomIndexBenchmark {
+
+    @Param({ "10000", "50000" })
+    int components;
+
+    @Param({ "100", "500" })
+    int relocations;
+
+    Bom bom;
+
+    Map<String, String> purlRelocations;
+
+    @Setup(Level.Iteration)
+    public void setup() {
+        bom = createBom(components);
+        purlRelocations = createRelocations(components, relocations);
+    }
+
+    @Benchmark
+    public Bom sequentialUpdatePurl() {
+        purlRelocations.forEach((oldPurl, newPurl) -> SbomUtils.updatePurl(bom, oldPurl, newPurl));
+        return bom;
+    }
+
+    @Benchmark
+    public Bom indexedUpdatePurls() {
+        SbomUtils.updatePurls(bom, purlRelocations);
+        return bom;
+    }
+
+    static String purl(int i) {
+        return "pkg:maven/org.example/artifact-" + i + "@1.0.0.redhat-00001?type=jar";
+    }
+
+    /**
+     * Creates a BOM where the main component depends on every component and every component depends on the next
+     * three ones, which resembles the shape of the dependency graphs produced by the Maven generators.
+     */
+    static Bom createBom(int size) {
+        Bom bom = new Bom();
+
+        Component main = new Component();
+        main.setPurl("pkg:maven/org.example/main@1.0.0.redhat-00001?type=jar");
+        main.setBomRef(main.getPurl());
+
+        Metadata metadata = new Metadata();
+        metadata.setComponent(main);
+        bom.setMetadata(metadata);
+
+        List<Component> componentList = new ArrayList<>(size + 1);
+        List<Dependency> dependencies = new ArrayList<>(size + 1);
+        List<Dependency> mainDependsOn = new ArrayList<>(size);
+        Dependency mainDependency = new Dependency(main.getBomRef());
+        mainDependency.setDependencies(mainDependsOn);
+
+        componentList.add(main);
+        dependencies.add(mainDependency);
+
+        for (int i = 0; i < size; i++) {
+            Component component = new Component();
+            component.setName("artifact-" + i);
+            component.setVersion("1.0.0.redhat-00001");
+            component.setPurl(purl(i));
+            component.setBomRef(component.getPurl());
+            componentList.add(component);
+
+            mainDependsOn.add(new Dependency(component.getBomRef()));
+
+            Dependency dependency = new Dependency(component.getBomRef());
+            List<Dependency> dependsOn = new ArrayList<>(3);
+
+            for (int j = i + 1; j < Math.min(i + 4, size); j++) {
+                dependsOn.add(new Dependency(purl(j)));
+            }
+
+            dependency.setDependencies(dependsOn);
+            dependencies.add(dependency);
+        }
+
+        bom.setComponents(componentList);
+        bom.setDependencies(dependencies);
+
+        return bom;
+    }
+
+    static Map<String, String> createRelocations(int size, int count) {
+        Map<String, String> relocations = new LinkedHashMap<>();
+        int step = Math.max(1, size / count);
+
+        for (int i = 0; i < size && relocations.size() < count; i += step) {
+            relocations.put(purl(i), "pkg:maven/org.example.relocated/artifact-" + i + "@1.0.0.redhat-00001?type=jar");
+        }
+
+        return relocations;
+    }
+}
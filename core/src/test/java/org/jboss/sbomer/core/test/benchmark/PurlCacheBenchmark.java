@@ -0,0 +1,111 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.core.test.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.sbomer.core.features.sbom.utils.PurlCache;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.github.packageurl.MalformedPackageURLException;
+import com.github.packageurl.PackageURL;
+
+/**
+ * Compares parsing every purl of a manifest several times, the way the adjusters and processors do (validation,
+ * filtering and cleanup), with going through {@link PurlCache}. The cache is emptied before every iteration.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = { "-Xmx4g" })
+@State(Scope.Benchmark)
+public class PurlCacheBenchmark {
+
+    @Param({ "10000", "50000" })
+    int components;
+
+    /**
+     * How many times every purl is parsed while processing a manifest.
+     */
+    @Param({ "4" })
+    int parses;
+
+    List<String> purls;
+
+    @Setup(Level.Iteration)
+    public void setup() {
+        purls = createPurls(components);
+        PurlCache.clear();
+    }
+
+    @Benchmark
+    public void uncached(Blackhole blackhole) throws MalformedPackageURLException {
+        for (int i = 0; i < parses; i++) {
+            for (String purl : purls) {
+                blackhole.consume(new PackageURL(purl));
+            }
+        }
+    }
+
+    @Benchmark
+    public void cached(Blackhole blackhole) throws MalformedPackageURLException {
+        for (int i = 0; i < parses; i++) {
+            for (String purl : purls) {
+                blackhole.consume(PurlCache.parse(purl));
+            }
+        }
+    }
+
+    /**
+     * Creates distinct purls, half RPMs and half Maven artifacts, all with qualifiers.
+     */
+    static List<String> createPurls(int size) {
+        List<String> purls = new ArrayList<>(size);
+
+        for (int i = 0; i < size; i++) {
+            int component = i / 2;
+
+            if (i % 2 == 0) {
+                purls.add(
+                        "pkg:rpm/redhat/component-" + component + "@1.0." + component
+                                + "-1.el9?arch=x86_64&distro=rhel-9.4&epoch=1");
+            } else {
+                purls.add(
+                        "pkg:maven/org.example.group" + (component % 100) + "/component-" + component + "@1.0."
+                                + component + ".redhat-00001?type=jar");
+            }
+        }
+
+        return purls;
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.core.test.unit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.cyclonedx.model.Bom;
+import org.cyclonedx.model.Component;
+import org.cyclonedx.model.Dependency;
+import org.cyclonedx.model.Metadata;
+import org.jboss.sbomer.core.features.sbom.utils.BomIndex;
+import org.jboss.sbomer.core.features.sbom.utils.SbomUtils;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+class BomIndexTest {
+
+    private static final String MAIN = "pkg:maven/org.example/main@1.0.0.redhat-00001?type=jar";
+    private static final String OLD = "pkg:maven/org.objectweb.asm/asm@9.1.0.redhat-00002?type=jar";
+    private static final String NEW = "pkg:maven/org.ow2.asm/asm@9.1.0.redhat-00002?type=jar";
+    private static final String OTHER = "pkg:maven/org.example/other@1.0.0.redhat-00001?type=jar";
+    private static final String OTHER_NEW = "pkg:maven/org.example.new/other@1.0.0.redhat-00001?type=jar";
+
+    private static Component component(String purl) {
+        Component component = new Component();
+        component.setPurl(purl);
+        component.setBomRef(purl);
+        return component;
+    }
+
+    private static Dependency dependency(String ref, String... dependsOn) {
+        Dependency dependency = new Dependency(ref);
+        List<Dependency> dependencies = new ArrayList<>();
+
+        for (String dep : dependsOn) {
+            dependencies.add(new Dependency(dep));
+        }
+
+        dependency.setDependencies(dependencies);
+        return dependency;
+    }
+
+    private static Bom createBom() {
+        Bom bom = new Bom();
+        Component main = component(MAIN);
+
+        Metadata metadata = new Metadata();
+        metadata.setComponent(main);
+        bom.setMetadata(metadata);
+
+        bom.setComponents(new ArrayList<>(List.of(component(MAIN), component(OLD), component(OTHER))));
+        bom.setDependencies(
+                new ArrayList<>(
+                        List.of(dependency(MAIN, OLD, OTHER), dependency(OLD, OTHER), dependency(OTHER))));
+
+        return bom;
+    }
+
+    @Test
+    void shouldIndexComponentsAndDependencies() {
+        Bom bom = createBom();
+        BomIndex index = BomIndex.of(bom);
+
+        assertSame(bom.getMetadata().getComponent(), index.getComponent(MAIN).orElseThrow());
+        assertSame(bom.getComponents().get(1), index.getComponent(OLD).orElseThrow());
+        assertSame(bom.getDependencies().get(2), index.getDependency(OTHER).orElseThrow());
+
+        // Top-level node plus the nested ones under MAIN and OLD
+        assertEquals(3, index.getDependencyNodes(OTHER).size());
+        assertEquals(Set.of(MAIN, OLD), index.getDependents(OTHER));
+        assertEquals(Set.of(MAIN), index.getDependents(OLD));
+        assertTrue(index.getDependents(MAIN).isEmpty());
+    }
+
+    @Test
+    void shouldRelocatePurlsInPlace() {
+        Bom bom = createBom();
+        List<Dependency> oldDependsOn = bom.getDependencies().get(1).getDependencies();
+
+        BomIndex index = BomIndex.of(bom);
+        index.relocatePurls(Map.of(OLD, NEW, OTHER, OTHER_NEW));
+
+        assertEquals(NEW, bom.getComponents().get(1).getPurl());
+        assertEquals(NEW, bom.getComponents().get(1).getBomRef());
+        assertEquals(OTHER_NEW, bom.getComponents().get(2).getBomRef());
+
+        // Only the renamed nodes are replaced, their children are not copied
+        assertSame(oldDependsOn, bom.getDependencies().get(1).getDependencies());
+        assertEquals(NEW, bom.getDependencies().get(0).getDependencies().get(0).getRef());
+        assertEquals(NEW, bom.getDependencies().get(1).getRef());
+        assertEquals(OTHER_NEW, bom.getDependencies().get(1).getDependencies().get(0).getRef());
+        assertEquals(OTHER_NEW, bom.getDependencies().get(2).getRef());
+
+        // The index is kept in sync
+        assertTrue(index.getComponent(OLD).isEmpty());
+        assertTrue(index.getDependencyNodes(OLD).isEmpty());
+        assertEquals(2, index.getDependencyNodes(NEW).size());
+        assertEquals(Set.of(MAIN, NEW), index.getDependents(OTHER_NEW));
+    }
+
+    @Test
+    void shouldNotUpdateBomRefIfDependencyAlreadyExists() {
+        Bom bom = createBom();
+        // A component with the new purl is already in the manifest
+        bom.getComponents().add(component(NEW));
+        bom.getDependencies().add(dependency(NEW));
+
+        SbomUtils.updatePurls(bom, Map.of(OLD, NEW));
+
+        assertEquals(NEW, bom.getComponents().get(1).getPurl());
+        assertEquals(OLD, bom.getComponents().get(1).getBomRef());
+        assertEquals(OLD, bom.getDependencies().get(1).getRef());
+        assertEquals(OLD, bom.getDependencies().get(0).getDependencies().get(0).getRef());
+    }
+
+    @Test
+    void shouldProduceSameResultAsSequentialUpdate() {
+        Map<String, String> relocations = Map.of(OLD, NEW, OTHER, OTHER_NEW, MAIN, MAIN + "&repository_id=foo");
+
+        Bom expected = createBom();
+        relocations.forEach((oldPurl, newPurl) -> SbomUtils.updatePurl(expected, oldPurl, newPurl));
+
+        Bom actual = createBom();
+        SbomUtils.updatePurls(actual, relocations);
+
+        JsonNode expectedJson = SbomUtils.toJsonNode(expected);
+        JsonNode actualJson = SbomUtils.toJsonNode(actual);
+
+        assertEquals(expectedJson.get("metadata").get("component"), actualJson.get("metadata").get("component"));
+        assertEquals(expectedJson.get("components"), actualJson.get("components"));
+        assertEquals(expectedJson.get("dependencies"), actualJson.get("dependencies"));
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.core.test.unit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import org.jboss.sbomer.core.utils.ParallelFetcher;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ParallelFetcherTest {
+
+    ExecutorService executor;
+
+    @BeforeEach
+    void beforeEach() {
+        executor = Executors.newFixedThreadPool(16);
+    }
+
+    @AfterEach
+    void afterEach() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void testResultsInOrderOfItems() {
+        ParallelFetcher fetcher = new ParallelFetcher(executor, 4);
+        List<Integer> items = IntStream.range(0, 50).boxed().toList();
+
+        assertEquals(items.stream().map(i -> "item-" + i).toList(), fetcher.fetchAll(items, i -> "item-" + i));
+        assertEquals(List.of(), fetcher.fetchAll(List.of(), i -> i));
+    }
+
+    @Test
+    void testBoundsFetchesInProgress() {
+        ParallelFetcher fetcher = new ParallelFetcher(executor, 3);
+        AtomicInteger inProgress = new AtomicInteger();
+        AtomicInteger maxInProgress = new AtomicInteger();
+
+        fetcher.fetchAll(IntStream.range(0, 30).boxed().toList(), i -> {
+            maxInProgress.accumulateAndGet(inProgress.incrementAndGet(), Math::max);
+
+            try {
+                Thread.sleep(5);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+
+            return inProgress.decrementAndGet();
+        });
+
+        assertTrue(maxInProgress.get() <= 3, "At most 3 fetches in progress, got " + maxInProgress.get());
+        assertTrue(maxInProgress.get() > 1, "Fetches were not done concurrently");
+    }
+
+    @Test
+    void testStopsAfterFirstFailure() {
+        ParallelFetcher fetcher = new ParallelFetcher(executor, 1);
+        IllegalStateException failure = new IllegalStateException("Fetch failed");
+        AtomicInteger fetched = new AtomicInteger();
+
+        IllegalStateException thrown = assertThrows(
+                IllegalStateException.class,
+                () -> fetcher.fetchAll(IntStream.range(0, 10).boxed().toList(), i -> {
+                    fetched.incrementAndGet();
+
+                    if (i == 2) {
+                        throw failure;
+                    }
+
+                    return i;
+                }));
+
+        assertSame(failure, thrown);
+
+        // Fetched one at a time, none is submitted after the failed one
+        assertEquals(3, fetched.get());
+    }
+
+    @Test
+    void testRejectsNonPositiveParallelism() {
+        assertThrows(IllegalArgumentException.class, () -> new ParallelFetcher(executor, 0));
+    }
+}
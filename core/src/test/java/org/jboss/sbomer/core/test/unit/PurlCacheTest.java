@@ -0,0 +1,92 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.core.test.unit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.jboss.sbomer.core.features.sbom.utils.PurlCache;
+import org.jboss.sbomer.core.features.sbom.utils.PurlSanitizer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.github.packageurl.MalformedPackageURLException;
+import com.github.packageurl.PackageURL;
+
+class PurlCacheTest {
+
+    @BeforeEach
+    void clear() {
+        PurlCache.clear();
+    }
+
+    @Test
+    void testParseSharesInstances() throws MalformedPackageURLException {
+        PackageURL purl = PurlCache.parse("pkg:maven/org.example/artifact@1.0.0?type=jar");
+
+        assertEquals(new PackageURL("pkg:maven/org.example/artifact@1.0.0?type=jar"), purl);
+        assertSame(purl, PurlCache.parse(new String("pkg:maven/org.example/artifact@1.0.0?type=jar")));
+        assertEquals(1, PurlCache.size());
+    }
+
+    @Test
+    void testCanonicalize() throws MalformedPackageURLException {
+        String canonical = "pkg:rpm/redhat/openssl@3.0.7-1.el9?arch=x86_64&epoch=1";
+
+        // Already canonical purls are kept as they are
+        assertSame(canonical, PurlCache.canonicalize(canonical));
+        assertSame(
+                PurlCache.canonicalize("pkg:rpm/redhat/openssl@3.0.7-1.el9?epoch=1&arch=x86_64"),
+                PurlCache.canonicalize(new String("pkg:rpm/redhat/openssl@3.0.7-1.el9?epoch=1&arch=x86_64")));
+        assertEquals(canonical, PurlCache.canonicalize("pkg:rpm/redhat/openssl@3.0.7-1.el9?epoch=1&arch=x86_64"));
+    }
+
+    @Test
+    void testRemembersInvalidPurls() {
+        assertFalse(PurlCache.isValid("pkg:maven/invalid:name@1.0"));
+        assertFalse(PurlCache.isValid("pkg:maven/invalid:name@1.0"));
+        assertTrue(PurlCache.isValid("pkg:maven/org.example/name@1.0"));
+
+        MalformedPackageURLException first = assertThrows(
+                MalformedPackageURLException.class,
+                () -> PurlCache.parse("not-a-purl"));
+        MalformedPackageURLException second = assertThrows(
+                MalformedPackageURLException.class,
+                () -> PurlCache.parse("not-a-purl"));
+
+        assertEquals(first.getMessage(), second.getMessage());
+        assertThrows(MalformedPackageURLException.class, () -> PurlCache.parse(null));
+    }
+
+    @Test
+    void testSanitize() {
+        String sanitized = PurlSanitizer.sanitizePurl("pkg:golang/github.com/example/name@v1.0.0+incompatible!");
+
+        assertSame(sanitized, PurlCache.sanitize("pkg:golang/github.com/example/name@v1.0.0+incompatible!"));
+        assertTrue(PurlCache.isValid(sanitized));
+
+        IllegalArgumentException ex = assertThrows(
+                IllegalArgumentException.class,
+                () -> PurlSanitizer.sanitizePurl("invalid"));
+        assertEquals("Failed to sanitize PURL: 'invalid'", ex.getMessage());
+        assertThrows(IllegalArgumentException.class, () -> PurlSanitizer.sanitizePurl(""));
+    }
+}
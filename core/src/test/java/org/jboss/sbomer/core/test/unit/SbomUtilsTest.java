@@ -62,6 +62,7 @@ import org.junit.jupiter.api.Test;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.JsonNodeType;
+import com.fasterxml.jackson.databind.node.TextNode;
 
 class SbomUtilsTest {
 
@@ -112,6 +113,21 @@ class SbomUtilsTest {
             assertEquals("Apache-2.0", license.get("license").get("id").asText());
         }
 
+        @Test
+        void shouldReadRootPurlFromJsonNode() throws Exception {
+            Bom bom = SbomUtils.fromPath(sbomPath("base.json"));
+            JsonNode jsonNode = SbomUtils.toJsonNode(bom);
+            String purl = bom.getMetadata().getComponent().getPurl();
+
+            assertNotNull(purl);
+            assertEquals(purl, SbomUtils.getRootPurl(jsonNode));
+            assertEquals(
+                    purl,
+                    SbomUtils.getRootPurl(TextNode.valueOf(TestResources.asString(sbomPath("base.json")))));
+            assertNull(SbomUtils.getRootPurl(SbomUtils.toJsonNode(new Bom())));
+            assertNull(SbomUtils.getRootPurl(null));
+        }
+
         @Test
         void shouldRemoveErrataPropertiesFromBom() {
             Bom bom = SbomUtils.fromPath(sbomPath("sbom_with_errata.json"));
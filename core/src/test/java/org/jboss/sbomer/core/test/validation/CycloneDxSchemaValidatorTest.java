@@ -0,0 +1,98 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.core.test.validation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import org.cyclonedx.Version;
+import org.cyclonedx.exception.ParseException;
+import org.cyclonedx.parsers.JsonParser;
+import org.jboss.sbomer.core.features.sbom.utils.SbomUtils;
+import org.jboss.sbomer.core.features.sbom.validation.CycloneDxSchemaValidator;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+
+class CycloneDxSchemaValidatorTest {
+
+    private static Locale originalLocale;
+
+    @BeforeAll
+    static void setLocale() {
+        originalLocale = Locale.getDefault();
+        Locale.setDefault(Locale.US);
+    }
+
+    @AfterAll
+    static void resetLocale() {
+        Locale.setDefault(originalLocale);
+    }
+
+    private static JsonNode bom(String fileName) {
+        return SbomUtils.toJsonNode(SbomUtils.fromPath(Paths.get("src", "test", "resources", "sboms", fileName)));
+    }
+
+    private static List<String> messages(List<ParseException> exceptions) {
+        return exceptions.stream().map(ParseException::getMessage).sorted().toList();
+    }
+
+    @Test
+    void shouldReportSameErrorsAsCycloneDxParser() throws Exception {
+        JsonNode invalid = bom("invalid-pedigree.json");
+
+        List<ParseException> errors = CycloneDxSchemaValidator.validate(invalid, Version.VERSION_16);
+
+        assertEquals(1, errors.size());
+        assertEquals(
+                messages(new JsonParser().validate(invalid.toString().getBytes(), Version.VERSION_16)),
+                messages(errors));
+        assertEquals(
+                messages(errors),
+                messages(CycloneDxSchemaValidator.validate(TextNode.valueOf(invalid.toString()), Version.VERSION_16)));
+        assertTrue(CycloneDxSchemaValidator.validate(bom("base.json"), Version.VERSION_16).isEmpty());
+    }
+
+    @Test
+    void shouldNotifyListeners() throws Exception {
+        List<String> notifications = new ArrayList<>();
+        CycloneDxSchemaValidator.Listener listener = (version, duration, errors) -> notifications
+                .add(version.getVersionString() + ":" + errors);
+
+        CycloneDxSchemaValidator.addListener(listener);
+
+        try {
+            CycloneDxSchemaValidator.validate(bom("base.json"), Version.VERSION_16);
+            CycloneDxSchemaValidator.validate(bom("invalid-pedigree.json"), Version.VERSION_16);
+        } finally {
+            CycloneDxSchemaValidator.removeListener(listener);
+        }
+
+        CycloneDxSchemaValidator.validate(bom("base.json"), Version.VERSION_16);
+
+        assertEquals(List.of("1.6:0", "1.6:1"), notifications);
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.service.feature.s3;
+
+import java.io.InputStream;
+
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.Response.ResponseBuilder;
+import jakarta.ws.rs.core.Response.Status;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Content of a log file (or a part of it) stored in S3, streamed directly from the S3 response.
+ */
+@Getter
+@AllArgsConstructor
+public class LogStream {
+
+    /**
+     * The content, needs to be closed by the consumer.
+     */
+    private final InputStream content;
+
+    /**
+     * Number of bytes in the {@link #content}.
+     */
+    private final long contentLength;
+
+    /**
+     * The {@code Content-Range} of the content, in case a byte range was requested, {@code null} otherwise.
+     */
+    private final String contentRange;
+
+    /**
+     * Creates a response streaming the content, a {@code 206 Partial Content} one if a byte range was requested.
+     *
+     * @return the response
+     */
+    public Response toResponse() {
+        ResponseBuilder builder = contentRange == null ? Response.ok(content)
+                : Response.status(Status.PARTIAL_CONTENT).entity(content).header("Content-Range", contentRange);
+
+        return builder.header(HttpHeaders.CONTENT_LENGTH, contentLength).header("Accept-Ranges", "bytes").build();
+    }
+}
@@ -18,6 +18,8 @@
 
 package org.jboss.sbomer.service.feature.s3;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.HashSet;
@@ -25,9 +27,13 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiFunction;
 
 import org.eclipse.microprofile.config.ConfigProvider;
 import org.jboss.sbomer.core.errors.ApplicationException;
+import org.jboss.sbomer.core.errors.NotFoundException;
+import org.jboss.sbomer.core.errors.RangeNotSatisfiableException;
 import org.jboss.sbomer.core.features.sbom.utils.OtelHelper;
 import org.jboss.sbomer.service.feature.FeatureFlags;
 import org.jboss.sbomer.service.feature.sbom.features.umb.producer.model.Sbom.GenerationRequest;
@@ -39,13 +45,15 @@ import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.enterprise.event.Observes;
 import jakarta.inject.Inject;
 import lombok.extern.slf4j.Slf4j;
+import software.amazon.awssdk.core.ResponseInputStream;
 import software.amazon.awssdk.core.exception.SdkException;
 import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
 import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
 import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
 import software.amazon.awssdk.services.s3.model.ListObjectsV2Request;
-import software.amazon.awssdk.services.s3.model.ListObjectsV2Response;
 import software.amazon.awssdk.services.s3.model.PutObjectRequest;
 import software.amazon.awssdk.services.s3.model.S3Exception;
 import software.amazon.awssdk.services.s3.model.S3Object;
@@ -54,8 +62,15 @@ import software.amazon.awssdk.services.s3.model.S3Object;
 @Slf4j
 public class S3ClientFacade {
 
+    // Parts of large files are uploaded in parallel by the CRT based client
+    private static final long MULTIPART_PART_SIZE = 8L * 1024 * 1024;
+
+    private static final int TAIL_CHUNK_SIZE = 64 * 1024;
+
     private S3Client client;
 
+    private S3AsyncClient asyncClient;
+
     @Inject
     FeatureFlags featureFlags;
 
@@ -67,6 +82,13 @@ public class S3ClientFacade {
         return ConfigProvider.getConfig().getValue("bucket.region", String.class);
     }
 
+    /**
+     * Maximum number of concurrent requests issued by the async client when uploading files.
+     */
+    int uploadConcurrency() {
+        return ConfigProvider.getConfig().getOptionalValue("bucket.upload.concurrency", Integer.class).orElse(16);
+    }
+
     void init(@Observes StartupEvent ev) {
         if (featureFlags.s3Storage()) {
             ensureClient();
@@ -101,6 +123,11 @@ public class S3ClientFacade {
                 client.close();
                 client = null;
             }
+
+            if (asyncClient != null) {
+                asyncClient.close();
+                asyncClient = null;
+            }
         }
     }
 
@@ -120,6 +147,11 @@ public class S3ClientFacade {
 
         // TODO: Set the credentials explicitly on this builder
         client = S3Client.builder().region(Region.of(bucketRegion())).build();
+        asyncClient = S3AsyncClient.crtBuilder()
+                .region(Region.of(bucketRegion()))
+                .maxConcurrency(uploadConcurrency())
+                .minimumPartSizeInBytes(MULTIPART_PART_SIZE)
+                .build();
 
         log.info("S3 client instantiated");
     }
@@ -161,32 +193,49 @@ public class S3ClientFacade {
         log.debug("S3 client configuration is valid");
     }
 
-    public boolean doesObjectExists(String key) {
+    /**
+     * Uploads the file without blocking the caller. Files larger than {@value #MULTIPART_PART_SIZE} bytes are uploaded
+     * using multipart upload.
+     *
+     * @param path the file to upload
+     * @param key the key of the object
+     * @return a future completed when the file is uploaded, failed also when the upload could not be started
+     */
+    public CompletableFuture<Void> uploadAsync(Path path, String key) {
+        log.debug("Uploading '{}' file as '{}' asynchronously...", path, key);
+
+        Map<String, String> attributes = Map.of("params.path", path.toFile().getAbsolutePath(), "params.key", key);
+
         try {
-            HeadObjectRequest request = HeadObjectRequest.builder().bucket(bucketName()).key(key).build();
-            client.headObject(request);
-            return true;
-        } catch (S3Exception e) {
-            if (e.statusCode() == 404) {
-                return false;
-            } else {
-                throw new ApplicationException("An error occurred when checking if object '{}' exists in S3", key, e);
-            }
-        } catch (SdkException e) {
-            throw new ApplicationException("An error occurred when checking if object '{}' exists in S3", key, e);
+            return OtelHelper.withSpanAsync(this.getClass(), ".upload", attributes, MDC.getCopyOfContextMap(), () -> {
+                PutObjectRequest request = PutObjectRequest.builder().key(key).bucket(bucketName()).build();
+
+                return asyncClient.putObject(request, path).thenAccept(response -> log.debug("Uploaded '{}'", key));
+            });
+        } catch (RuntimeException e) {
+            // Reported the same way as failures of the upload itself
+            return CompletableFuture.failedFuture(e);
         }
     }
 
-    public void upload(Path path, String key) {
+    /**
+     * Returns keys of all objects stored under the given prefix, following all pages of the listing.
+     *
+     * @param prefix the key prefix
+     * @return the keys
+     */
+    public Set<String> objectKeys(String prefix) {
+        ListObjectsV2Request req = ListObjectsV2Request.builder().bucket(bucketName()).prefix(prefix).build();
 
-        log.debug("Uploading '{}' file as '{}'...", path, key);
+        Set<String> keys = new HashSet<>();
 
-        Map<String, String> attributes = Map.of("params.path", path.toFile().getAbsolutePath(), "params.key", key);
-        OtelHelper.withSpan(this.getClass(), ".upload", attributes, MDC.getCopyOfContextMap(), () -> {
-            PutObjectRequest request = PutObjectRequest.builder().key(key).bucket(bucketName()).build();
-            client.putObject(request, path);
-            return null;
-        });
+        try {
+            client.listObjectsV2Paginator(req).contents().forEach(object -> keys.add(object.key()));
+        } catch (SdkException e) {
+            throw new ApplicationException("An error occurred when listing objects with prefix '{}' in S3", prefix, e);
+        }
+
+        return keys;
     }
 
     /**
@@ -198,14 +247,13 @@ public class S3ClientFacade {
     public List<String> logFileNames(String generationRequestId) {
         ListObjectsV2Request req = ListObjectsV2Request.builder()
                 .bucket(bucketName())
-                .prefix(generationRequestId)
+                .prefix(generationRequestId + "/")
                 .build();
 
-        ListObjectsV2Response objects = client.listObjectsV2(req);
-
         List<String> paths = new ArrayList<>();
 
-        for (S3Object object : objects.contents()) {
+        // Follow all pages, a single listing returns up to 1000 keys only
+        for (S3Object object : client.listObjectsV2Paginator(req).contents()) {
             log.debug("Found: '{}'", object.key());
 
             if (object.key().contains("/logs/")) {
@@ -217,30 +265,132 @@ public class S3ClientFacade {
     }
 
     /**
-     * Returns list of paths within the S3 bucket to log files for a given {@link GenerationRequest} identifier.
+     * Opens a stream to the log file for a given {@link GenerationRequest} identifier and path. The content is not
+     * loaded into memory, the caller is responsible for closing the returned stream.
      *
      * @param generationRequestId the generation request identifier
-     * @return the path
+     * @param path the path to the log file
+     * @param range the HTTP {@code Range} header value, for example {@code bytes=100-} or {@code bytes=-500};
+     *        {@code null} to return the whole file
+     * @return the log content
      */
-    public String log(String generationRequestId, String path) {
-
-        String bucketName = bucketName();
+    public LogStream logStream(String generationRequestId, String path, String range) {
         String key = generationRequestId + "/" + path;
 
         Map<String, String> attributes = Map.of(
-                "params.bucketName",
-                bucketName,
                 "params.generationRequestId",
                 generationRequestId,
                 "params.path",
                 path,
                 "params.key",
-                key);
+                key,
+                "params.range",
+                String.valueOf(range));
 
         return OtelHelper.withSpan(this.getClass(), ".log", attributes, MDC.getCopyOfContextMap(), () -> {
-            GetObjectRequest req = GetObjectRequest.builder().bucket(bucketName).key(key).build();
+            ResponseInputStream<GetObjectResponse> stream = getObject(key, range);
+            GetObjectResponse response = stream.response();
+
+            return new LogStream(stream, response.contentLength(), range == null ? null : response.contentRange());
+        });
+    }
+
+    /**
+     * Opens a stream to the last {@code lines} lines of the log file for a given {@link GenerationRequest} identifier
+     * and path. The file is searched backwards in chunks of {@value #TAIL_CHUNK_SIZE} bytes, so that only the
+     * requested part is transferred.
+     *
+     * @param generationRequestId the generation request identifier
+     * @param path the path to the log file
+     * @param lines the number of lines
+     * @return the log content
+     */
+    public LogStream logTail(String generationRequestId, String path, int lines) {
+        String key = generationRequestId + "/" + path;
+        long size = objectSize(key);
 
-            return client.getObjectAsBytes(req).asUtf8String();
+        long offset = tailOffset(size, lines, TAIL_CHUNK_SIZE, (start, end) -> {
+            try (ResponseInputStream<GetObjectResponse> chunk = getObject(key, "bytes=" + start + "-" + end)) {
+                return chunk.readAllBytes();
+            } catch (IOException e) {
+                throw new ApplicationException("Unable to read log '{}' from S3", key, e);
+            }
         });
+
+        if (offset >= size) {
+            return new LogStream(InputStream.nullInputStream(), 0, null);
+        }
+
+        ResponseInputStream<GetObjectResponse> stream = getObject(key, offset == 0 ? null : "bytes=" + offset + "-");
+
+        // Not a response to a range request, no Content-Range
+        return new LogStream(stream, stream.response().contentLength(), null);
+    }
+
+    /**
+     * Finds the offset at which the last {@code lines} lines of a file start. A newline at the very end of the file
+     * does not start a new line.
+     *
+     * @param size the size of the file
+     * @param lines the number of lines
+     * @param chunkSize the number of bytes read at once
+     * @param reader reads the bytes between the given offsets (both inclusive)
+     * @return the offset, {@code 0} if the file has fewer lines than requested
+     */
+    public static long tailOffset(long size, int lines, int chunkSize, BiFunction<Long, Long, byte[]> reader) {
+        if (lines <= 0) {
+            return size;
+        }
+
+        int found = 0;
+        long end = size;
+
+        while (end > 0) {
+            long start = Math.max(0, end - chunkSize);
+            byte[] chunk = reader.apply(start, end - 1);
+
+            for (int i = chunk.length - 1; i >= 0; i--) {
+                long position = start + i;
+
+                if (chunk[i] == '\n' && position != size - 1 && ++found == lines) {
+                    return position + 1;
+                }
+            }
+
+            end = start;
+        }
+
+        return 0;
+    }
+
+    private ResponseInputStream<GetObjectResponse> getObject(String key, String range) {
+        GetObjectRequest req = GetObjectRequest.builder().bucket(bucketName()).key(key).range(range).build();
+
+        try {
+            return client.getObject(req);
+        } catch (S3Exception e) {
+            throw translate(e, key);
+        }
+    }
+
+    private long objectSize(String key) {
+        try {
+            return client.headObject(HeadObjectRequest.builder().bucket(bucketName()).key(key).build())
+                    .contentLength();
+        } catch (S3Exception e) {
+            throw translate(e, key);
+        }
+    }
+
+    private ApplicationException translate(S3Exception e, String key) {
+        return switch (e.statusCode()) {
+            case 404 -> new NotFoundException("Log file '{}' could not be found", key);
+            // The size of the file is reported back to the client, S3 does not return it with the error
+            case 416 -> new RangeNotSatisfiableException(
+                    objectSize(key),
+                    "Requested range of log file '{}' cannot be satisfied",
+                    key);
+            default -> new ApplicationException("An error occurred when reading log file '{}' from S3", key, e);
+        };
     }
 }
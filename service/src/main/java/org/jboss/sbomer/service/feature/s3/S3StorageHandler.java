@@ -22,10 +22,18 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.regex.Pattern;
 import java.util.stream.Stream;
 
 import org.jboss.sbomer.core.errors.ApplicationException;
+import org.jboss.sbomer.core.errors.ClientException;
 import org.jboss.sbomer.core.errors.NotFoundException;
 import org.jboss.sbomer.core.errors.ServiceUnavailableException;
 import org.jboss.sbomer.service.feature.FeatureFlags;
@@ -42,6 +50,8 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class S3StorageHandler {
 
+    private static final Pattern BYTE_RANGE = Pattern.compile("bytes=(\\d+-\\d*|-\\d+)");
+
     @Inject
     GenerationRequestControllerConfig controllerConfig;
 
@@ -134,13 +144,47 @@ public class S3StorageHandler {
 
         log.debug("Found {} files: {}", filePaths.size(), filePaths);
 
+        if (filePaths.isEmpty()) {
+            return;
+        }
+
+        // One listing instead of checking every file separately
+        Set<String> existingKeys = client.objectKeys(generationRequest.getId() + "/");
+
+        Map<String, CompletableFuture<Void>> uploads = new LinkedHashMap<>();
+
         filePaths.forEach(path -> {
             String key = String.join("/", generationRequest.getId(), generationRootDir.relativize(path).toString());
 
-            if (!client.doesObjectExists(key)) {
-                client.upload(path, key);
+            if (!existingKeys.contains(key)) {
+                uploads.put(key, client.uploadAsync(path, key));
+            }
+        });
+
+        log.debug("Uploading {} files, {} files are stored already", uploads.size(), existingKeys.size());
+
+        // Wait for all the uploads, a failed one does not stop the others
+        CompletableFuture.allOf(uploads.values().toArray(CompletableFuture[]::new)).handle((result, t) -> null).join();
+
+        List<String> failed = new ArrayList<>();
+
+        uploads.forEach((key, upload) -> {
+            try {
+                upload.join();
+            } catch (CompletionException | CancellationException e) {
+                log.warn("Unable to upload '{}' to S3", key, e);
+                failed.add(key);
             }
         });
+
+        if (!failed.isEmpty()) {
+            throw new ApplicationException(
+                    "Unable to store {} of {} files for GenerationRequest '{}' in S3: {}",
+                    failed.size(),
+                    uploads.size(),
+                    generationRequest.getId(),
+                    failed);
+        }
     }
 
     /**
@@ -166,12 +210,28 @@ public class S3StorageHandler {
     }
 
     /**
-     * Gets the log file for a given {@link GenerationRequest} and the requested path.
+     * Gets the log file for a given {@link GenerationRequest} and the requested path. The content is streamed from S3
+     * and never loaded into memory as a whole.
      *
      * @param generationRequestId the generation request identifier
+     * @param path the path to the log file
+     * @param range the HTTP {@code Range} header value, {@code null} to return the whole file
+     * @param tail the number of lines to return from the end of the file, {@code null} to return the whole file
      * @return the log file content
      */
-    public String getLog(String generationRequestId, String path) {
+    public LogStream getLog(String generationRequestId, String path, String range, Integer tail) {
+        if (range != null && tail != null) {
+            throw new ClientException("The Range header and the tail parameter cannot be used together");
+        }
+
+        if (range != null && !BYTE_RANGE.matcher(range).matches()) {
+            throw new ClientException("Unsupported range '{}', a single byte range is expected", range);
+        }
+
+        if (tail != null && tail < 0) {
+            throw new ClientException("The tail parameter needs to be a non-negative number, got {}", tail);
+        }
+
         SbomGenerationRequest generationRequest = SbomGenerationRequest.findById(generationRequestId); // NOSONAR
 
         if (generationRequest == null) {
@@ -184,6 +244,10 @@ public class S3StorageHandler {
                     generationRequestId);
         }
 
-        return client.log(generationRequestId, path);
+        if (tail != null) {
+            return client.logTail(generationRequestId, path, tail);
+        }
+
+        return client.logStream(generationRequestId, path, range);
     }
 }
@@ -17,6 +17,8 @@
  */
 package org.jboss.sbomer.service.feature.sbom.config;
 
+import java.time.Duration;
+
 import io.smallrye.config.ConfigMapping;
 import io.smallrye.config.WithDefault;
 import jakarta.enterprise.context.ApplicationScoped;
@@ -31,4 +33,43 @@ public interface GenerationRequestControllerConfig {
 
     @WithDefault("false")
     boolean cleanup();
+
+    /**
+     * Reconciliation of generations by the TaskRun controllers.
+     */
+    ReconcileConfig reconcile();
+
+    interface ReconcileConfig {
+
+        /**
+         * Number of generations reconciled concurrently, a single generation is always reconciled by one worker at a
+         * time.
+         */
+        @WithDefault("4")
+        int workers();
+
+        /**
+         * Whether the workers should run on virtual threads. Has effect only when running on Java 21 or newer.
+         */
+        @WithDefault("false")
+        boolean virtualThreads();
+
+        /**
+         * Updates of TaskRuns related to a single generation received within this delay are reconciled once.
+         */
+        @WithDefault("500ms")
+        Duration debounce();
+
+        /**
+         * Delay before a failed reconciliation is retried, doubled with every following failure.
+         */
+        @WithDefault("1s")
+        Duration initialBackoff();
+
+        @WithDefault("5m")
+        Duration maxBackoff();
+
+        @WithDefault("10")
+        int maxRetries();
+    }
 }
@@ -17,6 +17,8 @@
  */
 package org.jboss.sbomer.service.feature.sbom.config.features;
 
+import java.time.Duration;
+
 import io.smallrye.config.ConfigMapping;
 import io.smallrye.config.WithDefault;
 import io.smallrye.config.WithName;
@@ -40,9 +42,26 @@ public interface UmbConfig {
         boolean isEnabled();
     }
 
+    interface UmbConsumerConfig {
+        /**
+         * Maximum number of acknowledged message ids remembered, so that redelivered messages can be skipped without
+         * querying the database.
+         */
+        @WithDefault("10000")
+        int dedupCacheSize();
+
+        /**
+         * How long an acknowledged message id is remembered.
+         */
+        @WithDefault("1h")
+        Duration dedupWindow();
+    }
+
     @WithDefault("false")
     @WithName("enabled")
     boolean isEnabled();
 
     UmbProducerConfig producer();
+
+    UmbConsumerConfig consumer();
 }
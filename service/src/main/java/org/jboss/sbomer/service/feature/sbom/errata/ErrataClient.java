@@ -237,13 +237,7 @@ public interface ErrataClient {
                 Map.of("filter[variant_name]", variantName),
                 this::getAllCDNRepos);
 
-        return allCDNRepos.stream()
-                .filter(
-                        cdn -> cdn.getType().equals("cdn_repos")
-                                && !cdn.getAttributes().getContentType().equalsIgnoreCase("docker"))
-                .map(cdn -> new ErrataCDNRepoNormalized(cdn, variantName, !"rhel".equalsIgnoreCase(shortProductName)))
-                .distinct()
-                .toList();
+        return ErrataCDNRepoNormalized.of(allCDNRepos, variantName, shortProductName);
     }
 
     // Default method for handling pagination logic with a generic type `T` and a function `getPageFunction`
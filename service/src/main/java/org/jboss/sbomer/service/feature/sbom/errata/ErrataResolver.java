@@ -0,0 +1,337 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.service.feature.sbom.errata;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.sbomer.core.utils.ParallelFetcher;
+import org.jboss.sbomer.service.feature.sbom.errata.dto.ErrataCDNRepo;
+import org.jboss.sbomer.service.feature.sbom.errata.dto.ErrataCDNRepoNormalized;
+import org.jboss.sbomer.service.feature.sbom.errata.dto.ErrataPage;
+import org.jboss.sbomer.service.feature.sbom.errata.dto.ErrataVariant;
+import org.jboss.sbomer.service.rest.otel.TracingRestClient;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * <p>
+ * Resolves variants and CDN repositories of advisories with as few Errata calls as possible.
+ * </p>
+ *
+ * <p>
+ * Lookups are done within a {@link Session}, one for every processed advisory. Requested keys are deduplicated and
+ * the missing ones are fetched concurrently, {@code sbomer.service.errata.fetch-parallelism} at most at a time. All
+ * pages of the CDN repositories of a variant are fetched concurrently too, once the first page tells how many there
+ * are. Results are kept within the session, and for
+ * {@code sbomer.service.errata.cache-ttl} across sessions.
+ * </p>
+ */
+@ApplicationScoped
+@Slf4j
+public class ErrataResolver {
+
+    private static final String CDN_REPOS_VARIANT_FILTER = "filter[variant_name]";
+
+    private record Cached<T>(T value, long expiresAt) {
+
+        boolean isExpired() {
+            return System.nanoTime() - expiresAt > 0;
+        }
+    }
+
+    private final ErrataClient errataClient;
+
+    private final ParallelFetcher fetcher;
+
+    private final Duration cacheTtl;
+
+    // Runs the fetches. These are waited for by the advisory processing, which itself runs on the managed executor, so
+    // sharing that one could leave the processing waiting for fetches that cannot start
+    private ExecutorService fetchExecutor;
+
+    private final Map<String, Cached<Optional<ErrataVariant>>> variantCache = new ConcurrentHashMap<>();
+
+    private final Map<String, Cached<List<ErrataCDNRepo>>> cdnRepoCache = new ConcurrentHashMap<>();
+
+    @Inject
+    public ErrataResolver(
+            @TracingRestClient ErrataClient errataClient,
+            @ConfigProperty(name = "sbomer.service.errata.fetch-parallelism", defaultValue = "8") int fetchParallelism,
+            @ConfigProperty(name = "sbomer.service.errata.cache-ttl", defaultValue = "10m") Duration cacheTtl) {
+        this.errataClient = errataClient;
+        this.fetchExecutor = newFetchExecutor(fetchParallelism);
+        this.fetcher = new ParallelFetcher(fetchExecutor, fetchParallelism);
+        this.cacheTtl = cacheTtl;
+    }
+
+    /**
+     * @param errataClient the client
+     * @param executor executor running the Errata calls, which must not be the one running the lookups
+     * @param fetchParallelism maximum number of Errata calls in progress at a time
+     * @param cacheTtl how long the results are kept across sessions, {@link Duration#ZERO} disables the cache
+     */
+    public ErrataResolver(ErrataClient errataClient, Executor executor, int fetchParallelism, Duration cacheTtl) {
+        this.errataClient = errataClient;
+        this.fetcher = new ParallelFetcher(executor, fetchParallelism);
+        this.cacheTtl = cacheTtl;
+    }
+
+    private static ExecutorService newFetchExecutor(int fetchParallelism) {
+        AtomicInteger count = new AtomicInteger();
+
+        return Executors.newFixedThreadPool(fetchParallelism, r -> {
+            Thread thread = new Thread(r, "errata-resolver-fetcher-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Stops the {@link #fetchExecutor} threads, fetches in progress are interrupted.
+     */
+    @PreDestroy
+    void stopFetchExecutor() {
+        if (fetchExecutor != null) {
+            fetchExecutor.shutdownNow();
+        }
+    }
+
+    /**
+     * Opens a session for lookups related to the given advisory. The session is not meant to be shared across
+     * threads.
+     *
+     * @param advisoryId the advisory identifier, used for reporting only
+     * @return the session, which reports the number of calls once closed
+     */
+    public Session session(String advisoryId) {
+        return new Session(advisoryId);
+    }
+
+    /**
+     * Removes all results cached across sessions.
+     */
+    public void invalidate() {
+        variantCache.clear();
+        cdnRepoCache.clear();
+    }
+
+    /**
+     * Number of lookups done within a {@link Session}.
+     *
+     * @param variantLookups variants requested, including duplicates
+     * @param variantCalls variants fetched from Errata
+     * @param cdnRepoLookups variants for which CDN repositories were requested, including duplicates
+     * @param cdnRepoCalls pages of CDN repositories fetched from Errata
+     * @param cacheHits variants and CDN repositories served from the cache shared across sessions
+     */
+    public record Stats(int variantLookups, int variantCalls, int cdnRepoLookups, int cdnRepoCalls, int cacheHits) {
+    }
+
+    public class Session implements AutoCloseable {
+
+        private final String advisoryId;
+
+        private final Map<String, Optional<ErrataVariant>> variants = new ConcurrentHashMap<>();
+
+        private final Map<String, List<ErrataCDNRepo>> cdnRepos = new ConcurrentHashMap<>();
+
+        private final AtomicInteger variantLookups = new AtomicInteger();
+
+        private final AtomicInteger variantCalls = new AtomicInteger();
+
+        private final AtomicInteger cdnRepoLookups = new AtomicInteger();
+
+        private final AtomicInteger cdnRepoCalls = new AtomicInteger();
+
+        private final AtomicInteger cacheHits = new AtomicInteger();
+
+        Session(String advisoryId) {
+            this.advisoryId = advisoryId;
+        }
+
+        /**
+         * Resolves the variants with given identifiers.
+         *
+         * @param variantIds variant identifiers (or names), can contain duplicates
+         * @return the found variants by their identifiers, in the order of {@code variantIds}
+         */
+        public Map<String, ErrataVariant> getVariants(Collection<String> variantIds) {
+            variantLookups.addAndGet(variantIds.size());
+
+            List<String> distinct = variantIds.stream().distinct().toList();
+            List<String> missing = distinct.stream().filter(id -> !resolved(variants, variantCache, id)).toList();
+
+            List<Optional<ErrataVariant>> fetched = fetcher.fetchAll(missing, id -> {
+                variantCalls.incrementAndGet();
+                return Optional.ofNullable(errataClient.getVariant(id));
+            });
+
+            for (int i = 0; i < missing.size(); i++) {
+                store(variants, variantCache, missing.get(i), fetched.get(i));
+            }
+
+            Map<String, ErrataVariant> result = new LinkedHashMap<>();
+            distinct.forEach(id -> variants.get(id).ifPresent(variant -> result.put(id, variant)));
+
+            return result;
+        }
+
+        /**
+         * Resolves the CDN repositories of given variants.
+         *
+         * @param variantNames variant names, can contain duplicates
+         * @param shortProductName the short name of the product the variants belong to
+         * @return distinct normalized CDN repositories of all the variants
+         */
+        public List<ErrataCDNRepoNormalized> getCDNRepos(Collection<String> variantNames, String shortProductName) {
+            cdnRepoLookups.addAndGet(variantNames.size());
+
+            List<String> distinct = variantNames.stream().distinct().toList();
+            List<String> missing = distinct.stream().filter(name -> !resolved(cdnRepos, cdnRepoCache, name)).toList();
+
+            Map<String, List<ErrataCDNRepo>> fetched = fetchCDNRepos(missing);
+            fetched.forEach((name, repos) -> store(cdnRepos, cdnRepoCache, name, repos));
+
+            return distinct.stream()
+                    .flatMap(name -> ErrataCDNRepoNormalized.of(cdnRepos.get(name), name, shortProductName).stream())
+                    .distinct()
+                    .toList();
+        }
+
+        public Stats getStats() {
+            return new Stats(
+                    variantLookups.get(),
+                    variantCalls.get(),
+                    cdnRepoLookups.get(),
+                    cdnRepoCalls.get(),
+                    cacheHits.get());
+        }
+
+        @Override
+        public void close() {
+            Stats stats = getStats();
+
+            log.info(
+                    "Errata lookups of advisory '{}': variants {} ({} calls), CDN repositories {} ({} calls), cached {}",
+                    advisoryId,
+                    stats.variantLookups(),
+                    stats.variantCalls(),
+                    stats.cdnRepoLookups(),
+                    stats.cdnRepoCalls(),
+                    stats.cacheHits());
+        }
+
+        /**
+         * Fetches the first page of CDN repositories of all variants, and then all the remaining pages.
+         */
+        private Map<String, List<ErrataCDNRepo>> fetchCDNRepos(List<String> variantNames) {
+            record PageRef(String variantName, int pageNumber) {
+            }
+
+            List<ErrataPage<ErrataCDNRepo>> firstPages = fetcher.fetchAll(variantNames, name -> fetchCDNRepoPage(name, 1));
+
+            Map<String, List<ErrataCDNRepo>> result = new LinkedHashMap<>();
+            List<PageRef> remaining = new ArrayList<>();
+
+            for (int i = 0; i < variantNames.size(); i++) {
+                ErrataPage<ErrataCDNRepo> firstPage = firstPages.get(i);
+                String variantName = variantNames.get(i);
+
+                result.put(variantName, new ArrayList<>(data(firstPage)));
+
+                int totalPages = firstPage.getPage().getTotalPages();
+
+                for (int page = firstPage.getPage().getPageNumber() + 1; page <= totalPages; page++) {
+                    remaining.add(new PageRef(variantName, page));
+                }
+            }
+
+            List<ErrataPage<ErrataCDNRepo>> pages = fetcher.fetchAll(
+                    remaining,
+                    ref -> fetchCDNRepoPage(ref.variantName(), ref.pageNumber()));
+
+            for (int i = 0; i < remaining.size(); i++) {
+                result.get(remaining.get(i).variantName()).addAll(data(pages.get(i)));
+            }
+
+            return result;
+        }
+
+        private ErrataPage<ErrataCDNRepo> fetchCDNRepoPage(String variantName, int pageNumber) {
+            cdnRepoCalls.incrementAndGet();
+
+            return errataClient.getAllCDNRepos(
+                    ErrataQueryParameters.builder()
+                            .withFilters(Map.of(CDN_REPOS_VARIANT_FILTER, variantName))
+                            .withPageNumber(pageNumber)
+                            .build());
+        }
+
+        /**
+         * Checks whether the key was resolved within this session already, or is available in the shared cache.
+         */
+        private <T> boolean resolved(Map<String, T> memo, Map<String, Cached<T>> cache, String key) {
+            if (memo.containsKey(key)) {
+                return true;
+            }
+
+            Cached<T> cached = cache.get(key);
+
+            if (cached == null) {
+                return false;
+            }
+
+            if (cached.isExpired()) {
+                cache.remove(key, cached);
+                return false;
+            }
+
+            cacheHits.incrementAndGet();
+            memo.put(key, cached.value());
+
+            return true;
+        }
+
+        private <T> void store(Map<String, T> memo, Map<String, Cached<T>> cache, String key, T value) {
+            memo.put(key, value);
+
+            if (!cacheTtl.isZero() && !cacheTtl.isNegative()) {
+                cache.put(key, new Cached<>(value, System.nanoTime() + cacheTtl.toNanos()));
+            }
+        }
+    }
+
+    private static <T> List<T> data(ErrataPage<T> page) {
+        return page.getData() != null ? page.getData() : List.of();
+    }
+}
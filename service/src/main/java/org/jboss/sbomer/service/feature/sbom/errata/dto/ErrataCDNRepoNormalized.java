@@ -17,6 +17,8 @@
  */
 package org.jboss.sbomer.service.feature.sbom.errata.dto;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 import org.jboss.sbomer.service.feature.sbom.errata.dto.enums.ErrataCDNContentType;
@@ -51,6 +53,27 @@ public class ErrataCDNRepoNormalized {
         this.score = this.cdnName != null ? this.cdnName.length() : 0;
     }
 
+    /**
+     * Normalizes the CDN repositories of a variant, skipping the ones with container images.
+     *
+     * @param cdnRepos the CDN repositories as returned by Errata
+     * @param variantName the name of the variant
+     * @param shortProductName the short name of the product the variant belongs to
+     * @return distinct normalized CDN repositories
+     */
+    public static List<ErrataCDNRepoNormalized> of(
+            Collection<ErrataCDNRepo> cdnRepos,
+            String variantName,
+            String shortProductName) {
+        return cdnRepos.stream()
+                .filter(
+                        cdn -> cdn.getType().equals("cdn_repos")
+                                && !cdn.getAttributes().getContentType().equalsIgnoreCase("docker"))
+                .map(cdn -> new ErrataCDNRepoNormalized(cdn, variantName, !"rhel".equalsIgnoreCase(shortProductName)))
+                .distinct()
+                .toList();
+    }
+
     private static String stripEndingSuffix(String cdnName) {
         return Optional.ofNullable(cdnName).map(name -> {
             int lastSlashIndex = name.lastIndexOf("__");
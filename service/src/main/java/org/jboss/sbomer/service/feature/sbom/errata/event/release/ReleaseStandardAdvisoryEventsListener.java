@@ -52,11 +52,13 @@ import org.jboss.sbomer.core.features.sbom.enums.RequestEventStatus;
 import org.jboss.sbomer.core.features.sbom.utils.ObjectMapperProvider;
 import org.jboss.sbomer.core.features.sbom.utils.SbomUtils;
 import org.jboss.sbomer.core.rest.faulttolerance.RetryLogger;
+import org.jboss.sbomer.service.feature.sbom.errata.ErrataResolver;
 import org.jboss.sbomer.service.feature.sbom.errata.dto.Errata;
 import org.jboss.sbomer.service.feature.sbom.errata.dto.ErrataBuildList;
 import org.jboss.sbomer.service.feature.sbom.errata.dto.ErrataBuildList.BuildItem;
 import org.jboss.sbomer.service.feature.sbom.errata.dto.ErrataBuildList.ProductVersionEntry;
 import org.jboss.sbomer.service.feature.sbom.errata.dto.ErrataCDNRepoNormalized;
+import org.jboss.sbomer.service.feature.sbom.errata.dto.ErrataVariant;
 import org.jboss.sbomer.service.feature.sbom.errata.event.AdvisoryEventUtils;
 import org.jboss.sbomer.service.feature.sbom.errata.event.util.MdcEventWrapper;
 import org.jboss.sbomer.service.feature.sbom.k8s.model.SbomGenerationStatus;
@@ -90,6 +92,10 @@ public class ReleaseStandardAdvisoryEventsListener extends AbstractEventsListene
     @Setter
     PyxisValidatingClient pyxisClient;
 
+    @Inject
+    @Setter
+    ErrataResolver errataResolver;
+
     private static final String NVR_STANDARD_SEPARATOR = "-";
 
     public void onReleaseAdvisoryEvent(@ObservesAsync MdcEventWrapper wrapper) {
@@ -109,8 +115,9 @@ public class ReleaseStandardAdvisoryEventsListener extends AbstractEventsListene
 
         try {
             RequestEvent requestEvent = requestEventRepository.findById(event.getRequestEventId());
-            try {
-                ErrataAdvisoryRequestConfig config = (ErrataAdvisoryRequestConfig) requestEvent.getRequestConfig();
+            ErrataAdvisoryRequestConfig config = (ErrataAdvisoryRequestConfig) requestEvent.getRequestConfig();
+
+            try (ErrataResolver.Session errata = errataResolver.session(config.getAdvisoryId())) {
                 Errata erratum = errataClient.getErratum(config.getAdvisoryId());
                 Map<ProductVersionEntry, List<BuildItem>> advisoryBuildDetails = getAdvisoryBuildDetails(
                         config.getAdvisoryId());
@@ -124,7 +131,8 @@ public class ReleaseStandardAdvisoryEventsListener extends AbstractEventsListene
 
                 // Associate each ProductVersion with its list of CPEs
                 Map<ProductVersionEntry, Set<String>> productVersionToCPEs = mapProductVersionToCPEs(
-                        advisoryBuildDetails);
+                        advisoryBuildDetails,
+                        errata);
 
                 // Associate each build (NVR) in an advisory to its build manifest generation
                 Map<String, V1Beta1GenerationRecord> nvrToBuildGeneration = mapNVRToBuildGeneration(
@@ -162,7 +170,8 @@ public class ReleaseStandardAdvisoryEventsListener extends AbstractEventsListene
                             toolVersion,
                             productType,
                             productVersionToCPEs,
-                            nvrToBuildGeneration);
+                            nvrToBuildGeneration,
+                            errata);
                 }
             } catch (Exception e) {
                 log.error(
@@ -190,7 +199,22 @@ public class ReleaseStandardAdvisoryEventsListener extends AbstractEventsListene
             String toolVersion,
             Component.Type productType,
             Map<ProductVersionEntry, Set<String>> productVersionToCPEs,
-            Map<String, V1Beta1GenerationRecord> nvrToBuildGeneration) {
+            Map<String, V1Beta1GenerationRecord> nvrToBuildGeneration,
+            ErrataResolver.Session errata) {
+
+        // FIXME: 'Optional.get()' without 'isPresent()' check
+        String productShortName = erratum.getDetails().get().getProduct().getShortName();
+
+        // Resolve the CDN repositories of all variants at once, build items look these up later. Only build items with a
+        // generation get a component in the release manifest, the others do not need them.
+        errata.getCDNRepos(
+                advisoryBuildDetails.values()
+                        .stream()
+                        .flatMap(List::stream)
+                        .filter(buildItem -> nvrToBuildGeneration.get(buildItem.getNvr()) != null)
+                        .flatMap(buildItem -> buildItem.getVariantArch().keySet().stream())
+                        .toList(),
+                productShortName);
 
         advisoryBuildDetails.forEach((productVersion, buildItems) -> {
 
@@ -209,13 +233,13 @@ public class ReleaseStandardAdvisoryEventsListener extends AbstractEventsListene
                 if (buildGeneration != null) {
                     // It could happen that not all the builds attached to the advisory have a generation done in SBOMer
                     // (the builds which SBOMer is not able to manifest)
-                    // FIXME: 'Optional.get()' without 'isPresent()' check
                     Component nvrRootComponent = createRootComponentForRPMBuildItem(
                             buildItem,
                             buildGeneration,
                             advisoryManifestsRecord,
-                            erratum.getDetails().get().getProduct().getShortName(),
-                            generationToCDNs);
+                            productShortName,
+                            generationToCDNs,
+                            errata);
 
                     // Add the component to the release manifest components and add the purl to the "provides" list
                     productVersionBom.addComponent(nvrRootComponent);
@@ -358,7 +382,8 @@ public class ReleaseStandardAdvisoryEventsListener extends AbstractEventsListene
             V1Beta1GenerationRecord generation,
             V1Beta1RequestRecord advisoryManifestsRecord,
             String productShortName,
-            Map<String, List<ErrataCDNRepoNormalized>> generationToCDNs) {
+            Map<String, List<ErrataCDNRepoNormalized>> generationToCDNs,
+            ErrataResolver.Session errata) {
 
         // From the generation triggered from this build (NVR), find the single manifest created and get the manifest
         // content that we need to copy the main component
@@ -375,7 +400,7 @@ public class ReleaseStandardAdvisoryEventsListener extends AbstractEventsListene
         Bom manifestBom = SbomUtils.fromJsonNode(manifestSbom.getSbom());
         Component manifestMainComponent = manifestBom.getComponents().get(0);
 
-        List<ErrataCDNRepoNormalized> allCDNs = getCDNDetails(buildItem, productShortName);
+        List<ErrataCDNRepoNormalized> allCDNs = getCDNDetails(buildItem, productShortName, errata);
         generationToCDNs.put(generation.id(), allCDNs);
 
         // From the manifest get all the archs from the purl 'arch' qualifier
@@ -533,6 +558,7 @@ public class ReleaseStandardAdvisoryEventsListener extends AbstractEventsListene
 
                     // 2.7 - Update the original Sbom
                     buildManifest.setSbom(SbomUtils.toJsonNode(manifestBom));
+                    sbomService.storeContent(buildManifest);
 
                     // 2.8 - Add more information for this release so to find manifests more easily
                     ObjectNode buildManifestMetadataNode = collectReleaseInfo(
@@ -689,6 +715,7 @@ public class ReleaseStandardAdvisoryEventsListener extends AbstractEventsListene
 
                     // 2.7 - Update the original Sbom
                     buildManifest.setSbom(SbomUtils.toJsonNode(manifestBom));
+                    sbomService.storeContent(buildManifest);
 
                     // 2.8 - Add more information for this release so to find manifests more easily
                     ObjectNode buildManifestMetadataNode = collectReleaseInfo(
@@ -735,14 +762,23 @@ public class ReleaseStandardAdvisoryEventsListener extends AbstractEventsListene
     }
 
     protected Map<ProductVersionEntry, Set<String>> mapProductVersionToCPEs(
-            Map<ProductVersionEntry, List<BuildItem>> advisoryBuildDetails) {
+            Map<ProductVersionEntry, List<BuildItem>> advisoryBuildDetails,
+            ErrataResolver.Session errata) {
+
+        // Resolve all the distinct VariantArch of the advisory at once
+        Map<String, ErrataVariant> variants = errata.getVariants(
+                advisoryBuildDetails.values()
+                        .stream()
+                        .flatMap(List::stream)
+                        .flatMap(buildItem -> buildItem.getVariantArch().keySet().stream())
+                        .toList());
 
         Map<ProductVersionEntry, Set<String>> productVersionToCPEs = new HashMap<>();
         advisoryBuildDetails.forEach((productVersionEntry, buildItems) -> {
             // Map all VariantArch to ErrataVariant and collect distinct ErrataVariant objects
             Set<String> productVersionCPEs = buildItems.stream()
                     .flatMap(buildItem -> buildItem.getVariantArch().keySet().stream())
-                    .map(variantArch -> errataClient.getVariant(variantArch))
+                    .map(variants::get)
                     .filter(Objects::nonNull)
                     .map(errataVariant -> errataVariant.getData().getAttributes().getCpe())
                     .collect(Collectors.toSet());
@@ -778,12 +814,11 @@ public class ReleaseStandardAdvisoryEventsListener extends AbstractEventsListene
                 .toList();
     }
 
-    protected List<ErrataCDNRepoNormalized> getCDNDetails(BuildItem buildItem, String productShortName) {
-        List<ErrataCDNRepoNormalized> allCDNs = new ArrayList<>();
-        buildItem.getVariantArch()
-                .keySet()
-                .forEach(variant -> allCDNs.addAll(errataClient.getCDNReposOfVariant(variant, productShortName)));
-        return allCDNs.stream().distinct().toList();
+    protected List<ErrataCDNRepoNormalized> getCDNDetails(
+            BuildItem buildItem,
+            String productShortName,
+            ErrataResolver.Session errata) {
+        return errata.getCDNRepos(buildItem.getVariantArch().keySet(), productShortName);
     }
 
     /*
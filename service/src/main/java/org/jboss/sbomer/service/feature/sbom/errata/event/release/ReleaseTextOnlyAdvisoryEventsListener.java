@@ -334,6 +334,7 @@ public class ReleaseTextOnlyAdvisoryEventsListener extends AbstractEventsListene
 
                 // 2.7 - Update the original Sbom
                 buildManifest.setSbom(SbomUtils.toJsonNode(manifestBom));
+                sbomService.storeContent(buildManifest);
 
                 // 2.8 - Add more information for this release so to find manifests more easily
                 ObjectNode buildManifestMetadataNode = collectReleaseInfo(
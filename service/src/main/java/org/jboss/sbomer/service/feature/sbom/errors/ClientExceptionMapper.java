@@ -37,7 +37,7 @@ public class ClientExceptionMapper extends AbstractExceptionMapper<ClientExcepti
         ErrorResponse error = ErrorResponse.builder()
                 .resource(uriInfo.getPath())
                 .errorId(ex.getErrorId())
-                .error(Status.fromStatusCode(ex.getCode()).getReasonPhrase())
+                .error(reasonPhrase(ex.getCode()))
                 .message(ex.getMessage())
                 .errors(ex.getErrors())
                 .build();
@@ -46,4 +46,15 @@ public class ClientExceptionMapper extends AbstractExceptionMapper<ClientExcepti
 
         return Response.status(ex.getCode()).entity(error).type(MediaType.APPLICATION_JSON).build();
     }
+
+    private static String reasonPhrase(int code) {
+        Status status = Status.fromStatusCode(code);
+
+        if (status != null) {
+            return status.getReasonPhrase();
+        }
+
+        // Not all the status codes are known to JAX-RS, for example 422 used for validation errors
+        return code == 422 ? "Unprocessable Entity" : Status.Family.familyOf(code).name();
+    }
 }
@@ -0,0 +1,45 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.service.feature.sbom.errors;
+
+import org.jboss.sbomer.core.errors.RangeNotSatisfiableException;
+
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.Response.ResponseBuilder;
+import jakarta.ws.rs.core.Response.Status;
+import jakarta.ws.rs.ext.Provider;
+
+@Provider
+public class RangeNotSatisfiableExceptionMapper extends AbstractExceptionMapper<RangeNotSatisfiableException> {
+
+    @Override
+    Status getStatus(RangeNotSatisfiableException ex) {
+        return Status.REQUESTED_RANGE_NOT_SATISFIABLE;
+    }
+
+    @Override
+    String errorMessage(RangeNotSatisfiableException ex) {
+        return ex.getMessage();
+    }
+
+    @Override
+    Response hook(ResponseBuilder responseBuilder, RangeNotSatisfiableException ex) {
+        // See RFC 9110, section 14.4
+        return responseBuilder.header("Content-Range", "bytes */" + ex.getLength()).build();
+    }
+}
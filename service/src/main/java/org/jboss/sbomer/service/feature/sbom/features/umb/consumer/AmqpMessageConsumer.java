@@ -33,6 +33,7 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.CompletionStage;
+import java.util.function.LongSupplier;
 
 import org.eclipse.microprofile.reactive.messaging.Incoming;
 import org.eclipse.microprofile.reactive.messaging.Message;
@@ -47,9 +48,13 @@ import org.jboss.sbomer.service.feature.sbom.config.features.UmbConfig;
 import org.jboss.sbomer.service.feature.sbom.errata.ErrataMessageHelper;
 import org.jboss.sbomer.service.feature.sbom.errata.event.umb.AdvisoryUmbStatusChangeEvent;
 import org.jboss.sbomer.service.feature.sbom.errata.event.umb.PncBuildUmbStatusChangeEvent;
+import org.jboss.sbomer.service.feature.sbom.features.umb.consumer.UmbConsumerMetrics.Stage;
 import org.jboss.sbomer.service.feature.sbom.model.RequestEvent;
+import org.jboss.sbomer.service.feature.sbom.model.UMBMessageCounter.Kind;
 import org.jboss.sbomer.service.feature.sbom.service.RequestEventRepository;
+import org.jboss.sbomer.service.feature.sbom.service.UMBMessageCounterRepository;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 
 import io.quarkus.arc.Unremovable;
@@ -80,6 +85,15 @@ public class AmqpMessageConsumer {
     @Inject
     RequestEventRepository requestEventRepository;
 
+    @Inject
+    UMBMessageCounterRepository counterRepository;
+
+    @Inject
+    UmbConsumerMetrics metrics;
+
+    @Inject
+    UmbMessageIdFilter messageIdFilter;
+
     public void init(@Observes StartupEvent ev) {
         if (!umbConfig.isEnabled()) {
             log.info("UMB support is disabled");
@@ -87,21 +101,35 @@ public class AmqpMessageConsumer {
         }
 
         log.info("Will use the reactive AMQP message consumer");
+
+        metrics.register();
+
+        // Counters which cannot be initialized now are initialized by the next flush of the counters, until then the
+        // statistics are computed from stored events
+        int initialized = counterRepository.backfill();
+        log.debug("Initialized {} UMB message counters", initialized);
     }
 
     @Incoming("errata")
     @Blocking(ordered = false, value = "errata-processor-pool")
     public CompletionStage<Void> processErrata(Message<byte[]> message) {
-        log.debug("Received new Errata tool status change notification via the AMQP consumer");
-
-        // Decode the message bytes to a String
-        String decodedMessage = ErrataMessageHelper.decode(message.getPayload());
-        log.debug("Decoded Message content: {}", decodedMessage);
+        return metrics.process(UMBConsumer.ERRATA, () -> doProcessErrata(message));
+    }
 
-        ObjectNode event = createUnidentifiedEvent(decodedMessage, UMBConsumer.ERRATA);
+    private CompletionStage<Void> doProcessErrata(Message<byte[]> message) {
+        log.debug("Received new Errata tool status change notification via the AMQP consumer");
 
         // Checking whether there is some additional metadata attached to the message
         Optional<IncomingAmqpMetadata> metadata = message.getMetadata(IncomingAmqpMetadata.class);
+        metadata.ifPresent(m -> metrics.recordLag(UMBConsumer.ERRATA, m.getCreationTime()));
+
+        ObjectNode event = metrics.time(UMBConsumer.ERRATA, Stage.DECODE, () -> {
+            // Decode the message bytes to a String
+            String decodedMessage = ErrataMessageHelper.decode(message.getPayload());
+            log.debug("Decoded Message content: {}", decodedMessage);
+
+            return createUnidentifiedEvent(decodedMessage, UMBConsumer.ERRATA);
+        });
 
         if (metadata.isPresent()) {
             addMetadataToEvent(metadata.get(), event);
@@ -109,25 +137,37 @@ public class AmqpMessageConsumer {
         }
 
         if (!isIdentifiedEvent(event)) {
-            return ackAndSaveUnknownMessage(message, event);
+            return metrics.time(UMBConsumer.ERRATA, Stage.ACK, () -> ackAndSaveUnknownMessage(message, event));
+        }
+
+        if (isRecentlyAcknowledged(event)) {
+            log.warn(
+                    "Message with id '{}' has been already processed recently for errata, skipping it",
+                    event.get(EVENT_KEY_UMB_MSG_ID).asText());
+
+            return metrics.time(UMBConsumer.ERRATA, Stage.ACK, () -> skipDuplicate(message, UMBConsumer.ERRATA));
         }
 
         // Store the requestEvent (to keep events in case of subsequent failures)
-        RequestEvent requestEvent = saveNewEvent(event);
+        RequestEvent requestEvent = metrics.time(UMBConsumer.ERRATA, Stage.SAVE, () -> saveNewEvent(event));
 
         if (hasMessageId(event)) {
             // Verify that there aren't already ACKED UMBMessages with the same msg id
             // There is an issue in our queues and same messages are processed multiple times which we want to avoid
             // generating manifests for the same event
             String msgId = event.get(EVENT_KEY_UMB_MSG_ID).asText();
-            long alreadyGenerated = getAlreadyAckedUMBEventsFor(msgId);
+            long alreadyGenerated = metrics
+                    .time(UMBConsumer.ERRATA, Stage.DEDUP, () -> getAlreadyAckedUMBEventsFor(msgId));
             if (alreadyGenerated > 0) {
                 log.warn(
                         "Message with id '{}' has been already received and processed {} times for errata!! Will not process it again, skipping it",
                         msgId,
                         alreadyGenerated);
 
-                return skipAndSave(message, requestEvent);
+                CompletionStage<Void> ack = metrics
+                        .time(UMBConsumer.ERRATA, Stage.ACK, () -> skipAndSave(message, requestEvent));
+                messageIdFilter.acknowledge(msgId);
+                return ack;
             }
         }
 
@@ -136,19 +176,30 @@ public class AmqpMessageConsumer {
                 AdvisoryUmbStatusChangeEvent.builder().withRequestEventId(requestEvent.getId()).build());
 
         // Ack the message
-        return ackAndSave(message, requestEvent);
+        CompletionStage<Void> ack = metrics
+                .time(UMBConsumer.ERRATA, Stage.ACK, () -> ackAndSave(message, requestEvent));
+        rememberAcknowledged(event);
+        return ack;
     }
 
     @Incoming("builds")
     @Blocking(ordered = false, value = "build-processor-pool")
     public CompletionStage<Void> process(Message<String> message) {
+        return metrics.process(UMBConsumer.PNC, () -> doProcess(message));
+    }
+
+    private CompletionStage<Void> doProcess(Message<String> message) {
         log.debug("Received new PNC build status notification via the AMQP consumer");
         log.debug("Message content: {}", message.getPayload());
 
-        ObjectNode event = createUnidentifiedEvent(message.getPayload(), UMBConsumer.PNC);
-
         // Checking whether there is some additional metadata attached to the message
         Optional<IncomingAmqpMetadata> metadata = message.getMetadata(IncomingAmqpMetadata.class);
+        metadata.ifPresent(m -> metrics.recordLag(UMBConsumer.PNC, m.getCreationTime()));
+
+        ObjectNode event = metrics.time(
+                UMBConsumer.PNC,
+                Stage.DECODE,
+                () -> createUnidentifiedEvent(message.getPayload(), UMBConsumer.PNC));
 
         if (metadata.isPresent()) {
             addMetadataToEvent(metadata.get(), event);
@@ -156,25 +207,37 @@ public class AmqpMessageConsumer {
         }
 
         if (!isIdentifiedEvent(event)) {
-            return ackAndSaveUnknownMessage(message, event);
+            return metrics.time(UMBConsumer.PNC, Stage.ACK, () -> ackAndSaveUnknownMessage(message, event));
+        }
+
+        if (isRecentlyAcknowledged(event)) {
+            log.warn(
+                    "Message with id '{}' has been already processed recently, skipping it",
+                    event.get(EVENT_KEY_UMB_MSG_ID).asText());
+
+            return metrics.time(UMBConsumer.PNC, Stage.ACK, () -> skipDuplicate(message, UMBConsumer.PNC));
         }
 
         // Store the requestEvent (to keep events in case of subsequent failures)
-        RequestEvent requestEvent = saveNewEvent(event);
+        RequestEvent requestEvent = metrics.time(UMBConsumer.PNC, Stage.SAVE, () -> saveNewEvent(event));
 
         if (hasMessageId(event)) {
             // Verify that there aren't already ACKED UMBMessages with the same msg id
             // There is an issue in our queues and same messages are processed multiple times which we want to avoid
             // generating manifests for the same event
             String msgId = event.get(EVENT_KEY_UMB_MSG_ID).asText();
-            long alreadyGenerated = getAlreadyAckedUMBEventsFor(msgId);
+            long alreadyGenerated = metrics
+                    .time(UMBConsumer.PNC, Stage.DEDUP, () -> getAlreadyAckedUMBEventsFor(msgId));
             if (alreadyGenerated > 0) {
                 log.warn(
                         "Message with id '{}' has been already received and processed {} times!! Will not process it again, skipping it",
                         msgId,
                         alreadyGenerated);
 
-                return skipAndSave(message, requestEvent);
+                CompletionStage<Void> ack = metrics
+                        .time(UMBConsumer.PNC, Stage.ACK, () -> skipAndSave(message, requestEvent));
+                messageIdFilter.acknowledge(msgId);
+                return ack;
             }
         }
 
@@ -183,7 +246,10 @@ public class AmqpMessageConsumer {
                 PncBuildUmbStatusChangeEvent.builder().withRequestEventId(requestEvent.getId()).build());
 
         // Ack the message
-        return ackAndSave(message, requestEvent);
+        CompletionStage<Void> ack = metrics
+                .time(UMBConsumer.PNC, Stage.ACK, () -> ackAndSave(message, requestEvent));
+        rememberAcknowledged(event);
+        return ack;
     }
 
     private void identifyErrataEvent(IncomingAmqpMetadata metadata, ObjectNode event) {
@@ -221,6 +287,16 @@ public class AmqpMessageConsumer {
         return event.has(EVENT_KEY_UMB_MSG_ID);
     }
 
+    private boolean isRecentlyAcknowledged(ObjectNode event) {
+        return hasMessageId(event) && messageIdFilter.isAcknowledged(event.get(EVENT_KEY_UMB_MSG_ID).asText());
+    }
+
+    private void rememberAcknowledged(ObjectNode event) {
+        if (hasMessageId(event)) {
+            messageIdFilter.acknowledge(event.get(EVENT_KEY_UMB_MSG_ID).asText());
+        }
+    }
+
     private ObjectNode createUnidentifiedEvent(String content, UMBConsumer consumer) {
         return ObjectMapperProvider.json()
                 .createObjectNode()
@@ -242,6 +318,7 @@ public class AmqpMessageConsumer {
                 null,
                 Map.of(EVENT_KEY_UMB_MSG_STATUS, UMBMessageStatus.ACK.toString()),
                 null);
+        counterRepository.increment(consumerOf(requestEvent.getEvent()), Kind.PROCESSED);
         return message.ack();
     }
 
@@ -252,6 +329,18 @@ public class AmqpMessageConsumer {
                 RequestEventStatus.IGNORED,
                 Map.of(EVENT_KEY_UMB_MSG_STATUS, UMBMessageStatus.SKIPPED.toString()),
                 RequestEvent.IGNORED_DUPLICATED_REASON);
+        counterRepository.increment(consumerOf(requestEvent.getEvent()), Kind.SKIPPED);
+        return message.ack();
+    }
+
+    /**
+     * Acknowledges a message already known to be a duplicate, without storing a new request event. Only the counters
+     * are updated, to keep the statistics accurate.
+     */
+    @Transactional(value = TxType.REQUIRES_NEW)
+    protected CompletionStage<Void> skipDuplicate(Message<?> message, UMBConsumer consumer) {
+        counterRepository.increment(consumer, Kind.RECEIVED);
+        counterRepository.increment(consumer, Kind.SKIPPED);
         return message.ack();
     }
 
@@ -265,12 +354,27 @@ public class AmqpMessageConsumer {
         extra.forEach(event::put);
         requestEventRepository
                 .createRequestEvent(RequestEventStatus.IGNORED, event, RequestEvent.IGNORED_UNKNOWN_REASON);
+        counterRepository.increment(consumerOf(event), Kind.RECEIVED);
         return message.ack();
     }
 
     @Transactional(value = TxType.REQUIRES_NEW)
     protected RequestEvent saveNewEvent(ObjectNode event) {
-        return requestEventRepository.createRequestEvent(null, event, null);
+        RequestEvent requestEvent = requestEventRepository.createRequestEvent(null, event, null);
+        counterRepository.increment(consumerOf(event), Kind.RECEIVED);
+        return requestEvent;
+    }
+
+    private UMBConsumer consumerOf(JsonNode event) {
+        return UMBConsumer.valueOf(event.get(EVENT_KEY_UMB_CONSUMER).asText());
+    }
+
+    /**
+     * Reads the counter maintained for the given consumer, falling back to counting the stored events in case the
+     * counter is not initialized.
+     */
+    private long getMessages(UMBConsumer consumer, Kind kind, LongSupplier fallback) {
+        return counterRepository.getTotal(consumer, kind).orElseGet(fallback::getAsLong);
     }
 
     @Transactional
@@ -280,32 +384,32 @@ public class AmqpMessageConsumer {
 
     @Transactional
     public long getPncProcessedMessages() {
-        return requestEventRepository.countPncProcessedMessages();
+        return getMessages(UMBConsumer.PNC, Kind.PROCESSED, requestEventRepository::countPncProcessedMessages);
     }
 
     @Transactional
     public long getPncReceivedMessages() {
-        return requestEventRepository.countPncReceivedMessages();
+        return getMessages(UMBConsumer.PNC, Kind.RECEIVED, requestEventRepository::countPncReceivedMessages);
     }
 
     @Transactional
     public long getErrataProcessedMessages() {
-        return requestEventRepository.countErrataProcessedMessages();
+        return getMessages(UMBConsumer.ERRATA, Kind.PROCESSED, requestEventRepository::countErrataProcessedMessages);
     }
 
     @Transactional
     public long getErrataReceivedMessages() {
-        return requestEventRepository.countErrataReceivedMessages();
+        return getMessages(UMBConsumer.ERRATA, Kind.RECEIVED, requestEventRepository::countErrataReceivedMessages);
     }
 
     @Transactional
     public long getPncSkippedMessages() {
-        return requestEventRepository.countPncSkippedMessages();
+        return getMessages(UMBConsumer.PNC, Kind.SKIPPED, requestEventRepository::countPncSkippedMessages);
     }
 
     @Transactional
     public long getErrataSkippedMessages() {
-        return requestEventRepository.countErrataSkippedMessages();
+        return getMessages(UMBConsumer.ERRATA, Kind.SKIPPED, requestEventRepository::countErrataSkippedMessages);
     }
 
 }
@@ -0,0 +1,168 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.service.feature.sbom.features.umb.consumer;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.eclipse.microprofile.config.ConfigProvider;
+import org.eclipse.microprofile.metrics.MetricRegistry;
+import org.eclipse.microprofile.metrics.Tag;
+import org.jboss.sbomer.core.features.sbom.enums.UMBConsumer;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+/**
+ * <p>
+ * Metrics of the UMB consumption pipeline, all tagged with the consumer:
+ * </p>
+ *
+ * <ul>
+ * <li>{@value #STAGE_TIMER} timer, time spent in each processing stage (tagged with the stage),</li>
+ * <li>{@value #LAG_HISTOGRAM} histogram, time between the message creation and the start of its processing, in
+ * milliseconds,</li>
+ * <li>{@value #IN_FLIGHT_GAUGE} gauge, number of messages being processed at the moment,</li>
+ * <li>{@value #CAPACITY_GAUGE} gauge, maximum number of messages processed concurrently by the worker pool,</li>
+ * <li>{@value #SATURATION_GAUGE} gauge, ratio of the two above.</li>
+ * </ul>
+ */
+@ApplicationScoped
+public class UmbConsumerMetrics {
+
+    public static final String STAGE_TIMER = "sbomer_umb_consumer_stage";
+    public static final String LAG_HISTOGRAM = "sbomer_umb_consumer_lag_ms";
+    public static final String IN_FLIGHT_GAUGE = "sbomer_umb_consumer_in_flight";
+    public static final String CAPACITY_GAUGE = "sbomer_umb_consumer_capacity";
+    public static final String SATURATION_GAUGE = "sbomer_umb_consumer_saturation";
+
+    // Default of SmallRye Reactive Messaging when the pool concurrency is not configured
+    private static final int DEFAULT_MAX_CONCURRENCY = 20;
+
+    public enum Stage {
+        /**
+         * Decoding of the message payload.
+         */
+        DECODE,
+        /**
+         * Storing the new request event.
+         */
+        SAVE,
+        /**
+         * Checking whether the message was already processed.
+         */
+        DEDUP,
+        /**
+         * Updating the request event and acknowledging the message.
+         */
+        ACK,
+        /**
+         * The whole processing of the message.
+         */
+        TOTAL
+    }
+
+    @Inject
+    MetricRegistry metricRegistry;
+
+    private final Map<UMBConsumer, AtomicInteger> inFlight = new EnumMap<>(UMBConsumer.class);
+
+    public UmbConsumerMetrics() {
+        for (UMBConsumer consumer : UMBConsumer.values()) {
+            inFlight.put(consumer, new AtomicInteger());
+        }
+    }
+
+    /**
+     * Registers the gauges of all consumers, so that these are exposed before the first message arrives.
+     */
+    public void register() {
+        for (UMBConsumer consumer : UMBConsumer.values()) {
+            int capacity = maxConcurrency(consumer);
+            AtomicInteger current = inFlight.get(consumer);
+
+            metricRegistry.gauge(IN_FLIGHT_GAUGE, current, AtomicInteger::get, tag(consumer));
+            metricRegistry.gauge(CAPACITY_GAUGE, () -> capacity, tag(consumer));
+            metricRegistry.gauge(SATURATION_GAUGE, current, c -> (double) c.get() / capacity, tag(consumer));
+        }
+    }
+
+    public <T> T time(UMBConsumer consumer, Stage stage, Supplier<T> supplier) {
+        long start = System.nanoTime();
+
+        try {
+            return supplier.get();
+        } finally {
+            record(consumer, stage, start);
+        }
+    }
+
+    /**
+     * Records the whole processing of the message, including the number of messages in flight.
+     */
+    public <T> T process(UMBConsumer consumer, Supplier<T> supplier) {
+        AtomicInteger current = inFlight.get(consumer);
+        current.incrementAndGet();
+
+        try {
+            return time(consumer, Stage.TOTAL, supplier);
+        } finally {
+            current.decrementAndGet();
+        }
+    }
+
+    /**
+     * Records the time the message spent waiting, in the broker and in the worker pool queue.
+     *
+     * @param consumer the consumer
+     * @param creationTime the creation time of the message in milliseconds since the epoch, {@code 0} if unknown
+     */
+    public void recordLag(UMBConsumer consumer, long creationTime) {
+        if (creationTime <= 0) {
+            return;
+        }
+
+        metricRegistry.histogram(LAG_HISTOGRAM, tag(consumer))
+                .update(Math.max(0, System.currentTimeMillis() - creationTime));
+    }
+
+    private void record(UMBConsumer consumer, Stage stage, long start) {
+        metricRegistry
+                .timer(STAGE_TIMER, tag(consumer), new Tag("stage", stage.name().toLowerCase(Locale.ROOT)))
+                .update(Duration.ofNanos(System.nanoTime() - start));
+    }
+
+    private static Tag tag(UMBConsumer consumer) {
+        return new Tag("consumer", consumer.name().toLowerCase(Locale.ROOT));
+    }
+
+    private static int maxConcurrency(UMBConsumer consumer) {
+        String pool = switch (consumer) {
+            case PNC -> "build-processor-pool";
+            case ERRATA -> "errata-processor-pool";
+        };
+
+        return ConfigProvider.getConfig()
+                .getOptionalValue("smallrye.messaging.worker.\"" + pool + "\".max-concurrency", Integer.class)
+                .orElse(DEFAULT_MAX_CONCURRENCY);
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.service.feature.sbom.features.umb.consumer;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.jboss.sbomer.service.feature.sbom.config.features.UmbConfig;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+/**
+ * <p>
+ * Remembers the ids of recently acknowledged UMB messages, so that messages redelivered by the broker can be skipped
+ * before anything is stored in the database.
+ * </p>
+ *
+ * <p>
+ * The number of remembered ids is bounded and ids are forgotten after the configured window. Ids not known to the
+ * filter (for example after a restart) need to be checked against the database.
+ * </p>
+ */
+@ApplicationScoped
+public class UmbMessageIdFilter {
+
+    private final int maxSize;
+
+    private final Duration window;
+
+    private final Clock clock;
+
+    // Ordered from the oldest to the most recently acknowledged id
+    private final LinkedHashMap<String, Instant> acknowledged = new LinkedHashMap<>();
+
+    @Inject
+    public UmbMessageIdFilter(UmbConfig umbConfig) {
+        this(umbConfig.consumer().dedupCacheSize(), umbConfig.consumer().dedupWindow(), Clock.systemUTC());
+    }
+
+    public UmbMessageIdFilter(int maxSize, Duration window, Clock clock) {
+        this.maxSize = maxSize;
+        this.window = window;
+        this.clock = clock;
+    }
+
+    /**
+     * Checks whether the message with the given id was acknowledged within the window.
+     *
+     * @param msgId the message id
+     * @return {@code true} if the message was recently acknowledged, {@code false} if unknown
+     */
+    public synchronized boolean isAcknowledged(String msgId) {
+        Instant acknowledgedAt = acknowledged.get(msgId);
+
+        if (acknowledgedAt == null) {
+            return false;
+        }
+
+        if (isExpired(acknowledgedAt, clock.instant())) {
+            acknowledged.remove(msgId);
+            return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Remembers the message with the given id as acknowledged.
+     *
+     * @param msgId the message id
+     */
+    public synchronized void acknowledge(String msgId) {
+        Instant now = clock.instant();
+
+        // Re-insert to move the id to the end of the order
+        acknowledged.remove(msgId);
+        acknowledged.put(msgId, now);
+
+        Iterator<Map.Entry<String, Instant>> it = acknowledged.entrySet().iterator();
+
+        while (it.hasNext()) {
+            Map.Entry<String, Instant> oldest = it.next();
+
+            if (acknowledged.size() <= maxSize && !isExpired(oldest.getValue(), now)) {
+                break;
+            }
+
+            it.remove();
+        }
+    }
+
+    public synchronized int size() {
+        return acknowledged.size();
+    }
+
+    private boolean isExpired(Instant acknowledgedAt, Instant now) {
+        return acknowledgedAt.plus(window).isBefore(now);
+    }
+}
@@ -0,0 +1,180 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.service.feature.sbom.model;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Objects;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.hibernate.annotations.Immutable;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.proxy.HibernateProxy;
+import org.hibernate.type.SqlTypes;
+import org.jboss.sbomer.core.features.sbom.utils.ObjectMapperProvider;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
+import io.quarkus.runtime.annotations.RegisterForReflection;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+/**
+ * <p>
+ * Content of a manifest, addressed by the SHA-256 hash of its JSON serialization. Identical manifests, for example
+ * coming from regenerations of the same build, are stored once and referenced by all the {@link Sbom}s having them.
+ * </p>
+ *
+ * <p>
+ * The content is stored gzip compressed and never changes once stored.
+ * </p>
+ */
+@Getter
+@Entity
+@Immutable
+@ToString
+@Table(name = "manifest_content")
+@NoArgsConstructor
+@RegisterForReflection
+public class ManifestContent extends PanacheEntityBase {
+
+    /**
+     * Hex encoded SHA-256 hash of the uncompressed content.
+     */
+    @Id
+    @Column(name = "hash", nullable = false, updatable = false, length = 64)
+    private String hash;
+
+    /**
+     * The gzip compressed JSON serialization of the manifest.
+     */
+    @JdbcTypeCode(SqlTypes.LONG32VARBINARY)
+    @Column(name = "content", nullable = false, updatable = false)
+    @ToString.Exclude
+    private byte[] content;
+
+    /**
+     * Size of the uncompressed content, in bytes.
+     */
+    @Column(name = "uncompressed_size", nullable = false, updatable = false)
+    private long uncompressedSize;
+
+    @Column(name = "creation_time", nullable = false, updatable = false)
+    private Instant creationTime;
+
+    /**
+     * Creates the content entry for the given manifest.
+     *
+     * @param bom the manifest
+     * @return the content entry, not stored yet
+     */
+    public static ManifestContent of(JsonNode bom) {
+        Objects.requireNonNull(bom, "Manifest content must be provided");
+
+        try {
+            byte[] json = ObjectMapperProvider.json().writeValueAsBytes(bom);
+
+            ManifestContent manifestContent = new ManifestContent();
+            manifestContent.hash = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(json));
+            manifestContent.content = compress(json);
+            manifestContent.uncompressedSize = json.length;
+            manifestContent.creationTime = Instant.now();
+
+            return manifestContent;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to serialize manifest content", e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Parses the manifest. Every call returns a new tree, as the content is shared by several manifests.
+     *
+     * @return the parsed manifest
+     */
+    public JsonNode getBom() {
+        try (InputStream stream = openStream()) {
+            return ObjectMapperProvider.json().readTree(stream);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read content of the manifest " + hash, e);
+        }
+    }
+
+    /**
+     * @return a stream of the uncompressed JSON serialization of the manifest, without parsing it
+     * @throws IOException if the content could not be decompressed
+     */
+    public InputStream openStream() throws IOException {
+        return new GZIPInputStream(new ByteArrayInputStream(content));
+    }
+
+    private static byte[] compress(byte[] data) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(data.length / 8 + 64);
+
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(data);
+        }
+
+        return compressed.toByteArray();
+    }
+
+    @Override
+    public final boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+
+        if (o == null) {
+            return false;
+        }
+
+        Class<?> oEffectiveClass = (o instanceof HibernateProxy proxy)
+                ? proxy.getHibernateLazyInitializer().getPersistentClass()
+                : o.getClass();
+        Class<?> thisEffectiveClass = (this instanceof HibernateProxy proxy)
+                ? proxy.getHibernateLazyInitializer().getPersistentClass()
+                : this.getClass();
+
+        if (thisEffectiveClass != oEffectiveClass) {
+            return false;
+        }
+
+        ManifestContent other = (ManifestContent) o;
+        return Objects.equals(hash, other.hash);
+    }
+
+    @Override
+    public final int hashCode() {
+        return Objects.hash(hash);
+    }
+}
@@ -62,7 +62,8 @@ import lombok.extern.slf4j.Slf4j;
 @Table(
         name = "request",
         indexes = { @Index(name = "idx_request_eventtype", columnList = "event_type"),
-                @Index(name = "idx_request_eventstatus", columnList = "event_status") })
+                @Index(name = "idx_request_eventstatus", columnList = "event_status"),
+                @Index(name = "idx_request_receivaltime_id", columnList = "receival_time DESC, id DESC") })
 @Slf4j
 @NoArgsConstructor
 @AllArgsConstructor
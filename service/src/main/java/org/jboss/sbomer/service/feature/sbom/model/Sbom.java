@@ -25,6 +25,7 @@ import org.cyclonedx.model.Bom;
 import org.eclipse.microprofile.openapi.annotations.media.Schema;
 import org.hibernate.annotations.DynamicUpdate;
 import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.annotations.LazyGroup;
 import org.hibernate.proxy.HibernateProxy;
 import org.hibernate.type.SqlTypes;
 import org.jboss.sbomer.core.features.sbom.utils.SbomUtils;
@@ -35,6 +36,7 @@ import com.fasterxml.jackson.databind.JsonNode;
 
 import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
 import io.quarkus.runtime.annotations.RegisterForReflection;
+import jakarta.persistence.Basic;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
@@ -46,9 +48,10 @@ import jakarta.persistence.JoinColumn;
 import jakarta.persistence.Lob;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.PrePersist;
-import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
 import jakarta.validation.constraints.NotBlank;
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
@@ -64,7 +67,9 @@ import lombok.ToString;
 @Table(
         name = "sbom",
         indexes = { @Index(name = "idx_sbom_identifier", columnList = "identifier"),
-                @Index(name = "idx_sbom_rootpurl", columnList = "root_purl") })
+                @Index(name = "idx_sbom_rootpurl", columnList = "root_purl"),
+                @Index(name = "idx_sbom_creationtime_id", columnList = "creation_time DESC, id DESC"),
+                @Index(name = "idx_sbom_contenthash", columnList = "content_hash") })
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder(setterPrefix = "with")
@@ -85,6 +90,12 @@ public class Sbom extends PanacheEntityBase {
     @Column(name = "creation_time", nullable = false, updatable = false)
     private Instant creationTime;
 
+    /**
+     * The manifest content stored inline, loaded only when accessed. It has its own lazy group so that reading
+     * {@link #releaseMetadata} does not load it too. Once moved to the {@link #content}, it is cleared.
+     */
+    @Basic(fetch = FetchType.LAZY)
+    @LazyGroup("sbom")
     @JdbcTypeCode(SqlTypes.JSON)
     @Column(name = "sbom")
     @CycloneDxBom
@@ -93,6 +104,25 @@ public class Sbom extends PanacheEntityBase {
                                         // big schema which is the case if we use the Bom.class
     private JsonNode sbom;
 
+    /**
+     * The manifest content, shared with all other manifests having the same content.
+     */
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "content_hash", foreignKey = @ForeignKey(name = "fk_sbom_content"))
+    @JsonIgnore
+    @ToString.Exclude
+    private ManifestContent content;
+
+    /**
+     * The content read from the {@link #content}, owned by this object only.
+     */
+    @Transient
+    @JsonIgnore
+    @ToString.Exclude
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private JsonNode storedSbom;
+
     @Column(name = "config_index")
     private Integer configIndex;
 
@@ -106,6 +136,8 @@ public class Sbom extends PanacheEntityBase {
     @Column(name = "status_msg")
     private String statusMessage;
 
+    @Basic(fetch = FetchType.LAZY)
+    @LazyGroup("releaseMetadata")
     @JdbcTypeCode(SqlTypes.JSON)
     @Column(name = "release_metadata")
     @ToString.Exclude
@@ -113,28 +145,81 @@ public class Sbom extends PanacheEntityBase {
     private JsonNode releaseMetadata;
 
     /**
-     * Updates the purl for the object based on the SBOM content, if provided.
+     * <p>
+     * Returns the SBOM content, either the one set on this object or, if there is none, the one from the
+     * content-addressed storage.
+     * </p>
+     *
+     * <p>
+     * Content read from the content-addressed storage is not shared with other objects, but changes made to it in
+     * place are not stored. Use {@link #setSbom(JsonNode)} to change the content.
+     * </p>
      *
+     * @return the SBOM content
      */
-    private void setupRootPurl() {
-        Bom bom = SbomUtils.fromJsonNode(getSbom());
+    public JsonNode getSbom() {
+        if (sbom == null && content != null) {
+            if (storedSbom == null) {
+                storedSbom = content.getBom();
+            }
+
+            return storedSbom;
+        }
 
-        rootPurl = null;
+        return sbom;
+    }
 
-        if (bom != null && bom.getMetadata() != null && bom.getMetadata().getComponent() != null) {
-            rootPurl = bom.getMetadata().getComponent().getPurl();
+    /**
+     * Sets the SBOM content and updates the purl of the object accordingly.
+     *
+     * @param sbom the SBOM content
+     */
+    public void setSbom(JsonNode sbom) {
+        this.sbom = sbom;
+        setupRootPurl();
+    }
+
+    /**
+     * @return {@code true} if the SBOM content was set on this object and is not in the content-addressed storage yet
+     */
+    public boolean hasInlineContent() {
+        return sbom != null;
+    }
+
+    /**
+     * Replaces the SBOM content set on this object with the given content stored in the content-addressed storage.
+     *
+     * @param content the stored content
+     */
+    public void setContent(ManifestContent content) {
+        if (sbom != null) {
+            // While the content is still at hand
+            setupRootPurl();
         }
+
+        // The content set on this object is the same, no need to read it back
+        this.storedSbom = sbom;
+        this.content = content;
+        this.sbom = null;
+    }
+
+    /**
+     * Updates the purl for the object based on the SBOM content, if provided. Only the
+     * {@code metadata.component.purl} path is read, the content is not converted into a {@link Bom}.
+     *
+     */
+    private void setupRootPurl() {
+        rootPurl = SbomUtils.getRootPurl(getSbom());
     }
 
     @PrePersist
     public void prePersist() {
         creationTime = Instant.now();
-        setupRootPurl();
-    }
 
-    @PreUpdate
-    public void preUpdate() {
-        setupRootPurl();
+        // Entities created with the builder do not go through the setter
+        if (sbom != null) {
+            setupRootPurl();
+        }
     }
 
     @Override
@@ -80,7 +80,8 @@ import lombok.extern.slf4j.Slf4j;
         name = "sbom_generation_request",
         indexes = { @Index(name = "idx_request_identifier", columnList = "identifier"),
                 @Index(name = "idx_request_type", columnList = "type"),
-                @Index(name = "idx_request_status", columnList = "status") })
+                @Index(name = "idx_request_status", columnList = "status"),
+                @Index(name = "idx_request_creationtime_id", columnList = "creation_time DESC, id DESC") })
 @Slf4j
 @NoArgsConstructor
 @AllArgsConstructor
@@ -0,0 +1,99 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.service.feature.sbom.model;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+import org.jboss.sbomer.core.features.sbom.enums.UMBConsumer;
+
+import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
+import io.quarkus.runtime.annotations.RegisterForReflection;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * Number of UMB messages handled by a given consumer, maintained incrementally by the
+ * {@link org.jboss.sbomer.service.feature.sbom.features.umb.consumer.AmqpMessageConsumer}, so that the statistics do
+ * not need to scan the {@link RequestEvent} table.
+ */
+@Getter
+@Setter
+@Entity
+@ToString
+@Table(name = "umb_message_counter")
+@IdClass(UMBMessageCounter.Key.class)
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder(setterPrefix = "with")
+@RegisterForReflection
+public class UMBMessageCounter extends PanacheEntityBase {
+
+    public enum Kind {
+        /**
+         * All messages received by the consumer, including the ones of unknown type.
+         */
+        RECEIVED,
+        /**
+         * Messages of a known type that were acknowledged and processed.
+         */
+        PROCESSED,
+        /**
+         * Messages of a known type that were skipped, because they were already processed.
+         */
+        SKIPPED
+    }
+
+    @Getter
+    @Setter
+    @EqualsAndHashCode
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private UMBConsumer consumer;
+        private Kind kind;
+    }
+
+    @Id
+    @Column(name = "consumer", nullable = false, updatable = false)
+    @Enumerated(EnumType.STRING)
+    private UMBConsumer consumer;
+
+    @Id
+    @Column(name = "kind", nullable = false, updatable = false)
+    @Enumerated(EnumType.STRING)
+    private Kind kind;
+
+    @Column(name = "total", nullable = false)
+    private long total;
+
+    @Column(name = "updated", nullable = false)
+    private Instant updated;
+}
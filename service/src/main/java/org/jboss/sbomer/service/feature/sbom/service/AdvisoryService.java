@@ -62,6 +62,7 @@ import org.jboss.sbomer.core.rest.faulttolerance.RetryLogger;
 import org.jboss.sbomer.service.feature.FeatureFlags;
 import org.jboss.sbomer.service.feature.sbom.errata.ErrataClient;
 import org.jboss.sbomer.service.feature.sbom.errata.ErrataNotesSchemaValidator;
+import org.jboss.sbomer.service.feature.sbom.errata.ErrataResolver;
 import org.jboss.sbomer.service.feature.sbom.errata.dto.Errata;
 import org.jboss.sbomer.service.feature.sbom.errata.dto.Errata.Details;
 import org.jboss.sbomer.service.feature.sbom.errata.dto.ErrataBuildList;
@@ -108,6 +109,10 @@ public class AdvisoryService {
     @Setter
     ErrataClient errataClient;
 
+    @Inject
+    @Setter
+    ErrataResolver errataResolver;
+
     @Inject
     KojiProvider kojiProvider;
 
@@ -641,7 +646,7 @@ public class AdvisoryService {
         }
 
         // SBOMER-401: Verify if there are CPEs associated, some very specific standard advisories do not have them
-        Set<String> allCPEs = getAllCPEsOfBuilds(buildDetails);
+        Set<String> allCPEs = getAllCPEsOfBuilds(String.valueOf(erratum.getDetails().get().getId()), buildDetails);
 
         if (allCPEs.isEmpty()) {
             String reason = String.format(
@@ -668,20 +673,22 @@ public class AdvisoryService {
         return releaseGenerations.values();
     }
 
-    private Set<String> getAllCPEsOfBuilds(Map<ProductVersionEntry, List<BuildItem>> buildDetails) {
-        Set<String> allCPEs = new HashSet<>();
-        buildDetails.forEach((productVersionEntry, buildItems) -> {
-            // Map all VariantArch to ErrataVariant and collect distinct ErrataVariant objects
-            Set<String> productVersionCPEs = buildItems.stream()
-                    .flatMap(buildItem -> buildItem.getVariantArch().keySet().stream())
-                    .map(variantArch -> errataClient.getVariant(variantArch))
-                    .filter(Objects::nonNull)
+    private Set<String> getAllCPEsOfBuilds(String advisoryId, Map<ProductVersionEntry, List<BuildItem>> buildDetails) {
+        // Map all VariantArch of all ProductVersions to ErrataVariant, each distinct VariantArch is resolved once
+        try (ErrataResolver.Session errata = errataResolver.session(advisoryId)) {
+            return errata
+                    .getVariants(
+                            buildDetails.values()
+                                    .stream()
+                                    .flatMap(List::stream)
+                                    .flatMap(buildItem -> buildItem.getVariantArch().keySet().stream())
+                                    .toList())
+                    .values()
+                    .stream()
                     .map(errataVariant -> errataVariant.getData().getAttributes().getCpe())
                     .filter(Objects::nonNull)
                     .collect(Collectors.toSet());
-            allCPEs.addAll(productVersionCPEs);
-        });
-        return allCPEs;
+        }
     }
 
     @Transactional
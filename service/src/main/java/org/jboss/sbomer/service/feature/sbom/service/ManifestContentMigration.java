@@ -0,0 +1,83 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.service.feature.sbom.service;
+
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.sbomer.service.leader.LeaderManager;
+
+import io.quarkus.scheduler.Scheduled;
+import io.quarkus.scheduler.Scheduled.ConcurrentExecution;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Moves the content of manifests stored inline, in the {@code sbom} column, to the content-addressed storage, see
+ * {@link org.jboss.sbomer.service.feature.sbom.model.ManifestContent}.
+ */
+@ApplicationScoped
+@Slf4j
+public class ManifestContentMigration {
+
+    @Inject
+    ManifestContentRepository contentRepository;
+
+    @Inject
+    LeaderManager leaderManager;
+
+    @ConfigProperty(name = "sbomer.service.manifest-content.migration-batch-size", defaultValue = "20")
+    int batchSize;
+
+    /**
+     * <p>
+     * Migrates all manifests stored inline, one batch of
+     * {@code sbomer.service.manifest-content.migration-batch-size} manifests per transaction, so that a single
+     * transaction does not hold too many manifests in memory.
+     * </p>
+     *
+     * <p>
+     * This method is run periodically on the leader instance, by default every 5 minutes. It is controlled by the
+     * {@code sbomer.service.manifest-content.migration-interval} property, {@code off} disables it.
+     * </p>
+     */
+    @Scheduled(
+            every = "${sbomer.service.manifest-content.migration-interval:5m}",
+            delay = 5,
+            delayUnit = TimeUnit.MINUTES,
+            concurrentExecution = ConcurrentExecution.SKIP)
+    public void migrate() {
+        if (!leaderManager.isLeader()) {
+            log.debug("Current instance is not the leader, skipping migration of manifest contents");
+            return;
+        }
+
+        long total = 0;
+        int migrated;
+
+        do {
+            migrated = contentRepository.migrateInlineContent(batchSize);
+            total += migrated;
+        } while (migrated == batchSize);
+
+        if (total > 0) {
+            log.info("Moved content of {} manifests to the content-addressed storage", total);
+        }
+    }
+}
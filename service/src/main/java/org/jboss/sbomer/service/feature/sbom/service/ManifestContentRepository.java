@@ -0,0 +1,132 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.service.feature.sbom.service;
+
+import java.sql.SQLException;
+import java.util.List;
+
+import org.jboss.sbomer.service.feature.sbom.model.ManifestContent;
+import org.jboss.sbomer.service.feature.sbom.model.Sbom;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import io.quarkus.hibernate.orm.panache.PanacheRepositoryBase;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.transaction.Transactional;
+import jakarta.transaction.Transactional.TxType;
+import lombok.extern.slf4j.Slf4j;
+
+@ApplicationScoped
+@Slf4j
+public class ManifestContentRepository implements PanacheRepositoryBase<ManifestContent, String> {
+
+    /**
+     * SQL state of unique constraint violations, the same in PostgreSQL and H2.
+     */
+    private static final String UNIQUE_VIOLATION_SQL_STATE = "23505";
+
+    /**
+     * <p>
+     * Stores the manifest content, unless the same content is stored already.
+     * </p>
+     *
+     * <p>
+     * The content is inserted in a separate transaction, so that a concurrent transaction storing the same content
+     * makes the insert fail, not the current transaction. In such case the content stored by the other transaction is
+     * used. A content stored by a transaction which is rolled back later stays stored, ready to be referenced again.
+     * </p>
+     *
+     * @param bom the manifest content
+     * @return the stored content
+     */
+    @Transactional
+    public ManifestContent store(JsonNode bom) {
+        ManifestContent content = ManifestContent.of(bom);
+        String hash = content.getHash();
+
+        // Checked without loading the content
+        if (count("hash", hash) > 0) {
+            log.debug("Manifest content '{}' is stored already", hash);
+            return getEntityManager().getReference(ManifestContent.class, hash);
+        }
+
+        log.debug(
+                "Storing manifest content '{}' ({} bytes, {} compressed)",
+                hash,
+                content.getUncompressedSize(),
+                content.getContent().length);
+
+        try {
+            QuarkusTransaction.requiringNew().run(() -> persistAndFlush(content));
+        } catch (RuntimeException e) {
+            if (!isUniqueViolation(e)) {
+                throw e;
+            }
+
+            log.debug("Manifest content '{}' was stored concurrently", hash);
+        }
+
+        return getEntityManager().getReference(ManifestContent.class, hash);
+    }
+
+    private static boolean isUniqueViolation(Throwable throwable) {
+        for (Throwable cause = throwable; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sqlException
+                    && UNIQUE_VIOLATION_SQL_STATE.equals(sqlException.getSQLState())) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Moves the content set on the {@link Sbom} to the content-addressed storage. Nothing is done if the content is
+     * stored there already.
+     *
+     * @param sbom the manifest
+     */
+    @Transactional
+    public void storeContent(Sbom sbom) {
+        if (!sbom.hasInlineContent()) {
+            return;
+        }
+
+        sbom.setContent(store(sbom.getSbom()));
+    }
+
+    /**
+     * Moves the content of up to {@code batchSize} manifests stored inline to the content-addressed storage, in a new
+     * transaction.
+     *
+     * @param batchSize the maximum number of manifests to migrate
+     * @return the number of migrated manifests
+     */
+    @Transactional(value = TxType.REQUIRES_NEW)
+    public int migrateInlineContent(int batchSize) {
+        List<Sbom> sboms = getEntityManager()
+                .createQuery("from Sbom s where s.content is null and s.sbom is not null", Sbom.class)
+                .setMaxResults(batchSize)
+                .getResultList();
+
+        sboms.forEach(this::storeContent);
+
+        return sboms.size();
+    }
+}
@@ -108,6 +108,11 @@ public class RequestEventRepository extends CriteriaAwareRepository<RequestEvent
         super(RequestEvent.class);
     }
 
+    @Override
+    protected String getKeysetAttribute() {
+        return "receivalTime";
+    }
+
     @Transactional
     public RequestEvent updateWithFailure(String requestEventId, String reason) {
         RequestEvent requestEvent = RequestEvent.findById(requestEventId); // NOSONAR
@@ -118,12 +123,42 @@ public class RequestEventRepository extends CriteriaAwareRepository<RequestEvent
 
     public long countUMBEventsWithStatusFrom(UMBMessageStatus status, UMBConsumer consumer) {
         StringBuilder query = initCountRequestQuery();
+        Map<String, Object> params = addUMBEventConditions(query, consumer, status);
+
+        return executeCountQuery(query.toString(), params);
+    }
+
+    public long countAllUMBEventsFrom(UMBConsumer consumer) {
+        StringBuilder query = initCountRequestQuery();
+        Map<String, Object> params = addUMBEventConditions(query, consumer, null);
+
+        return executeCountQuery(query.toString(), params);
+    }
+
+    /**
+     * Adds the conditions matching the UMB events received by the given consumer. If a status is given, only events of
+     * a known type with that status are matched.
+     *
+     * @param query the query to add the conditions to
+     * @param consumer the consumer
+     * @param status the status, or {@code null} to match all events
+     * @return the parameters of the added conditions
+     */
+    protected Map<String, Object> addUMBEventConditions(
+            StringBuilder query,
+            UMBConsumer consumer,
+            UMBMessageStatus status) {
         addCondition(query, WHERE, REQUEST_EVENT_TYPE, EQUAL);
         addEventCondition(query, AND, EVENT_KEY_UMB_CONSUMER, EQUAL);
+
+        if (status == null) {
+            return Map.of(REQUEST_EVENT_TYPE, UMB.name(), EVENT_KEY_UMB_CONSUMER, consumer.name());
+        }
+
         addEventCondition(query, AND, EVENT_KEY_UMB_MSG_STATUS, EQUAL);
         addEventCondition(query, AND, EVENT_KEY_UMB_MSG_TYPE, NOT_EQUAL);
 
-        Map<String, Object> params = Map.of(
+        return Map.of(
                 REQUEST_EVENT_TYPE,
                 UMB.name(),
                 EVENT_KEY_UMB_CONSUMER,
@@ -132,18 +167,6 @@ public class RequestEventRepository extends CriteriaAwareRepository<RequestEvent
                 EVENT_VALUE_UMB_UNKNOWN_MSG_TYPE,
                 EVENT_KEY_UMB_MSG_STATUS,
                 status.name());
-
-        return executeCountQuery(query.toString(), params);
-    }
-
-    public long countAllUMBEventsFrom(UMBConsumer consumer) {
-        StringBuilder query = initCountRequestQuery();
-        addCondition(query, WHERE, REQUEST_EVENT_TYPE, EQUAL);
-        addEventCondition(query, AND, EVENT_KEY_UMB_CONSUMER, EQUAL);
-
-        Map<String, Object> params = Map.of(REQUEST_EVENT_TYPE, UMB.name(), EVENT_KEY_UMB_CONSUMER, consumer.name());
-
-        return executeCountQuery(query.toString(), params);
     }
 
     public long countAlreadyAckedUMBEventsFor(String msgId) {
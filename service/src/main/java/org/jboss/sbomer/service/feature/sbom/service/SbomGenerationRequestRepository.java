@@ -20,6 +20,7 @@ package org.jboss.sbomer.service.feature.sbom.service;
 import java.util.List;
 
 import org.jboss.sbomer.core.errors.NotFoundException;
+import org.jboss.sbomer.service.feature.sbom.k8s.model.SbomGenerationStatus;
 import org.jboss.sbomer.service.feature.sbom.model.Sbom;
 import org.jboss.sbomer.service.feature.sbom.model.SbomGenerationRequest;
 import org.jboss.sbomer.service.rest.criteria.CriteriaAwareRepository;
@@ -37,6 +38,11 @@ public class SbomGenerationRequestRepository extends CriteriaAwareRepository<Sbo
         super(SbomGenerationRequest.class);
     }
 
+    @Override
+    protected String getKeysetAttribute() {
+        return "creationTime";
+    }
+
     @Transactional
     public void deleteRequest(String id) {
 
@@ -65,4 +71,25 @@ public class SbomGenerationRequestRepository extends CriteriaAwareRepository<Sbo
     public List<SbomGenerationRequest> listByIdentifier(String identifier) {
         return find("identifier = ?1", identifier).list();
     }
+
+    /**
+     * Counts the generations which were scheduled, but did not finish yet, grouped by the generation type and the
+     * request.
+     *
+     * @return rows with the generation type, the request identifier (may be {@code null}) and the count
+     */
+    @Transactional
+    public List<Object[]> countInProgressByTypeAndRequest() {
+        return getEntityManager().createQuery(
+                "SELECT g.type, r.id, count(g) FROM SbomGenerationRequest g LEFT JOIN g.request r WHERE g.status IN ?1 GROUP BY g.type, r.id",
+                Object[].class)
+                .setParameter(
+                        1,
+                        List.of(
+                                SbomGenerationStatus.SCHEDULED,
+                                SbomGenerationStatus.INITIALIZING,
+                                SbomGenerationStatus.INITIALIZED,
+                                SbomGenerationStatus.GENERATING))
+                .getResultList();
+    }
 }
@@ -30,16 +30,25 @@ import org.jboss.sbomer.service.rest.QueryParameters;
 import org.jboss.sbomer.service.rest.criteria.CriteriaAwareRepository;
 
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
 import jakarta.persistence.criteria.Join;
 import jakarta.transaction.Transactional;
 
 @ApplicationScoped
 public class SbomRepository extends CriteriaAwareRepository<Sbom> {
 
+    @Inject
+    ManifestContentRepository contentRepository;
+
     public SbomRepository() {
         super(Sbom.class);
     }
 
+    @Override
+    protected String getKeysetAttribute() {
+        return "creationTime";
+    }
+
     public List<BaseSbomRecord> searchSbomRecords(QueryParameters parameters) {
         // TODO: Implement strong typing
         return searchProjected(BaseSbomRecord.class, parameters, (query, builder, root) -> {
@@ -74,18 +83,20 @@ public class SbomRepository extends CriteriaAwareRepository<Sbom> {
 
     @Transactional
     public Sbom saveSbom(Sbom sbom) {
+        contentRepository.storeContent(sbom);
         persistAndFlush(sbom);
         return sbom;
     }
 
     /**
-     * Stores in all provided {@link Sbom}s in the database.
+     * Stores in all provided {@link Sbom}s in the database. Their content is stored in the content-addressed storage.
      *
      * @param sboms Manifests to store
      * @return Stored manifests
      */
     @Transactional
     public List<Sbom> saveSboms(List<Sbom> sboms) {
+        sboms.forEach(contentRepository::storeContent);
         persist(sboms);
         flush();
         return sboms;
@@ -20,8 +20,10 @@ package org.jboss.sbomer.service.feature.sbom.service;
 import java.util.Collections;
 import java.util.List;
 import java.util.Set;
+import java.util.function.Function;
 
 import org.eclipse.microprofile.rest.client.inject.RestClient;
+import org.jboss.pnc.common.Strings;
 import org.jboss.pnc.dto.DeliverableAnalyzerOperation;
 import org.jboss.pnc.dto.requests.DeliverablesAnalysisRequest;
 import org.jboss.sbomer.core.SchemaValidator.ValidationResult;
@@ -51,6 +53,8 @@ import org.jboss.sbomer.core.features.sbom.rest.Page;
 import org.jboss.sbomer.core.features.sbom.utils.MDCUtils;
 import org.jboss.sbomer.core.features.sbom.utils.ObjectMapperProvider;
 import org.jboss.sbomer.core.features.sbom.utils.UrlUtils;
+import org.jboss.sbomer.core.utils.PaginationParameters;
+import org.jboss.sbomer.core.utils.PaginationParameters.CountMode;
 import org.jboss.sbomer.service.feature.sbom.config.SbomerConfig;
 import org.jboss.sbomer.service.feature.sbom.features.umb.producer.NotificationService;
 import org.jboss.sbomer.service.feature.sbom.k8s.model.GenerationRequest;
@@ -61,8 +65,10 @@ import org.jboss.sbomer.service.feature.sbom.model.RequestEvent;
 import org.jboss.sbomer.service.feature.sbom.model.Sbom;
 import org.jboss.sbomer.service.feature.sbom.model.SbomGenerationRequest;
 import org.jboss.sbomer.service.pnc.PncClient;
+import org.jboss.sbomer.service.rest.KeysetCursor;
 import org.jboss.sbomer.service.rest.QueryParameters;
 import org.jboss.sbomer.service.rest.RestUtils;
+import org.jboss.sbomer.service.rest.criteria.AbstractCriteriaAwareRepository;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 
@@ -89,6 +95,9 @@ public class SbomService {
     @Inject
     SbomRepository sbomRepository;
 
+    @Inject
+    ManifestContentRepository contentRepository;
+
     @Inject
     SbomGenerationRequestRepository sbomRequestRepository;
 
@@ -137,17 +146,28 @@ public class SbomService {
             @SpanAttribute(value = "rsqlQuery") String rsqlQuery,
             @SpanAttribute(value = "sort") String sort) {
 
-        QueryParameters parameters = QueryParameters.builder()
-                .rsqlQuery(rsqlQuery)
-                .sort(sort)
-                .pageSize(pageSize)
-                .pageIndex(pageIndex)
-                .build();
+        return searchSbomRecordsByQueryPaginated(pagination(pageIndex, pageSize), rsqlQuery, sort);
+    }
+
+    /**
+     * Searches manifests, supporting the cursors and count modes of the {@link PaginationParameters}.
+     */
+    @WithSpan
+    public Page<BaseSbomRecord> searchSbomRecordsByQueryPaginated(
+            PaginationParameters pagination,
+            @SpanAttribute(value = "rsqlQuery") String rsqlQuery,
+            @SpanAttribute(value = "sort") String sort) {
+
+        QueryParameters parameters = toQueryParameters(pagination, rsqlQuery, sort);
 
         List<BaseSbomRecord> content = sbomRepository.searchSbomRecords(parameters);
-        Long count = sbomRepository.countByRsqlQuery(parameters.getRsqlQuery());
+        Long count = count(sbomRepository, parameters, pagination.getCountMode());
 
-        return toPage(content, parameters, count);
+        return toPage(
+                content,
+                parameters,
+                count,
+                nextCursor(sbomRepository, parameters, content, r -> new KeysetCursor(r.creationTime(), r.id())));
     }
 
     @WithSpan
@@ -157,18 +177,32 @@ public class SbomService {
             @SpanAttribute(value = "rsqlQuery") String rsqlQuery,
             @SpanAttribute(value = "sort") String sort) {
 
-        QueryParameters parameters = QueryParameters.builder()
-                .rsqlQuery(rsqlQuery)
-                .sort(sort)
-                .pageSize(pageSize)
-                .pageIndex(pageIndex)
-                .build();
+        return searchSbomRequestsByQueryPaginated(pagination(pageIndex, pageSize), rsqlQuery, sort);
+    }
 
-        List<SbomGenerationRequest> content = sbomRequestRepository.search(parameters);
+    /**
+     * Searches generation requests, supporting the cursors and count modes of the {@link PaginationParameters}.
+     */
+    @WithSpan
+    public Page<SbomGenerationRequest> searchSbomRequestsByQueryPaginated(
+            PaginationParameters pagination,
+            @SpanAttribute(value = "rsqlQuery") String rsqlQuery,
+            @SpanAttribute(value = "sort") String sort) {
 
-        Long count = sbomRequestRepository.countByRsqlQuery(parameters.getRsqlQuery());
+        QueryParameters parameters = toQueryParameters(pagination, rsqlQuery, sort);
 
-        return toPage(content, parameters, count);
+        List<SbomGenerationRequest> content = sbomRequestRepository.search(parameters);
+        Long count = count(sbomRequestRepository, parameters, pagination.getCountMode());
+
+        return toPage(
+                content,
+                parameters,
+                count,
+                nextCursor(
+                        sbomRequestRepository,
+                        parameters,
+                        content,
+                        r -> new KeysetCursor(r.getCreationTime(), r.getId())));
     }
 
     @WithSpan
@@ -178,17 +212,82 @@ public class SbomService {
             @SpanAttribute(value = "rsqlQuery") String rsqlQuery,
             @SpanAttribute(value = "sort") String sort) {
 
-        QueryParameters parameters = QueryParameters.builder()
+        return searchRequestRecordsByQueryPaginated(pagination(pageIndex, pageSize), rsqlQuery, sort);
+    }
+
+    /**
+     * Searches request events, supporting the cursors and count modes of the {@link PaginationParameters}.
+     */
+    @WithSpan
+    public Page<V1BaseBeta1RequestRecord> searchRequestRecordsByQueryPaginated(
+            PaginationParameters pagination,
+            @SpanAttribute(value = "rsqlQuery") String rsqlQuery,
+            @SpanAttribute(value = "sort") String sort) {
+
+        QueryParameters parameters = toQueryParameters(pagination, rsqlQuery, sort);
+
+        List<V1BaseBeta1RequestRecord> content = requestEventRepository.searchRequestRecords(parameters);
+        Long count = count(requestEventRepository, parameters, pagination.getCountMode());
+
+        return toPage(
+                content,
+                parameters,
+                count,
+                nextCursor(
+                        requestEventRepository,
+                        parameters,
+                        content,
+                        r -> new KeysetCursor(r.receivalTime(), r.id())));
+    }
+
+    private static PaginationParameters pagination(int pageIndex, int pageSize) {
+        PaginationParameters pagination = new PaginationParameters();
+        pagination.setPageIndex(pageIndex);
+        pagination.setPageSize(pageSize);
+        return pagination;
+    }
+
+    private static QueryParameters toQueryParameters(PaginationParameters pagination, String rsqlQuery, String sort) {
+        return QueryParameters.builder()
                 .rsqlQuery(rsqlQuery)
                 .sort(sort)
-                .pageSize(pageSize)
-                .pageIndex(pageIndex)
+                .pageSize(pagination.getPageSize())
+                .pageIndex(pagination.getPageIndex())
+                .cursor(KeysetCursor.decode(pagination.getCursor()))
                 .build();
+    }
 
-        List<V1BaseBeta1RequestRecord> content = requestEventRepository.searchRequestRecords(parameters);
-        Long count = requestEventRepository.countByRsqlQuery(parameters.getRsqlQuery());
+    /**
+     * Counts the entities satisfying the query as requested. Estimates are available only for queries without a
+     * filter, for these the exact count is returned.
+     *
+     * @return the number of entities or {@code null} if not requested
+     */
+    private static Long count(
+            AbstractCriteriaAwareRepository<?> repository,
+            QueryParameters parameters,
+            CountMode countMode) {
+        return switch (countMode) {
+            case NONE -> null;
+            case ESTIMATE -> Strings.isEmpty(parameters.getRsqlQuery()) ? repository.estimateCount()
+                    : repository.countByRsqlQuery(parameters.getRsqlQuery());
+            default -> repository.countByRsqlQuery(parameters.getRsqlQuery());
+        };
+    }
+
+    /**
+     * Creates the cursor pointing after the last entity of a full page of a query supporting keyset pagination.
+     */
+    private static <X> String nextCursor(
+            AbstractCriteriaAwareRepository<?> repository,
+            QueryParameters parameters,
+            List<X> content,
+            Function<X, KeysetCursor> keyOf) {
+        if (!repository.isKeysetSort(parameters.getSort()) || content.size() < parameters.getPageSize()) {
+            return null;
+        }
 
-        return toPage(content, parameters, count);
+        return keyOf.apply(content.get(content.size() - 1)).encode();
     }
 
     @WithSpan
@@ -210,15 +309,30 @@ public class SbomService {
      * @return A {@link Page} element with content.
      */
     protected <X> Page<X> toPage(List<X> content, QueryParameters parameters, Long count) {
+        return toPage(content, parameters, count, null);
+    }
+
+    /**
+     * Prepares a {@link Page} object with the result of the search.
+     *
+     * @param content The content to populate the page with.
+     * @param parameters Query parameters passed to the search.
+     * @param count The total number of hits, {@code null} if unknown.
+     * @param nextCursor The cursor to fetch the next page, {@code null} if there is none.
+     * @return A {@link Page} element with content.
+     */
+    protected <X> Page<X> toPage(List<X> content, QueryParameters parameters, Long count, String nextCursor) {
         int totalPages = 0;
 
-        if (count == 0) {
+        if (count == null) {
+            return new Page<>(parameters.getPageIndex(), parameters.getPageSize(), -1, -1, content, nextCursor);
+        } else if (count == 0) {
             totalPages = 1; // a single page of zero results
         } else {
             totalPages = (int) Math.ceil((double) count / (double) parameters.getPageSize());
         }
 
-        return new Page<>(parameters.getPageIndex(), parameters.getPageSize(), totalPages, count, content);
+        return new Page<>(parameters.getPageIndex(), parameters.getPageSize(), totalPages, count, content, nextCursor);
     }
 
     @WithSpan
@@ -476,6 +590,18 @@ public class SbomService {
         return sbom;
     }
 
+    /**
+     * Moves the content set on a stored {@link Sbom} to the content-addressed storage, after the content was updated.
+     * Content of new manifests is moved when these are saved.
+     *
+     * @param sbom the manifest
+     */
+    @WithSpan
+    @Transactional
+    public void storeContent(@SpanAttribute(value = "sbom") Sbom sbom) {
+        contentRepository.storeContent(sbom);
+    }
+
     /**
      * Validates given {@link Sbom SBOM}.
      *
@@ -508,7 +634,7 @@ public class SbomService {
         QueryParameters parameters = QueryParameters.builder()
                 .rsqlQuery("rootPurl=eq='" + polishedPurl + "'")
                 .sort("creationTime=desc=")
-                .pageSize(10)
+                .pageSize(1)
                 .pageIndex(0)
                 .build();
 
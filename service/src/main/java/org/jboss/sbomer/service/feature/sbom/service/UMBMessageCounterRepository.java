@@ -0,0 +1,244 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.service.feature.sbom.service;
+
+import static org.jboss.sbomer.core.features.sbom.enums.UMBMessageStatus.ACK;
+import static org.jboss.sbomer.core.features.sbom.enums.UMBMessageStatus.SKIPPED;
+
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.jboss.sbomer.core.features.sbom.enums.UMBConsumer;
+import org.jboss.sbomer.core.features.sbom.enums.UMBMessageStatus;
+import org.jboss.sbomer.service.feature.sbom.model.UMBMessageCounter;
+import org.jboss.sbomer.service.feature.sbom.model.UMBMessageCounter.Key;
+import org.jboss.sbomer.service.feature.sbom.model.UMBMessageCounter.Kind;
+
+import io.quarkus.hibernate.orm.panache.PanacheRepositoryBase;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jakarta.persistence.Query;
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.Transactional;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+@ApplicationScoped
+@Slf4j
+public class UMBMessageCounterRepository implements PanacheRepositoryBase<UMBMessageCounter, Key> {
+
+    /**
+     * SQL state of unique constraint violations, the same in PostgreSQL and H2.
+     */
+    private static final String UNIQUE_VIOLATION_SQL_STATE = "23505";
+
+    private static final String INSERT_COUNTER_QUERY = "INSERT INTO umb_message_counter "
+            + "(consumer, kind, total, updated) "
+            + "SELECT :counter_consumer, :counter_kind, COUNT(*), :counter_updated FROM request";
+
+    @Inject
+    RequestEventRepository requestEventRepository;
+
+    @Inject
+    TransactionSynchronizationRegistry transactionRegistry;
+
+    // Messages counted since the last flush, by counter
+    private final Map<Key, LongAdder> pending = new ConcurrentHashMap<>();
+
+    /**
+     * <p>
+     * Counts a message handled as part of the current transaction. The message is counted once the transaction
+     * commits, in memory, and added to the stored counter by the next {@link #flush()}, so that the consumers do not
+     * contend on the counter rows.
+     * </p>
+     *
+     * <p>
+     * If there is no transaction, the message is counted right away.
+     * </p>
+     */
+    public void increment(UMBConsumer consumer, Kind kind) {
+        LongAdder counter = pending.computeIfAbsent(new Key(consumer, kind), k -> new LongAdder());
+
+        if (transactionRegistry.getTransactionStatus() != Status.STATUS_ACTIVE) {
+            counter.increment();
+            return;
+        }
+
+        transactionRegistry.registerInterposedSynchronization(new Synchronization() {
+            @Override
+            public void beforeCompletion() {
+                // Nothing to do
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (status == Status.STATUS_COMMITTED) {
+                    counter.increment();
+                }
+            }
+        });
+    }
+
+    /**
+     * Returns the stored counter together with the messages counted by this instance and not flushed yet. Not done
+     * during a flush, which moves the messages from one to the other.
+     */
+    @Transactional
+    public synchronized Optional<Long> getTotal(UMBConsumer consumer, Kind kind) {
+        Key key = new Key(consumer, kind);
+        LongAdder counter = pending.get(key);
+
+        return findByIdOptional(key).map(c -> c.getTotal() + (counter == null ? 0 : counter.sum()));
+    }
+
+    /**
+     * Initializes the missing counters and adds the messages counted since the last flush to the stored counters, every
+     * counter in a new transaction. Messages of a counter which cannot be updated are kept for the next flush.
+     */
+    @Scheduled(every = "10s", delay = 10, concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    public synchronized void flush() {
+        backfill();
+
+        for (Map.Entry<Key, LongAdder> entry : pending.entrySet()) {
+            Key key = entry.getKey();
+            long delta = entry.getValue().sumThenReset();
+
+            if (delta == 0) {
+                continue;
+            }
+
+            int updated = 0;
+
+            try {
+                updated = QuarkusTransaction.requiringNew()
+                        .call(
+                                () -> update(
+                                        "total = total + ?1, updated = ?2 where consumer = ?3 and kind = ?4",
+                                        delta,
+                                        Instant.now(),
+                                        key.getConsumer(),
+                                        key.getKind()));
+            } catch (RuntimeException e) {
+                log.warn(
+                        "Unable to update the counter of {} messages for the {} consumer",
+                        key.getKind(),
+                        key.getConsumer(),
+                        e);
+            }
+
+            if (updated == 0) {
+                entry.getValue().add(delta);
+            }
+        }
+    }
+
+    void onShutdown(@Observes ShutdownEvent event) {
+        flush();
+    }
+
+    /**
+     * <p>
+     * Initializes all counters which do not exist yet with the number of matching events currently stored. Existing
+     * counters are left untouched.
+     * </p>
+     *
+     * <p>
+     * Every counter is inserted by a single statement counting the events, so that no event stored concurrently is
+     * missed. In case several instances initialize the same counter, only the first insert succeeds. Counters which
+     * cannot be initialized are tried again by the next {@link #flush()}.
+     * </p>
+     *
+     * @return the number of initialized counters
+     */
+    public int backfill() {
+        int initialized = 0;
+
+        for (UMBConsumer consumer : UMBConsumer.values()) {
+            for (Kind kind : Kind.values()) {
+                try {
+                    initialized += QuarkusTransaction.requiringNew().call(() -> backfill(consumer, kind));
+                } catch (RuntimeException e) {
+                    if (isUniqueViolation(e)) {
+                        log.debug(
+                                "Counter of {} messages for the {} consumer was initialized concurrently",
+                                kind,
+                                consumer);
+                    } else {
+                        log.warn(
+                                "Unable to initialize the counter of {} messages for the {} consumer",
+                                kind,
+                                consumer,
+                                e);
+                    }
+                }
+            }
+        }
+
+        return initialized;
+    }
+
+    private int backfill(UMBConsumer consumer, Kind kind) {
+        if (findByIdOptional(new Key(consumer, kind)).isPresent()) {
+            return 0;
+        }
+
+        StringBuilder sql = new StringBuilder(INSERT_COUNTER_QUERY);
+        Map<String, Object> params = requestEventRepository.addUMBEventConditions(sql, consumer, statusOf(kind));
+
+        Query query = getEntityManager().createNativeQuery(sql.toString())
+                .setParameter("counter_consumer", consumer.name())
+                .setParameter("counter_kind", kind.name())
+                .setParameter("counter_updated", Instant.now());
+
+        params.forEach(query::setParameter);
+
+        int inserted = query.executeUpdate();
+
+        log.info("Initialized counter of {} messages for the {} consumer", kind, consumer);
+
+        return inserted;
+    }
+
+    private static UMBMessageStatus statusOf(Kind kind) {
+        return switch (kind) {
+            case RECEIVED -> null;
+            case PROCESSED -> ACK;
+            case SKIPPED -> SKIPPED;
+        };
+    }
+
+    private static boolean isUniqueViolation(Throwable throwable) {
+        for (Throwable cause = throwable; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sqlException
+                    && UNIQUE_VIOLATION_SQL_STATE.equals(sqlException.getSQLState())) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+}
@@ -31,6 +31,7 @@ import io.fabric8.kubernetes.client.KubernetesClient;
 import io.quarkus.scheduler.Scheduled;
 import io.quarkus.scheduler.Scheduled.ConcurrentExecution;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
 import jakarta.inject.Inject;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
@@ -41,6 +42,7 @@ public class LeaderManager {
 
     private LeaseConfig leaseConfig;
     private KubernetesClient kubernetesClient;
+    private Event<LeadershipChangedEvent> leadershipChangedEvent;
 
     @ConfigProperty(name = "SBOMER_RELEASE", defaultValue = "sbomer")
     String release = "sbomer";
@@ -52,9 +54,13 @@ public class LeaderManager {
     boolean isLeader = false;
 
     @Inject
-    public LeaderManager(LeaseConfig leaseConfig, KubernetesClient kubernetesClient) {
+    public LeaderManager(
+            LeaseConfig leaseConfig,
+            KubernetesClient kubernetesClient,
+            Event<LeadershipChangedEvent> leadershipChangedEvent) {
         this.leaseConfig = leaseConfig;
         this.kubernetesClient = kubernetesClient;
+        this.leadershipChangedEvent = leadershipChangedEvent;
     }
 
     @Scheduled(
@@ -89,7 +95,7 @@ public class LeaderManager {
 
                 log.info("I'm not the leader nor it's time to take over the lead, current leader: {}", holder);
 
-                isLeader = false;
+                setLeader(false);
 
                 return;
             }
@@ -110,9 +116,21 @@ public class LeaderManager {
 
         kubernetesClient.leases().resource(lease).createOrReplace();
 
-        isLeader = true;
+        setLeader(true);
 
         return;
     }
 
+    private void setLeader(boolean leader) {
+        if (isLeader == leader) {
+            return;
+        }
+
+        isLeader = leader;
+
+        log.info(leader ? "This instance is the leader now" : "This instance is not the leader anymore");
+
+        leadershipChangedEvent.fire(new LeadershipChangedEvent(leader));
+    }
+
 }
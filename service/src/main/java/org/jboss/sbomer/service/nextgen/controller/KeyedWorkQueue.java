@@ -0,0 +1,384 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.service.nextgen.controller;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import org.eclipse.microprofile.metrics.MetricRegistry;
+import org.eclipse.microprofile.metrics.Tag;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * <p>
+ * A work queue processing keys with a pool of workers, where each key is processed by at most one worker at a time.
+ * </p>
+ *
+ * <p>
+ * A key added while it is waiting in the queue is not added again. A key added while it is being processed is queued
+ * again once the processing finishes, so that the handler always sees the latest state. A key for which the handler
+ * failed is retried with an exponential backoff, up to the configured number of retries. A key added while waiting
+ * for a retry is not delayed by the backoff any longer than requested by the addition.
+ * </p>
+ *
+ * <p>
+ * When a {@link MetricRegistry} is provided, following metrics, tagged with the queue name, are registered:
+ * </p>
+ *
+ * <ul>
+ * <li>{@value #DEPTH_GAUGE} gauge, number of keys waiting for a worker,</li>
+ * <li>{@value #IN_FLIGHT_GAUGE} gauge, number of keys being processed,</li>
+ * <li>{@value #LATENCY_HISTOGRAM} histogram, time between the key was queued and its processing started, in
+ * milliseconds,</li>
+ * <li>{@value #DURATION_TIMER} timer, time spent processing a key,</li>
+ * <li>{@value #RETRIES_COUNTER} counter, number of keys queued again after a failure.</li>
+ * </ul>
+ *
+ * @param <K> the type of the keys
+ */
+@Slf4j
+public class KeyedWorkQueue<K> {
+
+    public static final String DEPTH_GAUGE = "sbomer_work_queue_depth";
+    public static final String IN_FLIGHT_GAUGE = "sbomer_work_queue_in_flight";
+    public static final String LATENCY_HISTOGRAM = "sbomer_work_queue_latency_ms";
+    public static final String DURATION_TIMER = "sbomer_work_queue_duration";
+    public static final String RETRIES_COUNTER = "sbomer_work_queue_retries";
+
+    /**
+     * Settings of the queue.
+     *
+     * @param workers number of keys processed concurrently
+     * @param virtualThreads whether the workers should run on virtual threads, if supported by the runtime
+     * @param initialBackoff delay before the first retry of a failed key, doubled with every following failure
+     * @param maxBackoff maximum delay before a retry
+     * @param maxRetries number of retries of a failed key, before it is dropped
+     */
+    public record Settings(int workers, boolean virtualThreads, Duration initialBackoff, Duration maxBackoff,
+            int maxRetries) {
+    }
+
+    /**
+     * A key waiting to be added.
+     *
+     * @param dueAt when the key is added, in {@link System#nanoTime()}
+     * @param future the task adding the key
+     */
+    private record Delayed(long dueAt, ScheduledFuture<?> future) {
+    }
+
+    private final String name;
+
+    private final Settings settings;
+
+    private final Consumer<K> handler;
+
+    private final MetricRegistry metricRegistry;
+
+    private final ExecutorService workers;
+
+    private final ScheduledExecutorService delayer;
+
+    // Guarded by this
+    private final LinkedHashSet<K> queue = new LinkedHashSet<>();
+
+    private final Map<K, Long> queuedAt = new HashMap<>();
+
+    private final Set<K> processing = new HashSet<>();
+
+    private final Set<K> dirty = new HashSet<>();
+
+    private final Map<K, Delayed> delayed = new HashMap<>();
+
+    private final Map<K, Integer> failures = new HashMap<>();
+
+    private boolean shutdown;
+
+    public KeyedWorkQueue(String name, Settings settings, Consumer<K> handler, MetricRegistry metricRegistry) {
+        this.name = name;
+        this.settings = settings;
+        this.handler = handler;
+        this.metricRegistry = metricRegistry;
+        this.workers = Executors.newFixedThreadPool(settings.workers(), workerThreadFactory());
+        this.delayer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, name + "-delayer");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        if (metricRegistry != null) {
+            metricRegistry.gauge(DEPTH_GAUGE, this, KeyedWorkQueue::depth, tag());
+            metricRegistry.gauge(IN_FLIGHT_GAUGE, this, KeyedWorkQueue::inFlight, tag());
+        }
+
+        for (int i = 0; i < settings.workers(); i++) {
+            workers.execute(this::work);
+        }
+    }
+
+    /**
+     * Adds the key to the queue, unless it is queued already. A delayed addition of the key is dropped.
+     *
+     * @param key the key
+     */
+    public synchronized void add(K key) {
+        if (shutdown) {
+            return;
+        }
+
+        Delayed pending = delayed.remove(key);
+
+        if (pending != null) {
+            pending.future().cancel(false);
+        }
+
+        // Processed again once the current processing finishes
+        if (processing.contains(key)) {
+            dirty.add(key);
+            return;
+        }
+
+        if (queue.add(key)) {
+            queuedAt.put(key, System.nanoTime());
+            notifyAll();
+        }
+    }
+
+    /**
+     * Adds the key to the queue after the given delay. Further additions of the same key due later are merged into the
+     * pending one, while an addition due earlier, for example a new event during the backoff of a failed key, moves the
+     * pending one forward.
+     *
+     * @param key the key
+     * @param delay the delay
+     */
+    public synchronized void addAfter(K key, Duration delay) {
+        if (shutdown) {
+            return;
+        }
+
+        if (delay.isZero() || delay.isNegative()) {
+            add(key);
+            return;
+        }
+
+        long dueAt = System.nanoTime() + delay.toNanos();
+        Delayed pending = delayed.get(key);
+
+        if (pending != null) {
+            if (pending.dueAt() - dueAt <= 0) {
+                return;
+            }
+
+            pending.future().cancel(false);
+        }
+
+        ScheduledFuture<?> future = delayer.schedule(() -> {
+            synchronized (this) {
+                Delayed current = delayed.get(key);
+
+                // Not moved forward, nor dropped in the meantime
+                if (current != null && current.dueAt() == dueAt) {
+                    delayed.remove(key);
+                    add(key);
+                }
+            }
+        }, delay.toNanos(), TimeUnit.NANOSECONDS);
+
+        delayed.put(key, new Delayed(dueAt, future));
+    }
+
+    /**
+     * Drops all queued and delayed keys together with the retry state, keys being processed are finished.
+     */
+    public synchronized void clear() {
+        delayed.values().forEach(d -> d.future().cancel(false));
+        queue.clear();
+        delayed.clear();
+        queuedAt.clear();
+        dirty.clear();
+        failures.clear();
+    }
+
+    /**
+     * Stops the workers, keys being processed are interrupted.
+     */
+    public void shutdown() {
+        synchronized (this) {
+            shutdown = true;
+            clear();
+            notifyAll();
+        }
+
+        delayer.shutdownNow();
+        workers.shutdownNow();
+    }
+
+    public synchronized int depth() {
+        return queue.size();
+    }
+
+    public synchronized int inFlight() {
+        return processing.size();
+    }
+
+    private void work() {
+        while (true) {
+            K key;
+            long waited;
+
+            synchronized (this) {
+                while (!shutdown && queue.isEmpty()) {
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+
+                if (shutdown) {
+                    return;
+                }
+
+                Iterator<K> it = queue.iterator();
+                key = it.next();
+                it.remove();
+
+                waited = System.nanoTime() - queuedAt.remove(key);
+                processing.add(key);
+            }
+
+            process(key, waited);
+        }
+    }
+
+    private void process(K key, long waited) {
+        if (metricRegistry != null) {
+            metricRegistry.histogram(LATENCY_HISTOGRAM, tag()).update(TimeUnit.NANOSECONDS.toMillis(waited));
+        }
+
+        long start = System.nanoTime();
+        boolean failed = true;
+
+        try {
+            handler.accept(key);
+            failed = false;
+        } catch (Exception e) {
+            log.warn("Processing of '{}' in the '{}' queue failed", key, name, e);
+        } finally {
+            if (metricRegistry != null) {
+                metricRegistry.timer(DURATION_TIMER, tag()).update(Duration.ofNanos(System.nanoTime() - start));
+            }
+
+            done(key, failed);
+        }
+    }
+
+    private synchronized void done(K key, boolean failed) {
+        processing.remove(key);
+
+        if (failed) {
+            retry(key);
+        } else {
+            failures.remove(key);
+        }
+
+        if (dirty.remove(key)) {
+            add(key);
+        }
+    }
+
+    private void retry(K key) {
+        int failed = failures.merge(key, 1, Integer::sum);
+
+        if (failed > settings.maxRetries()) {
+            log.error("Giving up processing of '{}' in the '{}' queue after {} retries", key, name, failed - 1);
+            failures.remove(key);
+            return;
+        }
+
+        if (metricRegistry != null) {
+            metricRegistry.counter(RETRIES_COUNTER, tag()).inc();
+        }
+
+        addAfter(key, backoff(failed));
+    }
+
+    private Duration backoff(int failed) {
+        Duration backoff = settings.initialBackoff().multipliedBy(1L << Math.min(failed - 1, 30));
+
+        return backoff.compareTo(settings.maxBackoff()) > 0 || backoff.isNegative() ? settings.maxBackoff() : backoff;
+    }
+
+    private Tag tag() {
+        return new Tag("queue", name);
+    }
+
+    private ThreadFactory workerThreadFactory() {
+        if (settings.virtualThreads()) {
+            ThreadFactory factory = virtualThreadFactory();
+
+            if (factory != null) {
+                return factory;
+            }
+
+            log.warn("Virtual threads are not supported by the runtime, using platform threads for '{}' queue", name);
+        }
+
+        AtomicInteger count = new AtomicInteger();
+
+        return r -> {
+            Thread thread = new Thread(r, name + "-worker-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Creates a factory of virtual threads, available since Java 21 only, and so looked up reflectively.
+     *
+     * @return the factory or {@code null} if virtual threads are not available
+     */
+    private ThreadFactory virtualThreadFactory() {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+
+            builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, name + "-worker-", 1L);
+
+            return (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+}
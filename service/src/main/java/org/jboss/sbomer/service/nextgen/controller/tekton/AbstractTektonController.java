@@ -21,24 +21,32 @@ import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Stream;
 
 import org.eclipse.microprofile.context.ManagedExecutor;
+import org.eclipse.microprofile.metrics.MetricRegistry;
 import org.jboss.sbomer.service.feature.sbom.config.GenerationRequestControllerConfig;
+import org.jboss.sbomer.service.feature.sbom.config.GenerationRequestControllerConfig.ReconcileConfig;
 import org.jboss.sbomer.service.feature.sbom.k8s.reconciler.TektonExitCodeUtils;
 import org.jboss.sbomer.service.leader.LeaderManager;
+import org.jboss.sbomer.service.nextgen.controller.KeyedWorkQueue;
 import org.jboss.sbomer.service.nextgen.core.dto.model.GenerationRecord;
 import org.jboss.sbomer.service.nextgen.core.enums.GenerationStatus;
 import org.jboss.sbomer.service.nextgen.core.generator.AbstractGenerator;
 import org.jboss.sbomer.service.nextgen.core.rest.SBOMerClient;
 import org.jboss.sbomer.service.nextgen.core.utils.ConfigUtils;
 import org.jboss.sbomer.service.nextgen.service.EntityMapper;
+import org.jboss.sbomer.service.scheduler.GenerationDurations;
 
 import io.fabric8.knative.pkg.apis.Condition;
 import io.fabric8.kubernetes.api.model.ContainerStateTerminated;
@@ -55,7 +63,9 @@ import io.fabric8.tekton.v1beta1.TaskRunBuilder;
 import io.fabric8.tekton.v1beta1.TaskRunSpec;
 import io.fabric8.tekton.v1beta1.TaskRunStatus;
 import io.fabric8.tekton.v1beta1.TaskRunStepOverride;
+import jakarta.annotation.PreDestroy;
 import jakarta.enterprise.context.control.ActivateRequestContext;
+import jakarta.inject.Inject;
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
@@ -75,6 +85,17 @@ public abstract class AbstractTektonController extends AbstractGenerator
     public static final String MEMORY_OVERRIDE = "memory";
     public static final String RETRY_SUFFIX = "-retry-";
 
+    /**
+     * Name of the TaskRun informer index by the {@link #GENERATION_ID_LABEL} label.
+     */
+    public static final String GENERATION_ID_INDEX = "generation-id";
+
+    // How long a generation fetched from the API is reused, status updates done by the controller refresh it
+    static final Duration GENERATION_CACHE_TTL = Duration.ofSeconds(5);
+
+    private record CachedGeneration(GenerationRecord generation, Instant expiresAt) {
+    }
+
     protected KubernetesClient kubernetesClient;
 
     protected GenerationRequestControllerConfig controllerConfig;
@@ -87,6 +108,17 @@ public abstract class AbstractTektonController extends AbstractGenerator
 
     SharedIndexInformer<TaskRun> taskRunInformer;
 
+    @Inject
+    MetricRegistry metricRegistry;
+
+    @Inject
+    GenerationDurations generationDurations;
+
+    // Reconciles generations concurrently, but a single generation one at a time
+    KeyedWorkQueue<String> reconcileQueue;
+
+    private final Map<String, CachedGeneration> generationCache = new ConcurrentHashMap<>();
+
     public AbstractTektonController(
             SBOMerClient sbomerClient,
             KubernetesClient kubernetesClient,
@@ -120,6 +152,9 @@ public abstract class AbstractTektonController extends AbstractGenerator
                 taskRunInformer.stop();
                 taskRunInformer.close();
                 taskRunInformer = null;
+
+                reconcileQueue.clear();
+                generationCache.clear();
             }
 
             return;
@@ -132,10 +167,31 @@ public abstract class AbstractTektonController extends AbstractGenerator
 
         log.info("Instantiating informer for TaskRun");
 
+        // Kept for the lifetime of the controller, so that its metrics are registered once
+        if (reconcileQueue == null) {
+            ReconcileConfig config = controllerConfig.reconcile();
+
+            reconcileQueue = new KeyedWorkQueue<>(
+                    getGeneratorName() + "-reconcile",
+                    new KeyedWorkQueue.Settings(
+                            config.workers(),
+                            config.virtualThreads(),
+                            config.initialBackoff(),
+                            config.maxBackoff(),
+                            config.maxRetries()),
+                    this::reconcileGeneration,
+                    metricRegistry);
+        }
+
         taskRunInformer = kubernetesClient.resources(TaskRun.class)
                 .withLabel(GENERATION_ID_LABEL)
                 .withLabel(GENERATOR_TYPE, getGeneratorName())
-                .inform(this, 60 * 1000L); // TODO: Configure it
+                .runnableInformer(60 * 1000L); // TODO: Configure it
+
+        // Indexers need to be added before the informer is started
+        taskRunInformer.addIndexers(Map.of(GENERATION_ID_INDEX, AbstractTektonController::generationIdIndex));
+        taskRunInformer.addEventHandler(this);
+        taskRunInformer.start();
 
         taskRunInformer.stopped().whenComplete((v, t) -> {
             if (t != null) {
@@ -153,9 +209,34 @@ public abstract class AbstractTektonController extends AbstractGenerator
     @Override
     public void onUpdate(TaskRun oldTaskRun, TaskRun newTaskRun) {
         log.debug("{} TaskRun updated", newTaskRun.getMetadata().getName());
+
+        if (!isFinished(oldTaskRun) && isFinished(newTaskRun)) {
+            recordDuration(newTaskRun);
+        }
+
         handle(newTaskRun);
     }
 
+    /**
+     * Records the duration of a finished {@link TaskRun}, so that the scheduler can weight generations of this
+     * generator by how long these take.
+     */
+    private void recordDuration(TaskRun taskRun) {
+        TaskRunStatus status = taskRun.getStatus();
+
+        if (status.getStartTime() == null || status.getCompletionTime() == null) {
+            return;
+        }
+
+        try {
+            generationDurations.record(
+                    getGeneratorName(),
+                    Duration.between(Instant.parse(status.getStartTime()), Instant.parse(status.getCompletionTime())));
+        } catch (RuntimeException e) {
+            log.debug("Unable to record the duration of TaskRun '{}'", taskRun.getMetadata().getName(), e);
+        }
+    }
+
     @Override
     public void onDelete(TaskRun taskRun, boolean deletedFinalStateUnknown) {
         log.info("{} TaskRun deleted", taskRun.getMetadata().getName());
@@ -186,7 +267,15 @@ public abstract class AbstractTektonController extends AbstractGenerator
         return taskRun.getMetadata().getLabels().get(AbstractTektonController.GENERATION_ID_LABEL);
     }
 
-    @ActivateRequestContext
+    private static List<String> generationIdIndex(TaskRun taskRun) {
+        if (taskRun.getMetadata() == null || taskRun.getMetadata().getLabels() == null
+                || taskRun.getMetadata().getLabels().get(GENERATION_ID_LABEL) == null) {
+            return List.of();
+        }
+
+        return List.of(taskRun.getMetadata().getLabels().get(GENERATION_ID_LABEL));
+    }
+
     public void handle(TaskRun taskRun) {
         log.info("Handling TaskRun '{}'", taskRun.getMetadata().getName());
 
@@ -202,27 +291,95 @@ public abstract class AbstractTektonController extends AbstractGenerator
             return;
         }
 
-        GenerationRecord generationRecord = null;
+        KeyedWorkQueue<String> queue = reconcileQueue;
 
-        // Fetch Generation from the API
-        try {
-            generationRecord = sbomerClient.getGeneration(generationId);
-        } catch (Exception e) {
-            log.warn("Unable to fetch Generation with ID '{}', skipping", generationId, e);
+        // Not watching TaskRuns, reconciled right away without retries
+        if (queue == null) {
+            try {
+                reconcileGeneration(generationId);
+            } catch (Exception e) {
+                log.warn("Unable to reconcile Generation with ID '{}', skipping", generationId, e);
+            }
 
             return;
         }
 
+        // Related TaskRuns are read when the reconciliation starts, so it covers all updates received until then
+        queue.addAfter(generationId, controllerConfig.reconcile().debounce());
+    }
+
+    /**
+     * Reconciles the Generation with the given identifier with all TaskRuns related to it. Run by the
+     * {@link #reconcileQueue} workers, which retry failures, including the ones to fetch the Generation.
+     *
+     * @param generationId the Generation identifier
+     */
+    @ActivateRequestContext
+    protected void reconcileGeneration(String generationId) {
+        GenerationRecord generationRecord = getGeneration(generationId);
+
         log.debug("Finding TaskRuns related to Generation '{}'", generationId);
 
-        // Find all TaskRuns that are related to this generation.
-        List<TaskRun> relatedTaskRuns = kubernetesClient.resources(TaskRun.class)
-                .withLabel(AbstractTektonController.GENERATION_ID_LABEL, generationId)
-                .list()
-                .getItems();
+        reconcile(generationRecord, findRelatedTaskRuns(generationId));
+    }
+
+    /**
+     * Stops the {@link #reconcileQueue} workers, reconciliations in progress are interrupted.
+     */
+    @PreDestroy
+    void stopReconcileQueue() {
+        if (reconcileQueue != null) {
+            reconcileQueue.shutdown();
+        }
+    }
+
+    /**
+     * Finds all TaskRuns related to the Generation, using the informer index if the informer is running.
+     */
+    private Set<TaskRun> findRelatedTaskRuns(String generationId) {
+        SharedIndexInformer<TaskRun> informer = taskRunInformer;
+
+        if (informer != null && informer.isRunning()) {
+            return new HashSet<>(informer.getIndexer().byIndex(GENERATION_ID_INDEX, generationId));
+        }
+
+        return new HashSet<>(
+                kubernetesClient.resources(TaskRun.class)
+                        .withLabel(AbstractTektonController.GENERATION_ID_LABEL, generationId)
+                        .list()
+                        .getItems());
+    }
 
-        // Reconcile!
-        reconcile(generationRecord, new HashSet<>(relatedTaskRuns));
+    private GenerationRecord getGeneration(String generationId) {
+        CachedGeneration cached = generationCache.get(generationId);
+
+        if (cached != null && cached.expiresAt().isAfter(Instant.now())) {
+            log.debug("Using cached Generation '{}'", generationId);
+            return cached.generation();
+        }
+
+        GenerationRecord generation = sbomerClient.getGeneration(generationId);
+
+        cache(generation);
+
+        return generation;
+    }
+
+    private void cache(GenerationRecord generation) {
+        if (generation == null) {
+            return;
+        }
+
+        Instant now = Instant.now();
+
+        generationCache.values().removeIf(c -> c.expiresAt().isBefore(now));
+        generationCache.put(generation.id(), new CachedGeneration(generation, now.plus(GENERATION_CACHE_TTL)));
+    }
+
+    @Override
+    protected void onStatusUpdated(GenerationRecord generation) {
+        // Make sure the next reconciliation sees the new status
+        cache(generation);
     }
 
     @Override
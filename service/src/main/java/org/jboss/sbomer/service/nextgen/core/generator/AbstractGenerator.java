@@ -17,12 +17,15 @@
  */
 package org.jboss.sbomer.service.nextgen.core.generator;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
 import java.time.temporal.ChronoUnit;
-import java.util.ArrayList;
 import java.util.List;
 
 import org.eclipse.microprofile.context.ManagedExecutor;
 import org.eclipse.microprofile.faulttolerance.Retry;
+import org.jboss.sbomer.core.errors.ApplicationException;
 import org.jboss.sbomer.core.features.sbom.utils.MDCUtils;
 import org.jboss.sbomer.service.nextgen.core.dto.api.GenerationRequest;
 import org.jboss.sbomer.service.nextgen.core.dto.model.GenerationRecord;
@@ -33,6 +36,7 @@ import org.jboss.sbomer.service.nextgen.core.events.GenerationStatusChangeEvent;
 import org.jboss.sbomer.service.nextgen.core.payloads.generation.GenerationStatusUpdatePayload;
 import org.jboss.sbomer.service.nextgen.core.rest.SBOMerClient;
 import org.jboss.sbomer.service.nextgen.core.utils.JacksonUtils;
+import org.jboss.sbomer.service.nextgen.core.utils.ManifestStream;
 import org.jboss.sbomer.service.nextgen.service.model.Manifest;
 
 import com.fasterxml.jackson.databind.JsonNode;
@@ -185,14 +189,36 @@ public abstract class AbstractGenerator implements Generator {
 
         log.info("There are {} manifests to be stored for the '{}' generation...", boms.size(), generationRecord.id());
 
-        List<ManifestRecord> manifests = new ArrayList<>();
+        return upload(generationRecord, ManifestStream.fromBoms(boms));
+    }
 
-        boms.forEach(bom -> {
-            log.info("Storing manifests for the Generation '{}'", generationRecord.id());
-            manifests.add(sbomerClient.uploadManifest(generationRecord.id(), bom));
-        });
+    /**
+     * <p>
+     * Stores manifests at given {@code paths} in the database, streaming these straight from the disk within a single
+     * request.
+     * </p>
+     *
+     * @param generationRecord the generation request
+     * @param paths List of {@link Path}s to manifests in JSON format
+     * @return the list of stored {@link Manifest}s
+     */
+    public List<ManifestRecord> storeManifests(GenerationRecord generationRecord, List<Path> paths) {
+        MDCUtils.removeOtelContext();
+        MDCUtils.addIdentifierContext(generationRecord.id());
 
-        return manifests;
+        log.info("There are {} manifests to be stored for the '{}' generation...", paths.size(), generationRecord.id());
+
+        return upload(generationRecord, ManifestStream.fromPaths(paths));
+    }
+
+    private List<ManifestRecord> upload(GenerationRecord generationRecord, InputStream manifests) {
+        log.info("Storing manifests for the Generation '{}'", generationRecord.id());
+
+        try (manifests) {
+            return sbomerClient.uploadManifests(generationRecord.id(), manifests);
+        } catch (IOException e) {
+            throw new ApplicationException("Unable to close the manifests stream", e);
+        }
     }
 
     @Retry(maxRetries = 10, delay = 10, delayUnit = ChronoUnit.SECONDS, retryOn = ServerErrorException.class)
@@ -203,8 +229,18 @@ public abstract class AbstractGenerator implements Generator {
             String reason,
             Object... params) {
 
-        sbomerClient
+        GenerationRecord generation = sbomerClient
                 .updateGenerationStatus(generationId, GenerationStatusUpdatePayload.of(status, result, reason, params));
 
+        onStatusUpdated(generation);
+    }
+
+    /**
+     * Called with the updated generation, after its status was successfully updated by this generator.
+     *
+     * @param generation the updated generation, may be {@code null}
+     */
+    protected void onStatusUpdated(GenerationRecord generation) {
+        // Nothing to do by default
     }
 }
@@ -17,9 +17,12 @@
  */
 package org.jboss.sbomer.service.nextgen.core.rest;
 
+import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.List;
 
 import org.eclipse.microprofile.rest.client.inject.RegisterRestClient;
+import org.jboss.sbomer.core.errors.ValidationException;
 import org.jboss.sbomer.service.nextgen.core.dto.model.EventRecord;
 import org.jboss.sbomer.service.nextgen.core.dto.model.GenerationRecord;
 import org.jboss.sbomer.service.nextgen.core.dto.model.ManifestRecord;
@@ -27,11 +30,14 @@ import org.jboss.sbomer.service.nextgen.core.payloads.generation.EventStatusUpda
 import org.jboss.sbomer.service.nextgen.core.payloads.generation.GenerationStatusUpdatePayload;
 import org.jboss.sbomer.service.nextgen.core.payloads.generation.GenerationsRequest;
 import org.jboss.sbomer.service.nextgen.core.payloads.generation.GenerationsResponse;
+import org.jboss.sbomer.service.nextgen.core.utils.ManifestStream;
 import org.jboss.sbomer.service.rest.otel.SpanName;
 import org.jboss.sbomer.service.rest.otel.Traced;
 
 import com.fasterxml.jackson.databind.JsonNode;
 
+import io.quarkus.rest.client.reactive.ClientExceptionMapper;
+import io.smallrye.reactive.messaging.annotations.Blocking;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.ws.rs.Consumes;
 import jakarta.ws.rs.GET;
@@ -41,6 +47,7 @@ import jakarta.ws.rs.Path;
 import jakarta.ws.rs.PathParam;
 import jakarta.ws.rs.Produces;
 import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
 
 /**
  * A client for SBOMer REST API.
@@ -53,6 +60,24 @@ import jakarta.ws.rs.core.MediaType;
 @Consumes(MediaType.APPLICATION_JSON)
 public interface SBOMerClient {
 
+    /**
+     * Rejected manifests are reported as {@link ValidationException}, so that the generation can be failed. Other
+     * errors are left to the default handling.
+     */
+    @ClientExceptionMapper
+    @Blocking
+    static RuntimeException toException(Response response) {
+        if (response.getStatus() != 422) {
+            return null;
+        }
+
+        JsonNode error = response.readEntity(JsonNode.class);
+        List<String> errors = new ArrayList<>();
+        error.path("errors").forEach(e -> errors.add(e.asText()));
+
+        return new ValidationException("{}", errors, error.path("message").asText("Manifest validation error"));
+    }
+
     //
     // Generations
     //
@@ -89,6 +114,22 @@ public interface SBOMerClient {
     @Path("/generations/{generationId}/manifests")
     public ManifestRecord uploadManifest(@PathParam("generationId") String generationId, JsonNode manifest);
 
+    /**
+     * Uploads all manifests of a generation within a single request.
+     *
+     * @param generationId the generation identifier
+     * @param manifests the stream of manifests, see {@link ManifestStream}
+     * @return the stored manifests, in the order of the stream
+     */
+    @Traced
+    @SpanName("sbomer.generations.manifests.upload.batch")
+    @POST
+    @Path("/generations/{generationId}/manifests:batch")
+    @Consumes(ManifestStream.MEDIA_TYPE)
+    public List<ManifestRecord> uploadManifests(
+            @PathParam("generationId") String generationId,
+            InputStream manifests);
+
     //
     // Events
     //
@@ -0,0 +1,143 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.service.nextgen.core.utils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Function;
+
+import org.jboss.sbomer.core.errors.ApplicationException;
+import org.jboss.sbomer.core.features.sbom.utils.ObjectMapperProvider;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+
+/**
+ * <p>
+ * Streams of manifests, used to upload many manifests within a single request.
+ * </p>
+ *
+ * <p>
+ * A stream is a sequence of JSON documents, each followed by a new line. Documents serialized from memory take a
+ * single line (NDJSON), documents read from files are sent as they are and can span multiple lines.
+ * </p>
+ */
+public class ManifestStream {
+
+    public static final String MEDIA_TYPE = "application/x-ndjson";
+
+    private static final byte[] SEPARATOR = { '\n' };
+
+    private ManifestStream() {
+        throw new IllegalStateException("This is a utility class that should not be instantiated");
+    }
+
+    /**
+     * Creates a stream of the manifests at given {@code paths}. Files are opened one at a time, when the stream is
+     * read.
+     *
+     * @param paths List of {@link Path}s to manifests in JSON format.
+     * @return the stream, needs to be closed by the consumer
+     */
+    public static InputStream fromPaths(List<Path> paths) {
+        for (Path manifestPath : paths) {
+            long size;
+
+            try {
+                size = Files.size(manifestPath);
+            } catch (IOException e) {
+                throw new ApplicationException("Could not read the manifest at '{}'", manifestPath.toAbsolutePath(), e);
+            }
+
+            if (size == 0) {
+                throw new ApplicationException("Manifest at path '{}' is empty", manifestPath.toAbsolutePath());
+            }
+        }
+
+        return concat(paths, manifestPath -> {
+            try {
+                return Files.newInputStream(manifestPath);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not read the manifest at '" + manifestPath + "'", e);
+            }
+        });
+    }
+
+    /**
+     * Creates a stream of the given manifests. Manifests are serialized one at a time, when the stream is read.
+     *
+     * @param boms the manifests
+     * @return the stream
+     */
+    public static InputStream fromBoms(List<JsonNode> boms) {
+        return concat(boms, bom -> {
+            try {
+                return new ByteArrayInputStream(ObjectMapperProvider.json().writeValueAsBytes(bom));
+            } catch (JsonProcessingException e) {
+                throw new ApplicationException("Unable to convert content to bytes", e);
+            }
+        });
+    }
+
+    /**
+     * Reads the manifests from the stream one at a time, as these are consumed from the returned iterator.
+     *
+     * @param stream the stream of manifests
+     * @return the iterator over the manifests
+     * @throws IOException if the stream cannot be read
+     */
+    public static MappingIterator<JsonNode> read(InputStream stream) throws IOException {
+        return ObjectMapperProvider.json().readerFor(JsonNode.class).readValues(stream);
+    }
+
+    private static <T> InputStream concat(List<T> sources, Function<T, InputStream> opener) {
+        Iterator<T> it = new ArrayList<>(sources).iterator();
+
+        return new SequenceInputStream(new Enumeration<InputStream>() {
+
+            // Whether the separator should follow the previous document
+            private boolean separator;
+
+            @Override
+            public boolean hasMoreElements() {
+                return separator || it.hasNext();
+            }
+
+            @Override
+            public InputStream nextElement() {
+                if (separator) {
+                    separator = false;
+                    return new ByteArrayInputStream(SEPARATOR);
+                }
+
+                separator = true;
+                return opener.apply(it.next());
+            }
+        });
+    }
+}
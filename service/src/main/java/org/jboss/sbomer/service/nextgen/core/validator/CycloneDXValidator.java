@@ -18,19 +18,91 @@
 package org.jboss.sbomer.service.nextgen.core.validator;
 
 import java.io.IOException;
+import java.time.Duration;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CompletionStage;
 
 import org.cyclonedx.Version;
 import org.cyclonedx.exception.ParseException;
-import org.cyclonedx.parsers.JsonParser;
+import org.eclipse.microprofile.context.ManagedExecutor;
+import org.eclipse.microprofile.metrics.MetricRegistry;
+import org.eclipse.microprofile.metrics.Tag;
+import org.jboss.sbomer.core.features.sbom.utils.SbomUtils;
+import org.jboss.sbomer.core.features.sbom.validation.CycloneDxSchemaValidator;
 
 import com.fasterxml.jackson.databind.JsonNode;
 
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * <p>
+ * Validates CycloneDX manifests using the compiled schemas shared through {@link CycloneDxSchemaValidator}.
+ * </p>
+ *
+ * <p>
+ * The time spent in every schema validation, including the ones done by the {@code @CycloneDxBom} constraint when
+ * manifests are stored, is recorded in the {@value #VALIDATION_TIMER} timer, tagged with the spec version and the
+ * result.
+ * </p>
+ */
+@ApplicationScoped
+@Slf4j
 public class CycloneDXValidator implements BomValidator {
 
+    public static final String VALIDATION_TIMER = "sbomer_manifest_validation";
+
+    @Inject
+    MetricRegistry metricRegistry;
+
+    @Inject
+    ManagedExecutor executor;
+
+    private final CycloneDxSchemaValidator.Listener listener = this::record;
+
+    void onStart(@Observes StartupEvent event) {
+        CycloneDxSchemaValidator.addListener(listener);
+
+        try {
+            // Compile the default schema upfront, so that the first request does not have to wait for it
+            CycloneDxSchemaValidator.preload(SbomUtils.schemaVersion());
+        } catch (IOException e) {
+            log.warn("Unable to load the CycloneDX {} schema", SbomUtils.schemaVersion().getVersionString(), e);
+        }
+    }
+
+    void onStop(@Observes ShutdownEvent event) {
+        CycloneDxSchemaValidator.removeListener(listener);
+    }
+
+    private void record(Version version, Duration duration, int errors) {
+        metricRegistry
+                .timer(
+                        VALIDATION_TIMER,
+                        new Tag("version", version.getVersionString()),
+                        new Tag("result", errors == 0 ? "valid" : "invalid"))
+                .update(duration);
+    }
+
+    /**
+     * Validates the manifest on the managed executor, so that validation of large manifests does not block the
+     * calling thread.
+     *
+     * @param bom the manifest
+     * @return the validation result
+     */
+    public CompletionStage<BomValidationResult> validateAsync(JsonNode bom) {
+        return executor.supplyAsync(() -> validate(bom));
+    }
+
     @Override
     public BomValidationResult validate(JsonNode bom) {
-        return validate(bom, "1.6"); // TODO: enum?
+        return validate(bom, SbomUtils.schemaVersion().getVersionString());
     }
 
     @Override
@@ -42,9 +114,7 @@ public class CycloneDXValidator implements BomValidator {
         List<ParseException> exceptions;
 
         try {
-            exceptions = new JsonParser().validate(
-                    bom.isTextual() ? bom.textValue().getBytes() : bom.toString().getBytes(),
-                    Version.valueOf(version));
+            exceptions = CycloneDxSchemaValidator.validate(bom, toVersion(version));
 
             if (exceptions.isEmpty()) {
                 return new BomValidationResult(true, null, null);
@@ -59,4 +129,11 @@ public class CycloneDXValidator implements BomValidator {
             return new BomValidationResult(false, "Unable to parse as CycloneDX format", null);
         }
     }
+
+    private static Version toVersion(String version) {
+        return Arrays.stream(Version.values())
+                .filter(v -> v.getVersionString().equals(version))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unsupported CycloneDX version: " + version));
+    }
 }
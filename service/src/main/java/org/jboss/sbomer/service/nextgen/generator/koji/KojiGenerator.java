@@ -29,6 +29,7 @@ import java.util.concurrent.TimeUnit;
 import org.eclipse.microprofile.context.ManagedExecutor;
 import org.eclipse.microprofile.rest.client.inject.RestClient;
 import org.jboss.sbomer.core.errors.ApplicationException;
+import org.jboss.sbomer.core.errors.ValidationException;
 import org.jboss.sbomer.core.features.sbom.utils.FileUtils;
 import org.jboss.sbomer.core.features.sbom.utils.MDCUtils;
 import org.jboss.sbomer.core.features.sbom.utils.ObjectMapperProvider;
@@ -62,7 +63,6 @@ import io.fabric8.tekton.v1beta1.WorkspaceBindingBuilder;
 import io.quarkus.scheduler.Scheduled;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
-import jakarta.validation.ValidationException;
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
@@ -242,30 +242,13 @@ public class KojiGenerator extends AbstractTektonController {
             return;
         }
 
-        // Read manifests
-        List<JsonNode> boms;
-
-        try {
-            boms = JacksonUtils.readBoms(manifestPaths);
-        } catch (Exception e) {
-            log.error("Unable to read one or more manifests", e);
-
-            updateStatus(
-                    generation.id(),
-                    GenerationStatus.FAILED,
-                    GenerationResult.ERR_SYSTEM,
-                    "Generation succeeded, but reading generated manifests failed was not successful. See logs for more information.");
-
-            return;
-        }
-
         // TODO: Validate manifests
 
-        // Store manifests
+        // Store manifests, streamed straight from the disk
         List<ManifestRecord> manifests;
 
         try {
-            manifests = storeBoms(generation, boms);
+            manifests = storeManifests(generation, manifestPaths);
         } catch (ValidationException e) {
             // There was an error when validating the entity, most probably the SBOM is not valid
             log.error("Unable to validate generated SBOMs: {}", e.getMessage(), e);
@@ -277,6 +260,16 @@ public class KojiGenerator extends AbstractTektonController {
                     "Generation failed. One or more generated SBOMs failed validation: {}. See logs for more information.",
                     e.getMessage());
 
+            return;
+        } catch (ApplicationException e) {
+            log.error("Unable to read one or more manifests", e);
+
+            updateStatus(
+                    generation.id(),
+                    GenerationStatus.FAILED,
+                    GenerationResult.ERR_SYSTEM,
+                    "Generation succeeded, but reading generated manifests failed was not successful. See logs for more information.");
+
             return;
         }
 
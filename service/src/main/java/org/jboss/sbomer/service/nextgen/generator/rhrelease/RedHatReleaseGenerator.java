@@ -17,15 +17,28 @@
  */
 package org.jboss.sbomer.service.nextgen.generator.rhrelease;
 
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
 
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.eclipse.microprofile.context.ManagedExecutor;
 import org.eclipse.microprofile.faulttolerance.Retry;
 import org.eclipse.microprofile.rest.client.inject.RestClient;
 import org.jboss.sbomer.core.errors.ApplicationException;
+import org.jboss.sbomer.core.features.sbom.utils.ObjectMapperProvider;
+import org.jboss.sbomer.core.utils.ParallelFetcher;
 import org.jboss.sbomer.service.nextgen.core.dto.api.GenerationRequest;
 import org.jboss.sbomer.service.nextgen.core.dto.model.GenerationRecord;
 import org.jboss.sbomer.service.nextgen.core.dto.model.ManifestRecord;
@@ -34,10 +47,12 @@ import org.jboss.sbomer.service.nextgen.core.enums.GenerationStatus;
 import org.jboss.sbomer.service.nextgen.core.generator.AbstractGenerator;
 import org.jboss.sbomer.service.nextgen.core.rest.SBOMerClient;
 import org.jboss.sbomer.service.nextgen.core.utils.JacksonUtils;
+import org.jboss.sbomer.service.nextgen.core.utils.ManifestStream;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.JsonNodeFactory;
 
+import jakarta.annotation.PreDestroy;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.ws.rs.NotFoundException;
@@ -47,13 +62,44 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class RedHatReleaseGenerator extends AbstractGenerator {
 
+    // Fetches from the API, a bounded number of requests at a time
+    private ParallelFetcher fetcher;
+
+    // Runs the fetches. These are waited for by the generation, which itself runs on the managed executor, so sharing
+    // that one could leave the generation waiting for fetches that cannot start
+    private ExecutorService fetchExecutor;
+
     private RedHatReleaseGenerator() {
         super(null, null);
     }
 
     @Inject
-    public RedHatReleaseGenerator(@RestClient SBOMerClient sbomerClient, ManagedExecutor managedExecutor) {
+    public RedHatReleaseGenerator(
+            @RestClient SBOMerClient sbomerClient,
+            ManagedExecutor managedExecutor,
+            @ConfigProperty(
+                    name = "sbomer.service.release-generator.fetch-parallelism",
+                    defaultValue = "8") int fetchParallelism) {
         super(sbomerClient, managedExecutor);
+
+        AtomicInteger count = new AtomicInteger();
+
+        this.fetchExecutor = Executors.newFixedThreadPool(fetchParallelism, r -> {
+            Thread thread = new Thread(r, "release-generator-fetcher-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.fetcher = new ParallelFetcher(fetchExecutor, fetchParallelism);
+    }
+
+    /**
+     * Stops the {@link #fetchExecutor} threads, fetches in progress are interrupted.
+     */
+    @PreDestroy
+    void stopFetchExecutor() {
+        if (fetchExecutor != null) {
+            fetchExecutor.shutdownNow();
+        }
     }
 
     @Override
@@ -90,67 +136,81 @@ public class RedHatReleaseGenerator extends AbstractGenerator {
                     ex);
         }
 
-        List<JsonNode> boms = new ArrayList<>();
-
-        // Iterate over each generation that was part of that particular event and create copies
-        // updates
-        for (GenerationRecord g : generations) {
-            log.info("Processing generation '{}'", g.id());
-
+        // Manifests of all generations that were part of that particular event, in the order of generations
+        List<ManifestRecord> manifests = fetcher.fetchAll(generations, g -> {
             log.debug("Fetching manifests related to generation '{}'", g.id());
 
-            List<ManifestRecord> manifests;
-
             try {
-                manifests = sbomerClient.getGenerationManifests(g.id());
+                return fetchManifests(g.id());
             } catch (NotFoundException ex) {
                 throw new ApplicationException(
                         "Generation with id '{}' could not be found, cannot process manifests",
                         g.id(),
                         ex);
             }
+        }).stream().flatMap(List::stream).toList();
 
-            for (ManifestRecord m : manifests) {
-                log.info("Processing manifest '{}'", m.id());
-
-                JsonNode bom = sbomerClient.getManifestContent(m.id());
+        Path workDir;
 
-                boms.add(bom);
-            }
+        try {
+            workDir = Files.createTempDirectory("sbomer-release-" + generationRecord.id());
+        } catch (IOException e) {
+            throw new ApplicationException("Unable to create a working directory for the release manifests", e);
         }
 
-        // Apply qualifier transformations to all manifests
-        boms.forEach(m -> adjustQualifiers(m));
+        try {
+            ReleaseManifestBuilder releaseManifest = new ReleaseManifestBuilder();
+
+            // Fetched manifests are adjusted and written to the disk as these arrive, so that only the ones being
+            // processed are kept in memory
+            List<Path> paths = new ArrayList<>(fetcher.fetchAll(manifests, m -> {
+                log.info("Processing manifest '{}'", m.id());
+
+                JsonNode bom = fetchManifestContent(m.id());
 
-        // Create release manifest
-        boms.add(createReleaseManifest(boms));
+                // Apply qualifier transformations
+                adjustQualifiers(bom);
+                releaseManifest.add(bom);
 
-        if (boms.isEmpty()) {
-            log.info("No manifests to upload...");
+                return write(workDir, bom);
+            }));
 
-            updateStatus(
-                    generationRecord.id(),
-                    GenerationStatus.FAILED,
-                    GenerationResult.ERR_GENERAL,
-                    "No manifests were generated");
+            // Create release manifest
+            paths.add(write(workDir, releaseManifest.build()));
 
-            return;
+            // Save all manifests linked to the current generation
+            upload(paths, generationRecord.id());
+        } finally {
+            delete(workDir);
         }
+    }
+
+    @Retry(maxRetries = 3, delay = 1, delayUnit = ChronoUnit.SECONDS, abortOn = NotFoundException.class)
+    protected List<ManifestRecord> fetchManifests(String generationId) {
+        return sbomerClient.getGenerationManifests(generationId);
+    }
 
-        // Save all manifests linked to the current generation
-        upload(boms, generationRecord.id());
+    @Retry(maxRetries = 3, delay = 1, delayUnit = ChronoUnit.SECONDS, abortOn = NotFoundException.class)
+    protected JsonNode fetchManifestContent(String manifestId) {
+        return sbomerClient.getManifestContent(manifestId);
     }
 
     @Retry(maxRetries = 5, delay = 10, delayUnit = ChronoUnit.SECONDS, abortOn = NotFoundException.class)
-    protected void upload(List<JsonNode> boms, String generationId) {
-        log.info("Uploading {} manifests...", boms.size());
+    protected void upload(List<Path> paths, String generationId) {
+        log.info("Uploading {} manifests...", paths.size());
 
-        for (JsonNode bom : boms) {
-            log.info("Uploading manifest...");
-            ManifestRecord manifestRecord = sbomerClient.uploadManifest(generationId, bom);
-            log.info("Manifest uploaded, registered with id '{}", manifestRecord.id());
+        List<ManifestRecord> manifestRecords;
+
+        try (InputStream manifests = ManifestStream.fromPaths(paths)) {
+            manifestRecords = sbomerClient.uploadManifests(generationId, manifests);
+        } catch (IOException e) {
+            throw new ApplicationException("Unable to close the manifests stream", e);
         }
 
+        log.info(
+                "Manifests uploaded, registered with ids: {}",
+                manifestRecords.stream().map(ManifestRecord::id).toList());
+
         updateStatus(
                 generationId,
                 GenerationStatus.FINISHED,
@@ -158,17 +218,48 @@ public class RedHatReleaseGenerator extends AbstractGenerator {
                 "Release manifest generation completed successfully");
     }
 
+    private Path write(Path workDir, JsonNode bom) {
+        try {
+            Path path = Files.createTempFile(workDir, "manifest-", ".json");
+            ObjectMapperProvider.json().writeValue(path.toFile(), bom);
+
+            return path;
+        } catch (IOException e) {
+            throw new ApplicationException("Unable to write the manifest to '{}'", workDir, e);
+        }
+    }
+
+    private void delete(Path workDir) {
+        try (Stream<Path> paths = Files.walk(workDir)) {
+            paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        } catch (IOException e) {
+            log.warn("Unable to remove the working directory '{}'", workDir, e);
+        }
+    }
+
     private void adjustQualifiers(JsonNode bom) {
         log.info("Adjusting qualifiers...");
 
         log.info("Qualifiers adjusted");
     }
 
-    private JsonNode createReleaseManifest(List<JsonNode> boms) {
-        log.info("Creating release manifest...");
+    /**
+     * Builds the release manifest from the manifests added one at a time, in any order and from any thread.
+     */
+    private static class ReleaseManifestBuilder {
 
-        log.info("Release manifest created");
+        private int manifests;
 
-        return JsonNodeFactory.instance.objectNode();
+        synchronized void add(JsonNode bom) {
+            manifests++;
+        }
+
+        synchronized JsonNode build() {
+            log.info("Creating release manifest from {} manifests...", manifests);
+
+            log.info("Release manifest created");
+
+            return JsonNodeFactory.instance.objectNode();
+        }
     }
 }
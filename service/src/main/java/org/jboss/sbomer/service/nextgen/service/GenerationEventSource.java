@@ -22,11 +22,16 @@ import static org.jboss.sbomer.core.features.sbom.utils.MDCUtils.MDC_TRACE_FLAGS
 import static org.jboss.sbomer.core.features.sbom.utils.MDCUtils.MDC_TRACE_ID_KEY;
 import static org.jboss.sbomer.core.features.sbom.utils.MDCUtils.MDC_TRACE_STATE_KEY;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import org.eclipse.microprofile.config.ConfigProvider;
 import org.jboss.pnc.common.otel.OtelUtils;
@@ -38,8 +43,17 @@ import org.jboss.sbomer.service.nextgen.core.events.GenerationStatusChangeEvent;
 import org.jboss.sbomer.service.nextgen.core.utils.ConfigUtils;
 import org.jboss.sbomer.service.nextgen.service.model.Generation;
 import org.jboss.sbomer.service.scheduler.GenerationSchedulerConfig;
+import org.jboss.sbomer.service.scheduler.GenerationSchedulingEvent;
+import org.jboss.sbomer.service.scheduler.GenerationSchedulingEvent.Target;
+import org.jboss.sbomer.service.scheduler.GenerationSchedulingListener;
+import org.jboss.sbomer.service.scheduler.SchedulingCandidate;
+import org.jboss.sbomer.service.scheduler.SchedulingLoad;
+import org.jboss.sbomer.service.scheduler.SchedulingPolicy;
+import org.jboss.sbomer.service.scheduler.SingleFlight;
 import org.slf4j.MDC;
 
+import com.fasterxml.jackson.databind.JsonNode;
+
 import io.fabric8.kubernetes.client.KubernetesClient;
 import io.opentelemetry.api.GlobalOpenTelemetry;
 import io.opentelemetry.api.trace.Span;
@@ -50,6 +64,7 @@ import io.quarkus.arc.Arc;
 import io.quarkus.scheduler.Scheduled;
 import io.quarkus.scheduler.Scheduled.ConcurrentExecution;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
 import jakarta.transaction.Transactional.TxType;
@@ -61,6 +76,14 @@ public class GenerationEventSource {
 
     private final static String DEPLOYMENT_KEY = "deployment";
 
+    // Type of a generation as seen by the scheduling policy: the requested generator, or the target type if not set
+    private final static String TYPE_COLUMN = "COALESCE(g.request -> 'generator' ->> 'name', "
+            + "g.request -> 'target' ->> 'type')";
+
+    // Source of a generation as seen by the scheduling policy: the first event it belongs to, or itself if none
+    private final static String SOURCE_COLUMN = "COALESCE((SELECT min(eg.event_id) FROM event_generation eg "
+            + "WHERE eg.generation_id = g.id), g.id)";
+
     KubernetesClient kubernetesClient;
 
     GenerationSchedulerConfig generationSchedulerConfig;
@@ -69,18 +92,28 @@ public class GenerationEventSource {
 
     EntityMapper mapper;
 
+    GenerationSchedulingListener schedulingListener;
+
+    SchedulingPolicy schedulingPolicy;
+
     String deploymentInfo;
 
+    private final SingleFlight singleFlight = new SingleFlight();
+
     @Inject
     public GenerationEventSource(
             KubernetesClient kubernetesClient,
             GenerationSchedulerConfig generationSchedulerConfig,
             LeaderManager leaderManager,
-            EntityMapper mapper) {
+            EntityMapper mapper,
+            GenerationSchedulingListener schedulingListener,
+            SchedulingPolicy schedulingPolicy) {
         this.kubernetesClient = kubernetesClient;
         this.generationSchedulerConfig = generationSchedulerConfig;
         this.leaderManager = leaderManager;
         this.mapper = mapper;
+        this.schedulingListener = schedulingListener;
+        this.schedulingPolicy = schedulingPolicy;
 
         String release = ConfigUtils.getRelease();
         String deploymentTarget = ConfigProvider.getConfig()
@@ -105,23 +138,50 @@ public class GenerationEventSource {
      * <p>
      * If there are less than {@link GenerationSchedulerConfig#maxConcurrentGenerations()} generations currently running
      * it will check whether there are some generations waiting to be scheduled in the database. If there are such
-     * generations found, it will fetch up to {@link GenerationSchedulerConfig#syncBatch()} generations and create
-     * {@link GenerationRequest} instances (basically ConfigMap) for each one of them. These ill then will be picked by
-     * the controller.
+     * generations found, it will admit up to {@link GenerationSchedulerConfig#syncBatch()} generations (within the
+     * remaining capacity), selected by the {@link SchedulingPolicy}, and mark them as scheduled. These then will be
+     * picked by the generators.
+     * </p>
+     *
+     * <p>
+     * The scheduling policy sees the requested generator as the type of a generation, and the first event the
+     * generation belongs to as its request.
      * </p>
      *
      *
      * <p>
-     * This method is run periodically. By default every 15 seconds. It is controlled by the
-     * {@code sbomer.service.generation-scheduler.sync-interval} property.
+     * This method is run periodically, see {@link #scheduleGenerationsPeriodically()}, and as soon as the database
+     * notifies about a change, see {@link #onSchedulingRequested(GenerationSchedulingEvent)}. Runs never overlap, a run
+     * requested while another one is in progress is done right after it, see {@link SingleFlight}.
      * </p>
      */
+    public void scheduleGenerations() {
+        singleFlight.run(this::scheduleBatch);
+    }
+
+    /**
+     * Runs {@link #scheduleGenerations()} periodically. By default every 15 seconds. It is controlled by the
+     * {@code sbomer.service.generation-scheduler.sync-interval} property. While the database notifications are
+     * received, runs are skipped until {@link GenerationSchedulerConfig#safetyNetInterval()} passes from the last run.
+     */
     @Scheduled(
             every = "${sbomer.service.generation-scheduler.sync-interval:15s}",
             delay = 1,
             delayUnit = TimeUnit.SECONDS,
             concurrentExecution = ConcurrentExecution.SKIP)
-    public void scheduleGenerations() {
+    public void scheduleGenerationsPeriodically() {
+        Instant lastRun = singleFlight.getLastRun();
+
+        if (schedulingListener.isListening() && lastRun != null
+                && lastRun.plus(generationSchedulerConfig.safetyNetInterval()).isAfter(Instant.now())) {
+            log.debug("Scheduling notifications are received, skipping the periodic scheduling of generations");
+            return;
+        }
+
+        scheduleGenerations();
+    }
+
+    private void scheduleBatch() {
         if (!leaderManager.isLeader()) {
             log.info("Current instance is not the leader, skipping scheduling of generations in this instance");
             return;
@@ -129,31 +189,31 @@ public class GenerationEventSource {
 
         long scheduledGenerationsCount = numberOfGenerationsInProgressInCluster();
 
+        int capacity = (int) Math.min(
+                generationSchedulerConfig.syncBatch(),
+                generationSchedulerConfig.maxConcurrentGenerations() - scheduledGenerationsCount);
+
         // In case we will exceed the max number of concurrent generations, do nothing and wait
-        if (scheduledGenerationsCount > generationSchedulerConfig.maxConcurrentGenerations()) {
+        if (capacity <= 0) {
             log.info(
-                    "The number of generations in progress: {} is higher than allowed to: {}, no new generations will be scheduled for now",
+                    "The number of generations in progress: {} reached the allowed maximum: {}, no new generations will be scheduled for now",
                     scheduledGenerationsCount,
                     generationSchedulerConfig.maxConcurrentGenerations());
             return;
         }
 
-        fetchAndSchedule();
+        fetchAndSchedule(capacity);
     }
 
     @Transactional(value = TxType.REQUIRES_NEW)
-    protected void fetchAndSchedule() {
-        log.debug("There is space in the cluster to process new generations, fetching them now...");
+    protected void fetchAndSchedule(int capacity) {
+        log.debug("There is space in the cluster to process {} new generations, fetching them now...", capacity);
 
-        @SuppressWarnings("unchecked")
-        List<Generation> generations = Generation.getEntityManager()
-                .createNativeQuery(
-                        String.format(
-                                "SELECT * FROM generation WHERE status = '%s' ORDER BY created ASC FOR UPDATE SKIP LOCKED LIMIT %s",
-                                GenerationStatus.NEW,
-                                generationSchedulerConfig.syncBatch()),
-                        Generation.class)
-                .getResultList();
+        List<Generation> candidates = fetchCandidates(capacity);
+
+        log.debug("Got {} generations waiting to be scheduled...", candidates.size());
+
+        List<Generation> generations = admit(candidates, capacity);
 
         log.debug("Got {} generations to be scheduled...", generations.size());
 
@@ -170,6 +230,118 @@ public class GenerationEventSource {
         });
     }
 
+    /**
+     * Locks the generations waiting to be scheduled. With fair share, up to
+     * {@link GenerationSchedulerConfig#syncBatch()} oldest generations of every event are considered, otherwise just
+     * the oldest ones.
+     */
+    @SuppressWarnings("unchecked")
+    private List<Generation> fetchCandidates(int capacity) {
+        String query;
+
+        if (schedulingPolicy.isFairShare()) {
+            query = String.format(
+                    "SELECT * FROM generation WHERE id IN (SELECT id FROM (SELECT g.id, "
+                            + "row_number() OVER (PARTITION BY " + SOURCE_COLUMN
+                            + " ORDER BY g.created ASC) AS position FROM generation g WHERE g.status = '%s') "
+                            + "AS waiting WHERE position <= %s) "
+                            + "ORDER BY created ASC FOR UPDATE SKIP LOCKED LIMIT %s",
+                    GenerationStatus.NEW,
+                    generationSchedulerConfig.syncBatch(),
+                    generationSchedulerConfig.fairShare().candidates());
+        } else {
+            query = String.format(
+                    "SELECT * FROM generation WHERE status = '%s' ORDER BY created ASC FOR UPDATE SKIP LOCKED LIMIT %s",
+                    GenerationStatus.NEW,
+                    capacity);
+        }
+
+        return Generation.getEntityManager().createNativeQuery(query, Generation.class).getResultList();
+    }
+
+    /**
+     * Selects the generations to schedule among the candidates with the {@link SchedulingPolicy}.
+     */
+    private List<Generation> admit(List<Generation> candidates, int capacity) {
+        if (candidates.isEmpty()) {
+            return List.of();
+        }
+
+        Map<String, Generation> candidatesById = candidates.stream()
+                .collect(Collectors.toMap(Generation::getId, Function.identity()));
+
+        Map<String, Object[]> sources = schedulingPolicy.isFairShare() ? sourcesOf(candidatesById.keySet()) : Map.of();
+
+        return schedulingPolicy
+                .admit(
+                        candidates.stream().map(g -> toCandidate(g, sources.get(g.getId()))).toList(),
+                        schedulingPolicy.isFairShare() ? currentLoad() : SchedulingLoad.empty(),
+                        capacity)
+                .stream()
+                .map(c -> candidatesById.get(c.id()))
+                .toList();
+    }
+
+    /**
+     * Finds the first event of each generation, together with the source of the event.
+     *
+     * @return the event identifier and the event source, by generation identifier
+     */
+    @SuppressWarnings("unchecked")
+    private Map<String, Object[]> sourcesOf(Collection<String> generationIds) {
+        List<Object[]> rows = Generation.getEntityManager()
+                .createNativeQuery(
+                        "SELECT DISTINCT ON (eg.generation_id) eg.generation_id, e.id, e.metadata ->> 'source' "
+                                + "FROM event_generation eg JOIN event e ON e.id = eg.event_id "
+                                + "WHERE eg.generation_id IN (:ids) ORDER BY eg.generation_id, e.id")
+                .setParameter("ids", generationIds)
+                .getResultList();
+
+        return rows.stream().collect(Collectors.toMap(row -> (String) row[0], row -> row));
+    }
+
+    private SchedulingLoad currentLoad() {
+        @SuppressWarnings("unchecked")
+        List<Object[]> rows = Generation.getEntityManager()
+                .createNativeQuery(
+                        "SELECT type, source, count(*) FROM (SELECT " + TYPE_COLUMN + " AS type, " + SOURCE_COLUMN
+                                + " AS source FROM generation g WHERE g.status IN (:statuses) AND g.metadata ->> "
+                                + ":deploymentKey = :deploymentInfo) AS running GROUP BY type, source")
+                .setParameter(
+                        "statuses",
+                        List.of(GenerationStatus.SCHEDULED.name(), GenerationStatus.GENERATING.name()))
+                .setParameter("deploymentKey", DEPLOYMENT_KEY)
+                .setParameter("deploymentInfo", deploymentInfo)
+                .getResultList();
+
+        Map<String, Map<String, Long>> bySourceAndType = new HashMap<>();
+
+        rows.forEach(
+                row -> bySourceAndType.computeIfAbsent((String) row[1], s -> new HashMap<>())
+                        .merge(Objects.toString(row[0], ""), ((Number) row[2]).longValue(), Long::sum));
+
+        return new SchedulingLoad(bySourceAndType);
+    }
+
+    private static SchedulingCandidate toCandidate(Generation generation, Object[] source) {
+        JsonNode request = generation.getRequest();
+        String type = "";
+
+        if (request != null) {
+            type = request.at("/generator/name").asText(request.at("/target/type").asText(""));
+        }
+
+        // The source of the event is for example 'REST:/api/v1beta2/generations', weights are set by its kind
+        String sourceKind = source != null && source[2] != null ? ((String) source[2]).split(":")[0] : "NONE";
+
+        return new SchedulingCandidate(
+                generation.getId(),
+                type,
+                source != null ? (String) source[1] : generation.getId(),
+                sourceKind,
+                generation.getCreated());
+    }
+
     private long numberOfGenerationsInProgressInCluster() {
         log.debug("Counting generations running in the current deployment '{}'", deploymentInfo);
 
@@ -187,6 +359,20 @@ public class GenerationEventSource {
         return count;
     }
 
+    /**
+     * Runs the scheduling right away when notified about generations waiting to be scheduled or about generations
+     * freeing their slot, instead of waiting for the next periodic run.
+     *
+     * @param event the scheduling event
+     */
+    void onSchedulingRequested(@Observes GenerationSchedulingEvent event) {
+        if (event.target() != Target.GENERATION || !leaderManager.isLeader()) {
+            return;
+        }
+
+        scheduleGenerations();
+    }
+
     /**
      * <p>
      * Syncs given {@link SbomGenerationRequest} with the cluster as {@link GenerationRequest}, if necessary.
@@ -34,6 +34,7 @@ import com.github.f4b6a3.tsid.TsidCreator;
 
 import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
 import io.quarkus.runtime.annotations.RegisterForReflection;
+import jakarta.persistence.Basic;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
@@ -73,6 +74,10 @@ public class Manifest extends PanacheEntityBase {
     @Column(name = "created", nullable = false, updatable = false)
     private Instant created;
 
+    /**
+     * The manifest content, loaded only when accessed.
+     */
+    @Basic(fetch = FetchType.LAZY)
     @JdbcTypeCode(SqlTypes.JSON)
     @Column(name = "bom")
     @ToString.Exclude
@@ -17,12 +17,74 @@
  */
 package org.jboss.sbomer.service.nextgen.service.rest;
 
+import static org.jboss.sbomer.service.rest.RestUtils.estimateCount;
+
 import java.util.List;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
 
 import org.jboss.sbomer.core.features.sbom.rest.Page;
 import org.jboss.sbomer.core.utils.PaginationParameters;
+import org.jboss.sbomer.core.utils.PaginationParameters.CountMode;
+import org.jboss.sbomer.service.rest.KeysetCursor;
+
+import io.quarkus.hibernate.orm.panache.Panache;
+import io.quarkus.panache.common.Sort;
 
 public class RestUtils {
+
+    /**
+     * JPQL condition selecting entities following a {@link KeysetCursor}, with the time of the cursor as the first
+     * parameter and its identifier as the second one. The first condition is redundant, but lets the database use a
+     * range scan.
+     */
+    public static final String KEYSET_CONDITION = "created <= ?1 and (created < ?1 or id < ?2)";
+
+    /**
+     * Order of entities paginated with {@link KeysetCursor}s.
+     */
+    public static final Sort KEYSET_SORT = Sort.descending("created", "id");
+
+    /**
+     * Counts entities as requested.
+     *
+     * @param entityType the type of the entities, used to read the estimate
+     * @param countMode how to count the entities
+     * @param exactCount provides the exact count
+     * @return the number of entities or {@code null} if not requested
+     */
+    public static Long count(Class<?> entityType, CountMode countMode, LongSupplier exactCount) {
+        return switch (countMode) {
+            case NONE -> null;
+            case ESTIMATE -> estimateCount(Panache.getEntityManager(), entityType, exactCount);
+            default -> exactCount.getAsLong();
+        };
+    }
+
+    /**
+     * Prepares a {@link Page} object with the result of a search sorted by {@link #KEYSET_SORT}.
+     *
+     * @param content The content to populate the page with.
+     * @param parameters Query parameters passed to the search.
+     * @param count The total number of hits, {@code null} if unknown.
+     * @param keyOf Creates the cursor pointing after an element of the content.
+     * @return A {@link Page} element with content.
+     */
+    public static <X> Page<X> toPage(
+            List<X> content,
+            PaginationParameters parameters,
+            Long count,
+            Function<X, KeysetCursor> keyOf) {
+        Page<X> page = count == null
+                ? new Page<>(parameters.getPageIndex(), parameters.getPageSize(), -1, -1, content)
+                : toPage(content, parameters, count);
+
+        if (content.size() >= parameters.getPageSize()) {
+            page.setNextCursor(keyOf.apply(content.get(content.size() - 1)).encode());
+        }
+
+        return page;
+    }
     /**
      * Prepares a {@link Page} object with the result of the search.
      *
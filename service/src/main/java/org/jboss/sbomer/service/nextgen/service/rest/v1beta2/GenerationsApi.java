@@ -17,9 +17,14 @@
  */
 package org.jboss.sbomer.service.nextgen.service.rest.v1beta2;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 import org.eclipse.microprofile.openapi.annotations.Operation;
 import org.eclipse.microprofile.openapi.annotations.enums.SchemaType;
@@ -29,6 +34,7 @@ import org.eclipse.microprofile.openapi.annotations.responses.APIResponse;
 import org.eclipse.microprofile.openapi.annotations.tags.Tag;
 import org.jboss.sbomer.core.errors.ClientException;
 import org.jboss.sbomer.core.errors.NotFoundException;
+import org.jboss.sbomer.core.errors.ValidationException;
 import org.jboss.sbomer.core.features.sbom.rest.Page;
 import org.jboss.sbomer.core.utils.PaginationParameters;
 import org.jboss.sbomer.service.nextgen.core.dto.model.EventRecord;
@@ -42,18 +48,25 @@ import org.jboss.sbomer.service.nextgen.core.payloads.generation.GenerationStatu
 import org.jboss.sbomer.service.nextgen.core.payloads.generation.GenerationsRequest;
 import org.jboss.sbomer.service.nextgen.core.payloads.generation.GenerationsResponse;
 import org.jboss.sbomer.service.nextgen.core.utils.JacksonUtils;
+import org.jboss.sbomer.service.nextgen.core.utils.ManifestStream;
+import org.jboss.sbomer.service.nextgen.core.validator.BomValidationResult;
+import org.jboss.sbomer.service.nextgen.core.validator.CycloneDXValidator;
 import org.jboss.sbomer.service.nextgen.service.EntityMapper;
 import org.jboss.sbomer.service.nextgen.service.config.GeneratorConfigProvider;
 import org.jboss.sbomer.service.nextgen.service.model.Event;
 import org.jboss.sbomer.service.nextgen.service.model.Generation;
 import org.jboss.sbomer.service.nextgen.service.model.Manifest;
 import org.jboss.sbomer.service.nextgen.service.rest.RestUtils;
+import org.jboss.sbomer.service.rest.KeysetCursor;
 
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
 
 import io.quarkus.arc.Arc;
+import io.quarkus.hibernate.orm.panache.PanacheQuery;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
 import jakarta.transaction.Transactional;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
@@ -81,14 +94,23 @@ import lombok.extern.slf4j.Slf4j;
 @NoArgsConstructor
 public class GenerationsApi {
 
+    // Number of manifests from a batch upload kept in the persistence context before these are flushed
+    static final int MANIFEST_FLUSH_SIZE = 20;
+
     EntityMapper mapper;
 
     GeneratorConfigProvider generatorConfigProvider;
 
+    CycloneDXValidator bomValidator;
+
     @Inject
-    public GenerationsApi(EntityMapper mapper, GeneratorConfigProvider generatorConfigProvider) {
+    public GenerationsApi(
+            EntityMapper mapper,
+            GeneratorConfigProvider generatorConfigProvider,
+            CycloneDXValidator bomValidator) {
         this.mapper = mapper;
         this.generatorConfigProvider = generatorConfigProvider;
+        this.bomValidator = bomValidator;
     }
 
     @POST
@@ -160,17 +182,28 @@ public class GenerationsApi {
                     schema = @Schema(type = SchemaType.OBJECT, implementation = Page.class)))
     public Response listGenerations(@Valid @BeanParam PaginationParameters paginationParams) {
 
-        List<GenerationRecord> generations = Generation.findAll()
-                .project(GenerationRecord.class)
-                .page(paginationParams.getPageIndex(), paginationParams.getPageSize())
-                .list();
+        KeysetCursor cursor = KeysetCursor.decode(paginationParams.getCursor());
+        PanacheQuery<Generation> query;
+
+        if (cursor != null) {
+            // The page index is reported back only, the page starts right after the cursor
+            query = Generation.find(RestUtils.KEYSET_CONDITION, RestUtils.KEYSET_SORT, cursor.time(), cursor.id())
+                    .page(0, paginationParams.getPageSize());
+        } else {
+            query = Generation.findAll(RestUtils.KEYSET_SORT)
+                    .page(paginationParams.getPageIndex(), paginationParams.getPageSize());
+        }
+
+        List<GenerationRecord> generations = query.project(GenerationRecord.class).list();
 
-        long count = Generation.findAll().count();
+        Long count = RestUtils
+                .count(Generation.class, paginationParams.getCountMode(), () -> Generation.findAll().count());
 
-        Page<GenerationRecord> page = RestUtils.toPage(generations, paginationParams, count);
+        Page<GenerationRecord> page = RestUtils
+                .toPage(generations, paginationParams, count, r -> new KeysetCursor(r.created(), r.id()));
 
         return Response.ok(page)
-                .header("X-Total-Count", count)
+                .header("X-Total-Count", count != null ? count : -1)
                 .header("X-Page-Index", paginationParams.getPageIndex())
                 .header("X-Page-Size", paginationParams.getPageSize())
                 .build();
@@ -276,17 +309,31 @@ public class GenerationsApi {
                     mediaType = MediaType.APPLICATION_JSON,
                     schema = @Schema(implementation = ManifestRecord.class)))
     @APIResponse(responseCode = "404", description = "Generation not found")
+    @APIResponse(responseCode = "422", description = "Manifest is not a valid CycloneDX document")
     @Transactional
     public Response uploadManifest(@PathParam("generationId") String generationId, JsonNode payload) {
 
         log.info("About to store manifests for generation {}", generationId);
 
+        // Validated the same way as manifests uploaded in a batch, while the generation is being looked up
+        CompletableFuture<BomValidationResult> validation = bomValidator.validateAsync(payload).toCompletableFuture();
+
         Generation generation = Generation.findById(generationId); // NOSONAR
 
         if (generation == null) {
+            validation.cancel(false);
             throw new NotFoundException("Generation request with id '{}' could not be found", generationId);
         }
 
+        BomValidationResult validationResult = validation.join();
+
+        if (!validationResult.isValid()) {
+            throw new ValidationException(
+                    "Manifest is not valid: {}",
+                    Optional.ofNullable(validationResult.errors()).orElse(List.of()),
+                    Optional.ofNullable(validationResult.message()).orElse("Manifest validation error"));
+        }
+
         log.debug("Preparing new manifest entity for the payload");
 
         Manifest manifest = Manifest.builder()
@@ -301,4 +348,118 @@ public class GenerationsApi {
         return Response.ok(mapper.toRecord(manifest)).build();
     }
 
+    @POST
+    @Path("/{generationId}/manifests:batch")
+    @Consumes(ManifestStream.MEDIA_TYPE)
+    @Operation(
+            summary = "Upload new manifests and attach these to a generation (Worker only)",
+            description = "Accepts a stream of JSON documents, each followed by a new line. Manifests are stored "
+                    + "in a single transaction, none is stored if any of these is not a valid CycloneDX document.")
+    @APIResponse(
+            responseCode = "200",
+            description = "Manifests uploaded, in the order of the stream",
+            content = @Content(
+                    mediaType = MediaType.APPLICATION_JSON,
+                    schema = @Schema(type = SchemaType.ARRAY, implementation = ManifestRecord.class)))
+    @APIResponse(responseCode = "400", description = "No manifests provided or these could not be parsed")
+    @APIResponse(responseCode = "404", description = "Generation not found")
+    @APIResponse(responseCode = "422", description = "One of the manifests is not a valid CycloneDX document")
+    @Transactional
+    public Response uploadManifests(@PathParam("generationId") String generationId, InputStream payload) {
+
+        log.info("About to store a batch of manifests for generation {}", generationId);
+
+        Generation generation = Generation.findById(generationId); // NOSONAR
+
+        if (generation == null) {
+            throw new NotFoundException("Generation request with id '{}' could not be found", generationId);
+        }
+
+        List<ManifestRecord> records = new ArrayList<>();
+        List<Manifest> unflushed = new ArrayList<>();
+
+        JsonNode pending = null;
+        CompletableFuture<BomValidationResult> pendingValidation = null;
+
+        // Manifests are parsed one at a time, the previous one is validated while the next one is parsed
+        try (MappingIterator<JsonNode> boms = ManifestStream.read(payload)) {
+            while (boms.hasNextValue()) {
+                JsonNode bom = boms.nextValue();
+
+                if (pending != null) {
+                    int index = records.size() + unflushed.size();
+                    unflushed.add(storeManifest(generation, pending, pendingValidation, index));
+                }
+
+                pending = bom;
+                pendingValidation = bomValidator.validateAsync(bom).toCompletableFuture();
+
+                if (unflushed.size() >= MANIFEST_FLUSH_SIZE) {
+                    flushManifests(unflushed, records);
+                }
+            }
+        } catch (IOException e) {
+            if (pendingValidation != null) {
+                pendingValidation.cancel(false);
+            }
+
+            throw new ClientException(
+                    "Unable to read manifest #{} of the batch: {}",
+                    records.size() + unflushed.size() + (pending != null ? 1 : 0),
+                    e.getMessage());
+        }
+
+        if (pending == null) {
+            throw new ClientException("No manifests provided");
+        }
+
+        unflushed.add(storeManifest(generation, pending, pendingValidation, records.size() + unflushed.size()));
+        flushManifests(unflushed, records);
+
+        log.info("Stored {} manifests for generation {}", records.size(), generationId);
+
+        return Response.ok(records).build();
+    }
+
+    private Manifest storeManifest(
+            Generation generation,
+            JsonNode bom,
+            CompletableFuture<BomValidationResult> validation,
+            int index) {
+        BomValidationResult validationResult = validation.join();
+
+        if (!validationResult.isValid()) {
+            throw new ValidationException(
+                    "Manifest #{} of the batch is not valid: {}",
+                    Optional.ofNullable(validationResult.errors()).orElse(List.of()),
+                    index,
+                    Optional.ofNullable(validationResult.message()).orElse("Manifest validation error"));
+        }
+
+        // Not added to the manifests of the generation, that would load all of these
+        Manifest manifest = Manifest.builder()
+                .withGeneration(generation)
+                .withBom(bom)
+                .withMetadata(Map.of("sha256", JacksonUtils.hash(bom)))
+                .build();
+        manifest.persist();
+
+        return manifest;
+    }
+
+    /**
+     * Sends the pending inserts to the database in JDBC batches and detaches the manifests, so that their content can
+     * be released before the rest of the stream is read.
+     */
+    private void flushManifests(List<Manifest> unflushed, List<ManifestRecord> records) {
+        EntityManager entityManager = Manifest.getEntityManager();
+        entityManager.flush();
+
+        for (Manifest manifest : unflushed) {
+            records.add(mapper.toRecord(manifest));
+            entityManager.detach(manifest);
+        }
+
+        unflushed.clear();
+    }
 }
@@ -33,12 +33,13 @@ import org.jboss.sbomer.core.errors.NotFoundException;
 import org.jboss.sbomer.core.features.sbom.rest.Page;
 import org.jboss.sbomer.core.utils.PaginationParameters;
 import org.jboss.sbomer.service.nextgen.core.dto.model.ManifestRecord;
-import org.jboss.sbomer.service.nextgen.service.EntityMapper;
 import org.jboss.sbomer.service.nextgen.service.model.Manifest;
 import org.jboss.sbomer.service.nextgen.service.rest.RestUtils;
+import org.jboss.sbomer.service.rest.KeysetCursor;
 
 import com.fasterxml.jackson.databind.JsonNode;
 
+import io.quarkus.hibernate.orm.panache.PanacheQuery;
 import io.vertx.core.eventbus.EventBus;
 import jakarta.annotation.security.PermitAll;
 import jakarta.enterprise.context.ApplicationScoped;
@@ -62,9 +63,6 @@ import lombok.extern.slf4j.Slf4j;
 @Tag(name = "v1beta2")
 @Slf4j
 public class ManifestsApi {
-    @Inject
-    EntityMapper mapper;
-
     @Inject
     EventBus eventBus;
 
@@ -83,17 +81,27 @@ public class ManifestsApi {
             description = "Internal server error",
             content = @Content(mediaType = MediaType.APPLICATION_JSON))
     public Response search(@Valid @BeanParam PaginationParameters paginationParams) {
-        List<ManifestRecord> manifests = Manifest.findAll()
-                .project(ManifestRecord.class)
-                .page(paginationParams.getPageIndex(), paginationParams.getPageSize())
-                .list();
+        KeysetCursor cursor = KeysetCursor.decode(paginationParams.getCursor());
+        PanacheQuery<Manifest> query;
+
+        if (cursor != null) {
+            // The page index is reported back only, the page starts right after the cursor
+            query = Manifest.find(RestUtils.KEYSET_CONDITION, RestUtils.KEYSET_SORT, cursor.time(), cursor.id())
+                    .page(0, paginationParams.getPageSize());
+        } else {
+            query = Manifest.findAll(RestUtils.KEYSET_SORT)
+                    .page(paginationParams.getPageIndex(), paginationParams.getPageSize());
+        }
 
-        long count = Manifest.findAll().count();
+        List<ManifestRecord> manifests = query.project(ManifestRecord.class).list();
 
-        Page<ManifestRecord> page = RestUtils.toPage(manifests, paginationParams, count);
+        Long count = RestUtils.count(Manifest.class, paginationParams.getCountMode(), () -> Manifest.findAll().count());
+
+        Page<ManifestRecord> page = RestUtils
+                .toPage(manifests, paginationParams, count, r -> new KeysetCursor(r.created(), r.id()));
 
         return Response.ok(page)
-                .header("X-Total-Count", count)
+                .header("X-Total-Count", count != null ? count : -1)
                 .header("X-Page-Index", paginationParams.getPageIndex())
                 .header("X-Page-Size", paginationParams.getPageSize())
                 .build();
@@ -133,13 +141,16 @@ public class ManifestsApi {
                     mediaType = MediaType.APPLICATION_JSON,
                     schema = @Schema(implementation = ErrorResponse.class)))
     public ManifestRecord getById(@PathParam("id") String manifestId) {
-        Manifest manifest = Manifest.findById(manifestId); // NOSONAR
+        // Projection, the content of the manifest is not needed here
+        ManifestRecord manifest = Manifest.find("id", manifestId) // NOSONAR
+                .project(ManifestRecord.class)
+                .firstResult();
 
         if (manifest == null) {
             throw new NotFoundException("Manifest with id '{}' could not be found", manifestId);
         }
 
-        return mapper.toRecord(manifest);
+        return manifest;
     }
 
     @GET
@@ -175,12 +186,15 @@ public class ManifestsApi {
                     mediaType = MediaType.APPLICATION_JSON,
                     schema = @Schema(implementation = ErrorResponse.class)))
     public JsonNode getContentById(@PathParam("id") String manifestId) {
-        Manifest manifest = Manifest.findById(manifestId); // NOSONAR
+        List<JsonNode> boms = Manifest.getEntityManager()
+                .createQuery("select m.bom from Manifest m where m.id = :id", JsonNode.class)
+                .setParameter("id", manifestId)
+                .getResultList();
 
-        if (manifest == null) {
+        if (boms.isEmpty()) {
             throw new NotFoundException("Manifest with id '{}' could not be found", manifestId);
         }
 
-        return manifest.getBom();
+        return boms.get(0);
     }
 }
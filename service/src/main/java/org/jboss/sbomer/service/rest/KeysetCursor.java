@@ -0,0 +1,72 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.service.rest;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+import org.jboss.sbomer.core.errors.ClientException;
+
+/**
+ * Position of the last entity of a page, for keyset pagination over the (time, id) pair in descending order. The next
+ * page starts with entities older than {@code time}, or as old and with a lower {@code id}.
+ *
+ * @param time the time (creation, receival) of the last entity of the page
+ * @param id the identifier of the last entity of the page
+ */
+public record KeysetCursor(Instant time, String id) {
+
+    private static final char SEPARATOR = '|';
+
+    /**
+     * @return an opaque, URL safe token representing this cursor
+     */
+    public String encode() {
+        String value = time.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(UTF_8));
+    }
+
+    /**
+     * Decodes a token created with {@link #encode()}.
+     *
+     * @param token the token
+     * @return the cursor, or {@code null} if the token is empty
+     * @throws ClientException if the token is not valid
+     */
+    public static KeysetCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(token.trim()), UTF_8);
+            int separator = value.indexOf(SEPARATOR);
+
+            if (separator <= 0 || separator == value.length() - 1) {
+                throw new ClientException("Invalid cursor: '{}'", token);
+            }
+
+            return new KeysetCursor(Instant.parse(value.substring(0, separator)), value.substring(separator + 1));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new ClientException("Invalid cursor: '{}'", token);
+        }
+    }
+}
@@ -32,6 +32,12 @@ public class QueryParameters {
 
     String rsqlQuery;
     String sort;
+
+    /**
+     * Position after which the page starts, replaces the page index if set.
+     */
+    KeysetCursor cursor;
+
     @Builder.Default
     int pageIndex = 0;
 
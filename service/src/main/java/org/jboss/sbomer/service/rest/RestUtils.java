@@ -30,7 +30,10 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.LongSupplier;
 
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.persister.entity.AbstractEntityPersister;
 import org.hibernate.validator.engine.HibernateConstraintViolation;
 import org.jboss.sbomer.core.config.request.RequestConfig;
 import org.jboss.sbomer.core.features.sbom.enums.RequestEventType;
@@ -38,6 +41,7 @@ import org.jboss.sbomer.service.feature.sbom.model.RequestEvent;
 import org.yaml.snakeyaml.parser.ParserException;
 
 import io.opentelemetry.api.trace.Span;
+import jakarta.persistence.EntityManager;
 import jakarta.transaction.Transactional;
 import jakarta.transaction.Transactional.TxType;
 import jakarta.validation.ConstraintViolation;
@@ -52,6 +56,37 @@ public class RestUtils {
         // This is a utility class
     }
 
+    /**
+     * Reads the estimated number of entities of the given type from the table statistics maintained by PostgreSQL,
+     * which is much cheaper than counting rows of large tables. The table is resolved from the Hibernate mapping of the
+     * entity. Falls back to the exact count if there is no estimate: the table was never analyzed (-1, or 0 before
+     * PostgreSQL 14) or is empty, which makes the exact count cheap anyway.
+     *
+     * @param entityManager the entity manager
+     * @param entityType the entity type
+     * @param exactCount provides the exact count
+     * @return the estimated number of entities
+     */
+    public static long estimateCount(EntityManager entityManager, Class<?> entityType, LongSupplier exactCount) {
+        String table = ((AbstractEntityPersister) entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactoryImplementor.class)
+                .getMappingMetamodel()
+                .getEntityDescriptor(entityType)).getTableName();
+
+        Number estimate = (Number) entityManager
+                .createNativeQuery("SELECT reltuples::bigint FROM pg_class WHERE oid = to_regclass(:table)")
+                .setParameter("table", table)
+                .getResultStream()
+                .findFirst()
+                .orElse(null);
+
+        if (estimate == null || estimate.longValue() <= 0) {
+            return exactCount.getAsLong();
+        }
+
+        return estimate.longValue();
+    }
+
     /**
      * Converts Hibernate Validator violations in a readable list of messages.
      *
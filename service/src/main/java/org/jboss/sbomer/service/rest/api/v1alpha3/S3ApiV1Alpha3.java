@@ -20,8 +20,11 @@ package org.jboss.sbomer.service.rest.api.v1alpha3;
 import java.util.List;
 
 import org.eclipse.microprofile.openapi.annotations.Operation;
+import org.eclipse.microprofile.openapi.annotations.enums.ParameterIn;
 import org.eclipse.microprofile.openapi.annotations.media.Content;
+import org.eclipse.microprofile.openapi.annotations.media.ExampleObject;
 import org.eclipse.microprofile.openapi.annotations.media.Schema;
+import org.eclipse.microprofile.openapi.annotations.parameters.Parameter;
 import org.eclipse.microprofile.openapi.annotations.responses.APIResponse;
 import org.eclipse.microprofile.openapi.annotations.tags.Tag;
 import org.jboss.sbomer.core.errors.ErrorResponse;
@@ -36,9 +39,12 @@ import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.ws.rs.Consumes;
 import jakarta.ws.rs.GET;
+import jakarta.ws.rs.HeaderParam;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.PathParam;
 import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
 import lombok.extern.slf4j.Slf4j;
@@ -98,23 +104,44 @@ public class S3ApiV1Alpha3 {
     @Consumes({ MediaType.APPLICATION_JSON, YAMLMediaTypes.APPLICATION_JACKSON_YAML })
     @Operation(summary = "Fetch generation log on a specified path")
     @Path("/sboms/requests/{id}/logs/{path}")
+    @Parameter(
+            name = HttpHeaders.RANGE,
+            in = ParameterIn.HEADER,
+            description = "Optional single byte range of the log file to return",
+            examples = { @ExampleObject(name = "Skip the first kilobyte", value = "bytes=1024-"),
+                    @ExampleObject(name = "Last kilobyte", value = "bytes=-1024") })
+    @Parameter(name = "tail", description = "Optional number of lines to return from the end of the log file")
     @APIResponse(
             responseCode = "200",
             description = "Requests manifest generation for a given container image.",
             content = @Content(mediaType = MediaType.TEXT_PLAIN))
+    @APIResponse(
+            responseCode = "206",
+            description = "Requested byte range of the log file content",
+            content = @Content(mediaType = MediaType.TEXT_PLAIN))
+    @APIResponse(
+            responseCode = "400",
+            description = "Unsupported byte range or tail parameter",
+            content = @Content(mediaType = MediaType.APPLICATION_JSON))
+    @APIResponse(
+            responseCode = "416",
+            description = "Requested byte range is outside of the log file",
+            content = @Content(mediaType = MediaType.APPLICATION_JSON))
     @APIResponse(
             responseCode = "500",
             description = "Internal server error",
             content = @Content(mediaType = MediaType.APPLICATION_JSON))
-    public Response getLog(@PathParam("id") String generationRequestId, @PathParam("path") String path) {
+    public Response getLog(
+            @PathParam("id") String generationRequestId,
+            @PathParam("path") String path,
+            @HeaderParam(HttpHeaders.RANGE) String range,
+            @QueryParam("tail") Integer tail) {
         if (!featureFlags.s3Storage()) {
             throw new ServiceUnavailableException("S3 feature is disabled currently, try again later");
         }
 
         log.info("Fetching log for GenerationRequest '{}' on path '{}'", generationRequestId, path);
 
-        String log = s3StorageHandler.getLog(generationRequestId, path);
-
-        return Response.ok(log).build();
+        return s3StorageHandler.getLog(generationRequestId, path, range, tail).toResponse();
     }
 }
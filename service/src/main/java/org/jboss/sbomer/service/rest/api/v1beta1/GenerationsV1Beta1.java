@@ -23,6 +23,7 @@ import java.util.List;
 
 import org.eclipse.microprofile.context.ManagedExecutor;
 import org.eclipse.microprofile.openapi.annotations.Operation;
+import org.eclipse.microprofile.openapi.annotations.enums.ParameterIn;
 import org.eclipse.microprofile.openapi.annotations.media.Content;
 import org.eclipse.microprofile.openapi.annotations.media.ExampleObject;
 import org.eclipse.microprofile.openapi.annotations.media.Schema;
@@ -74,6 +75,7 @@ import jakarta.ws.rs.Consumes;
 import jakarta.ws.rs.DELETE;
 import jakarta.ws.rs.DefaultValue;
 import jakarta.ws.rs.GET;
+import jakarta.ws.rs.HeaderParam;
 import jakarta.ws.rs.POST;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.PathParam;
@@ -81,6 +83,7 @@ import jakarta.ws.rs.Produces;
 import jakarta.ws.rs.QueryParam;
 import jakarta.ws.rs.container.ContainerRequestContext;
 import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
 import lombok.extern.slf4j.Slf4j;
@@ -348,11 +351,7 @@ public class GenerationsV1Beta1 {
             @Valid @BeanParam PaginationParameters paginationParams,
             @QueryParam("query") String rsqlQuery,
             @DefaultValue("creationTime=desc=") @QueryParam("sort") String sort) {
-        Page<SbomGenerationRequest> requests = sbomService.searchSbomRequestsByQueryPaginated(
-                paginationParams.getPageIndex(),
-                paginationParams.getPageSize(),
-                rsqlQuery,
-                sort);
+        Page<SbomGenerationRequest> requests = sbomService.searchSbomRequestsByQueryPaginated(paginationParams, rsqlQuery, sort);
 
         return mapper.generationsToRecordPage(requests);
     }
@@ -414,23 +413,44 @@ public class GenerationsV1Beta1 {
     @Consumes({ MediaType.APPLICATION_JSON, YAMLMediaTypes.APPLICATION_JACKSON_YAML })
     @Operation(summary = "Fetch generation log file content on a specified path")
     @Path("/{id}/logs/{path}")
+    @Parameter(
+            name = HttpHeaders.RANGE,
+            in = ParameterIn.HEADER,
+            description = "Optional single byte range of the log file to return",
+            examples = { @ExampleObject(name = "Skip the first kilobyte", value = "bytes=1024-"),
+                    @ExampleObject(name = "Last kilobyte", value = "bytes=-1024") })
+    @Parameter(name = "tail", description = "Optional number of lines to return from the end of the log file")
     @APIResponse(
             responseCode = "200",
             description = "Log file content",
             content = @Content(mediaType = MediaType.TEXT_PLAIN))
+    @APIResponse(
+            responseCode = "206",
+            description = "Requested byte range of the log file content",
+            content = @Content(mediaType = MediaType.TEXT_PLAIN))
+    @APIResponse(
+            responseCode = "400",
+            description = "Unsupported byte range or tail parameter",
+            content = @Content(mediaType = MediaType.APPLICATION_JSON))
+    @APIResponse(
+            responseCode = "416",
+            description = "Requested byte range is outside of the log file",
+            content = @Content(mediaType = MediaType.APPLICATION_JSON))
     @APIResponse(
             responseCode = "500",
             description = "Internal server error",
             content = @Content(mediaType = MediaType.APPLICATION_JSON))
-    public Response getLog(@PathParam("id") String generationRequestId, @PathParam("path") String path) {
+    public Response getLog(
+            @PathParam("id") String generationRequestId,
+            @PathParam("path") String path,
+            @HeaderParam(HttpHeaders.RANGE) String range,
+            @QueryParam("tail") Integer tail) {
         if (!featureFlags.s3Storage()) {
             throw new ServiceUnavailableException("S3 feature is disabled currently, try again later");
         }
 
         log.info("Fetching log for GenerationRequest '{}' on path '{}'", generationRequestId, path);
 
-        String log = s3StorageHandler.getLog(generationRequestId, path);
-
-        return Response.ok(log).build();
+        return s3StorageHandler.getLog(generationRequestId, path, range, tail).toResponse();
     }
 }
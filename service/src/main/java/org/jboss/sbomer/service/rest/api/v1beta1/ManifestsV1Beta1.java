@@ -17,6 +17,8 @@
  */
 package org.jboss.sbomer.service.rest.api.v1beta1;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.Map;
 
 import org.eclipse.microprofile.openapi.annotations.Operation;
@@ -29,17 +31,17 @@ import org.eclipse.microprofile.openapi.annotations.tags.Tag;
 import org.jboss.sbomer.core.dto.BaseSbomRecord;
 import org.jboss.sbomer.core.dto.v1beta1.V1Beta1BaseManifestRecord;
 import org.jboss.sbomer.core.dto.v1beta1.V1Beta1ManifestRecord;
+import org.jboss.sbomer.core.errors.ApplicationException;
 import org.jboss.sbomer.core.errors.ErrorResponse;
 import org.jboss.sbomer.core.errors.NotFoundException;
 import org.jboss.sbomer.core.features.sbom.rest.Page;
 import org.jboss.sbomer.core.utils.PaginationParameters;
 import org.jboss.sbomer.service.feature.FeatureFlags;
+import org.jboss.sbomer.service.feature.sbom.model.ManifestContent;
 import org.jboss.sbomer.service.feature.sbom.model.Sbom;
 import org.jboss.sbomer.service.feature.sbom.service.SbomService;
 import org.jboss.sbomer.service.rest.mapper.V1Beta1Mapper;
 
-import com.fasterxml.jackson.databind.JsonNode;
-
 import jakarta.annotation.security.PermitAll;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
@@ -53,9 +55,13 @@ import jakarta.ws.rs.Path;
 import jakarta.ws.rs.PathParam;
 import jakarta.ws.rs.Produces;
 import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.EntityTag;
 import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
 import jakarta.ws.rs.core.Response;
 import jakarta.ws.rs.core.Response.Status;
+import jakarta.ws.rs.core.StreamingOutput;
 import lombok.extern.slf4j.Slf4j;
 
 @Path("/api/v1beta1/manifests")
@@ -106,11 +112,7 @@ public class ManifestsV1Beta1 {
             @QueryParam("query") String rsqlQuery,
             @DefaultValue("creationTime=desc=") @QueryParam("sort") String sort) {
 
-        Page<BaseSbomRecord> sboms = sbomService.searchSbomRecordsByQueryPaginated(
-                paginationParams.getPageIndex(),
-                paginationParams.getPageSize(),
-                rsqlQuery,
-                sort);
+        Page<BaseSbomRecord> sboms = sbomService.searchSbomRecordsByQueryPaginated(paginationParams, rsqlQuery, sort);
 
         return mapper.toRecord(sboms);
     }
@@ -173,6 +175,9 @@ public class ManifestsV1Beta1 {
             responseCode = "200",
             description = "The BOM in CycloneDX format",
             content = @Content(schema = @Schema(implementation = Map.class)))
+    @APIResponse(
+            responseCode = "304",
+            description = "The BOM was not modified, it matches the entity tag provided in the If-None-Match header")
     @APIResponse(
             responseCode = "400",
             description = "Could not parse provided arguments",
@@ -185,7 +190,7 @@ public class ManifestsV1Beta1 {
             responseCode = "500",
             description = "Internal server error",
             content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
-    public JsonNode getBomById(@PathParam("id") String identifier) {
+    public Response getBomById(@PathParam("id") String identifier, @Context Request request) {
         Sbom sbom = sbomService.get(identifier);
 
         if (sbom == null) {
@@ -197,8 +202,38 @@ public class ManifestsV1Beta1 {
                     "Manifest with could not be found for provided identifier: '" + identifier + "'");
         }
 
-        // TODO: We probably should ensure proper formatting (ordering of keys)
-        return sbom.getSbom();
+        ManifestContent content = sbom.getContent();
+
+        if (content == null || sbom.hasInlineContent()) {
+            // Not in the content-addressed storage yet
+            // TODO: We probably should ensure proper formatting (ordering of keys)
+            return Response.ok(sbom.getSbom()).build();
+        }
+
+        // The hash of the content identifies it, it can be checked without loading the content
+        EntityTag entityTag = new EntityTag(content.getHash());
+        Response.ResponseBuilder notModified = request.evaluatePreconditions(entityTag);
+
+        if (notModified != null) {
+            return notModified.build();
+        }
+
+        InputStream stream;
+
+        try {
+            stream = content.openStream();
+        } catch (IOException e) {
+            throw new ApplicationException("Unable to read content of the manifest '{}'", sbom.getId(), e);
+        }
+
+        // Streamed as stored, without parsing it
+        StreamingOutput body = output -> {
+            try (stream) {
+                stream.transferTo(output);
+            }
+        };
+
+        return Response.ok(body, MediaType.APPLICATION_JSON).tag(entityTag).build();
     }
 
     @POST
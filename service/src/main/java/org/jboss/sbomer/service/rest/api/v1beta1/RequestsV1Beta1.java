@@ -155,11 +155,7 @@ public class RequestsV1Beta1 {
             @QueryParam("query") String rsqlQuery,
             @DefaultValue("receivalTime=desc=") @QueryParam("sort") String sort) {
 
-        return sbomService.searchRequestRecordsByQueryPaginated(
-                paginationParams.getPageIndex(),
-                paginationParams.getPageSize(),
-                rsqlQuery,
-                sort);
+        return sbomService.searchRequestRecordsByQueryPaginated(paginationParams, rsqlQuery, sort);
     }
 
 }
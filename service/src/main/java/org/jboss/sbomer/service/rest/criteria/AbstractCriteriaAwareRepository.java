@@ -26,6 +26,8 @@ import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import org.jboss.pnc.common.Strings;
+import org.jboss.sbomer.service.rest.KeysetCursor;
+import org.jboss.sbomer.service.rest.RestUtils;
 import org.jboss.sbomer.service.rest.criteria.predicate.CustomPredicateSortBuilder;
 import org.jboss.sbomer.service.rest.criteria.predicate.CustomizedJpaPredicateSortVisitor;
 import org.jboss.sbomer.service.rest.criteria.predicate.CustomizedJpaPredicateVisitor;
@@ -83,6 +85,38 @@ public abstract class AbstractCriteriaAwareRepository<T> implements PanacheRepos
         sortParser = new RSQLParser(sortOperators);
     }
 
+    /**
+     * Reads the estimated number of all entities from the table statistics, see
+     * {@link RestUtils#estimateCount(jakarta.persistence.EntityManager, Class, java.util.function.LongSupplier)}.
+     *
+     * @return the estimated number of all entities
+     */
+    public Long estimateCount() {
+        return RestUtils.estimateCount(getEntityManager(), entityType, () -> countByRsqlQuery(null));
+    }
+
+    /**
+     * Name of the time attribute (creation, receival) entities are sorted by in descending order by default. Together
+     * with the identifier it is the key of the keyset pagination.
+     *
+     * @return the attribute name, or {@code null} if keyset pagination is not supported
+     */
+    protected String getKeysetAttribute() {
+        return null;
+    }
+
+    /**
+     * Checks whether the query is sorted by the default keyset order, in which case {@link KeysetCursor cursors} can be
+     * used to paginate.
+     *
+     * @param sort the RSQL sort of the query
+     * @return {@code true} if the query can be paginated with cursors
+     */
+    public boolean isKeysetSort(String sort) {
+        String attribute = getKeysetAttribute();
+        return attribute != null && sort != null && sort.trim().equals(attribute + "=desc=");
+    }
+
     /**
      * Reads the total number of entities that satisfy the RSQL query.
      *
@@ -17,15 +17,20 @@
  */
 package org.jboss.sbomer.service.rest.criteria;
 
+import java.time.Instant;
 import java.util.List;
 
 import org.jboss.sbomer.core.TriFunction;
+import org.jboss.sbomer.core.errors.ClientException;
+import org.jboss.sbomer.service.rest.KeysetCursor;
 import org.jboss.sbomer.service.rest.QueryParameters;
 
 import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
 import jakarta.persistence.TypedQuery;
 import jakarta.persistence.criteria.CriteriaBuilder;
 import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
 import jakarta.persistence.criteria.Root;
 
 public class CriteriaAwareRepository<T extends PanacheEntityBase> extends AbstractCriteriaAwareRepository<T> {
@@ -53,6 +58,18 @@ public class CriteriaAwareRepository<T extends PanacheEntityBase> extends Abstra
         }
 
         criteriaQuery = handleRsql(criteriaQuery, root, parameters.getRsqlQuery());
+
+        if (isKeysetSort(parameters.getSort())) {
+            return handleKeyset(criteriaQuery, root, parameters);
+        }
+
+        if (parameters.getCursor() != null) {
+            throw new ClientException(
+                    "Cursors can be used only when sorting by '{}=desc=', got sort: '{}'",
+                    getKeysetAttribute(),
+                    parameters.getSort());
+        }
+
         criteriaQuery = handleSort(criteriaQuery, root, parameters.getSort());
 
         TypedQuery<X> typedQuery = getEntityManager().createQuery(criteriaQuery);
@@ -63,6 +80,41 @@ public class CriteriaAwareRepository<T extends PanacheEntityBase> extends Abstra
         return typedQuery.getResultList();
     }
 
+    /**
+     * Sorts by the keyset attribute and the identifier, both descending, so that the order is stable. If a cursor is
+     * provided, the page starts right after it instead of at the offset of the page index, which the database can
+     * resolve from an index without reading all the preceding rows.
+     */
+    private <X> List<X> handleKeyset(CriteriaQuery<X> criteriaQuery, Root<T> root, QueryParameters parameters) {
+        Path<Instant> time = root.get(getKeysetAttribute());
+        Path<String> id = root.get("id");
+        KeysetCursor cursor = parameters.getCursor();
+
+        if (cursor != null) {
+            // The first condition is redundant, but lets the database use a range scan
+            Predicate after = criteriaBuilder.and(
+                    criteriaBuilder.lessThanOrEqualTo(time, cursor.time()),
+                    criteriaBuilder.or(
+                            criteriaBuilder.lessThan(time, cursor.time()),
+                            criteriaBuilder.lessThan(id, cursor.id())));
+            Predicate restriction = criteriaQuery.getRestriction();
+
+            criteriaQuery.where(restriction == null ? after : criteriaBuilder.and(restriction, after));
+        }
+
+        criteriaQuery.orderBy(criteriaBuilder.desc(time), criteriaBuilder.desc(id));
+
+        TypedQuery<X> typedQuery = getEntityManager().createQuery(criteriaQuery);
+
+        if (cursor == null) {
+            typedQuery.setFirstResult(parameters.firstResult());
+        }
+
+        typedQuery.setMaxResults(parameters.maxResults());
+
+        return typedQuery.getResultList();
+    }
+
     public List<T> search(QueryParameters parameters) {
         return search(parameters, null);
     }
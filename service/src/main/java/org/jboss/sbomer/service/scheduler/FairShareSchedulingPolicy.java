@@ -0,0 +1,160 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.service.scheduler;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.jboss.sbomer.service.scheduler.GenerationSchedulerConfig.FairShareConfig;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+/**
+ * <p>
+ * Admits generations fairly across the requests they belong to, so that a single request with many generations (for
+ * example a large Errata advisory) does not starve the others.
+ * </p>
+ *
+ * <p>
+ * In every step the generation with the highest priority is admitted. Among the ones with the same priority, the one
+ * from the request with the lowest weighted share (generations in progress and already admitted, divided by the weight
+ * of the request) wins, then the oldest one. Generations exceeding the per-type or per-request quotas are not admitted.
+ * </p>
+ *
+ * <p>
+ * If enabled with {@link FairShareConfig#adaptive()}, a generation counts in the share of its request by the observed
+ * duration of its type relative to the other types, see {@link GenerationDurations}. The number of generations
+ * admitted is bound by the headroom left in the cluster, given by the scheduler as the capacity.
+ * </p>
+ *
+ * <p>
+ * If fair share is disabled, the oldest generations are admitted.
+ * </p>
+ */
+@ApplicationScoped
+public class FairShareSchedulingPolicy implements SchedulingPolicy {
+
+    FairShareConfig config;
+
+    GenerationDurations durations;
+
+    @Inject
+    public FairShareSchedulingPolicy(
+            GenerationSchedulerConfig generationSchedulerConfig,
+            GenerationDurations durations) {
+        this.config = generationSchedulerConfig.fairShare();
+        this.durations = durations;
+    }
+
+    @Override
+    public boolean isFairShare() {
+        return config.enabled();
+    }
+
+    @Override
+    public List<SchedulingCandidate> admit(List<SchedulingCandidate> candidates, SchedulingLoad load, int capacity) {
+        if (!config.enabled()) {
+            return candidates.stream().limit(Math.max(0, capacity)).toList();
+        }
+
+        Map<String, Long> byType = load.byType();
+        Map<String, Long> bySource = load.bySource();
+
+        // Generations in progress and admitted by request, weighted by their cost
+        Map<String, Double> work = new HashMap<>();
+        load.bySourceAndType().forEach((source, types) -> types.forEach((type, count) -> {
+            work.merge(source, count * cost(type), Double::sum);
+        }));
+
+        // Waiting generations of each request, oldest first
+        Map<String, Deque<SchedulingCandidate>> queues = new LinkedHashMap<>();
+        candidates.forEach(c -> queues.computeIfAbsent(c.source(), s -> new ArrayDeque<>()).add(c));
+
+        Comparator<SchedulingCandidate> order = Comparator
+                .comparingInt((SchedulingCandidate c) -> -priority(c))
+                .thenComparingDouble(c -> share(c, work))
+                .thenComparing(SchedulingCandidate::created);
+
+        List<SchedulingCandidate> admitted = new ArrayList<>();
+
+        while (admitted.size() < capacity) {
+            SchedulingCandidate next = null;
+            Iterator<Deque<SchedulingCandidate>> it = queues.values().iterator();
+
+            while (it.hasNext()) {
+                Deque<SchedulingCandidate> queue = it.next();
+
+                // Generations over their type quota cannot be admitted in this run anymore
+                queue.removeIf(c -> isOverQuota(byType.getOrDefault(c.type(), 0L), config.maxPerType().get(c.type())));
+
+                if (queue.isEmpty() || isOverQuota(
+                        bySource.getOrDefault(queue.peek().source(), 0L),
+                        config.maxPerRequest().orElse(null))) {
+                    it.remove();
+                    continue;
+                }
+
+                // Within a request, generations with a higher priority go first
+                SchedulingCandidate head = queue.stream()
+                        .min(Comparator.comparingInt((SchedulingCandidate c) -> -priority(c)))
+                        .orElseThrow();
+
+                if (next == null || order.compare(head, next) < 0) {
+                    next = head;
+                }
+            }
+
+            if (next == null) {
+                break;
+            }
+
+            queues.get(next.source()).remove(next);
+            byType.merge(next.type(), 1L, Long::sum);
+            bySource.merge(next.source(), 1L, Long::sum);
+            work.merge(next.source(), cost(next.type()), Double::sum);
+            admitted.add(next);
+        }
+
+        return admitted;
+    }
+
+    private int priority(SchedulingCandidate candidate) {
+        return config.priorities().getOrDefault(candidate.type(), 0);
+    }
+
+    private double share(SchedulingCandidate candidate, Map<String, Double> work) {
+        int weight = Math.max(1, config.weights().getOrDefault(candidate.sourceKind(), 1));
+        return work.getOrDefault(candidate.source(), 0.0) / weight;
+    }
+
+    private double cost(String type) {
+        return config.adaptive() ? durations.cost(type) : 1;
+    }
+
+    private static boolean isOverQuota(long current, Integer quota) {
+        return quota != null && current >= quota;
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.service.scheduler;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import jakarta.enterprise.context.ApplicationScoped;
+
+/**
+ * <p>
+ * Durations of generations observed in the cluster, kept by generation type as an exponentially weighted moving
+ * average, so that recent observations count more.
+ * </p>
+ *
+ * <p>
+ * The {@link FairShareSchedulingPolicy} uses these to weight generations in progress: a generation of a type that
+ * takes twice as long as the average holds its slot twice as long, and so counts twice in the share of its request.
+ * </p>
+ */
+@ApplicationScoped
+public class GenerationDurations {
+
+    // Weight of the latest observation in the average
+    static final double SMOOTHING = 0.2;
+
+    // Bounds of the relative cost, so that a type with a few outliers is neither starved nor flooding the cluster
+    static final double MIN_COST = 0.25;
+
+    static final double MAX_COST = 4;
+
+    private final Map<String, Double> averageSeconds = new ConcurrentHashMap<>();
+
+    /**
+     * Records the duration of a finished generation.
+     *
+     * @param type the generation type
+     * @param duration the time the generation spent in the cluster
+     */
+    public void record(String type, Duration duration) {
+        if (type == null || duration == null || duration.isNegative()) {
+            return;
+        }
+
+        double seconds = duration.toMillis() / 1000.0;
+
+        averageSeconds.merge(type, seconds, (average, observed) -> average + SMOOTHING * (observed - average));
+    }
+
+    /**
+     * @param type the generation type
+     * @return the average duration of generations of the given type, empty if none was observed yet
+     */
+    public Optional<Duration> average(String type) {
+        return Optional.ofNullable(averageSeconds.get(type)).map(seconds -> Duration.ofMillis((long) (seconds * 1000)));
+    }
+
+    /**
+     * The expected duration of generations of the given type relative to the average of all the observed types, between
+     * {@value #MIN_COST} and {@value #MAX_COST}.
+     *
+     * @param type the generation type
+     * @return the relative cost, {@code 1} if no generation of that type was observed yet
+     */
+    public double cost(String type) {
+        Double average = averageSeconds.get(type);
+
+        if (average == null) {
+            return 1;
+        }
+
+        double mean = averageSeconds.values().stream().mapToDouble(Double::doubleValue).average().orElse(average);
+
+        if (mean <= 0) {
+            return 1;
+        }
+
+        return Math.max(MIN_COST, Math.min(MAX_COST, average / mean));
+    }
+
+    /**
+     * Forgets all the observed durations.
+     */
+    public void clear() {
+        averageSeconds.clear();
+    }
+}
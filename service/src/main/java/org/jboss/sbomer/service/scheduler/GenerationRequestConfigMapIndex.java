@@ -0,0 +1,259 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.service.scheduler;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.jboss.sbomer.core.features.sbom.enums.GenerationRequestType;
+import org.jboss.sbomer.service.feature.sbom.k8s.model.SbomGenerationStatus;
+import org.jboss.sbomer.service.feature.sbom.k8s.resources.Labels;
+import org.jboss.sbomer.service.leader.LeadershipChangedEvent;
+
+import io.fabric8.kubernetes.api.model.ConfigMap;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.informers.ResourceEventHandler;
+import io.fabric8.kubernetes.client.informers.SharedIndexInformer;
+import io.fabric8.kubernetes.client.informers.cache.Cache;
+import io.quarkus.runtime.ShutdownEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * <p>
+ * A local, continuously updated view of the ConfigMaps representing generation requests in the current namespace,
+ * indexed by the status of the generation.
+ * </p>
+ *
+ * <p>
+ * The underlying informer is started by the first {@link #start()} call (done by the leader only) and stopped when the
+ * leadership is lost. Until it is synced with the cluster, and once stopped, lookups return nothing and callers are
+ * expected to fall back to querying the API server. Lookups and the lifecycle are guarded by the same lock, so that the
+ * informer cannot be stopped while being read.
+ * </p>
+ *
+ * <p>
+ * The informer can lag behind the ConfigMaps just created. These are registered with {@link #created(String)} and
+ * taken into account until the informer receives them.
+ * </p>
+ *
+ * <p>
+ * The time from the creation of a ConfigMap to the generation finishing is recorded in {@link GenerationDurations}.
+ * </p>
+ */
+@ApplicationScoped
+@Slf4j
+public class GenerationRequestConfigMapIndex {
+
+    static final String STATUS_INDEX = "status";
+
+    // Generation requests without the status label
+    static final String NO_STATUS = "";
+
+    KubernetesClient kubernetesClient;
+
+    GenerationDurations durations;
+
+    private SharedIndexInformer<ConfigMap> informer;
+
+    // ConfigMaps created, but not received by the informer yet, updated by the informer threads too
+    private final Set<String> pending = ConcurrentHashMap.newKeySet();
+
+    @Inject
+    public GenerationRequestConfigMapIndex(KubernetesClient kubernetesClient, GenerationDurations durations) {
+        this.kubernetesClient = kubernetesClient;
+        this.durations = durations;
+    }
+
+    /**
+     * Starts watching the generation request ConfigMaps, if not done already. Does not wait for the initial sync.
+     */
+    public synchronized void start() {
+        if (informer != null) {
+            return;
+        }
+
+        log.info("Starting informer for generation request ConfigMaps");
+
+        informer = kubernetesClient.configMaps()
+                .withLabel(Labels.LABEL_TYPE, "generation-request")
+                .runnableInformer(0);
+
+        informer.addIndexers(Map.of(STATUS_INDEX, GenerationRequestConfigMapIndex::statusOf));
+        informer.addEventHandler(new ResourceEventHandler<>() {
+            @Override
+            public void onAdd(ConfigMap configMap) {
+                received(configMap);
+            }
+
+            @Override
+            public void onUpdate(ConfigMap oldConfigMap, ConfigMap newConfigMap) {
+                received(newConfigMap);
+
+                if (!isFinished(oldConfigMap) && isFinished(newConfigMap)) {
+                    recordDuration(newConfigMap);
+                }
+            }
+
+            @Override
+            public void onDelete(ConfigMap configMap, boolean deletedFinalStateUnknown) {
+                received(configMap);
+            }
+        });
+        informer.start().whenComplete((ignored, e) -> {
+            if (e != null) {
+                log.warn("Unable to start the informer for generation request ConfigMaps", e);
+            } else {
+                log.info("Informer for generation request ConfigMaps is synced");
+            }
+        });
+    }
+
+    void onStop(@Observes ShutdownEvent event) {
+        stop();
+    }
+
+    /**
+     * Stops the informer when the leadership is lost, only the leader schedules generations.
+     *
+     * @param event the leadership change
+     */
+    public void onLeadershipChanged(@Observes LeadershipChangedEvent event) {
+        if (!event.leader()) {
+            log.info("Not the leader anymore, stopping informer for generation request ConfigMaps");
+            stop();
+        }
+    }
+
+    public synchronized void stop() {
+        if (informer == null) {
+            return;
+        }
+
+        informer.close();
+        informer = null;
+        pending.clear();
+    }
+
+    /**
+     * Registers a ConfigMap just created, counted as in progress until the informer receives it.
+     *
+     * @param name the ConfigMap name
+     */
+    public synchronized void created(String name) {
+        if (informer == null || informer.getStore().getByKey(keyOf(name)) != null) {
+            return;
+        }
+
+        pending.add(name);
+    }
+
+    private void received(ConfigMap configMap) {
+        pending.remove(configMap.getMetadata().getName());
+    }
+
+    private void recordDuration(ConfigMap configMap) {
+        Map<String, String> labels = configMap.getMetadata().getLabels();
+        String created = configMap.getMetadata().getCreationTimestamp();
+
+        if (created == null || labels.get(Labels.LABEL_GENERATION_REQUEST_TYPE) == null) {
+            return;
+        }
+
+        try {
+            durations.record(
+                    GenerationRequestType.fromName(labels.get(Labels.LABEL_GENERATION_REQUEST_TYPE)).name(),
+                    Duration.between(Instant.parse(created), Instant.now()));
+        } catch (RuntimeException e) {
+            log.debug("Unable to record the duration of generation '{}'", configMap.getMetadata().getName(), e);
+        }
+    }
+
+    private static boolean isFinished(ConfigMap configMap) {
+        String status = statusOf(configMap).get(0);
+
+        return SbomGenerationStatus.FINISHED.name().equals(status) || SbomGenerationStatus.FAILED.name().equals(status);
+    }
+
+    /**
+     * Whether the index reflects the current state of the cluster and can be used instead of the API server. Not the
+     * case anymore once stopped.
+     */
+    public synchronized boolean isSynced() {
+        return informer != null && informer.isRunning() && informer.hasSynced();
+    }
+
+    /**
+     * Counts the generation requests which are neither {@link SbomGenerationStatus#FAILED} nor
+     * {@link SbomGenerationStatus#FINISHED}.
+     *
+     * @return the number of generations in progress, or nothing if the index is not {@link #isSynced() synced}
+     */
+    public synchronized OptionalInt countInProgress() {
+        if (!isSynced()) {
+            return OptionalInt.empty();
+        }
+
+        // In case the informer received it before it was registered
+        pending.removeIf(name -> informer.getStore().getByKey(keyOf(name)) != null);
+
+        return OptionalInt.of(
+                informer.getStore().list().size() - countWithStatus(SbomGenerationStatus.FAILED)
+                        - countWithStatus(SbomGenerationStatus.FINISHED) + pending.size());
+    }
+
+    /**
+     * Checks whether the ConfigMap with the given name exists in the current namespace.
+     *
+     * @param name the ConfigMap name
+     * @return whether the ConfigMap exists, or nothing if the index is not {@link #isSynced() synced}
+     */
+    public synchronized Optional<Boolean> exists(String name) {
+        if (!isSynced()) {
+            return Optional.empty();
+        }
+
+        return Optional.of(pending.contains(name) || informer.getStore().getByKey(keyOf(name)) != null);
+    }
+
+    private String keyOf(String name) {
+        return Cache.namespaceKeyFunc(kubernetesClient.getNamespace(), name);
+    }
+
+    private int countWithStatus(SbomGenerationStatus status) {
+        return informer.getIndexer().byIndex(STATUS_INDEX, status.name()).size();
+    }
+
+    static List<String> statusOf(ConfigMap configMap) {
+        Map<String, String> labels = configMap.getMetadata().getLabels();
+
+        if (labels == null || labels.get(Labels.LABEL_STATUS) == null) {
+            return List.of(NO_STATUS);
+        }
+
+        return List.of(labels.get(Labels.LABEL_STATUS));
+    }
+}
@@ -22,18 +22,28 @@ import static org.jboss.sbomer.core.features.sbom.utils.MDCUtils.MDC_TRACE_FLAGS
 import static org.jboss.sbomer.core.features.sbom.utils.MDCUtils.MDC_TRACE_ID_KEY;
 import static org.jboss.sbomer.core.features.sbom.utils.MDCUtils.MDC_TRACE_STATE_KEY;
 
+import java.time.Instant;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.OptionalInt;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
+import org.eclipse.microprofile.context.ManagedExecutor;
 import org.jboss.pnc.common.otel.OtelUtils;
+import org.jboss.sbomer.core.features.sbom.enums.GenerationRequestType;
 import org.jboss.sbomer.core.features.sbom.utils.OtelHelper;
 import org.jboss.sbomer.service.feature.sbom.k8s.model.GenerationRequest;
 import org.jboss.sbomer.service.feature.sbom.k8s.model.GenerationRequestBuilder;
 import org.jboss.sbomer.service.feature.sbom.k8s.model.SbomGenerationStatus;
+import org.jboss.sbomer.service.feature.sbom.model.RequestEvent;
 import org.jboss.sbomer.service.feature.sbom.model.SbomGenerationRequest;
 import org.jboss.sbomer.service.feature.sbom.service.SbomGenerationRequestRepository;
 import org.jboss.sbomer.service.leader.LeaderManager;
+import org.jboss.sbomer.service.scheduler.GenerationSchedulingEvent.Target;
 import org.slf4j.MDC;
 
 import io.fabric8.kubernetes.api.model.ConfigMap;
@@ -46,6 +56,7 @@ import io.opentelemetry.context.Scope;
 import io.quarkus.scheduler.Scheduled;
 import io.quarkus.scheduler.Scheduled.ConcurrentExecution;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
 import jakarta.transaction.Transactional.TxType;
@@ -55,6 +66,9 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class GenerationRequestScheduler {
 
+    // Source of the generations in progress that do not belong to any request
+    static final String NO_SOURCE = "";
+
     SbomGenerationRequestRepository requestRepository;
 
     KubernetesClient kubernetesClient;
@@ -63,16 +77,34 @@ public class GenerationRequestScheduler {
 
     LeaderManager leaderManager;
 
+    GenerationRequestConfigMapIndex configMapIndex;
+
+    ManagedExecutor managedExecutor;
+
+    SchedulingPolicy schedulingPolicy;
+
+    GenerationSchedulingListener schedulingListener;
+
+    private final SingleFlight singleFlight = new SingleFlight();
+
     @Inject
     public GenerationRequestScheduler(
             SbomGenerationRequestRepository requestRepository,
             KubernetesClient kubernetesClient,
             GenerationSchedulerConfig generationSchedulerConfig,
-            LeaderManager leaderManager) {
+            LeaderManager leaderManager,
+            GenerationRequestConfigMapIndex configMapIndex,
+            ManagedExecutor managedExecutor,
+            SchedulingPolicy schedulingPolicy,
+            GenerationSchedulingListener schedulingListener) {
         this.requestRepository = requestRepository;
         this.kubernetesClient = kubernetesClient;
         this.generationSchedulerConfig = generationSchedulerConfig;
         this.leaderManager = leaderManager;
+        this.configMapIndex = configMapIndex;
+        this.managedExecutor = managedExecutor;
+        this.schedulingPolicy = schedulingPolicy;
+        this.schedulingListener = schedulingListener;
     }
 
     /**
@@ -83,66 +115,211 @@ public class GenerationRequestScheduler {
      * <p>
      * If there are less than {@link GenerationSchedulerConfig#maxConcurrentGenerations()} generations currently running
      * it will check whether there are some generations waiting to be scheduled in the database. If there are such
-     * generations found, it will fetch up to {@link GenerationSchedulerConfig#syncBatch()} generations and create
+     * generations found, it will admit up to {@link GenerationSchedulerConfig#syncBatch()} generations (within the
+     * remaining capacity), selected by the {@link SchedulingPolicy}, and create
      * {@link GenerationRequest} instances (basically ConfigMap) for each one of them. These ill then will be picked by
-     * the controller.
+     * the controller. ConfigMaps of a batch are created concurrently.
      * </p>
      *
+     * <p>
+     * Generations in progress are counted using the {@link GenerationRequestConfigMapIndex}. The API server is queried
+     * directly only until the index is synced with the cluster.
+     * </p>
      *
      * <p>
-     * This method is run periodically. By default every 15 seconds. It is controlled by the
-     * {@code sbomer.service.generation-scheduler.sync-interval} property.
+     * This method is run periodically, see {@link #scheduleGenerationsPeriodically()}, and as soon as the database
+     * notifies about a change, see {@link #onSchedulingRequested(GenerationSchedulingEvent)}. Runs never overlap, a run
+     * requested while another one is in progress is done right after it, see {@link SingleFlight}.
      * </p>
      */
+    public void scheduleGenerations() {
+        singleFlight.run(this::scheduleBatch);
+    }
+
+    /**
+     * Runs {@link #scheduleGenerations()} periodically. By default every 15 seconds. It is controlled by the
+     * {@code sbomer.service.generation-scheduler.sync-interval} property. While the database notifications are
+     * received, runs are skipped until {@link GenerationSchedulerConfig#safetyNetInterval()} passes from the last run.
+     */
     @Scheduled(
             every = "${sbomer.service.generation-scheduler.sync-interval:15s}",
             delay = 1,
             delayUnit = TimeUnit.MINUTES,
             concurrentExecution = ConcurrentExecution.SKIP)
+    public void scheduleGenerationsPeriodically() {
+        Instant lastRun = singleFlight.getLastRun();
+
+        if (schedulingListener.isListening() && lastRun != null
+                && lastRun.plus(generationSchedulerConfig.safetyNetInterval()).isAfter(Instant.now())) {
+            log.debug("Scheduling notifications are received, skipping the periodic scheduling of generations");
+            return;
+        }
+
+        scheduleGenerations();
+    }
+
     @Transactional(value = TxType.REQUIRES_NEW)
-    public void scheduleGenerations() {
+    protected void scheduleBatch() {
         if (!leaderManager.isLeader()) {
             log.info("Current instance is not the leader, skipping scheduling of generations in this instance");
             return;
         }
 
-        // Get all ConfigMaps that represent generation requests within the namespace that are in progress
-        int scheduledGenerationsCount = kubernetesClient.configMaps()
-                .withLabelSelector(
-                        "sbomer.jboss.org/type=generation-request,sbomer.jboss.org/status notin (FAILED, FINISHED)")
-                .list()
-                .getItems()
-                .size();
+        configMapIndex.start();
+
+        int scheduledGenerationsCount = countInProgress();
 
         log.info("There are {} generations in progress", scheduledGenerationsCount);
 
+        int capacity = Math.min(
+                generationSchedulerConfig.syncBatch(),
+                generationSchedulerConfig.maxConcurrentGenerations() - scheduledGenerationsCount);
+
         // In case we will exceed the max number of concurrent generations, do nothing and wait
-        if (scheduledGenerationsCount > generationSchedulerConfig.maxConcurrentGenerations()) {
+        if (capacity <= 0) {
             log.info(
-                    "The number of generations in progress: {} is higher than allowed to: {}, no new generations will be scheduled for now",
+                    "The number of generations in progress: {} reached the allowed maximum: {}, no new generations will be scheduled for now",
                     scheduledGenerationsCount,
                     generationSchedulerConfig.maxConcurrentGenerations());
             return;
         }
 
-        log.debug("There is space in the cluster to process new generations, fetching them now...");
+        log.debug("There is space in the cluster to process {} new generations, fetching them now...", capacity);
 
-        @SuppressWarnings("unchecked")
-        List<SbomGenerationRequest> oldestResultsBatch = requestRepository.getEntityManager()
-                .createNativeQuery(
-                        String.format(
-                                "SELECT * FROM sbom_generation_request WHERE status = '%s' ORDER BY creation_time ASC FOR UPDATE SKIP LOCKED LIMIT %s",
-                                SbomGenerationStatus.NEW,
-                                generationSchedulerConfig.syncBatch()),
-                        SbomGenerationRequest.class)
-                .getResultList();
+        List<SbomGenerationRequest> candidates = fetchCandidates(capacity);
+
+        log.debug("Got {} generations waiting to be scheduled...", candidates.size());
+
+        Map<String, SbomGenerationRequest> candidatesById = candidates.stream()
+                .collect(Collectors.toMap(SbomGenerationRequest::getId, Function.identity()));
+
+        List<SbomGenerationRequest> oldestResultsBatch = schedulingPolicy
+                .admit(
+                        candidates.stream().map(GenerationRequestScheduler::toCandidate).toList(),
+                        schedulingPolicy.isFairShare() ? currentLoad() : SchedulingLoad.empty(),
+                        capacity)
+                .stream()
+                .map(c -> candidatesById.get(c.id()))
+                .toList();
 
         log.debug("Got {} generations to be scheduled...", oldestResultsBatch.size());
 
-        oldestResultsBatch.forEach(g -> {
-            g.setStatus(SbomGenerationStatus.SCHEDULED);
-            schedule(g);
-        });
+        oldestResultsBatch.forEach(g -> g.setStatus(SbomGenerationStatus.SCHEDULED));
+
+        Map<String, String> mdc = MDC.getCopyOfContextMap();
+
+        // Wait for all ConfigMaps to be created before the transaction is committed, a failure rolls back the whole
+        // batch
+        CompletableFuture.allOf(
+                oldestResultsBatch.stream()
+                        .map(g -> managedExecutor.runAsync(() -> scheduleWithMdc(g, mdc)))
+                        .toArray(CompletableFuture[]::new))
+                .join();
+    }
+
+    /**
+     * Locks the generations waiting to be scheduled. With fair share, up to
+     * {@link GenerationSchedulerConfig#syncBatch()} oldest generations of every request are considered, otherwise just
+     * the oldest ones.
+     */
+    @SuppressWarnings("unchecked")
+    private List<SbomGenerationRequest> fetchCandidates(int capacity) {
+        String query;
+
+        if (schedulingPolicy.isFairShare()) {
+            query = String.format(
+                    "SELECT * FROM sbom_generation_request WHERE id IN (SELECT id FROM (SELECT id, "
+                            + "row_number() OVER (PARTITION BY request_id ORDER BY creation_time ASC) AS position "
+                            + "FROM sbom_generation_request WHERE status = '%s') AS waiting WHERE position <= %s) "
+                            + "ORDER BY creation_time ASC FOR UPDATE SKIP LOCKED LIMIT %s",
+                    SbomGenerationStatus.NEW,
+                    generationSchedulerConfig.syncBatch(),
+                    generationSchedulerConfig.fairShare().candidates());
+        } else {
+            query = String.format(
+                    "SELECT * FROM sbom_generation_request WHERE status = '%s' ORDER BY creation_time ASC FOR UPDATE SKIP LOCKED LIMIT %s",
+                    SbomGenerationStatus.NEW,
+                    capacity);
+        }
+
+        return requestRepository.getEntityManager()
+                .createNativeQuery(query, SbomGenerationRequest.class)
+                .getResultList();
+    }
+
+    private SchedulingLoad currentLoad() {
+        Map<String, Map<String, Long>> bySourceAndType = new HashMap<>();
+
+        for (Object[] row : requestRepository.countInProgressByTypeAndRequest()) {
+            // Generations without a request are not waited for by any candidate, these count by their type only
+            String source = row[1] != null ? (String) row[1] : NO_SOURCE;
+
+            bySourceAndType.computeIfAbsent(source, s -> new HashMap<>())
+                    .merge(((GenerationRequestType) row[0]).name(), ((Number) row[2]).longValue(), Long::sum);
+        }
+
+        return new SchedulingLoad(bySourceAndType);
+    }
+
+    private static SchedulingCandidate toCandidate(SbomGenerationRequest generation) {
+        RequestEvent request = generation.getRequest();
+
+        return new SchedulingCandidate(
+                generation.getId(),
+                generation.getType().name(),
+                request != null ? request.getId() : generation.getId(),
+                request != null && request.getEventType() != null ? request.getEventType().name() : "NONE",
+                generation.getCreationTime());
+    }
+
+    private int countInProgress() {
+        // Checked and counted at once, the index can be stopped concurrently
+        OptionalInt inProgress = configMapIndex.countInProgress();
+
+        if (inProgress.isPresent()) {
+            return inProgress.getAsInt();
+        }
+
+        log.debug("Generation request ConfigMaps are not synced yet, listing them from the cluster");
+
+        // Get all ConfigMaps that represent generation requests within the namespace that are in progress
+        return kubernetesClient.configMaps()
+                .withLabelSelector(
+                        "sbomer.jboss.org/type=generation-request,sbomer.jboss.org/status notin (FAILED, FINISHED)")
+                .list()
+                .getItems()
+                .size();
+    }
+
+    private void scheduleWithMdc(SbomGenerationRequest sbomGenerationRequest, Map<String, String> mdc) {
+        if (mdc != null) {
+            MDC.setContextMap(mdc);
+        }
+
+        try {
+            schedule(sbomGenerationRequest);
+        } finally {
+            MDC.clear();
+        }
+    }
+
+    private boolean configMapExists(String configMapName) {
+        return configMapIndex.exists(configMapName)
+                .orElseGet(() -> kubernetesClient.configMaps().withName(configMapName).get() != null);
+    }
+
+    /**
+     * Runs the scheduling right away when notified about generations waiting to be scheduled or about generations
+     * freeing their slot, instead of waiting for the next periodic run.
+     *
+     * @param event the scheduling event
+     */
+    void onSchedulingRequested(@Observes GenerationSchedulingEvent event) {
+        if (event.target() != Target.GENERATION_REQUEST || !leaderManager.isLeader()) {
+            return;
+        }
+
+        scheduleGenerations();
     }
 
     /**
@@ -160,9 +337,8 @@ public class GenerationRequestScheduler {
         log.debug("Scheduling Generation Request '{}'...", sbomGenerationRequest.getId());
 
         String configMapName = "sbom-request-" + sbomGenerationRequest.getId().toLowerCase();
-        GenerationRequest request = (GenerationRequest) kubernetesClient.configMaps().withName(configMapName).get();
 
-        if (request != null) {
+        if (configMapExists(configMapName)) {
             log.warn(
                     "The generation request '{}' already exists as a ConfigMap, skipping sync",
                     sbomGenerationRequest.getId());
@@ -204,7 +380,7 @@ public class GenerationRequestScheduler {
 
         // put the span into the current Context
         try (Scope scope = span.makeCurrent()) {
-            request = new GenerationRequestBuilder(sbomGenerationRequest.getType())
+            GenerationRequest request = new GenerationRequestBuilder(sbomGenerationRequest.getType())
                     .withId(sbomGenerationRequest.getId())
                     .withConfig(sbomGenerationRequest.getConfig())
                     .withIdentifier(sbomGenerationRequest.getIdentifier())
@@ -222,6 +398,9 @@ public class GenerationRequestScheduler {
 
             ConfigMap cm = kubernetesClient.configMaps().resource(request).createOrReplace();
 
+            // Counted as in progress until the index receives it
+            configMapIndex.created(configMapName);
+
             log.debug(
                     "ConfigMap '{}' created as a representation of the Generation Request '{}'...",
                     cm.getMetadata().getName(),
@@ -17,6 +17,10 @@
  */
 package org.jboss.sbomer.service.scheduler;
 
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+
 import io.smallrye.config.ConfigMapping;
 import io.smallrye.config.WithDefault;
 import jakarta.enterprise.context.ApplicationScoped;
@@ -42,4 +46,75 @@ public interface GenerationSchedulerConfig {
      */
     @WithDefault("15s")
     String syncInterval();
+
+    /**
+     * Whether the scheduler runs as soon as the database notifies about generations waiting to be scheduled or
+     * generations finishing. Requires PostgreSQL.
+     */
+    @WithDefault("true")
+    boolean eventDriven();
+
+    /**
+     * The interval on which the scheduler will run while the database notifications are received, as a safety net for
+     * lost notifications. Periodic runs within this interval from the last run are skipped. Has no effect if it is
+     * shorter than {@link #syncInterval()}.
+     */
+    @WithDefault("60s")
+    Duration safetyNetInterval();
+
+    /**
+     * How long to wait before listening for the database notifications again, after the connection was lost.
+     */
+    @WithDefault("10s")
+    Duration reconnectDelay();
+
+    /**
+     * Fair-share admission of the generations waiting to be scheduled.
+     */
+    FairShareConfig fairShare();
+
+    interface FairShareConfig {
+        /**
+         * Whether generations are admitted fairly across requests. If disabled, the oldest generations are admitted
+         * first.
+         */
+        @WithDefault("false")
+        boolean enabled();
+
+        /**
+         * Whether generations count in the share of their request by the observed duration of their type, instead of
+         * all counting the same.
+         */
+        @WithDefault("true")
+        boolean adaptive();
+
+        /**
+         * Maximum number of waiting generations considered in a single run. Up to
+         * {@link GenerationSchedulerConfig#syncBatch()} generations are considered for each request.
+         */
+        @WithDefault("100")
+        int candidates();
+
+        /**
+         * Maximum number of generations in progress for a single request. Not limited if not set.
+         */
+        Optional<Integer> maxPerRequest();
+
+        /**
+         * Maximum number of generations in progress by generation type, for example {@code BUILD: 10}. Not limited for
+         * types not set.
+         */
+        Map<String, Integer> maxPerType();
+
+        /**
+         * Priority by generation type, generations with a higher priority are admitted first. Defaults to {@code 0}.
+         */
+        Map<String, Integer> priorities();
+
+        /**
+         * Weight of the share of a request by the request event type ({@code UMB}, {@code REST}). Defaults to
+         * {@code 1}.
+         */
+        Map<String, Integer> weights();
+    }
 }
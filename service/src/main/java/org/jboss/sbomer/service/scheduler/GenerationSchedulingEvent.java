@@ -0,0 +1,51 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.service.scheduler;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * Requests an immediate scheduling run, fired when the database notifies about generations waiting to be scheduled or
+ * about generations freeing their slot.
+ *
+ * @param target the scheduler which should run
+ */
+public record GenerationSchedulingEvent(Target target) {
+
+    public enum Target {
+        /**
+         * The {@link GenerationRequestScheduler}, for the {@code sbom_generation_request} table.
+         */
+        GENERATION_REQUEST("sbom_generation_request"),
+        /**
+         * The nextgen {@code GenerationEventSource}, for the {@code generation} table.
+         */
+        GENERATION("generation");
+
+        private final String table;
+
+        Target(String table) {
+            this.table = table;
+        }
+
+        public static Optional<Target> fromTable(String table) {
+            return Arrays.stream(values()).filter(t -> t.table.equals(table)).findFirst();
+        }
+    }
+}
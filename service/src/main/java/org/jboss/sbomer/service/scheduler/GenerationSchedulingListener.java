@@ -0,0 +1,245 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.service.scheduler;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.sql.DataSource;
+
+import org.eclipse.microprofile.config.ConfigProvider;
+import org.eclipse.microprofile.context.ManagedExecutor;
+import org.jboss.sbomer.service.scheduler.GenerationSchedulingEvent.Target;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * <p>
+ * Listens for PostgreSQL notifications sent by the database triggers on the {@value #CHANNEL} channel whenever a
+ * generation waits to be scheduled or a generation in progress finishes, and wakes up the related scheduler with a
+ * {@link GenerationSchedulingEvent}.
+ * </p>
+ *
+ * <p>
+ * Notifications received while a scheduling run is already queued are coalesced into it. The schedulers make sure their
+ * runs never overlap, see {@link SingleFlight}. While notifications are received, the periodic scheduling is only a
+ * safety net for lost notifications, see {@link GenerationSchedulerConfig#safetyNetInterval()}.
+ * </p>
+ */
+@ApplicationScoped
+@Slf4j
+public class GenerationSchedulingListener {
+
+    public static final String CHANNEL = "sbomer_generation_scheduling";
+
+    // How long to block waiting for notifications before checking whether the listener should stop
+    private static final int NOTIFICATION_TIMEOUT_MS = 5000;
+
+    DataSource dataSource;
+
+    GenerationSchedulerConfig generationSchedulerConfig;
+
+    ManagedExecutor managedExecutor;
+
+    Event<GenerationSchedulingEvent> schedulingEvent;
+
+    private final Map<Target, Wakeup> wakeups = new EnumMap<>(Target.class);
+
+    private volatile boolean running;
+
+    private volatile boolean listening;
+
+    private Thread listenerThread;
+
+    @Inject
+    public GenerationSchedulingListener(
+            DataSource dataSource,
+            GenerationSchedulerConfig generationSchedulerConfig,
+            ManagedExecutor managedExecutor,
+            Event<GenerationSchedulingEvent> schedulingEvent) {
+        this.dataSource = dataSource;
+        this.generationSchedulerConfig = generationSchedulerConfig;
+        this.managedExecutor = managedExecutor;
+        this.schedulingEvent = schedulingEvent;
+
+        for (Target target : Target.values()) {
+            wakeups.put(target, new Wakeup());
+        }
+    }
+
+    void onStart(@Observes StartupEvent event) {
+        if (!generationSchedulerConfig.eventDriven()) {
+            log.info("Event-driven scheduling of generations is disabled, relying on periodic scheduling only");
+            return;
+        }
+
+        String dbKind = ConfigProvider.getConfig()
+                .getOptionalValue("quarkus.datasource.db-kind", String.class)
+                .orElse("");
+
+        if (!"postgresql".equals(dbKind)) {
+            log.info(
+                    "Event-driven scheduling of generations requires PostgreSQL, but '{}' is used, relying on periodic scheduling only",
+                    dbKind);
+            return;
+        }
+
+        start();
+    }
+
+    void onStop(@Observes ShutdownEvent event) {
+        stop();
+    }
+
+    /**
+     * Starts listening for notifications in a dedicated thread, reconnecting when the connection is lost.
+     */
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+
+        running = true;
+
+        listenerThread = new Thread(this::listen, "generation-scheduling-listener");
+        listenerThread.setDaemon(true);
+        listenerThread.start();
+    }
+
+    /**
+     * Stops listening for notifications.
+     */
+    public synchronized void stop() {
+        running = false;
+        listening = false;
+
+        if (listenerThread != null) {
+            listenerThread.interrupt();
+            listenerThread = null;
+        }
+    }
+
+    /**
+     * @return {@code true} if notifications are being received, {@code false} if not listening or the connection was
+     *         lost
+     */
+    public boolean isListening() {
+        return listening;
+    }
+
+    private void listen() {
+        while (running) {
+            try (Connection connection = dataSource.getConnection();
+                    Statement statement = connection.createStatement()) {
+                statement.execute("LISTEN " + CHANNEL);
+
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+
+                log.info("Listening for notifications on the '{}' channel", CHANNEL);
+
+                listening = true;
+
+                // Catch up with changes done while not listening
+                Arrays.stream(Target.values()).forEach(this::wakeUp);
+
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(NOTIFICATION_TIMEOUT_MS);
+
+                    if (notifications != null) {
+                        Arrays.stream(notifications)
+                                .map(PGNotification::getParameter)
+                                .distinct()
+                                .forEach(this::onNotification);
+                    }
+                }
+            } catch (SQLException e) {
+                listening = false;
+
+                if (!running) {
+                    return;
+                }
+
+                log.warn(
+                        "Listening for notifications on the '{}' channel failed, reconnecting in {}",
+                        CHANNEL,
+                        generationSchedulerConfig.reconnectDelay(),
+                        e);
+
+                try {
+                    Thread.sleep(generationSchedulerConfig.reconnectDelay().toMillis());
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Handles a notification sent by the database.
+     *
+     * @param table the name of the table with the changed generation, sent as the notification payload
+     */
+    public void onNotification(String table) {
+        Target.fromTable(table)
+                .ifPresentOrElse(
+                        this::wakeUp,
+                        () -> log.warn("Received a scheduling notification for unknown table '{}', ignoring", table));
+    }
+
+    private void wakeUp(Target target) {
+        Wakeup wakeup = wakeups.get(target);
+
+        // A run is queued already, it will take the change into account
+        if (!wakeup.pending.compareAndSet(false, true)) {
+            return;
+        }
+
+        try {
+            managedExecutor.runAsync(() -> {
+                // Changes done from now on need another run
+                wakeup.pending.set(false);
+                schedulingEvent.fire(new GenerationSchedulingEvent(target));
+            }).exceptionally(e -> {
+                log.warn("Scheduling of generations for {} failed, waiting for the next run", target, e);
+                return null;
+            });
+        } catch (RejectedExecutionException e) {
+            wakeup.pending.set(false);
+            log.warn("Unable to schedule generations for {}, waiting for the next run", target, e);
+        }
+    }
+
+    private static final class Wakeup {
+        private final AtomicBoolean pending = new AtomicBoolean();
+    }
+}
@@ -0,0 +1,33 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.service.scheduler;
+
+import java.time.Instant;
+
+/**
+ * A generation waiting to be scheduled, as seen by a {@link SchedulingPolicy}.
+ *
+ * @param id the generation identifier
+ * @param type the generation type
+ * @param source the identifier of the request the generation belongs to, generations of a single request share their
+ *        quota
+ * @param sourceKind the kind of the request, used to weight the share of each request
+ * @param created the creation time of the generation
+ */
+public record SchedulingCandidate(String id, String type, String source, String sourceKind, Instant created) {
+}
@@ -0,0 +1,53 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.service.scheduler;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Number of generations currently in progress, grouped by the request they belong to and by the generation type.
+ *
+ * @param bySourceAndType the number of generations in progress by {@link SchedulingCandidate#source()}, then by
+ *        {@link SchedulingCandidate#type()}
+ */
+public record SchedulingLoad(Map<String, Map<String, Long>> bySourceAndType) {
+
+    public static SchedulingLoad empty() {
+        return new SchedulingLoad(Map.of());
+    }
+
+    /**
+     * @return the number of generations in progress by {@link SchedulingCandidate#type()}
+     */
+    public Map<String, Long> byType() {
+        Map<String, Long> byType = new HashMap<>();
+        bySourceAndType.values().forEach(types -> types.forEach((type, count) -> byType.merge(type, count, Long::sum)));
+        return byType;
+    }
+
+    /**
+     * @return the number of generations in progress by {@link SchedulingCandidate#source()}
+     */
+    public Map<String, Long> bySource() {
+        Map<String, Long> bySource = new HashMap<>();
+        bySourceAndType.forEach(
+                (source, types) -> types.values().forEach(count -> bySource.merge(source, count, Long::sum)));
+        return bySource;
+    }
+}
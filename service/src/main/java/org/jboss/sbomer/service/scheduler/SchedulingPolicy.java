@@ -0,0 +1,42 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.service.scheduler;
+
+import java.util.List;
+
+/**
+ * Decides which of the generations waiting to be scheduled are admitted in the current scheduling run.
+ */
+public interface SchedulingPolicy {
+
+    /**
+     * Whether the policy needs the candidates of all requests and the current {@link SchedulingLoad}, or just the
+     * oldest candidates.
+     */
+    boolean isFairShare();
+
+    /**
+     * Selects the generations to schedule.
+     *
+     * @param candidates the generations waiting to be scheduled, oldest first
+     * @param load the generations in progress
+     * @param capacity the maximum number of generations to admit
+     * @return the admitted generations
+     */
+    List<SchedulingCandidate> admit(List<SchedulingCandidate> candidates, SchedulingLoad load, int capacity);
+}
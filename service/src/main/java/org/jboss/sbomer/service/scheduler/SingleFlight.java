@@ -0,0 +1,75 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.service.scheduler;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * <p>
+ * Runs a task in at most one thread at a time, whichever entry point requested the run.
+ * </p>
+ *
+ * <p>
+ * A run requested while the task is running is not dropped: the thread running the task runs it once more when done,
+ * so changes made during a run are always picked up. All the runs requested meanwhile are coalesced into that one.
+ * </p>
+ */
+public class SingleFlight {
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    private final AtomicBoolean rerunRequested = new AtomicBoolean();
+
+    private volatile Instant lastRun;
+
+    /**
+     * Runs the task in the calling thread, unless it is being run by another thread already. In such case the other
+     * thread runs it once more when done.
+     *
+     * @param task the task to run
+     * @return {@code true} if the task was run by the calling thread, {@code false} if it was left to the thread
+     *         running it already
+     */
+    public boolean run(Runnable task) {
+        rerunRequested.set(true);
+
+        boolean ran = false;
+
+        // Checked again after releasing the guard, a run requested in the meantime is done here
+        while (rerunRequested.get() && running.compareAndSet(false, true)) {
+            try {
+                rerunRequested.set(false);
+                lastRun = Instant.now();
+                task.run();
+                ran = true;
+            } finally {
+                running.set(false);
+            }
+        }
+
+        return ran;
+    }
+
+    /**
+     * @return the time the last run started, or {@code null} if the task was not run yet
+     */
+    public Instant getLastRun() {
+        return lastRun;
+    }
+}
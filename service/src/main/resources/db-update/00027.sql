@@ -0,0 +1,32 @@
+--
+-- JBoss, Home of Professional Open Source.
+-- Copyright 2023 Red Hat, Inc., and individual contributors
+-- as indicated by the @author tags.
+--
+-- Licensed under the Apache License, Version 2.0 (the "License");
+-- you may not use this file except in compliance with the License.
+-- You may obtain a copy of the License at
+--
+-- http://www.apache.org/licenses/LICENSE-2.0
+--
+-- Unless required by applicable law or agreed to in writing, software
+-- distributed under the License is distributed on an "AS IS" BASIS,
+-- WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+-- See the License for the specific language governing permissions and
+-- limitations under the License.
+--
+
+BEGIN;
+
+-- Speeds up the lookup of already acknowledged UMB messages by message id, used after a restart when the message id
+-- is not known to the in-memory filter anymore.
+CREATE INDEX IF NOT EXISTS idx_request_umb_msg_id ON request ((event ->> 'msg_id'))
+WHERE
+    event_type = 'UMB';
+
+INSERT INTO
+    db_version (version, creation_time)
+VALUES
+    ('00027', now ());
+
+COMMIT;
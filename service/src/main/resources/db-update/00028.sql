@@ -0,0 +1,65 @@
+--
+-- JBoss, Home of Professional Open Source.
+-- Copyright 2023 Red Hat, Inc., and individual contributors
+-- as indicated by the @author tags.
+--
+-- Licensed under the Apache License, Version 2.0 (the "License");
+-- you may not use this file except in compliance with the License.
+-- You may obtain a copy of the License at
+--
+-- http://www.apache.org/licenses/LICENSE-2.0
+--
+-- Unless required by applicable law or agreed to in writing, software
+-- distributed under the License is distributed on an "AS IS" BASIS,
+-- WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+-- See the License for the specific language governing permissions and
+-- limitations under the License.
+--
+
+BEGIN;
+
+-- Wakes up the generation schedulers listening on the 'sbomer_generation_scheduling' channel as soon as a generation
+-- waits to be scheduled, or a generation in progress finishes and frees its slot. The payload is the table name.
+-- Notifications are delivered on commit only, and duplicates within a single transaction are sent once.
+CREATE OR REPLACE FUNCTION notify_generation_scheduler()
+RETURNS TRIGGER AS $$
+BEGIN
+    -- Entities are updated with all columns, ignore updates not changing the status
+    IF TG_OP = 'UPDATE' AND OLD.status IS NOT DISTINCT FROM NEW.status THEN
+        RETURN NULL;
+    END IF;
+
+    PERFORM pg_notify('sbomer_generation_scheduling', TG_TABLE_NAME);
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS trg_sbom_generation_request_scheduling ON sbom_generation_request;
+
+CREATE TRIGGER trg_sbom_generation_request_scheduling
+AFTER INSERT OR UPDATE OF status ON sbom_generation_request
+FOR EACH ROW
+WHEN (NEW.status IN ('NEW', 'FINISHED', 'FAILED'))
+EXECUTE FUNCTION notify_generation_scheduler();
+
+-- The 'generation' table is not managed by these scripts yet, add the trigger only if it exists
+DO $$
+BEGIN
+    IF to_regclass('generation') IS NOT NULL THEN
+        DROP TRIGGER IF EXISTS trg_generation_scheduling ON generation;
+
+        CREATE TRIGGER trg_generation_scheduling
+        AFTER INSERT OR UPDATE OF status ON generation
+        FOR EACH ROW
+        WHEN (NEW.status IN ('NEW', 'FINISHED', 'FAILED'))
+        EXECUTE FUNCTION notify_generation_scheduler();
+    END IF;
+END;
+$$;
+
+INSERT INTO
+    db_version (version, creation_time)
+VALUES
+    ('00028', now ());
+
+COMMIT;
@@ -0,0 +1,47 @@
+--
+-- JBoss, Home of Professional Open Source.
+-- Copyright 2023 Red Hat, Inc., and individual contributors
+-- as indicated by the @author tags.
+--
+-- Licensed under the Apache License, Version 2.0 (the "License");
+-- you may not use this file except in compliance with the License.
+-- You may obtain a copy of the License at
+--
+-- http://www.apache.org/licenses/LICENSE-2.0
+--
+-- Unless required by applicable law or agreed to in writing, software
+-- distributed under the License is distributed on an "AS IS" BASIS,
+-- WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+-- See the License for the specific language governing permissions and
+-- limitations under the License.
+--
+
+BEGIN;
+
+-- Keyset pagination of the search endpoints: pages are sorted by the time and the identifier in descending order and
+-- the next page starts right after the last entity of the previous one.
+CREATE INDEX IF NOT EXISTS idx_sbom_creationtime_id ON sbom (creation_time DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_request_creationtime_id ON sbom_generation_request (creation_time DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_request_receivaltime_id ON request (receival_time DESC, id DESC);
+
+-- The 'manifest' and 'generation' tables are not managed by these scripts yet, add the indexes only if these exist
+DO $$
+BEGIN
+    IF to_regclass('manifest') IS NOT NULL THEN
+        CREATE INDEX IF NOT EXISTS idx_manifest_created_id ON manifest (created DESC, id DESC);
+    END IF;
+
+    IF to_regclass('generation') IS NOT NULL THEN
+        CREATE INDEX IF NOT EXISTS idx_generation_created_id ON generation (created DESC, id DESC);
+    END IF;
+END;
+$$;
+
+INSERT INTO
+    db_version (version, creation_time)
+VALUES
+    ('00029', now ());
+
+COMMIT;
@@ -0,0 +1,47 @@
+--
+-- JBoss, Home of Professional Open Source.
+-- Copyright 2023 Red Hat, Inc., and individual contributors
+-- as indicated by the @author tags.
+--
+-- Licensed under the Apache License, Version 2.0 (the "License");
+-- you may not use this file except in compliance with the License.
+-- You may obtain a copy of the License at
+--
+-- http://www.apache.org/licenses/LICENSE-2.0
+--
+-- Unless required by applicable law or agreed to in writing, software
+-- distributed under the License is distributed on an "AS IS" BASIS,
+-- WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+-- See the License for the specific language governing permissions and
+-- limitations under the License.
+--
+
+BEGIN;
+
+-- Content-addressed storage of manifests: the gzip compressed content is stored once per SHA-256 hash of the
+-- uncompressed content and referenced by all manifests having it. Existing manifests keep the content in the 'sbom'
+-- column until the service moves it here.
+CREATE TABLE IF NOT EXISTS
+    manifest_content (
+        hash character varying(64) NOT NULL,
+        content bytea NOT NULL,
+        uncompressed_size bigint NOT NULL,
+        creation_time timestamp without time zone NOT NULL,
+        CONSTRAINT manifest_content_pkey PRIMARY KEY (hash)
+    );
+
+-- The content is compressed already, do not try to compress it again
+ALTER TABLE manifest_content ALTER COLUMN content SET STORAGE EXTERNAL;
+
+ALTER TABLE sbom ADD COLUMN IF NOT EXISTS content_hash character varying(64);
+
+ALTER TABLE sbom ADD CONSTRAINT fk_sbom_content FOREIGN KEY (content_hash) REFERENCES manifest_content (hash);
+
+CREATE INDEX IF NOT EXISTS idx_sbom_contenthash ON sbom (content_hash);
+
+INSERT INTO
+    db_version (version, creation_time)
+VALUES
+    ('00030', now ());
+
+COMMIT;
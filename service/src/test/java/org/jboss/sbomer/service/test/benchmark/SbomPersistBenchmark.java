@@ -0,0 +1,135 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.service.test.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.cyclonedx.model.Bom;
+import org.cyclonedx.model.Component;
+import org.cyclonedx.model.Metadata;
+import org.jboss.sbomer.core.features.sbom.utils.SbomUtils;
+import org.jboss.sbomer.service.feature.sbom.model.Sbom;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * Measures the work done by the {@link Sbom} lifecycle hooks when a batch of large manifests is stored (see
+ * {@code AbstractController#storeBoms} and {@code SbomRepository#saveSboms}), comparing the previous conversion of the
+ * whole manifest into a {@link Bom} with reading the root purl directly from the {@link JsonNode}. The database write
+ * itself is the same for both and is not part of the benchmark.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = { "-Xmx4g" })
+@State(Scope.Benchmark)
+public class SbomPersistBenchmark {
+
+    @Param({ "1000", "20000" })
+    int components;
+
+    @Param({ "10" })
+    int manifests;
+
+    List<JsonNode> boms;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        boms = new ArrayList<>(manifests);
+
+        for (int i = 0; i < manifests; i++) {
+            boms.add(SbomUtils.toJsonNode(createBom(i, components)));
+        }
+    }
+
+    @Benchmark
+    public List<Sbom> fullParse() {
+        List<Sbom> sboms = new ArrayList<>(boms.size());
+
+        for (JsonNode json : boms) {
+            Sbom sbom = Sbom.builder().withSbom(json).build();
+            Bom bom = SbomUtils.fromJsonNode(json);
+
+            if (bom != null && bom.getMetadata() != null && bom.getMetadata().getComponent() != null) {
+                sbom.setRootPurl(bom.getMetadata().getComponent().getPurl());
+            }
+
+            sboms.add(sbom);
+        }
+
+        return sboms;
+    }
+
+    @Benchmark
+    public List<Sbom> prePersist() {
+        List<Sbom> sboms = new ArrayList<>(boms.size());
+
+        for (JsonNode json : boms) {
+            Sbom sbom = Sbom.builder().withSbom(json).build();
+            sbom.prePersist();
+            sboms.add(sbom);
+        }
+
+        return sboms;
+    }
+
+    static Bom createBom(int index, int size) {
+        Bom bom = new Bom();
+
+        Component main = new Component();
+        main.setName("main-" + index);
+        main.setPurl("pkg:oci/main-" + index + "@sha256%3A" + index);
+        main.setBomRef(main.getPurl());
+
+        Metadata metadata = new Metadata();
+        metadata.setComponent(main);
+        bom.setMetadata(metadata);
+
+        List<Component> componentList = new ArrayList<>(size);
+
+        for (int i = 0; i < size; i++) {
+            Component component = new Component();
+            component.setType(Component.Type.LIBRARY);
+            component.setName("package-" + i);
+            component.setVersion("1.0.0-" + i + ".el9");
+            component.setPurl("pkg:rpm/redhat/package-" + i + "@1.0.0-" + i + ".el9?arch=x86_64");
+            component.setBomRef(component.getPurl());
+            component.setDescription("Package number " + i + " of the main-" + index + " image");
+            componentList.add(component);
+        }
+
+        bom.setComponents(componentList);
+
+        return bom;
+    }
+}
@@ -17,21 +17,31 @@
  */
 package org.jboss.sbomer.service.test.integ.feature.s3;
 
-import static org.mockito.Mockito.doNothing;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiFunction;
 
 import org.hamcrest.CoreMatchers;
 import org.hamcrest.Matchers;
+import org.jboss.sbomer.core.errors.ApplicationException;
+import org.jboss.sbomer.core.errors.RangeNotSatisfiableException;
 import org.jboss.sbomer.service.feature.FeatureFlags;
+import org.jboss.sbomer.service.feature.s3.LogStream;
 import org.jboss.sbomer.service.feature.s3.S3ClientFacade;
 import org.jboss.sbomer.service.feature.s3.S3StorageHandler;
 import org.jboss.sbomer.service.feature.sbom.config.GenerationRequestControllerConfig;
@@ -123,19 +133,47 @@ class S3FeatureTest {
         Path logFile = logsDir.resolve("init.log");
         Files.write(logFile, "Some log".getBytes());
 
-        // doNothing().when(clientFacade).upload(file.toAbsolutePath(),
-        // "bucket-name/bucket-name/bom.json");
-        when(clientFacade.doesObjectExists("AABBCC/bom.json")).thenReturn(false);
-        when(clientFacade.doesObjectExists("AABBCC/logs/init.log")).thenReturn(true);
-        doNothing().when(clientFacade).upload(file.toAbsolutePath(), "AABBCC/bom.json");
-        doNothing().when(clientFacade).upload(logFile.toAbsolutePath(), "AABBCC/logs/init.log");
+        when(clientFacade.objectKeys("AABBCC/")).thenReturn(Set.of("AABBCC/logs/init.log"));
+        when(clientFacade.uploadAsync(file.toAbsolutePath(), "AABBCC/bom.json"))
+                .thenReturn(CompletableFuture.completedFuture(null));
 
         storageHandler.storeFiles(generationRequest);
 
-        verify(clientFacade, times(1)).doesObjectExists("AABBCC/bom.json");
-        verify(clientFacade, times(1)).upload(file.toAbsolutePath(), "AABBCC/bom.json");
-        verify(clientFacade, times(1)).doesObjectExists("AABBCC/logs/init.log");
-        verify(clientFacade, times(0)).upload(logFile.toAbsolutePath(), "AABBCC/logs/init.log");
+        verify(clientFacade, times(1)).objectKeys("AABBCC/");
+        verify(clientFacade, times(1)).uploadAsync(file.toAbsolutePath(), "AABBCC/bom.json");
+        verify(clientFacade, times(0)).uploadAsync(logFile.toAbsolutePath(), "AABBCC/logs/init.log");
+    }
+
+    @Test
+    void testStoreFilesReportsFailedUploads(@TempDir Path tempDir) throws IOException {
+        when(featureFlags.s3Storage()).thenReturn(true);
+        when(controllerConfig.sbomDir()).thenReturn(tempDir.toAbsolutePath().toString());
+
+        ObjectMeta meta = mock(ObjectMeta.class);
+        when(meta.getName()).thenReturn("sbom-request-456");
+
+        GenerationRequest generationRequest = mock(GenerationRequest.class);
+        when(generationRequest.getMetadata()).thenReturn(meta);
+        when(generationRequest.getId()).thenReturn("DDEEFF");
+
+        Path logsDir = Files.createDirectories(tempDir.resolve("sbom-request-456").resolve("logs"));
+        Path initLog = Files.writeString(logsDir.resolve("init.log"), "Some log");
+        Path generateLog = Files.writeString(logsDir.resolve("generate.log"), "Some other log");
+
+        when(clientFacade.objectKeys("DDEEFF/")).thenReturn(Set.of());
+        when(clientFacade.uploadAsync(initLog.toAbsolutePath(), "DDEEFF/logs/init.log"))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("Boom")));
+        when(clientFacade.uploadAsync(generateLog.toAbsolutePath(), "DDEEFF/logs/generate.log"))
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        ApplicationException ex = assertThrows(
+                ApplicationException.class,
+                () -> storageHandler.storeFiles(generationRequest));
+
+        assertEquals(
+                "Unable to store 1 of 2 files for GenerationRequest 'DDEEFF' in S3: [DDEEFF/logs/init.log]",
+                ex.getMessage());
+        verify(clientFacade, times(1)).uploadAsync(generateLog.toAbsolutePath(), "DDEEFF/logs/generate.log");
     }
 
     @Test
@@ -200,7 +238,8 @@ class S3FeatureTest {
         PanacheMock.mock(SbomGenerationRequest.class);
         when(SbomGenerationRequest.findById("REQUESTID")).thenReturn(request); // NOSONAR
 
-        when(clientFacade.log("REQUESTID", "a/path/to/generate.log")).thenReturn("This is a log content");
+        when(clientFacade.logStream("REQUESTID", "a/path/to/generate.log", null))
+                .thenReturn(logStream("This is a log content", null));
 
         // Ensure s3 feature is enabled
         when(featureFlags.s3Storage()).thenReturn(true);
@@ -215,4 +254,123 @@ class S3FeatureTest {
                 .contentType(ContentType.TEXT)
                 .body(Matchers.equalTo("This is a log content"));
     }
+
+    @Test
+    void testFetchLogRange() {
+        SbomGenerationRequest request = new SbomGenerationRequest();
+        request.setStatus(SbomGenerationStatus.FINISHED);
+
+        PanacheMock.mock(SbomGenerationRequest.class);
+        when(SbomGenerationRequest.findById("REQUESTID")).thenReturn(request); // NOSONAR
+
+        when(clientFacade.logStream("REQUESTID", "a/path/to/generate.log", "bytes=10-"))
+                .thenReturn(logStream("log content", "bytes 10-20/21"));
+
+        // Ensure s3 feature is enabled
+        when(featureFlags.s3Storage()).thenReturn(true);
+
+        RestAssured.given()
+                .accept(ContentType.TEXT)
+                .header("Range", "bytes=10-")
+                .when()
+                .get("/api/v1beta1/generations/REQUESTID/logs/{path}", "a/path/to/generate.log")
+                .then()
+                .assertThat()
+                .statusCode(206)
+                .header("Content-Range", "bytes 10-20/21")
+                .header("Accept-Ranges", "bytes")
+                .body(Matchers.equalTo("log content"));
+    }
+
+    @Test
+    void testFetchLogUnsatisfiableRange() {
+        SbomGenerationRequest request = new SbomGenerationRequest();
+        request.setStatus(SbomGenerationStatus.FINISHED);
+
+        PanacheMock.mock(SbomGenerationRequest.class);
+        when(SbomGenerationRequest.findById("REQUESTID")).thenReturn(request); // NOSONAR
+
+        when(clientFacade.logStream("REQUESTID", "a/path/to/generate.log", "bytes=100-"))
+                .thenThrow(
+                        new RangeNotSatisfiableException(
+                                21,
+                                "Requested range of log file '{}' cannot be satisfied",
+                                "REQUESTID/a/path/to/generate.log"));
+
+        // Ensure s3 feature is enabled
+        when(featureFlags.s3Storage()).thenReturn(true);
+
+        RestAssured.given()
+                .accept(ContentType.TEXT)
+                .header("Range", "bytes=100-")
+                .when()
+                .get("/api/v1beta1/generations/REQUESTID/logs/{path}", "a/path/to/generate.log")
+                .then()
+                .assertThat()
+                .statusCode(416)
+                .header("Content-Range", "bytes */21")
+                .body(
+                        "message",
+                        CoreMatchers.is(
+                                "Requested range of log file 'REQUESTID/a/path/to/generate.log' cannot be satisfied"));
+    }
+
+    @Test
+    void testFetchLogTail() {
+        SbomGenerationRequest request = new SbomGenerationRequest();
+        request.setStatus(SbomGenerationStatus.FINISHED);
+
+        PanacheMock.mock(SbomGenerationRequest.class);
+        when(SbomGenerationRequest.findById("REQUESTID")).thenReturn(request); // NOSONAR
+
+        when(clientFacade.logTail("REQUESTID", "a/path/to/generate.log", 2))
+                .thenReturn(logStream("line 9\nline 10\n", null));
+
+        // Ensure s3 feature is enabled
+        when(featureFlags.s3Storage()).thenReturn(true);
+
+        RestAssured.given()
+                .accept(ContentType.TEXT)
+                .queryParam("tail", 2)
+                .when()
+                .get("/api/v1beta1/generations/REQUESTID/logs/{path}", "a/path/to/generate.log")
+                .then()
+                .assertThat()
+                .statusCode(200)
+                .body(Matchers.equalTo("line 9\nline 10\n"));
+    }
+
+    @Test
+    void testFetchLogInvalidRange() {
+        when(featureFlags.s3Storage()).thenReturn(true);
+
+        RestAssured.given()
+                .header("Range", "bytes=0-10,20-30")
+                .when()
+                .get("/api/v1beta1/generations/REQUESTID/logs/{path}", "a/path/to/generate.log")
+                .then()
+                .statusCode(400)
+                .body(
+                        "message",
+                        CoreMatchers.is("Unsupported range 'bytes=0-10,20-30', a single byte range is expected"));
+    }
+
+    @Test
+    void testTailOffset() {
+        byte[] content = "line 1\nline 2\nline 3\n".getBytes(StandardCharsets.UTF_8);
+        BiFunction<Long, Long, byte[]> reader = (start, end) -> Arrays
+                .copyOfRange(content, start.intValue(), end.intValue() + 1);
+
+        // Small chunks, so that the lines span multiple reads
+        assertEquals(14, S3ClientFacade.tailOffset(content.length, 1, 4, reader));
+        assertEquals(7, S3ClientFacade.tailOffset(content.length, 2, 4, reader));
+        assertEquals(0, S3ClientFacade.tailOffset(content.length, 3, 4, reader));
+        assertEquals(0, S3ClientFacade.tailOffset(content.length, 10, 4, reader));
+        assertEquals(content.length, S3ClientFacade.tailOffset(content.length, 0, 4, reader));
+    }
+
+    private static LogStream logStream(String content, String contentRange) {
+        byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+        return new LogStream(new ByteArrayInputStream(bytes), bytes.length, contentRange);
+    }
 }
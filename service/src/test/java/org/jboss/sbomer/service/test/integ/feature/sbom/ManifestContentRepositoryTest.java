@@ -0,0 +1,118 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.service.test.integ.feature.sbom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.jboss.sbomer.core.features.sbom.utils.ObjectMapperProvider;
+import org.jboss.sbomer.core.test.TestResources;
+import org.jboss.sbomer.service.feature.sbom.service.ManifestContentRepository;
+import org.jboss.sbomer.service.test.utils.umb.TestUmbProfile;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.TestProfile;
+import jakarta.inject.Inject;
+
+@QuarkusTest
+@TestProfile(TestUmbProfile.class)
+class ManifestContentRepositoryTest {
+
+    static final int TRANSACTIONS = 8;
+
+    @Inject
+    ManifestContentRepository contentRepository;
+
+    private static JsonNode bom() throws IOException {
+        ObjectNode bom = (ObjectNode) ObjectMapperProvider.json()
+                .readTree(TestResources.asString("sboms/complete_sbom.json"));
+
+        // Not stored by other tests
+        bom.put("serialNumber", "urn:uuid:" + UUID.randomUUID());
+        return bom;
+    }
+
+    @Test
+    void testStoreSameContentConcurrently() throws Exception {
+        JsonNode bom = bom();
+        CyclicBarrier barrier = new CyclicBarrier(TRANSACTIONS);
+        ExecutorService executor = Executors.newFixedThreadPool(TRANSACTIONS);
+
+        try {
+            List<Future<String>> hashes = new ArrayList<>();
+
+            for (int i = 0; i < TRANSACTIONS; i++) {
+                hashes.add(executor.submit(() -> QuarkusTransaction.requiringNew().call(() -> {
+                    // All transactions store the content at the same time
+                    barrier.await(10, TimeUnit.SECONDS);
+                    return contentRepository.store(bom).getHash();
+                })));
+            }
+
+            Set<String> stored = hashes.stream().map(hash -> {
+                try {
+                    return hash.get(30, TimeUnit.SECONDS);
+                } catch (Exception e) {
+                    throw new IllegalStateException("Storing the content failed", e);
+                }
+            }).collect(Collectors.toSet());
+
+            assertEquals(1, stored.size());
+
+            String hash = stored.iterator().next();
+
+            assertEquals(
+                    1L,
+                    QuarkusTransaction.requiringNew().call(() -> contentRepository.count("hash", hash)));
+            assertEquals(
+                    bom,
+                    QuarkusTransaction.requiringNew().call(() -> contentRepository.findById(hash).getBom()));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testStoreSameContentInOneTransaction() throws Exception {
+        JsonNode bom = bom();
+
+        String hash = QuarkusTransaction.requiringNew().call(() -> {
+            String first = contentRepository.store(bom).getHash();
+            assertEquals(first, contentRepository.store(bom.deepCopy()).getHash());
+            return first;
+        });
+
+        assertEquals(1L, QuarkusTransaction.requiringNew().call(() -> contentRepository.count("hash", hash)));
+    }
+}
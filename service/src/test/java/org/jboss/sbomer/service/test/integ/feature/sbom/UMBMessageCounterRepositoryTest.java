@@ -0,0 +1,98 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.service.test.integ.feature.sbom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Optional;
+
+import org.jboss.sbomer.core.features.sbom.enums.UMBConsumer;
+import org.jboss.sbomer.service.feature.sbom.model.UMBMessageCounter.Kind;
+import org.jboss.sbomer.service.feature.sbom.service.RequestEventRepository;
+import org.jboss.sbomer.service.feature.sbom.service.UMBMessageCounterRepository;
+import org.jboss.sbomer.service.test.utils.umb.TestUmbProfile;
+import org.junit.jupiter.api.Test;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.TestProfile;
+import jakarta.inject.Inject;
+
+/**
+ * Not transactional, messages are counted only once the transaction which received them commits.
+ */
+@QuarkusTest
+@TestProfile(TestUmbProfile.class)
+class UMBMessageCounterRepositoryTest {
+
+    @Inject
+    UMBMessageCounterRepository counterRepository;
+
+    @Inject
+    RequestEventRepository requestEventRepository;
+
+    @Test
+    void testBackfillAndIncrement() {
+        counterRepository.backfill();
+
+        // Already initialized counters are not touched again
+        assertEquals(0, counterRepository.backfill());
+
+        long pncReceived = QuarkusTransaction.requiringNew().call(requestEventRepository::countPncReceivedMessages);
+        long pncProcessed = QuarkusTransaction.requiringNew().call(requestEventRepository::countPncProcessedMessages);
+        long errataReceived = QuarkusTransaction.requiringNew()
+                .call(requestEventRepository::countErrataReceivedMessages);
+        long errataSkipped = QuarkusTransaction.requiringNew().call(requestEventRepository::countErrataSkippedMessages);
+
+        counterRepository.increment(UMBConsumer.PNC, Kind.RECEIVED);
+        counterRepository.increment(UMBConsumer.PNC, Kind.PROCESSED);
+
+        // Counted before being flushed...
+        assertEquals(Optional.of(pncReceived + 1), counterRepository.getTotal(UMBConsumer.PNC, Kind.RECEIVED));
+        assertEquals(Optional.of(pncProcessed + 1), counterRepository.getTotal(UMBConsumer.PNC, Kind.PROCESSED));
+
+        counterRepository.flush();
+
+        // ...and after, only once
+        assertEquals(Optional.of(pncReceived + 1), counterRepository.getTotal(UMBConsumer.PNC, Kind.RECEIVED));
+        assertEquals(Optional.of(pncProcessed + 1), counterRepository.getTotal(UMBConsumer.PNC, Kind.PROCESSED));
+        assertEquals(Optional.of(errataReceived), counterRepository.getTotal(UMBConsumer.ERRATA, Kind.RECEIVED));
+        assertEquals(Optional.of(errataSkipped), counterRepository.getTotal(UMBConsumer.ERRATA, Kind.SKIPPED));
+    }
+
+    @Test
+    void testIncrementOnlyWhenCommitted() {
+        counterRepository.backfill();
+
+        long total = counterRepository.getTotal(UMBConsumer.ERRATA, Kind.PROCESSED).orElseThrow();
+
+        QuarkusTransaction.requiringNew().run(() -> counterRepository.increment(UMBConsumer.ERRATA, Kind.PROCESSED));
+
+        assertEquals(Optional.of(total + 1), counterRepository.getTotal(UMBConsumer.ERRATA, Kind.PROCESSED));
+
+        assertThrows(IllegalStateException.class, () -> QuarkusTransaction.requiringNew().run(() -> {
+            counterRepository.increment(UMBConsumer.ERRATA, Kind.PROCESSED);
+            throw new IllegalStateException("Rolled back");
+        }));
+
+        counterRepository.flush();
+
+        assertEquals(Optional.of(total + 1), counterRepository.getTotal(UMBConsumer.ERRATA, Kind.PROCESSED));
+    }
+}
@@ -28,6 +28,10 @@ import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 import org.awaitility.Awaitility;
+import org.eclipse.microprofile.metrics.MetricID;
+import org.eclipse.microprofile.metrics.MetricRegistry;
+import org.eclipse.microprofile.metrics.Tag;
+import org.eclipse.microprofile.metrics.Timer;
 import org.eclipse.microprofile.reactive.messaging.Message;
 import org.eclipse.microprofile.reactive.messaging.spi.Connector;
 import org.jboss.sbomer.core.config.request.PncBuildRequestConfig;
@@ -41,6 +45,7 @@ import org.jboss.sbomer.core.features.sbom.utils.ObjectMapperProvider;
 import org.jboss.sbomer.core.test.TestResources;
 import org.jboss.sbomer.service.feature.sbom.features.umb.consumer.AmqpMessageConsumer;
 import org.jboss.sbomer.service.feature.sbom.features.umb.consumer.PncNotificationHandler;
+import org.jboss.sbomer.service.feature.sbom.features.umb.consumer.UmbConsumerMetrics;
 import org.jboss.sbomer.service.feature.sbom.features.umb.consumer.model.PncBuildNotificationMessageBody;
 import org.jboss.sbomer.service.feature.sbom.features.umb.consumer.model.PncDelAnalysisNotificationMessageBody;
 import org.jboss.sbomer.service.feature.sbom.features.umb.producer.AmqpMessageProducer;
@@ -93,6 +98,9 @@ class PncBuildTest {
     @Inject
     RequestEventRepository requestEventRepository;
 
+    @Inject
+    MetricRegistry metricRegistry;
+
     @Inject
     @Connector("smallrye-in-memory")
     InMemoryConnector connector;
@@ -147,6 +155,20 @@ class PncBuildTest {
 
         // See "payloads/umb-pnc-build-body.json" file
         assertEquals("AX5TJMYHQAIAE", buildMsgBody.getBuild().getId());
+
+        // Verify the processing stages were measured
+        Awaitility.await()
+                .atMost(10, TimeUnit.SECONDS)
+                .until(() -> stageTimer("total") != null && stageTimer("total").getCount() > 0);
+
+        for (String stage : List.of("decode", "save", "dedup", "ack")) {
+            assertNotNull(stageTimer(stage), "Missing timer for the " + stage + " stage");
+        }
+    }
+
+    private Timer stageTimer(String stage) {
+        return metricRegistry.getTimer(
+                new MetricID(UmbConsumerMetrics.STAGE_TIMER, new Tag("consumer", "pnc"), new Tag("stage", stage)));
     }
 
     @Test
@@ -0,0 +1,142 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.service.test.integ.nextgen.rest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.hamcrest.CoreMatchers;
+import org.hamcrest.Matchers;
+import org.jboss.sbomer.service.nextgen.core.utils.ManifestStream;
+import org.jboss.sbomer.service.nextgen.service.model.Generation;
+import org.jboss.sbomer.service.nextgen.service.model.Manifest;
+import org.jboss.sbomer.service.test.utils.umb.TestUmbProfile;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.TestProfile;
+import io.restassured.RestAssured;
+import io.restassured.http.ContentType;
+import io.restassured.response.ValidatableResponse;
+
+@QuarkusTest
+@TestProfile(TestUmbProfile.class)
+class GenerationsApiTest {
+
+    static final String VALID = "{\"bomFormat\":\"CycloneDX\",\"specVersion\":\"1.6\",\"version\":1}";
+
+    static final String INVALID = "{\"bomFormat\":\"NotCycloneDX\",\"specVersion\":\"1.6\",\"version\":1}";
+
+    String generationId;
+
+    @BeforeEach
+    void beforeEach() {
+        generationId = QuarkusTransaction.requiringNew().call(() -> {
+            Generation generation = Generation.builder().build();
+            generation.persist();
+            return generation.getId();
+        });
+    }
+
+    private long countManifests() {
+        return QuarkusTransaction.requiringNew().call(() -> Manifest.count("generation.id", generationId));
+    }
+
+    private ValidatableResponse uploadBatch(String... manifests) {
+        return RestAssured.given()
+                .contentType(ManifestStream.MEDIA_TYPE)
+                .body(String.join("\n", manifests) + "\n")
+                .when()
+                .post("/api/v1beta2/generations/{id}/manifests:batch", generationId)
+                .then();
+    }
+
+    private ValidatableResponse upload(String manifest) {
+        return RestAssured.given()
+                .contentType(ContentType.JSON)
+                .body(manifest)
+                .when()
+                .post("/api/v1beta2/generations/{id}/manifests", generationId)
+                .then();
+    }
+
+    @Test
+    void testUploadManifest() {
+        upload(VALID).statusCode(200).body("generation", CoreMatchers.is(generationId));
+
+        assertEquals(1, countManifests());
+    }
+
+    @Test
+    void testRejectInvalidManifest() {
+        // Same policy as for the batch upload
+        upload(INVALID).statusCode(422)
+                .body("error", CoreMatchers.is("Unprocessable Entity"))
+                .body("message", Matchers.startsWith("Manifest is not valid"))
+                .body("errors", Matchers.not(Matchers.empty()));
+
+        assertEquals(0, countManifests());
+    }
+
+    @Test
+    void testUploadBatch() {
+        uploadBatch(VALID, VALID).statusCode(200)
+                .body("size()", CoreMatchers.is(2))
+                .body("[0].id", CoreMatchers.notNullValue())
+                .body("[0].generation", CoreMatchers.is(generationId))
+                .body("[1].generation", CoreMatchers.is(generationId));
+
+        assertEquals(2, countManifests());
+    }
+
+    @Test
+    void testRejectBatchWithInvalidManifest() {
+        uploadBatch(VALID, INVALID, VALID).statusCode(422)
+                .body("error", CoreMatchers.is("Unprocessable Entity"))
+                .body("message", Matchers.startsWith("Manifest #1 of the batch is not valid"))
+                .body("errors", Matchers.not(Matchers.empty()));
+
+        // The manifest before the invalid one is not stored either
+        assertEquals(0, countManifests());
+    }
+
+    @Test
+    void testRejectMalformedBatch() {
+        uploadBatch(VALID, "{\"bomFormat\": \"CycloneDX\",").statusCode(400)
+                .body("message", Matchers.startsWith("Unable to read manifest #1 of the batch"));
+
+        assertEquals(0, countManifests());
+    }
+
+    @Test
+    void testRejectEmptyBatch() {
+        uploadBatch().statusCode(400).body("message", CoreMatchers.is("No manifests provided"));
+    }
+
+    @Test
+    void testUploadBatchToUnknownGeneration() {
+        RestAssured.given()
+                .contentType(ManifestStream.MEDIA_TYPE)
+                .body(VALID + "\n")
+                .when()
+                .post("/api/v1beta2/generations/{id}/manifests:batch", "GDOESNOTEXIST")
+                .then()
+                .statusCode(404);
+    }
+}
@@ -55,6 +55,7 @@ import org.jboss.sbomer.service.feature.sbom.config.features.UmbConfig.UmbProduc
 import org.jboss.sbomer.service.feature.sbom.errata.ErrataClient;
 import org.jboss.sbomer.service.feature.sbom.k8s.model.SbomGenerationStatus;
 import org.jboss.sbomer.service.feature.sbom.model.RequestEvent;
+import org.jboss.sbomer.service.feature.sbom.model.ManifestContent;
 import org.jboss.sbomer.service.feature.sbom.model.Sbom;
 import org.jboss.sbomer.service.feature.sbom.model.SbomGenerationRequest;
 import org.jboss.sbomer.service.feature.sbom.service.AdvisoryService;
@@ -356,6 +357,79 @@ class RestResourceTest {
                     .body("content[0].generation.id", CoreMatchers.is("AASSBB"));
         }
 
+        @Test
+        void testPaginateSbomsWithCursor() {
+            Response firstPage = given().when().get("/api/v1beta1/manifests?pageSize=1&count=none");
+
+            firstPage.then()
+                    .statusCode(200)
+                    .body("totalHits", CoreMatchers.is(-1))
+                    .and()
+                    .body("content.id", CoreMatchers.hasItems("416640206274228224"));
+
+            String cursor = firstPage.jsonPath().getString("nextCursor");
+            assertNotNull(cursor);
+
+            Response secondPage = given().when()
+                    .queryParam("pageSize", 1)
+                    .queryParam("pageIndex", 1)
+                    .queryParam("cursor", cursor)
+                    .get("/api/v1beta1/manifests");
+
+            secondPage.then()
+                    .statusCode(200)
+                    .body("pageIndex", CoreMatchers.is(1))
+                    .and()
+                    .body("totalHits", CoreMatchers.is(2))
+                    .and()
+                    .body("content.id", CoreMatchers.hasItems("816640206274228223"));
+
+            given().when()
+                    .queryParam("pageSize", 1)
+                    .queryParam("cursor", secondPage.jsonPath().getString("nextCursor"))
+                    .get("/api/v1beta1/manifests")
+                    .then()
+                    .statusCode(200)
+                    .body("content", Matchers.empty())
+                    .and()
+                    .body("nextCursor", CoreMatchers.nullValue());
+        }
+
+        @Test
+        void testGetStoredBomById() throws IOException {
+            Sbom sbom = new Sbom();
+            sbom.setIdentifier("AAAABBBB");
+            sbom.setId("12345");
+            sbom.setContent(
+                    ManifestContent.of(new ObjectMapper().readTree(TestResources.asString("sboms/complete_sbom.json"))));
+
+            Mockito.when(sbomService.get("12345")).thenReturn(sbom);
+
+            String entityTag = given().when()
+                    .get("/api/v1beta1/manifests/12345/bom")
+                    .then()
+                    .statusCode(200)
+                    .header("ETag", "\"" + sbom.getContent().getHash() + "\"")
+                    .body("bomFormat", CoreMatchers.equalTo("CycloneDX"))
+                    .extract()
+                    .header("ETag");
+
+            given().when()
+                    .header("If-None-Match", entityTag)
+                    .get("/api/v1beta1/manifests/12345/bom")
+                    .then()
+                    .statusCode(304);
+        }
+
+        @Test
+        void testPaginateSbomsWithInvalidCursor() {
+            given().when().get("/api/v1beta1/manifests?cursor=invalid").then().statusCode(400);
+            given().when()
+                    .get("/api/v1beta1/manifests?sort=id=asc=&cursor=MjAyNC0wMS0wMVQwMDowMDowMFp8QUJD")
+                    .then()
+                    .statusCode(400);
+        }
+
         @Test
         void shouldRequestPncBuild() {
             V1Beta1RequestRecord record = given().body("{\"type\": \"pnc-build\", \"buildId\": \"AABBCC\"}")
@@ -0,0 +1,111 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.service.test.unit.feature.sbom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.jboss.sbomer.core.features.sbom.utils.ObjectMapperProvider;
+import org.jboss.sbomer.core.test.TestResources;
+import org.jboss.sbomer.service.feature.sbom.model.ManifestContent;
+import org.jboss.sbomer.service.feature.sbom.model.Sbom;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+class ManifestContentTest {
+
+    private static JsonNode bom() throws IOException {
+        return ObjectMapperProvider.json().readTree(TestResources.asString("sboms/complete_sbom.json"));
+    }
+
+    @Test
+    void testSameContentSameHash() throws IOException {
+        ManifestContent content = ManifestContent.of(bom());
+
+        assertEquals(64, content.getHash().length());
+        assertEquals(content.getHash(), ManifestContent.of(bom()).getHash());
+        assertTrue(content.getContent().length < content.getUncompressedSize());
+
+        ObjectNode changed = (ObjectNode) bom();
+        changed.put("serialNumber", "urn:uuid:00000000-0000-0000-0000-000000000000");
+
+        assertNotEquals(content.getHash(), ManifestContent.of(changed).getHash());
+    }
+
+    @Test
+    void testReadStoredContent() throws IOException {
+        ManifestContent content = ManifestContent.of(bom());
+
+        try (InputStream stream = content.openStream()) {
+            byte[] json = stream.readAllBytes();
+
+            assertEquals(content.getUncompressedSize(), json.length);
+            assertEquals(bom(), ObjectMapperProvider.json().readTree(json));
+        }
+    }
+
+    @Test
+    void testMoveContentOfSbom() throws IOException {
+        Sbom sbom = new Sbom();
+        sbom.setSbom(bom());
+
+        assertTrue(sbom.hasInlineContent());
+
+        String rootPurl = sbom.getRootPurl();
+        sbom.setContent(ManifestContent.of(sbom.getSbom()));
+
+        assertFalse(sbom.hasInlineContent());
+        assertEquals(rootPurl, sbom.getRootPurl());
+        assertEquals(bom(), sbom.getSbom());
+
+        // Changed content is set inline until stored again
+        ObjectNode changed = (ObjectNode) bom();
+        changed.put("serialNumber", "urn:uuid:00000000-0000-0000-0000-000000000000");
+        sbom.setSbom(changed);
+
+        assertTrue(sbom.hasInlineContent());
+        assertEquals(changed, sbom.getSbom());
+    }
+
+    @Test
+    void testSharedContentNotSharedBetweenSboms() throws IOException {
+        ManifestContent content = ManifestContent.of(bom());
+
+        Sbom first = new Sbom();
+        first.setContent(content);
+        Sbom second = new Sbom();
+        second.setContent(content);
+
+        ((ObjectNode) first.getSbom()).put("serialNumber", "urn:uuid:00000000-0000-0000-0000-000000000000");
+
+        // Same tree for the same manifest, not changed by the other one
+        assertSame(first.getSbom(), first.getSbom());
+        assertNotSame(first.getSbom(), second.getSbom());
+        assertEquals(bom(), second.getSbom());
+        assertEquals(bom(), content.getBom());
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.service.test.unit.feature.sbom.errata;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import org.jboss.sbomer.service.feature.sbom.errata.ErrataClient;
+import org.jboss.sbomer.service.feature.sbom.errata.ErrataQueryParameters;
+import org.jboss.sbomer.service.feature.sbom.errata.ErrataResolver;
+import org.jboss.sbomer.service.feature.sbom.errata.dto.ErrataCDNRepo;
+import org.jboss.sbomer.service.feature.sbom.errata.dto.ErrataCDNRepoNormalized;
+import org.jboss.sbomer.service.feature.sbom.errata.dto.ErrataPage;
+import org.jboss.sbomer.service.feature.sbom.errata.dto.ErrataVariant;
+import org.junit.jupiter.api.Test;
+
+class ErrataResolverTest {
+
+    final ErrataClient errataClient = mock(ErrataClient.class);
+
+    private static ErrataVariant variant(String cpe) {
+        ErrataVariant.Attributes attributes = new ErrataVariant.Attributes();
+        attributes.setCpe(cpe);
+
+        ErrataVariant.VariantData data = new ErrataVariant.VariantData();
+        data.setAttributes(attributes);
+
+        ErrataVariant variant = new ErrataVariant();
+        variant.setData(data);
+        return variant;
+    }
+
+    private static ErrataCDNRepo cdnRepo(String name) {
+        ErrataCDNRepo.Attributes attributes = new ErrataCDNRepo.Attributes();
+        attributes.setName(name);
+        attributes.setReleaseType("Primary");
+        attributes.setContentType("Binary");
+
+        ErrataCDNRepo.Relationships.Arch arch = new ErrataCDNRepo.Relationships.Arch();
+        arch.setId(13);
+        arch.setName("x86_64");
+
+        ErrataCDNRepo.Relationships relationships = new ErrataCDNRepo.Relationships();
+        relationships.setArch(arch);
+
+        ErrataCDNRepo cdnRepo = new ErrataCDNRepo();
+        cdnRepo.setType("cdn_repos");
+        cdnRepo.setAttributes(attributes);
+        cdnRepo.setRelationships(relationships);
+        return cdnRepo;
+    }
+
+    private static ErrataPage<ErrataCDNRepo> page(int pageNumber, int totalPages, ErrataCDNRepo... cdnRepos) {
+        ErrataPage.Page page = new ErrataPage.Page();
+        page.setPageNumber(pageNumber);
+        page.setTotalPages(totalPages);
+
+        ErrataPage<ErrataCDNRepo> cdnReposPage = new ErrataPage<>();
+        cdnReposPage.setPage(page);
+        cdnReposPage.setData(List.of(cdnRepos));
+        return cdnReposPage;
+    }
+
+    @Test
+    void testDeduplicatesVariants() {
+        when(errataClient.getVariant("8Base")).thenReturn(variant("cpe:/a:redhat:8"));
+        when(errataClient.getVariant("9Base")).thenReturn(variant("cpe:/a:redhat:9"));
+
+        ErrataResolver resolver = new ErrataResolver(errataClient, Runnable::run, 8, Duration.ZERO);
+
+        try (ErrataResolver.Session session = resolver.session("1234")) {
+            Map<String, ErrataVariant> variants = session.getVariants(List.of("8Base", "9Base", "8Base", "Unknown"));
+
+            assertEquals(List.of("8Base", "9Base"), List.copyOf(variants.keySet()));
+            assertEquals("cpe:/a:redhat:9", variants.get("9Base").getData().getAttributes().getCpe());
+
+            // Already resolved within the session
+            session.getVariants(List.of("9Base"));
+
+            assertEquals(new ErrataResolver.Stats(5, 3, 0, 0, 0), session.getStats());
+        }
+
+        verify(errataClient, times(1)).getVariant("8Base");
+        verify(errataClient, times(1)).getVariant("9Base");
+        verify(errataClient, times(1)).getVariant("Unknown");
+    }
+
+    @Test
+    void testFetchesAllPagesOfCDNRepos() {
+        when(errataClient.getAllCDNRepos(any())).thenAnswer(invocation -> {
+            ErrataQueryParameters parameters = invocation.getArgument(0);
+
+            assertEquals("8Base", parameters.getFilters().get("filter[variant_name]"));
+
+            return switch (parameters.getPageNumber()) {
+                case 1 -> page(1, 3, cdnRepo("repo-a__8_DOT_1"));
+                case 2 -> page(2, 3, cdnRepo("repo-b__8_DOT_1"), cdnRepo("repo-a__8_DOT_1"));
+                default -> page(3, 3, cdnRepo("repo-c__8_DOT_1"));
+            };
+        });
+
+        ErrataResolver resolver = new ErrataResolver(errataClient, Runnable::run, 8, Duration.ZERO);
+
+        try (ErrataResolver.Session session = resolver.session("1234")) {
+            List<ErrataCDNRepoNormalized> cdnRepos = session.getCDNRepos(List.of("8Base", "8Base"), "RHEL");
+
+            assertEquals(
+                    List.of("repo-a__8_DOT_1", "repo-b__8_DOT_1", "repo-c__8_DOT_1"),
+                    cdnRepos.stream().map(ErrataCDNRepoNormalized::getCdnName).toList());
+
+            // Normalized for the product requested
+            assertEquals(
+                    List.of("repo-a", "repo-b", "repo-c"),
+                    session.getCDNRepos(List.of("8Base"), "RHOSE")
+                            .stream()
+                            .map(ErrataCDNRepoNormalized::getCdnName)
+                            .toList());
+
+            assertEquals(new ErrataResolver.Stats(0, 0, 3, 3, 0), session.getStats());
+        }
+    }
+
+    @Test
+    void testCachesAcrossSessions() {
+        when(errataClient.getVariant(anyString())).thenReturn(variant("cpe:/a:redhat:8"));
+        when(errataClient.getAllCDNRepos(any())).thenReturn(page(1, 1, cdnRepo("repo-a")));
+
+        ErrataResolver resolver = new ErrataResolver(errataClient, Runnable::run, 8, Duration.ofMinutes(10));
+
+        try (ErrataResolver.Session session = resolver.session("1234")) {
+            session.getVariants(List.of("8Base"));
+            session.getCDNRepos(List.of("8Base"), "RHEL");
+        }
+
+        try (ErrataResolver.Session session = resolver.session("5678")) {
+            session.getVariants(List.of("8Base"));
+            session.getCDNRepos(List.of("8Base"), "RHEL");
+
+            assertEquals(new ErrataResolver.Stats(1, 0, 1, 0, 2), session.getStats());
+        }
+
+        resolver.invalidate();
+
+        try (ErrataResolver.Session session = resolver.session("5678")) {
+            session.getVariants(List.of("8Base"));
+
+            assertEquals(new ErrataResolver.Stats(1, 1, 0, 0, 0), session.getStats());
+        }
+
+        verify(errataClient, times(2)).getVariant("8Base");
+        verify(errataClient, times(1)).getAllCDNRepos(any());
+    }
+}
@@ -24,12 +24,15 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.io.IOException;
+import java.time.Duration;
 import java.util.ArrayList;
-import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -51,12 +54,15 @@ import org.jboss.sbomer.core.features.sbom.utils.SbomUtils;
 import org.jboss.sbomer.core.test.TestResources;
 import org.jboss.sbomer.service.feature.sbom.atlas.AtlasHandler;
 import org.jboss.sbomer.service.feature.sbom.errata.ErrataClient;
+import org.jboss.sbomer.service.feature.sbom.errata.ErrataQueryParameters;
+import org.jboss.sbomer.service.feature.sbom.errata.ErrataResolver;
 import org.jboss.sbomer.service.feature.sbom.errata.dto.Errata;
 import org.jboss.sbomer.service.feature.sbom.errata.dto.ErrataBuildList;
 import org.jboss.sbomer.service.feature.sbom.errata.dto.ErrataBuildList.BuildItem;
 import org.jboss.sbomer.service.feature.sbom.errata.dto.ErrataBuildList.ProductVersionEntry;
 import org.jboss.sbomer.service.feature.sbom.errata.dto.ErrataCDNRepo;
 import org.jboss.sbomer.service.feature.sbom.errata.dto.ErrataCDNRepoNormalized;
+import org.jboss.sbomer.service.feature.sbom.errata.dto.ErrataPage;
 import org.jboss.sbomer.service.feature.sbom.errata.dto.ErrataVariant;
 import org.jboss.sbomer.service.feature.sbom.errata.event.release.ReleaseStandardAdvisoryEventsListener;
 import org.jboss.sbomer.service.feature.sbom.errata.event.release.ReleaseTextOnlyAdvisoryEventsListener;
@@ -77,6 +83,7 @@ import org.jboss.sbomer.service.feature.sbom.service.SbomGenerationRequestReposi
 import org.jboss.sbomer.service.feature.sbom.service.SbomService;
 import org.jboss.sbomer.service.stats.StatsService;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.slf4j.MDC;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
@@ -105,6 +112,7 @@ class ReleaseAdvisoryEventsListenerTest {
     final SbomGenerationRequestRepository generationRequestRepository = mock(SbomGenerationRequestRepository.class);
     final RequestEventRepository requestEventRepository = mock(RequestEventRepository.class);
     final AtlasHandler atlasHandler = mock(AtlasHandler.class);
+    final ErrataResolver errataResolver = new ErrataResolver(errataClient, Runnable::run, 8, Duration.ZERO);
 
     private static void printRawBom(Bom bom) {
         try {
@@ -836,6 +844,7 @@ class ReleaseAdvisoryEventsListenerTest {
         listenerSingleContainer = new ReleaseAdvisoryEventsListenerSingleContainer();
         listenerSingleContainer.setErrataClient(errataClient);
         listenerSingleContainer.setPyxisClient(pyxisClient);
+        listenerSingleContainer.setErrataResolver(errataResolver);
         listenerSingleContainer.setStatsService(statsService);
         listenerSingleContainer.setSbomService(sbomService);
         listenerSingleContainer.setGenerationRequestRepository(generationRequestRepository);
@@ -922,6 +931,7 @@ class ReleaseAdvisoryEventsListenerTest {
         listenerMultiContainers = new ReleaseAdvisoryEventsListenerMultiContainer();
         listenerMultiContainers.setErrataClient(errataClient);
         listenerMultiContainers.setPyxisClient(pyxisClient);
+        listenerMultiContainers.setErrataResolver(errataResolver);
         listenerMultiContainers.setStatsService(statsService);
         listenerMultiContainers.setSbomService(sbomService);
         listenerMultiContainers.setGenerationRequestRepository(generationRequestRepository);
@@ -1070,6 +1080,7 @@ class ReleaseAdvisoryEventsListenerTest {
         listenerSingleRpm = new ReleaseAdvisoryEventsListenerSingleRPM();
         listenerSingleRpm.setErrataClient(errataClient);
         listenerSingleRpm.setPyxisClient(pyxisClient);
+        listenerSingleRpm.setErrataResolver(errataResolver);
         listenerSingleRpm.setStatsService(statsService);
         listenerSingleRpm.setSbomService(sbomService);
         listenerSingleRpm.setGenerationRequestRepository(generationRequestRepository);
@@ -1084,10 +1095,7 @@ class ReleaseAdvisoryEventsListenerTest {
                 "singleRpm/errata_89769_records.json");
         RequestEvent requestEvent = loadRequestEvent("singleRpm/request_event.json");
         Sbom manifest = loadSbom("singleRpm/356D95E8FF434C4.json");
-        List<ErrataCDNRepoNormalized> cdnRepos = loadCDNReposDetails(
-                "singleRpm/cdn_repos.json",
-                "7ComputeNode-7.2.Z",
-                "RHEL");
+        ErrataPage<ErrataCDNRepo> cdnRepos = loadCDNRepos("singleRpm/cdn_repos.json");
 
         Map<ProductVersionEntry, List<BuildItem>> buildDetails = erratumBuildList.getProductVersions()
                 .values()
@@ -1128,7 +1136,12 @@ class ReleaseAdvisoryEventsListenerTest {
         when(statsService.getStats())
                 .thenReturn(Stats.builder().withVersion("ReleaseAdvisoryEventsListenerTest_1.0.0").build());
 
-        when(errataClient.getCDNReposOfVariant("7ComputeNode-7.2.Z", "RHEL")).thenReturn(cdnRepos);
+        when(
+                errataClient.getAllCDNRepos(
+                        argThat(
+                                parameters -> "7ComputeNode-7.2.Z"
+                                        .equals(parameters.getFilters().get("filter[variant_name]")))))
+                .thenReturn(cdnRepos);
 
         when(generationRequestRepository.findById(anyString())).thenAnswer(invocation -> {
             String generationId = invocation.getArgument(0);
@@ -1150,21 +1163,32 @@ class ReleaseAdvisoryEventsListenerTest {
         event.getReleaseGenerations()
                 .values()
                 .forEach(request -> assertNotEquals(RequestEventStatus.FAILED, request.getRequest().getEventStatus()));
+
+        // The single page of CDN repositories of the variant is fetched once for the whole advisory
+        ArgumentCaptor<ErrataQueryParameters> cdnReposQueries = ArgumentCaptor.forClass(ErrataQueryParameters.class);
+        verify(errataClient, times(1)).getAllCDNRepos(cdnReposQueries.capture());
+        assertEquals(
+                List.of("7ComputeNode-7.2.Z"),
+                cdnReposQueries.getAllValues()
+                        .stream()
+                        .map(parameters -> parameters.getFilters().get("filter[variant_name]"))
+                        .toList());
+        assertEquals(1, cdnReposQueries.getValue().getPageNumber());
     }
 
-    private List<ErrataCDNRepoNormalized> loadCDNReposDetails(
-            String fileName,
-            String variantName,
-            String shortProductName) throws IOException {
-        Collection<ErrataCDNRepo> cdnRepos = parseResource(fileName, new TypeReference<>() {
+    private ErrataPage<ErrataCDNRepo> loadCDNRepos(String fileName) throws IOException {
+        List<ErrataCDNRepo> cdnRepos = parseResource(fileName, new TypeReference<>() {
         });
-        return cdnRepos.stream()
-                .filter(
-                        cdn -> cdn.getType().equals("cdn_repos")
-                                && !cdn.getAttributes().getContentType().equalsIgnoreCase("docker"))
-                .map(cdn -> new ErrataCDNRepoNormalized(cdn, variantName, !"rhel".equalsIgnoreCase(shortProductName)))
-                .distinct()
-                .toList();
+
+        ErrataPage.Page page = new ErrataPage.Page();
+        page.setPageNumber(1);
+        page.setTotalPages(1);
+        page.setTotalHits(cdnRepos.size());
+
+        ErrataPage<ErrataCDNRepo> cdnReposPage = new ErrataPage<>();
+        cdnReposPage.setPage(page);
+        cdnReposPage.setData(cdnRepos);
+        return cdnReposPage;
     }
 
     private PyxisRepositoryDetails loadPyxisRepositoryDetails(String fileName) throws IOException {
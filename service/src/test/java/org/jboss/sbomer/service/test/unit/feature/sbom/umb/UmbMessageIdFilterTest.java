@@ -0,0 +1,85 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.service.test.unit.feature.sbom.umb;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import org.jboss.sbomer.service.feature.sbom.features.umb.consumer.UmbMessageIdFilter;
+import org.junit.jupiter.api.Test;
+
+class UmbMessageIdFilterTest {
+
+    static class MutableClock extends Clock {
+        Instant now = Instant.parse("2025-01-01T00:00:00Z");
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+
+    @Test
+    void shouldRememberAcknowledgedIdsWithinWindow() {
+        MutableClock clock = new MutableClock();
+        UmbMessageIdFilter filter = new UmbMessageIdFilter(10, Duration.ofMinutes(10), clock);
+
+        assertFalse(filter.isAcknowledged("ID:1"));
+
+        filter.acknowledge("ID:1");
+        assertTrue(filter.isAcknowledged("ID:1"));
+
+        clock.now = clock.now.plus(Duration.ofMinutes(11));
+        assertFalse(filter.isAcknowledged("ID:1"));
+        assertEquals(0, filter.size());
+    }
+
+    @Test
+    void shouldEvictOldestIds() {
+        MutableClock clock = new MutableClock();
+        UmbMessageIdFilter filter = new UmbMessageIdFilter(2, Duration.ofHours(1), clock);
+
+        filter.acknowledge("ID:1");
+        filter.acknowledge("ID:2");
+        // Acknowledging again moves the id to the end
+        filter.acknowledge("ID:1");
+        filter.acknowledge("ID:3");
+
+        assertEquals(2, filter.size());
+        assertTrue(filter.isAcknowledged("ID:1"));
+        assertFalse(filter.isAcknowledged("ID:2"));
+        assertTrue(filter.isAcknowledged("ID:3"));
+    }
+}
@@ -20,17 +20,26 @@ package org.jboss.sbomer.service.test.unit.generator.koji;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.Instant;
+import java.util.List;
 import java.util.Set;
 
 import org.eclipse.microprofile.context.ManagedExecutor;
+import org.jboss.sbomer.core.errors.ValidationException;
+import org.jboss.sbomer.core.features.sbom.utils.FileUtils;
 import org.jboss.sbomer.service.feature.sbom.config.GenerationRequestControllerConfig;
 import org.jboss.sbomer.service.leader.LeaderManager;
 import org.jboss.sbomer.service.nextgen.core.dto.api.GenerationRequest;
@@ -39,6 +48,7 @@ import org.jboss.sbomer.service.nextgen.core.dto.api.Target;
 import org.jboss.sbomer.service.nextgen.core.dto.model.GenerationRecord;
 import org.jboss.sbomer.service.nextgen.core.enums.GenerationStatus;
 import org.jboss.sbomer.service.nextgen.core.events.GenerationStatusChangeEvent;
+import org.jboss.sbomer.service.nextgen.core.payloads.generation.GenerationStatusUpdatePayload;
 import org.jboss.sbomer.service.nextgen.core.rest.SBOMerClient;
 import org.jboss.sbomer.service.nextgen.core.utils.JacksonUtils;
 import org.jboss.sbomer.service.nextgen.generator.koji.KojiGenerator;
@@ -46,11 +56,16 @@ import org.jboss.sbomer.service.nextgen.service.EntityMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import io.fabric8.knative.pkg.apis.ConditionBuilder;
 import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.tekton.v1beta1.TaskRun;
+import io.fabric8.tekton.v1beta1.TaskRunBuilder;
+import io.fabric8.tekton.v1beta1.TaskRunStatusBuilder;
 
 @ExtendWith(MockitoExtension.class)
 public class KojiGeneratorTest {
@@ -143,6 +158,48 @@ public class KojiGeneratorTest {
         verify(generator, never()).generate(any());
     }
 
+    @Test
+    void shouldFailGenerationWhenManifestsAreRejected(@TempDir Path sbomDir) throws IOException {
+        Path manifest = sbomDir.resolve("G").resolve("0").resolve(FileUtils.MANIFEST_FILENAME);
+        Files.createDirectories(manifest.getParent());
+        Files.writeString(manifest, "{}");
+
+        when(controllerConfig.sbomDir()).thenReturn(sbomDir.toString());
+
+        // What the client reports when the upload is answered with 422
+        when(client.uploadManifests(eq("G"), any())).thenThrow(
+                new ValidationException(
+                        "Manifest #{} of the batch is not valid: {}",
+                        List.of("bomFormat: does not have a value in the enumeration [CycloneDX]"),
+                        0,
+                        "Invalid manifest"));
+
+        TaskRun taskRun = new TaskRunBuilder().withNewMetadata().withName("G-taskrun").endMetadata().build();
+        taskRun.setStatus(
+                new TaskRunStatusBuilder().withConditions(List.of(new ConditionBuilder().withStatus("True").build()))
+                        .build());
+
+        generator.reconcile(
+                new GenerationRecord(
+                        "G",
+                        Instant.now(),
+                        Instant.now(),
+                        null,
+                        null,
+                        null,
+                        GenerationStatus.GENERATING,
+                        null,
+                        null),
+                Set.of(taskRun));
+
+        ArgumentCaptor<GenerationStatusUpdatePayload> payloadCaptor = ArgumentCaptor
+                .forClass(GenerationStatusUpdatePayload.class);
+        verify(client).updateGenerationStatus(eq("G"), payloadCaptor.capture());
+
+        assertEquals(GenerationStatus.FAILED, payloadCaptor.getValue().status());
+        assertTrue(payloadCaptor.getValue().reason().contains("Manifest #0 of the batch is not valid"));
+    }
+
     private GenerationStatusChangeEvent createGenerationStatusChangeEvent(
             String generationId,
             String generatorName,
@@ -9,12 +9,14 @@ import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.eclipse.microprofile.context.ManagedExecutor;
@@ -27,15 +29,16 @@ import org.jboss.sbomer.service.nextgen.core.enums.GenerationStatus;
 import org.jboss.sbomer.service.nextgen.core.events.GenerationStatusChangeEvent;
 import org.jboss.sbomer.service.nextgen.core.rest.SBOMerClient;
 import org.jboss.sbomer.service.nextgen.core.utils.JacksonUtils;
+import org.jboss.sbomer.service.nextgen.core.utils.ManifestStream;
 import org.jboss.sbomer.service.nextgen.generator.rhrelease.RedHatReleaseGenerator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
 
 @ExtendWith(MockitoExtension.class)
 public class RedHatReleaseGeneratorTest {
@@ -50,7 +53,7 @@ public class RedHatReleaseGeneratorTest {
 
     @BeforeEach
     void beforeEach() {
-        generator = spy(new RedHatReleaseGenerator(client, managedExecutor));
+        generator = spy(new RedHatReleaseGenerator(client, managedExecutor, 8));
     }
 
     private List<ManifestRecord> genManifests(int numManifests) {
@@ -189,6 +192,8 @@ public class RedHatReleaseGeneratorTest {
         when(client.getEventGenerations(eq("E1MMM"))).thenReturn(genGenerations(2));
         when(client.getGenerationManifests(eq("G0"))).thenReturn(genManifests(2));
         when(client.getGenerationManifests(eq("G1"))).thenReturn(genManifests(2));
+        when(client.getManifestContent(anyString()))
+                .thenAnswer(invocation -> JacksonUtils.toObjectNode(Map.of("serialNumber", invocation.getArgument(0))));
 
         GenerationRecord generationRecord = new GenerationRecord(
                 "G1",
@@ -201,20 +206,33 @@ public class RedHatReleaseGeneratorTest {
                 null,
                 null);
 
-        ArgumentCaptor<JsonNode> argumentCaptor = ArgumentCaptor.forClass(JsonNode.class);
+        List<JsonNode> boms = new ArrayList<>();
 
-        when(client.uploadManifest(eq("G1"), argumentCaptor.capture()))
-                .thenReturn(new ManifestRecord("MX", "G1", Instant.now(), Collections.emptyMap()));
+        when(client.uploadManifests(eq("G1"), any())).thenAnswer(invocation -> {
+            try (MappingIterator<JsonNode> uploaded = ManifestStream.read(invocation.getArgument(1))) {
+                boms.addAll(uploaded.readAll());
+            }
 
-        generator.generate(generationRecord);
+            return List.of(new ManifestRecord("MX", "G1", Instant.now(), Collections.emptyMap()));
+        });
 
-        List<JsonNode> boms = argumentCaptor.getAllValues();
+        generator.generate(generationRecord);
 
         assertEquals(5, boms.size()); // 4 updated manifests + 1 release manifest
 
+        // Manifests are uploaded in the order of generations, the release manifest is the last one
+        assertEquals(
+                List.of("M0", "M1", "M0", "M1"),
+                boms.subList(0, 4).stream().map(bom -> bom.get("serialNumber").asText()).toList());
+        assertEquals(JacksonUtils.toObjectNode(Map.of()), boms.get(4));
+
         verify(client, times(4)).getManifestContent(anyString());
-        verify(client, times(5)).uploadManifest(anyString(), any());
+        verify(client, times(1)).uploadManifests(anyString(), any());
+        verify(client, times(0)).uploadManifest(anyString(), any());
         verify(client, times(1)).getEventGenerations(anyString());
         verify(client, times(2)).getGenerationManifests(anyString());
+
+        // Fetches do not wait for the managed executor, which runs the generation itself
+        verifyNoInteractions(managedExecutor);
     }
 }
@@ -13,6 +13,7 @@ import java.time.ZoneId;
 import java.time.ZonedDateTime;
 
 import org.jboss.sbomer.service.leader.LeaderManager;
+import org.jboss.sbomer.service.leader.LeadershipChangedEvent;
 import org.jboss.sbomer.service.leader.LeaseConfig;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -21,12 +22,15 @@ import io.fabric8.kubernetes.api.model.coordination.v1.Lease;
 import io.fabric8.kubernetes.client.KubernetesClient;
 import io.fabric8.kubernetes.client.dsl.MixedOperation;
 import io.fabric8.kubernetes.client.dsl.Resource;
+import jakarta.enterprise.event.Event;
 
 public class LeaderManagerTest {
     LeaderManager leaderManager;
     KubernetesClient kubernetesClient;
+    Event<LeadershipChangedEvent> leadershipChangedEvent;
 
     @BeforeEach
+    @SuppressWarnings("unchecked")
     void beforeEach() {
         LeaseConfig leaseConfig = mock(LeaseConfig.class);
 
@@ -34,7 +38,8 @@ public class LeaderManagerTest {
         when(leaseConfig.checkInterval()).thenReturn("10s");
 
         this.kubernetesClient = mock(KubernetesClient.class, RETURNS_DEEP_STUBS);
-        this.leaderManager = new LeaderManager(leaseConfig, kubernetesClient);
+        this.leadershipChangedEvent = mock(Event.class);
+        this.leaderManager = new LeaderManager(leaseConfig, kubernetesClient, leadershipChangedEvent);
     }
 
     @Test
@@ -108,4 +113,34 @@ public class LeaderManagerTest {
         verify(leaseResource, times(1)).createOrReplace();
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldNotifyWhenLeadershipChanges() {
+        var leaseResource = mock(Resource.class);
+        when(leaseResource.get()).thenReturn(null);
+
+        var leases = mock(MixedOperation.class);
+        when(leases.resource(isA(Lease.class))).thenReturn(leaseResource);
+        when(leases.withName("sbomer-generation-scheduler")).thenReturn(leaseResource);
+
+        when(kubernetesClient.leases()).thenReturn(leases);
+
+        leaderManager.lease();
+        leaderManager.lease();
+
+        // Notified once, when the leadership was acquired
+        verify(leadershipChangedEvent, times(1)).fire(new LeadershipChangedEvent(true));
+
+        // Taken over by someone else
+        var lease = mock(Lease.class, RETURNS_DEEP_STUBS);
+        when(lease.getSpec().getRenewTime()).thenReturn(ZonedDateTime.now(ZoneId.of("UTC")));
+        when(lease.getSpec().getLeaseDurationSeconds()).thenReturn(30);
+        when(lease.getSpec().getHolderIdentity()).thenReturn("someone-else");
+        when(leaseResource.get()).thenReturn(lease);
+
+        leaderManager.lease();
+
+        assertFalse(leaderManager.isLeader());
+        verify(leadershipChangedEvent, times(1)).fire(new LeadershipChangedEvent(false));
+    }
 }
@@ -0,0 +1,243 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.service.test.unit.nextgen.unit.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import org.awaitility.Awaitility;
+import org.jboss.sbomer.service.nextgen.controller.KeyedWorkQueue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class KeyedWorkQueueTest {
+
+    private static final long TIMEOUT = 5;
+
+    KeyedWorkQueue<String> queue;
+
+    @AfterEach
+    void afterEach() {
+        if (queue != null) {
+            queue.shutdown();
+        }
+    }
+
+    private KeyedWorkQueue<String> createQueue(int workers, int maxRetries, Consumer<String> handler) {
+        return createQueue(workers, Duration.ofMillis(10), maxRetries, handler);
+    }
+
+    private KeyedWorkQueue<String> createQueue(
+            int workers,
+            Duration backoff,
+            int maxRetries,
+            Consumer<String> handler) {
+        return new KeyedWorkQueue<>(
+                "test",
+                new KeyedWorkQueue.Settings(workers, false, backoff, backoff.multipliedBy(4), maxRetries),
+                handler,
+                null);
+    }
+
+    /**
+     * Waits until all keys added before are processed. The marker key is added after a delay longer than any delay
+     * pending before, the delayed keys are added in order and processed in order by a single worker.
+     */
+    private void awaitProcessed(List<String> processed, Duration longestDelay) {
+        queue.addAfter("marker", longestDelay.plusMillis(10));
+
+        Awaitility.await().atMost(TIMEOUT, TimeUnit.SECONDS).until(() -> processed.contains("marker"));
+
+        processed.remove("marker");
+    }
+
+    @Test
+    void testProcessesDifferentKeysConcurrently() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(2);
+        CountDownLatch release = new CountDownLatch(1);
+
+        queue = createQueue(2, 0, key -> {
+            started.countDown();
+            await(release);
+        });
+
+        queue.add("a");
+        queue.add("b");
+
+        assertTrue(started.await(TIMEOUT, TimeUnit.SECONDS));
+        assertEquals(2, queue.inFlight());
+
+        release.countDown();
+    }
+
+    @Test
+    void testProcessesSingleKeyOneAtATime() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch processedTwice = new CountDownLatch(2);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+
+        queue = createQueue(4, 0, key -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            started.countDown();
+            await(release);
+            running.decrementAndGet();
+            processedTwice.countDown();
+        });
+
+        queue.add("a");
+        assertTrue(started.await(TIMEOUT, TimeUnit.SECONDS));
+
+        // Updates received while processing are merged into a single follow-up
+        queue.add("a");
+        queue.add("a");
+        queue.add("a");
+        assertEquals(0, queue.depth());
+
+        release.countDown();
+
+        assertTrue(processedTwice.await(TIMEOUT, TimeUnit.SECONDS));
+        assertEquals(1, maxRunning.get());
+    }
+
+    @Test
+    void testMergesDelayedAdditions() throws InterruptedException {
+        List<String> processed = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(2);
+
+        queue = createQueue(1, 0, key -> {
+            processed.add(key);
+            done.countDown();
+        });
+
+        queue.addAfter("a", Duration.ofMillis(50));
+        queue.addAfter("a", Duration.ofMillis(50));
+        queue.addAfter("b", Duration.ofMillis(50));
+        queue.addAfter("a", Duration.ofMillis(50));
+
+        assertTrue(done.await(TIMEOUT, TimeUnit.SECONDS));
+
+        // Nothing else is processed later
+        awaitProcessed(processed, Duration.ofMillis(50));
+        assertEquals(List.of("a", "b"), processed.stream().sorted().toList());
+    }
+
+    @Test
+    void testRetriesFailedKeyWithBackoff() throws InterruptedException {
+        Map<String, AtomicInteger> attempts = new ConcurrentHashMap<>();
+        CountDownLatch succeeded = new CountDownLatch(1);
+
+        queue = createQueue(1, 5, key -> {
+            if (attempts.computeIfAbsent(key, k -> new AtomicInteger()).incrementAndGet() < 3) {
+                throw new IllegalStateException("Transient failure");
+            }
+
+            succeeded.countDown();
+        });
+
+        queue.add("a");
+
+        assertTrue(succeeded.await(TIMEOUT, TimeUnit.SECONDS));
+        assertEquals(3, attempts.get("a").get());
+    }
+
+    @Test
+    void testGivesUpAfterMaxRetries() throws InterruptedException {
+        List<String> processed = new CopyOnWriteArrayList<>();
+        CountDownLatch exhausted = new CountDownLatch(3);
+
+        queue = createQueue(1, 2, key -> {
+            processed.add(key);
+
+            if (key.equals("a")) {
+                exhausted.countDown();
+                throw new IllegalStateException("Permanent failure");
+            }
+        });
+
+        queue.add("a");
+
+        assertTrue(exhausted.await(TIMEOUT, TimeUnit.SECONDS));
+        Awaitility.await().atMost(TIMEOUT, TimeUnit.SECONDS).until(() -> queue.inFlight() == 0);
+
+        // Longer than the maximum backoff
+        awaitProcessed(processed, Duration.ofMillis(40));
+        assertEquals(List.of("a", "a", "a"), processed);
+        assertEquals(0, queue.depth());
+    }
+
+    @Test
+    void testNewAdditionShortensRetryBackoff() throws InterruptedException {
+        Map<String, AtomicInteger> attempts = new ConcurrentHashMap<>();
+        CountDownLatch succeeded = new CountDownLatch(1);
+
+        // Retried after a backoff much longer than the test timeout
+        queue = createQueue(1, Duration.ofMinutes(1), 1, key -> {
+            if (attempts.computeIfAbsent(key, k -> new AtomicInteger()).incrementAndGet() == 1) {
+                throw new IllegalStateException("Transient failure");
+            }
+
+            succeeded.countDown();
+        });
+
+        queue.add("a");
+
+        Awaitility.await()
+                .atMost(TIMEOUT, TimeUnit.SECONDS)
+                .until(() -> attempts.containsKey("a") && queue.inFlight() == 0);
+
+        // A new event for the key waiting for a retry
+        queue.addAfter("a", Duration.ofMillis(10));
+        queue.addAfter("a", Duration.ofMillis(20));
+
+        assertTrue(succeeded.await(TIMEOUT, TimeUnit.SECONDS));
+        assertEquals(2, attempts.get("a").get());
+    }
+
+    @Test
+    void testClearDropsDelayedKeys() throws InterruptedException {
+        List<String> processed = new CopyOnWriteArrayList<>();
+
+        queue = createQueue(1, 0, processed::add);
+
+        queue.addAfter("a", Duration.ofMillis(50));
+        queue.clear();
+
+        awaitProcessed(processed, Duration.ofMillis(50));
+        assertEquals(List.of(), processed);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(TIMEOUT, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -13,6 +13,7 @@ import static org.junit.Assert.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.atLeast;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -64,6 +65,7 @@ import io.fabric8.kubernetes.api.model.apps.DeploymentList;
 import io.fabric8.kubernetes.client.KubernetesClient;
 import io.fabric8.kubernetes.client.KubernetesClientException;
 import io.fabric8.kubernetes.client.dsl.AppsAPIGroupDSL;
+import io.fabric8.kubernetes.client.dsl.FilterWatchListDeletable;
 import io.fabric8.kubernetes.client.dsl.MixedOperation;
 import io.fabric8.kubernetes.client.dsl.Resource;
 import io.fabric8.kubernetes.client.dsl.RollableScalableResource;
@@ -170,6 +172,30 @@ public class SyftGeneratorTest {
                 generationRecord.reason());
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    void testHandleReusesFetchedGeneration() throws ParseException {
+        GenerationRecord generationRecord = createGenerationRecord();
+        TaskRun taskRun = createTaskRun(generationRecord, "0", DEFAULT_REQUESTS_MEMORY, DEFAULT_LIMITS_MEMORY);
+
+        FilterWatchListDeletable<TaskRun, KubernetesResourceList<TaskRun>, Resource<TaskRun>> labeledMock = mock(
+                FilterWatchListDeletable.class);
+        KubernetesResourceList<TaskRun> taskRunListMock = mock(KubernetesResourceList.class);
+
+        when(taskRunsMock.withLabel(AbstractTektonController.GENERATION_ID_LABEL, generationRecord.id()))
+                .thenReturn(labeledMock);
+        when(labeledMock.list()).thenReturn(taskRunListMock);
+        when(taskRunListMock.getItems()).thenReturn(List.of(taskRun));
+        when(sbomerClientMock.getGeneration(generationRecord.id())).thenReturn(generationRecord);
+
+        // The TaskRun is still running, so the generation is not updated
+        syftGenerator.handle(taskRun);
+        syftGenerator.handle(taskRun);
+
+        verify(sbomerClientMock, times(1)).getGeneration(generationRecord.id());
+        verify(taskRunListMock, times(2)).getItems();
+    }
+
     @Test
     void testOomTask() throws ParseException {
         GenerationRecord generationRecord = createGenerationRecord();
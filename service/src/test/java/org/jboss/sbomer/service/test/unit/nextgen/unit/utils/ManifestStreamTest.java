@@ -0,0 +1,103 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.service.test.unit.nextgen.unit.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.jboss.sbomer.core.errors.ApplicationException;
+import org.jboss.sbomer.core.features.sbom.utils.ObjectMapperProvider;
+import org.jboss.sbomer.service.nextgen.core.utils.ManifestStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+
+class ManifestStreamTest {
+
+    @TempDir
+    Path tempDir;
+
+    private static List<JsonNode> readAll(InputStream stream) throws IOException {
+        try (stream; MappingIterator<JsonNode> boms = ManifestStream.read(stream)) {
+            return boms.readAll();
+        }
+    }
+
+    private static JsonNode bom(String serialNumber) {
+        return ObjectMapperProvider.json()
+                .createObjectNode()
+                .put("bomFormat", "CycloneDX")
+                .put("serialNumber", serialNumber);
+    }
+
+    @Test
+    void testStreamFromBoms() throws IOException {
+        List<JsonNode> boms = List.of(bom("urn:uuid:1"), bom("urn:uuid:2"), bom("urn:uuid:3"));
+
+        assertEquals(boms, readAll(ManifestStream.fromBoms(boms)));
+    }
+
+    @Test
+    void testStreamFromPrettyPrintedFiles() throws IOException {
+        Path first = tempDir.resolve("first.json");
+        Path second = tempDir.resolve("second.json");
+
+        Files.writeString(
+                first,
+                ObjectMapperProvider.json().writerWithDefaultPrettyPrinter().writeValueAsString(bom("1")));
+        // No trailing new line
+        Files.writeString(second, ObjectMapperProvider.json().writeValueAsString(bom("2")));
+
+        assertEquals(List.of(bom("1"), bom("2")), readAll(ManifestStream.fromPaths(List.of(first, second))));
+    }
+
+    @Test
+    void testEmptyStream() throws IOException {
+        assertEquals(List.of(), readAll(ManifestStream.fromBoms(List.of())));
+    }
+
+    @Test
+    void testFailOnEmptyFile() throws IOException {
+        Path empty = Files.createFile(tempDir.resolve("empty.json"));
+
+        ApplicationException ex = assertThrows(
+                ApplicationException.class,
+                () -> ManifestStream.fromPaths(List.of(empty)));
+
+        assertEquals("Manifest at path '" + empty.toAbsolutePath() + "' is empty", ex.getMessage());
+    }
+
+    @Test
+    void testFailOnMissingFile() {
+        Path missing = tempDir.resolve("missing.json");
+
+        ApplicationException ex = assertThrows(
+                ApplicationException.class,
+                () -> ManifestStream.fromPaths(List.of(missing)));
+
+        assertEquals("Could not read the manifest at '" + missing.toAbsolutePath() + "'", ex.getMessage());
+    }
+}
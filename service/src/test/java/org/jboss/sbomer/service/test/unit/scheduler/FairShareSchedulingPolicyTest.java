@@ -0,0 +1,206 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.service.test.unit.scheduler;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.jboss.sbomer.service.scheduler.FairShareSchedulingPolicy;
+import org.jboss.sbomer.service.scheduler.GenerationDurations;
+import org.jboss.sbomer.service.scheduler.GenerationSchedulerConfig;
+import org.jboss.sbomer.service.scheduler.GenerationSchedulerConfig.FairShareConfig;
+import org.jboss.sbomer.service.scheduler.SchedulingCandidate;
+import org.jboss.sbomer.service.scheduler.SchedulingLoad;
+import org.junit.jupiter.api.BeforeEach;
+import org.jboss.sbomer.service.test.unit.scheduler.SchedulingSimulator.Arrival;
+import org.jboss.sbomer.service.test.unit.scheduler.SchedulingSimulator.Result;
+import org.junit.jupiter.api.Test;
+
+class FairShareSchedulingPolicyTest {
+
+    FairShareConfig fairShareConfig;
+
+    GenerationDurations durations;
+
+    FairShareSchedulingPolicy policy;
+
+    List<SchedulingCandidate> candidates;
+
+    @BeforeEach
+    void beforeEach() {
+        fairShareConfig = mock(FairShareConfig.class);
+
+        when(fairShareConfig.enabled()).thenReturn(true);
+        when(fairShareConfig.candidates()).thenReturn(100);
+        when(fairShareConfig.maxPerRequest()).thenReturn(Optional.empty());
+        when(fairShareConfig.maxPerType()).thenReturn(Map.of());
+        when(fairShareConfig.priorities()).thenReturn(Map.of());
+        when(fairShareConfig.weights()).thenReturn(Map.of());
+
+        GenerationSchedulerConfig schedulerConfig = mock(GenerationSchedulerConfig.class);
+        when(schedulerConfig.fairShare()).thenReturn(fairShareConfig);
+
+        durations = new GenerationDurations();
+        policy = new FairShareSchedulingPolicy(schedulerConfig, durations);
+        candidates = new ArrayList<>();
+    }
+
+    private void candidate(String id, String type, String source, String kind) {
+        candidates.add(new SchedulingCandidate(id, type, source, kind, Instant.ofEpochSecond(candidates.size())));
+    }
+
+    private List<String> admit(SchedulingLoad load, int capacity) {
+        return policy.admit(candidates, load, capacity).stream().map(SchedulingCandidate::id).toList();
+    }
+
+    @Test
+    void shouldAdmitOldestWhenDisabled() {
+        when(fairShareConfig.enabled()).thenReturn(false);
+
+        candidate("A1", "BREW_RPM", "A", "UMB");
+        candidate("A2", "BREW_RPM", "A", "UMB");
+        candidate("B1", "CONTAINERIMAGE", "B", "REST");
+
+        assertEquals(List.of("A1", "A2"), admit(SchedulingLoad.empty(), 2));
+    }
+
+    @Test
+    void shouldShareAcrossRequests() {
+        for (int i = 1; i <= 5; i++) {
+            candidate("A" + i, "BREW_RPM", "A", "UMB");
+        }
+
+        candidate("B1", "CONTAINERIMAGE", "B", "REST");
+        candidate("C1", "BUILD", "C", "UMB");
+
+        assertEquals(List.of("A1", "B1", "C1", "A2"), admit(SchedulingLoad.empty(), 4));
+    }
+
+    @Test
+    void shouldTakeGenerationsInProgressIntoAccount() {
+        candidate("A1", "BREW_RPM", "A", "UMB");
+        candidate("A2", "BREW_RPM", "A", "UMB");
+        candidate("B1", "BUILD", "B", "UMB");
+        candidate("B2", "BUILD", "B", "UMB");
+
+        assertEquals(
+                List.of("B1", "B2"),
+                admit(new SchedulingLoad(Map.of("A", Map.of("BREW_RPM", 2L))), 2));
+    }
+
+    @Test
+    void shouldRespectQuotas() {
+        when(fairShareConfig.maxPerType()).thenReturn(Map.of("BREW_RPM", 3));
+        when(fairShareConfig.maxPerRequest()).thenReturn(Optional.of(2));
+
+        candidate("A1", "BREW_RPM", "A", "UMB");
+        candidate("A2", "BREW_RPM", "A", "UMB");
+        candidate("B1", "BREW_RPM", "B", "UMB");
+        candidate("B2", "BREW_RPM", "B", "UMB");
+        candidate("C1", "BUILD", "C", "UMB");
+        candidate("C2", "BUILD", "C", "UMB");
+        candidate("C3", "BUILD", "C", "UMB");
+
+        // 2 BREW_RPM generations are in progress already, the request C can have 2 generations at most
+        assertEquals(
+                List.of("A1", "C1", "C2"),
+                admit(new SchedulingLoad(Map.of("D", Map.of("BREW_RPM", 2L))), 10));
+    }
+
+    @Test
+    void shouldAdmitHigherPriorityFirst() {
+        when(fairShareConfig.priorities()).thenReturn(Map.of("BUILD", 10));
+
+        candidate("A1", "BREW_RPM", "A", "UMB");
+        candidate("B1", "CONTAINERIMAGE", "B", "REST");
+        candidate("C1", "BREW_RPM", "C", "UMB");
+        candidate("C2", "BUILD", "C", "UMB");
+
+        assertEquals(List.of("C2", "A1"), admit(SchedulingLoad.empty(), 2));
+    }
+
+    @Test
+    void shouldWeightRequests() {
+        when(fairShareConfig.weights()).thenReturn(Map.of("REST", 2));
+
+        for (int i = 1; i <= 4; i++) {
+            candidate("A" + i, "BREW_RPM", "A", "UMB");
+            candidate("B" + i, "CONTAINERIMAGE", "B", "REST");
+        }
+
+        assertEquals(List.of("A1", "B1", "B2", "A2", "B3", "B4"), admit(SchedulingLoad.empty(), 6));
+    }
+
+    @Test
+    void shouldWeightSharesByObservedDurations() {
+        candidate("A1", "BREW_RPM", "A", "UMB");
+        candidate("B1", "CONTAINERIMAGE", "B", "UMB");
+        candidate("A2", "BREW_RPM", "A", "UMB");
+        candidate("B2", "CONTAINERIMAGE", "B", "UMB");
+        candidate("A3", "BREW_RPM", "A", "UMB");
+        candidate("B3", "CONTAINERIMAGE", "B", "UMB");
+        candidate("B4", "CONTAINERIMAGE", "B", "UMB");
+
+        // Not observed yet, all generations count the same
+        when(fairShareConfig.adaptive()).thenReturn(true);
+        assertEquals(List.of("A1", "B1", "A2", "B2", "A3"), admit(SchedulingLoad.empty(), 5));
+
+        // BREW_RPM generations take 4 times longer, these count 1.6 against 0.4
+        durations.record("BREW_RPM", Duration.ofMinutes(10));
+        durations.record("CONTAINERIMAGE", Duration.ofSeconds(150));
+
+        assertEquals(List.of("A1", "B1", "B2", "B3", "B4"), admit(SchedulingLoad.empty(), 5));
+
+        // Unless disabled
+        when(fairShareConfig.adaptive()).thenReturn(false);
+        assertEquals(List.of("A1", "B1", "A2", "B2", "A3"), admit(SchedulingLoad.empty(), 5));
+    }
+
+    @Test
+    void shouldReduceWaitingOfSmallRequestsInReplayedTrace() {
+        when(fairShareConfig.adaptive()).thenReturn(true);
+
+        List<Arrival> trace = SchedulingSimulator.load("scheduler/advisory-burst-trace.csv");
+        SchedulingSimulator simulator = new SchedulingSimulator(20, 10, 100, 15, durations);
+
+        Result fairShare = simulator.run(trace, policy);
+
+        when(fairShareConfig.enabled()).thenReturn(false);
+
+        Result fifo = simulator.run(trace, policy);
+
+        for (String request : List.of("MANUAL1", "MANUAL2", "MANUAL3", "BUILD1", "BUILD2")) {
+            assertTrue(
+                    fairShare.meanWait().get(request) * 5 < fifo.meanWait().get(request),
+                    "Generations of " + request + " waited " + fairShare.meanWait().get(request) + "s with fair share, "
+                            + fifo.meanWait().get(request) + "s in FIFO order");
+        }
+
+        // Everything is still done at about the same time
+        assertTrue(fairShare.makespan() <= fifo.makespan() + 300);
+    }
+}
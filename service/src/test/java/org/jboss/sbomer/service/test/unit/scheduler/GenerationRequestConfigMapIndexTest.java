@@ -0,0 +1,255 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.service.test.unit.scheduler;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.sbomer.service.feature.sbom.k8s.model.SbomGenerationStatus;
+import org.jboss.sbomer.service.feature.sbom.k8s.resources.Labels;
+import org.jboss.sbomer.service.leader.LeadershipChangedEvent;
+import org.jboss.sbomer.service.scheduler.GenerationDurations;
+import org.jboss.sbomer.service.scheduler.GenerationRequestConfigMapIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import io.fabric8.kubernetes.api.model.ConfigMap;
+import io.fabric8.kubernetes.api.model.ConfigMapBuilder;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.informers.ResourceEventHandler;
+import io.fabric8.kubernetes.client.informers.SharedIndexInformer;
+import io.fabric8.kubernetes.client.informers.cache.Indexer;
+
+class GenerationRequestConfigMapIndexTest {
+
+    static final String NAME = "sbom-request-gen1";
+
+    // ConfigMaps received by the informer, by name
+    Map<String, ConfigMap> received;
+
+    SharedIndexInformer<ConfigMap> informer;
+
+    ResourceEventHandler<ConfigMap> handler;
+
+    GenerationDurations durations;
+
+    GenerationRequestConfigMapIndex index;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void beforeEach() {
+        received = new HashMap<>();
+
+        Indexer<ConfigMap> indexer = mock(Indexer.class);
+        when(indexer.list()).thenAnswer(invocation -> new ArrayList<>(received.values()));
+        when(indexer.getByKey(anyString()))
+                .thenAnswer(invocation -> received.get(invocation.getArgument(0, String.class).substring(5)));
+        when(indexer.byIndex(eq("status"), anyString())).thenAnswer(
+                invocation -> received.values()
+                        .stream()
+                        .filter(
+                                cm -> invocation.getArgument(1, String.class)
+                                        .equals(cm.getMetadata().getLabels().get(Labels.LABEL_STATUS)))
+                        .toList());
+
+        informer = mock(SharedIndexInformer.class);
+        when(informer.getStore()).thenReturn(indexer);
+        when(informer.getIndexer()).thenReturn(indexer);
+        when(informer.start()).thenReturn(CompletableFuture.completedFuture(null));
+        when(informer.isRunning()).thenReturn(true);
+        when(informer.hasSynced()).thenReturn(true);
+
+        KubernetesClient kubernetesClient = mock(KubernetesClient.class, RETURNS_DEEP_STUBS);
+        when(kubernetesClient.getNamespace()).thenReturn("test");
+        when(kubernetesClient.configMaps().withLabel(Labels.LABEL_TYPE, "generation-request").runnableInformer(0))
+                .thenReturn(informer);
+
+        durations = new GenerationDurations();
+        index = new GenerationRequestConfigMapIndex(kubernetesClient, durations);
+        index.start();
+
+        ArgumentCaptor<ResourceEventHandler<ConfigMap>> handlerCaptor = ArgumentCaptor
+                .forClass(ResourceEventHandler.class);
+        verify(informer).addEventHandler(handlerCaptor.capture());
+        handler = handlerCaptor.getValue();
+    }
+
+    private static ConfigMap configMap(SbomGenerationStatus status) {
+        return new ConfigMapBuilder().withNewMetadata()
+                .withName(NAME)
+                .withCreationTimestamp(Instant.now().minusSeconds(120).toString())
+                .withLabels(
+                        Map.of(
+                                Labels.LABEL_TYPE,
+                                "generation-request",
+                                Labels.LABEL_GENERATION_REQUEST_TYPE,
+                                "brew-rpm",
+                                Labels.LABEL_STATUS,
+                                status.name()))
+                .endMetadata()
+                .build();
+    }
+
+    @Test
+    void shouldCountCreatedConfigMapsUntilReceived() {
+        assertEquals(OptionalInt.of(0), index.countInProgress());
+
+        index.created(NAME);
+
+        // Not received by the informer yet
+        assertEquals(OptionalInt.of(1), index.countInProgress());
+        assertEquals(Optional.of(true), index.exists(NAME));
+
+        ConfigMap configMap = configMap(SbomGenerationStatus.GENERATING);
+        received.put(NAME, configMap);
+        handler.onAdd(configMap);
+
+        assertEquals(OptionalInt.of(1), index.countInProgress());
+
+        ConfigMap finished = configMap(SbomGenerationStatus.FINISHED);
+        received.put(NAME, finished);
+        handler.onUpdate(configMap, finished);
+
+        assertEquals(OptionalInt.of(0), index.countInProgress());
+    }
+
+    @Test
+    void shouldRecordDurationOfFinishedGenerations() {
+        ConfigMap generating = configMap(SbomGenerationStatus.GENERATING);
+        handler.onUpdate(configMap(SbomGenerationStatus.SCHEDULED), generating);
+
+        assertTrue(durations.average("BREW_RPM").isEmpty());
+
+        handler.onUpdate(generating, configMap(SbomGenerationStatus.FINISHED));
+
+        Duration average = durations.average("BREW_RPM").orElseThrow();
+        assertTrue(average.compareTo(Duration.ofSeconds(120)) >= 0 && average.compareTo(Duration.ofSeconds(130)) < 0);
+
+        // Recorded once, when the generation finished
+        handler.onUpdate(configMap(SbomGenerationStatus.FINISHED), configMap(SbomGenerationStatus.FINISHED));
+
+        assertEquals(average, durations.average("BREW_RPM").orElseThrow());
+    }
+
+    @Test
+    void shouldNotCountReceivedConfigMapsTwice() {
+        index.created(NAME);
+
+        // Received by the informer before it was registered, without the notification handled yet
+        received.put(NAME, configMap(SbomGenerationStatus.GENERATING));
+
+        assertEquals(OptionalInt.of(1), index.countInProgress());
+
+        index.created(NAME);
+
+        assertEquals(OptionalInt.of(1), index.countInProgress());
+    }
+
+    @Test
+    void shouldStopWhenLeadershipIsLost() {
+        index.created(NAME);
+
+        index.onLeadershipChanged(new LeadershipChangedEvent(true));
+
+        verify(informer, never()).close();
+        assertTrue(index.isSynced());
+
+        index.onLeadershipChanged(new LeadershipChangedEvent(false));
+
+        verify(informer).close();
+        assertFalse(index.isSynced());
+        assertEquals(OptionalInt.empty(), index.countInProgress());
+        assertEquals(Optional.empty(), index.exists(NAME));
+
+        // Started again by the next leader run, without the ConfigMaps registered before
+        index.start();
+
+        assertEquals(OptionalInt.of(0), index.countInProgress());
+    }
+
+    @Test
+    void shouldNotRegisterCreatedConfigMapsWhenNotStarted() {
+        index.stop();
+        index.created(NAME);
+        index.start();
+
+        assertEquals(OptionalInt.of(0), index.countInProgress());
+    }
+
+    @Test
+    void shouldNotBeUsedUntilSynced() {
+        when(informer.hasSynced()).thenReturn(false);
+
+        assertFalse(index.isSynced());
+        assertEquals(OptionalInt.empty(), index.countInProgress());
+        assertEquals(Optional.empty(), index.exists(NAME));
+    }
+
+    @Test
+    void shouldNotBeReadWhileStopping() throws Exception {
+        CountDownLatch closing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        doAnswer(invocation -> {
+            closing.countDown();
+            assertTrue(release.await(10, TimeUnit.SECONDS));
+            return null;
+        }).when(informer).close();
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        try {
+            Future<?> stopped = executor.submit(() -> index.stop());
+
+            assertTrue(closing.await(10, TimeUnit.SECONDS));
+
+            // Waits for the informer to be closed, then reports the index as not synced
+            Future<OptionalInt> count = executor.submit(() -> index.countInProgress());
+            release.countDown();
+
+            stopped.get(10, TimeUnit.SECONDS);
+            assertEquals(OptionalInt.empty(), count.get(10, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
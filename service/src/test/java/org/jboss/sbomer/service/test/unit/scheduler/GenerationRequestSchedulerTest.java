@@ -1,6 +1,7 @@
 package org.jboss.sbomer.service.test.unit.scheduler;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
@@ -14,9 +15,20 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
+import java.time.Duration;
 import java.util.Collections;
 import java.util.List;
-
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.microprofile.context.ManagedExecutor;
 import org.jboss.sbomer.core.features.sbom.enums.GenerationRequestType;
 import org.jboss.sbomer.service.feature.sbom.k8s.model.GenerationRequest;
 import org.jboss.sbomer.service.feature.sbom.k8s.model.GenerationRequestBuilder;
@@ -24,8 +36,13 @@ import org.jboss.sbomer.service.feature.sbom.k8s.model.SbomGenerationStatus;
 import org.jboss.sbomer.service.feature.sbom.model.SbomGenerationRequest;
 import org.jboss.sbomer.service.feature.sbom.service.SbomGenerationRequestRepository;
 import org.jboss.sbomer.service.leader.LeaderManager;
+import org.jboss.sbomer.service.scheduler.FairShareSchedulingPolicy;
+import org.jboss.sbomer.service.scheduler.GenerationDurations;
+import org.jboss.sbomer.service.scheduler.GenerationRequestConfigMapIndex;
 import org.jboss.sbomer.service.scheduler.GenerationRequestScheduler;
 import org.jboss.sbomer.service.scheduler.GenerationSchedulerConfig;
+import org.jboss.sbomer.service.scheduler.GenerationSchedulerConfig.FairShareConfig;
+import org.jboss.sbomer.service.scheduler.GenerationSchedulingListener;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
@@ -48,6 +65,10 @@ public class GenerationRequestSchedulerTest {
 
     SbomGenerationRequestRepository requestRepository;
 
+    GenerationRequestConfigMapIndex configMapIndex;
+
+    GenerationSchedulingListener schedulingListener;
+
     @BeforeEach
     void beforeEach() {
         GenerationSchedulerConfig schedulerConfig = mock(GenerationSchedulerConfig.class);
@@ -55,14 +76,40 @@ public class GenerationRequestSchedulerTest {
         when(schedulerConfig.maxConcurrentGenerations()).thenReturn(5);
         when(schedulerConfig.syncInterval()).thenReturn("10s");
         when(schedulerConfig.syncBatch()).thenReturn(5);
+        when(schedulerConfig.safetyNetInterval()).thenReturn(Duration.ofSeconds(60));
+
+        // Admit the oldest generations first
+        FairShareConfig fairShareConfig = mock(FairShareConfig.class);
+        when(schedulerConfig.fairShare()).thenReturn(fairShareConfig);
 
         this.leaderManager = mock(LeaderManager.class);
 
         requestRepository = mock(SbomGenerationRequestRepository.class);
 
+        // Not synced by default, the cluster is queried directly
+        this.configMapIndex = mock(GenerationRequestConfigMapIndex.class);
+
+        // Run the tasks in the calling thread
+        ManagedExecutor executor = mock(ManagedExecutor.class);
+        when(executor.runAsync(any())).thenAnswer(invocation -> {
+            invocation.getArgument(0, Runnable.class).run();
+            return CompletableFuture.completedFuture(null);
+        });
+
+        // Not receiving database notifications by default
+        this.schedulingListener = mock(GenerationSchedulingListener.class);
+
         this.kubernetesClient = mock(KubernetesClient.class, RETURNS_DEEP_STUBS);
         this.scheduler = spy(
-                new GenerationRequestScheduler(requestRepository, kubernetesClient, schedulerConfig, leaderManager));
+                new GenerationRequestScheduler(
+                        requestRepository,
+                        kubernetesClient,
+                        schedulerConfig,
+                        leaderManager,
+                        configMapIndex,
+                        executor,
+                        new FairShareSchedulingPolicy(schedulerConfig, new GenerationDurations()),
+                        schedulingListener));
 
     }
 
@@ -74,6 +121,82 @@ public class GenerationRequestSchedulerTest {
 
         verifyNoInteractions(kubernetesClient);
         verifyNoInteractions(requestRepository);
+        verifyNoInteractions(configMapIndex);
+    }
+
+    @Test
+    void shouldNotOverlapRuns() throws Exception {
+        when(leaderManager.isLeader()).thenReturn(true);
+
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger active = new AtomicInteger();
+        AtomicInteger maxActive = new AtomicInteger();
+
+        // The first run waits until released, no capacity so that nothing is fetched
+        when(configMapIndex.countInProgress()).thenAnswer(invocation -> {
+            maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+
+            try {
+                started.countDown();
+                assertTrue(release.await(10, TimeUnit.SECONDS));
+                return OptionalInt.of(10);
+            } finally {
+                active.decrementAndGet();
+            }
+        });
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        try {
+            Future<?> notified = executor.submit(() -> scheduler.scheduleGenerations());
+
+            assertTrue(started.await(10, TimeUnit.SECONDS));
+
+            // Both requested while the first run is in progress, coalesced into a single run done after it
+            scheduler.scheduleGenerationsPeriodically();
+            scheduler.scheduleGenerations();
+
+            verify(configMapIndex, times(1)).countInProgress();
+
+            release.countDown();
+            notified.get(10, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        verify(configMapIndex, times(2)).countInProgress();
+        assertEquals(1, maxActive.get());
+    }
+
+    @Test
+    void shouldSkipPeriodicRunsWhileListening() {
+        when(leaderManager.isLeader()).thenReturn(false);
+        when(schedulingListener.isListening()).thenReturn(true);
+
+        scheduler.scheduleGenerations();
+        scheduler.scheduleGenerationsPeriodically();
+
+        // The last run is recent enough
+        verify(leaderManager, times(1)).isLeader();
+
+        when(schedulingListener.isListening()).thenReturn(false);
+
+        scheduler.scheduleGenerationsPeriodically();
+
+        verify(leaderManager, times(2)).isLeader();
+    }
+
+    @Test
+    void shouldNotSyncIfThereIsNoCapacityInSyncedIndex() {
+        when(leaderManager.isLeader()).thenReturn(true);
+        when(configMapIndex.countInProgress()).thenReturn(OptionalInt.of(10));
+
+        scheduler.scheduleGenerations();
+
+        verify(configMapIndex).start();
+        verifyNoInteractions(kubernetesClient);
+        verifyNoInteractions(requestRepository);
     }
 
     @Test
@@ -140,7 +263,7 @@ public class GenerationRequestSchedulerTest {
 
         when(
                 em.createNativeQuery(
-                        "SELECT * FROM sbom_generation_request WHERE status = 'NEW' ORDER BY creation_time ASC FOR UPDATE SKIP LOCKED LIMIT 5",
+                        "SELECT * FROM sbom_generation_request WHERE status = 'NEW' ORDER BY creation_time ASC FOR UPDATE SKIP LOCKED LIMIT 4",
                         SbomGenerationRequest.class))
                 .thenReturn(query);
 
@@ -169,7 +292,11 @@ public class GenerationRequestSchedulerTest {
                 .thenReturn(watchList);
 
         SbomGenerationRequest req1 = new SbomGenerationRequest();
+        req1.setId("GEN1");
+        req1.setType(GenerationRequestType.BUILD);
         SbomGenerationRequest req2 = new SbomGenerationRequest();
+        req2.setId("GEN2");
+        req2.setType(GenerationRequestType.BUILD);
 
         EntityManager em = mock(EntityManager.class);
         when(requestRepository.getEntityManager()).thenReturn(em);
@@ -179,7 +306,7 @@ public class GenerationRequestSchedulerTest {
 
         when(
                 em.createNativeQuery(
-                        "SELECT * FROM sbom_generation_request WHERE status = 'NEW' ORDER BY creation_time ASC FOR UPDATE SKIP LOCKED LIMIT 5",
+                        "SELECT * FROM sbom_generation_request WHERE status = 'NEW' ORDER BY creation_time ASC FOR UPDATE SKIP LOCKED LIMIT 4",
                         SbomGenerationRequest.class))
                 .thenReturn(query);
 
@@ -220,4 +347,18 @@ public class GenerationRequestSchedulerTest {
         assertEquals("ANALYSISID", cmRequest.getIdentifier());
     }
 
+    @Test
+    void shouldNotScheduleIfConfigMapExistsInSyncedIndex() {
+        var request = new SbomGenerationRequest();
+        request.setId("GEN1");
+        request.setType(GenerationRequestType.ANALYSIS);
+        request.setIdentifier("ANALYSISID");
+
+        when(configMapIndex.exists("sbom-request-gen1")).thenReturn(Optional.of(true));
+
+        scheduler.schedule(request);
+
+        verifyNoInteractions(kubernetesClient);
+    }
+
 }
\ No newline at end of file
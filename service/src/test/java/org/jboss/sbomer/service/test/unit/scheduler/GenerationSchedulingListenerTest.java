@@ -0,0 +1,179 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.service.test.unit.scheduler;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.eclipse.microprofile.context.ManagedExecutor;
+import org.jboss.sbomer.service.scheduler.GenerationSchedulerConfig;
+import org.jboss.sbomer.service.scheduler.GenerationSchedulingEvent;
+import org.jboss.sbomer.service.scheduler.GenerationSchedulingEvent.Target;
+import org.jboss.sbomer.service.scheduler.GenerationSchedulingListener;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+
+import jakarta.enterprise.event.Event;
+
+class GenerationSchedulingListenerTest {
+
+    List<Runnable> queued;
+
+    Event<GenerationSchedulingEvent> schedulingEvent;
+
+    GenerationSchedulingListener listener;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void beforeEach() {
+        queued = new ArrayList<>();
+
+        // Queue the tasks, to be run by the test
+        ManagedExecutor executor = mock(ManagedExecutor.class);
+        when(executor.runAsync(any())).thenAnswer(invocation -> {
+            queued.add(invocation.getArgument(0, Runnable.class));
+            return new CompletableFuture<Void>();
+        });
+
+        schedulingEvent = mock(Event.class);
+
+        listener = new GenerationSchedulingListener(
+                mock(DataSource.class),
+                mock(GenerationSchedulerConfig.class),
+                executor,
+                schedulingEvent);
+    }
+
+    @Test
+    void shouldCoalesceNotificationsWhileRunIsQueued() {
+        listener.onNotification("sbom_generation_request");
+        listener.onNotification("sbom_generation_request");
+        listener.onNotification("generation");
+
+        assertEquals(2, queued.size());
+
+        queued.forEach(Runnable::run);
+
+        verify(schedulingEvent).fire(new GenerationSchedulingEvent(Target.GENERATION_REQUEST));
+        verify(schedulingEvent).fire(new GenerationSchedulingEvent(Target.GENERATION));
+
+        // The queued run was done, a new change needs a new run
+        listener.onNotification("sbom_generation_request");
+
+        assertEquals(3, queued.size());
+
+        queued.get(2).run();
+
+        verify(schedulingEvent, times(2)).fire(new GenerationSchedulingEvent(Target.GENERATION_REQUEST));
+    }
+
+    @Test
+    void shouldReconnectWhenConnectionIsLost() throws SQLException {
+        GenerationSchedulerConfig config = mock(GenerationSchedulerConfig.class);
+        when(config.reconnectDelay()).thenReturn(Duration.ofMillis(10));
+
+        // Run the tasks in the listener thread
+        ManagedExecutor executor = mock(ManagedExecutor.class);
+        when(executor.runAsync(any())).thenAnswer(invocation -> {
+            invocation.getArgument(0, Runnable.class).run();
+            return CompletableFuture.completedFuture(null);
+        });
+
+        PGNotification notification = mock(PGNotification.class);
+        when(notification.getParameter()).thenReturn("sbom_generation_request");
+
+        BlockingQueue<PGNotification[]> notifications = new LinkedBlockingQueue<>();
+
+        PGConnection pgConnection = mock(PGConnection.class);
+        when(pgConnection.getNotifications(anyInt()))
+                .thenReturn(new PGNotification[] { notification })
+                .thenThrow(new SQLException("Connection lost"))
+                .thenAnswer(invocation -> {
+                    // Wait for notifications like the driver does
+                    try {
+                        return notifications.poll(invocation.getArgument(0, Integer.class), TimeUnit.MILLISECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return null;
+                    }
+                });
+
+        Connection connection = mock(Connection.class);
+        when(connection.createStatement()).thenReturn(mock(Statement.class));
+        when(connection.unwrap(PGConnection.class)).thenReturn(pgConnection);
+
+        DataSource dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenThrow(new SQLException("Connection refused")).thenReturn(connection);
+
+        GenerationSchedulingListener reconnectingListener = new GenerationSchedulingListener(
+                dataSource,
+                config,
+                executor,
+                schedulingEvent);
+
+        reconnectingListener.start();
+
+        try {
+            // Refused, connected, lost and connected again
+            verify(dataSource, timeout(10000).times(3)).getConnection();
+
+            // Catching up after both connections, and the notification
+            verify(schedulingEvent, timeout(10000).times(3))
+                    .fire(new GenerationSchedulingEvent(Target.GENERATION_REQUEST));
+            verify(schedulingEvent, timeout(10000).times(2)).fire(new GenerationSchedulingEvent(Target.GENERATION));
+
+            assertTrue(reconnectingListener.isListening());
+        } finally {
+            reconnectingListener.stop();
+        }
+
+        assertFalse(reconnectingListener.isListening());
+    }
+
+    @Test
+    void shouldIgnoreUnknownTables() {
+        listener.onNotification("sbom");
+
+        assertEquals(0, queued.size());
+        verify(schedulingEvent, never()).fire(any());
+    }
+}
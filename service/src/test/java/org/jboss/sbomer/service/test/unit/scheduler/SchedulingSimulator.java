@@ -0,0 +1,261 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.service.test.unit.scheduler;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+import org.jboss.sbomer.service.scheduler.GenerationDurations;
+import org.jboss.sbomer.service.scheduler.SchedulingCandidate;
+import org.jboss.sbomer.service.scheduler.SchedulingLoad;
+import org.jboss.sbomer.service.scheduler.SchedulingPolicy;
+
+/**
+ * <p>
+ * Replays a recorded trace of generation arrivals against a {@link SchedulingPolicy}, mimicking the periodic runs of
+ * the scheduler, and reports how long generations of each request waited to be scheduled.
+ * </p>
+ *
+ * <p>
+ * Meant to check a policy and its configuration against the arrivals seen in a deployment before rolling it out. The
+ * durations of finished generations are recorded in the given {@link GenerationDurations}, like the cluster does, so
+ * that an adaptive policy sharing it learns from them.
+ * </p>
+ */
+public class SchedulingSimulator {
+
+    /**
+     * A generation arriving.
+     *
+     * @param at the arrival time, in seconds
+     * @param request the identifier of the request the generation belongs to
+     * @param kind the request event type
+     * @param type the generation type
+     * @param duration the time the generation takes once scheduled, in seconds
+     */
+    public record Arrival(long at, String request, String kind, String type, long duration) {
+    }
+
+    /**
+     * @param meanWait mean time between the arrival and the scheduling of generations, in seconds, by request
+     * @param makespan time when the last generation finished, in seconds
+     */
+    public record Result(Map<String, Double> meanWait, long makespan) {
+    }
+
+    private record Running(Arrival arrival, long end) {
+    }
+
+    private final int maxConcurrentGenerations;
+
+    private final int syncBatch;
+
+    private final int candidatesLimit;
+
+    private final long interval;
+
+    private final GenerationDurations durations;
+
+    /**
+     * @param maxConcurrentGenerations see {@link GenerationSchedulerConfig#maxConcurrentGenerations()}
+     * @param syncBatch see {@link GenerationSchedulerConfig#syncBatch()}
+     * @param candidatesLimit see {@link GenerationSchedulerConfig.FairShareConfig#candidates()}
+     * @param interval the time between two scheduler runs, in seconds
+     * @param durations where the durations of the finished generations are recorded
+     */
+    public SchedulingSimulator(
+            int maxConcurrentGenerations,
+            int syncBatch,
+            int candidatesLimit,
+            long interval,
+            GenerationDurations durations) {
+        this.maxConcurrentGenerations = maxConcurrentGenerations;
+        this.syncBatch = syncBatch;
+        this.candidatesLimit = candidatesLimit;
+        this.interval = interval;
+        this.durations = durations;
+    }
+
+    /**
+     * Reads a trace from the classpath, see {@link #read(Reader)}.
+     */
+    public static List<Arrival> load(String resource) {
+        try (Reader reader = new InputStreamReader(
+                Objects.requireNonNull(
+                        SchedulingSimulator.class.getClassLoader().getResourceAsStream(resource),
+                        "Trace '" + resource + "' not found"),
+                StandardCharsets.UTF_8)) {
+            return read(reader);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Reads a trace. Every line contains the arrival time (in seconds), the request identifier, the request event
+     * type, the generation type, the duration of the generation (in seconds) and the number of such generations. Lines
+     * starting with {@code #} are ignored.
+     *
+     * @param trace the trace
+     * @return the arrivals, by the arrival time
+     */
+    public static List<Arrival> read(Reader trace) {
+        List<Arrival> arrivals = new ArrayList<>();
+
+        try (BufferedReader reader = new BufferedReader(trace)) {
+            String line;
+
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank() || line.startsWith("#")) {
+                    continue;
+                }
+
+                String[] fields = line.split(",");
+
+                for (int i = 0; i < Integer.parseInt(fields[5].trim()); i++) {
+                    arrivals.add(
+                            new Arrival(
+                                    Long.parseLong(fields[0].trim()),
+                                    fields[1].trim(),
+                                    fields[2].trim(),
+                                    fields[3].trim(),
+                                    Long.parseLong(fields[4].trim())));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        arrivals.sort(Comparator.comparingLong(Arrival::at));
+
+        return arrivals;
+    }
+
+    /**
+     * Replays the trace.
+     *
+     * @param trace the arrivals, by the arrival time
+     * @param policy the policy admitting generations
+     * @return the waiting times of the generations
+     */
+    public Result run(List<Arrival> trace, SchedulingPolicy policy) {
+        List<Arrival> pending = new ArrayList<>(trace);
+        Map<String, Arrival> waiting = new LinkedHashMap<>();
+        List<Running> running = new ArrayList<>();
+        Map<String, List<Long>> waits = new HashMap<>();
+        long makespan = 0;
+        int sequence = 0;
+
+        for (long now = 0; !pending.isEmpty() || !waiting.isEmpty() || !running.isEmpty(); now += interval) {
+            long time = now;
+
+            running.removeIf(r -> {
+                if (r.end() > time) {
+                    return false;
+                }
+
+                durations.record(r.arrival().type(), Duration.ofSeconds(r.arrival().duration()));
+                return true;
+            });
+
+            while (!pending.isEmpty() && pending.get(0).at() <= now) {
+                waiting.put("GEN" + sequence++, pending.remove(0));
+            }
+
+            int capacity = Math.min(syncBatch, maxConcurrentGenerations - running.size());
+
+            if (capacity <= 0 || waiting.isEmpty()) {
+                continue;
+            }
+
+            List<SchedulingCandidate> candidates = candidates(waiting, policy.isFairShare() ? -1 : capacity);
+
+            for (SchedulingCandidate admitted : policy.admit(candidates, load(running), capacity)) {
+                Arrival arrival = waiting.remove(admitted.id());
+
+                running.add(new Running(arrival, now + arrival.duration()));
+                waits.computeIfAbsent(arrival.request(), r -> new ArrayList<>()).add(now - arrival.at());
+                makespan = Math.max(makespan, now + arrival.duration());
+            }
+        }
+
+        return new Result(
+                waits.entrySet()
+                        .stream()
+                        .collect(
+                                Collectors.toMap(
+                                        Map.Entry::getKey,
+                                        e -> e.getValue().stream().mapToLong(Long::longValue).average().orElse(0))),
+                makespan);
+    }
+
+    /**
+     * Selects the candidates like the scheduler query does: the oldest ones, or the oldest ones of each request with
+     * fair share.
+     */
+    private List<SchedulingCandidate> candidates(Map<String, Arrival> waiting, int limit) {
+        Map<String, Integer> perRequest = new HashMap<>();
+        List<SchedulingCandidate> candidates = new ArrayList<>();
+
+        for (Map.Entry<String, Arrival> entry : waiting.entrySet()) {
+            Arrival arrival = entry.getValue();
+
+            if (limit < 0 && perRequest.merge(arrival.request(), 1, Integer::sum) > syncBatch) {
+                continue;
+            }
+
+            candidates.add(
+                    new SchedulingCandidate(
+                            entry.getKey(),
+                            arrival.type(),
+                            arrival.request(),
+                            arrival.kind(),
+                            Instant.ofEpochSecond(arrival.at())));
+
+            if (candidates.size() == (limit < 0 ? candidatesLimit : limit)) {
+                break;
+            }
+        }
+
+        return candidates;
+    }
+
+    private static SchedulingLoad load(List<Running> running) {
+        Map<String, Map<String, Long>> bySourceAndType = new HashMap<>();
+
+        running.forEach(
+                r -> bySourceAndType.computeIfAbsent(r.arrival().request(), s -> new HashMap<>())
+                        .merge(r.arrival().type(), 1L, Long::sum));
+
+        return new SchedulingLoad(bySourceAndType);
+    }
+}
@@ -1,5 +1,7 @@
 package org.jboss.sbomer.service.test.utils;
 
+import java.time.Duration;
+
 import org.jboss.sbomer.service.feature.sbom.config.GenerationRequestControllerConfig;
 
 import io.quarkus.test.Mock;
@@ -19,4 +21,39 @@ public class MockedGenerationRequestControllerConfig implements GenerationReques
         throw new UnsupportedOperationException("Unimplemented method 'cleanup'");
     }
 
+    @Override
+    public ReconcileConfig reconcile() {
+        return new ReconcileConfig() {
+            @Override
+            public int workers() {
+                return 1;
+            }
+
+            @Override
+            public boolean virtualThreads() {
+                return false;
+            }
+
+            @Override
+            public Duration debounce() {
+                return Duration.ofMillis(500);
+            }
+
+            @Override
+            public Duration initialBackoff() {
+                return Duration.ofSeconds(1);
+            }
+
+            @Override
+            public Duration maxBackoff() {
+                return Duration.ofMinutes(5);
+            }
+
+            @Override
+            public int maxRetries() {
+                return 10;
+            }
+        };
+    }
+
 }
\ No newline at end of file
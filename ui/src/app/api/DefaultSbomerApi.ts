@@ -38,6 +38,9 @@ export class DefaultSbomerApi implements SbomerApi {
   private client: Axios;
   private static _instance: DefaultSbomerApi;
 
+  // Cursors to the pages seen so far, per listing URL, so that following pages are fetched with keyset pagination
+  private cursors = new Map<string, Map<number, string>>();
+
   public static getInstance(): SbomerApi {
     if (!DefaultSbomerApi._instance) {
       var sbomerUrl = process.env.REACT_APP_SBOMER_URL;
@@ -76,6 +79,25 @@ export class DefaultSbomerApi implements SbomerApi {
     );
   }
 
+  private paginatedUrl(url: string, pagination: { pageSize: number; pageIndex: number }, count: string): string {
+    const key = `${url}pageSize=${pagination.pageSize}`;
+    const cursor = this.cursors.get(key)?.get(pagination.pageIndex);
+
+    return `${key}&pageIndex=${pagination.pageIndex}&count=${count}${cursor ? `&cursor=${encodeURIComponent(cursor)}` : ''}`;
+  }
+
+  private rememberCursor(url: string, pagination: { pageSize: number; pageIndex: number }, nextCursor?: string) {
+    const key = `${url}pageSize=${pagination.pageSize}`;
+
+    if (!this.cursors.has(key)) {
+      this.cursors.set(key, new Map());
+    }
+
+    if (nextCursor) {
+      this.cursors.get(key)!.set(pagination.pageIndex + 1, nextCursor);
+    }
+  }
+
   async getManifests(
     pagination: { pageSize: number; pageIndex: number },
     queryOption: ManifestsQueryType,
@@ -94,9 +116,8 @@ export class DefaultSbomerApi implements SbomerApi {
     const queryStringValue = isQueryInputInvalid ? '' : `${queryPrefix}=like='%${query}%'`;
     const queryFullString = `${isQueryInputInvalid ? '' : 'query='}${encodeURIComponent(queryStringValue)}${isQueryInputInvalid ? '' : '&'}`;
 
-    const response = await fetch(
-      `${this.baseUrl}/api/v1beta1/manifests?${queryFullString}pageSize=${pagination.pageSize}&pageIndex=${pagination.pageIndex}`,
-    );
+    const url = `${this.baseUrl}/api/v1beta1/manifests?${queryFullString}`;
+    const response = await fetch(this.paginatedUrl(url, pagination, isQueryInputInvalid ? 'estimate' : 'exact'));
 
     if (response.status != 200) {
       const body = await response.text();
@@ -114,6 +135,8 @@ export class DefaultSbomerApi implements SbomerApi {
       });
     }
 
+    this.rememberCursor(url, pagination, data.nextCursor);
+
     return { data: sboms, total: data.totalHits };
   }
 
@@ -182,9 +205,8 @@ export class DefaultSbomerApi implements SbomerApi {
     pageSize: number;
     pageIndex: number;
   }): Promise<{ data: SbomerGeneration[]; total: number }> {
-    const response = await fetch(
-      `${this.baseUrl}/api/v1beta1/generations?pageSize=${pagination.pageSize}&pageIndex=${pagination.pageIndex}`,
-    );
+    const url = `${this.baseUrl}/api/v1beta1/generations?`;
+    const response = await fetch(this.paginatedUrl(url, pagination, 'estimate'));
 
     if (response.status != 200) {
       const body = await response.text();
@@ -204,6 +226,8 @@ export class DefaultSbomerApi implements SbomerApi {
       });
     }
 
+    this.rememberCursor(url, pagination, data.nextCursor);
+
     return { data: requests, total: data.totalHits };
   }
 
@@ -255,9 +279,8 @@ export class DefaultSbomerApi implements SbomerApi {
 
     const queryFullString = queryPrefix == '' ? '' : `${queryPrefix}=${query}`;
 
-    const response = await fetch(
-      `${this.baseUrl}/api/v1beta1/requests/${encodeURIComponent(queryFullString)}?pageSize=${pagination.pageSize}&pageIndex=${pagination.pageIndex}`,
-    );
+    const url = `${this.baseUrl}/api/v1beta1/requests/${encodeURIComponent(queryFullString)}?`;
+    const response = await fetch(this.paginatedUrl(url, pagination, queryPrefix == '' ? 'estimate' : 'exact'));
 
     if (response.status != 200) {
       const body = await response.text();
@@ -276,6 +299,7 @@ export class DefaultSbomerApi implements SbomerApi {
       data.content.forEach((request: any) => {
         requests.push(new SbomerRequest(request));
       });
+      this.rememberCursor(url, pagination, data.nextCursor);
       return { data: requests, total: data.totalHits };
     }
 
@@ -295,15 +319,14 @@ export class DefaultSbomerApi implements SbomerApi {
   }
 
   async getRequestEventGenerations(id: string): Promise<{ data: SbomerGeneration[]; total: number }> {
-    let pageIndex = 0;
-    let totalHits = 0;
+    let cursor: string | undefined = undefined;
     const pageSize = 200;
     const requests: SbomerGeneration[] = [];
 
-    // Loop through pages until all content is retrieved
+    // Follow the cursors until all content is retrieved, the total is the number of generations fetched
     while (true) {
       const response = await fetch(
-        `${this.baseUrl}/api/v1beta1/generations?query=request.id=eq=${id}&sort=creationTime=desc=&pageSize=${pageSize}&pageIndex=${pageIndex}`,
+        `${this.baseUrl}/api/v1beta1/generations?query=request.id=eq=${id}&sort=creationTime=desc=&pageSize=${pageSize}&count=none${cursor ? `&cursor=${encodeURIComponent(cursor)}` : ''}`,
       );
 
       if (response.status !== 200) {
@@ -315,11 +338,6 @@ export class DefaultSbomerApi implements SbomerApi {
 
       const data = await response.json();
 
-      // Update totalHits on first page
-      if (pageIndex === 0) {
-        totalHits = data.totalHits;
-      }
-
       // Add content to the results
       if (data.content) {
         data.content.forEach((request: any) => {
@@ -328,14 +346,14 @@ export class DefaultSbomerApi implements SbomerApi {
       }
 
       // If there is no more content, break the loop
-      if (data.pageIndex >= data.totalPages - 1) {
+      if (!data.nextCursor) {
         break;
       }
 
       // Move to the next page
-      pageIndex++;
+      cursor = data.nextCursor;
     }
 
-    return { data: requests, total: totalHits };
+    return { data: requests, total: requests.length };
   }
 }
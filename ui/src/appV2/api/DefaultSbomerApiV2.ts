@@ -35,6 +35,9 @@ export class DefaultSbomerApiV2 implements SbomerApi {
   private client: Axios;
   private static _instance: DefaultSbomerApiV2;
 
+  // Cursors to the pages seen so far, per listing URL, so that following pages are fetched with keyset pagination
+  private cursors = new Map<string, Map<number, string>>();
+
   public static getInstance(): SbomerApi {
     if (!DefaultSbomerApiV2._instance) {
       var sbomerUrl = process.env.REACT_APP_SBOMER_URL;
@@ -73,12 +76,30 @@ export class DefaultSbomerApiV2 implements SbomerApi {
     );
   }
 
+  private paginatedUrl(url: string, pagination: { pageSize: number; pageIndex: number }): string {
+    const key = `${url}?pageSize=${pagination.pageSize}`;
+    const cursor = this.cursors.get(key)?.get(pagination.pageIndex);
+
+    return `${key}&pageIndex=${pagination.pageIndex}&count=estimate${cursor ? `&cursor=${encodeURIComponent(cursor)}` : ''}`;
+  }
+
+  private rememberCursor(url: string, pagination: { pageSize: number; pageIndex: number }, nextCursor?: string) {
+    const key = `${url}?pageSize=${pagination.pageSize}`;
+
+    if (!this.cursors.has(key)) {
+      this.cursors.set(key, new Map());
+    }
+
+    if (nextCursor) {
+      this.cursors.get(key)!.set(pagination.pageIndex + 1, nextCursor);
+    }
+  }
+
   async getManifests(
     pagination: { pageSize: number; pageIndex: number }
   ): Promise<{ data: SbomerManifest[]; total: number }> {
-    const response = await fetch(
-      `${this.baseUrl}/api/v1beta2/manifests?pageSize=${pagination.pageSize}&pageIndex=${pagination.pageIndex}`,
-    );
+    const url = `${this.baseUrl}/api/v1beta2/manifests`;
+    const response = await fetch(this.paginatedUrl(url, pagination));
 
     if (response.status != 200) {
       const body = await response.text();
@@ -97,6 +118,8 @@ export class DefaultSbomerApiV2 implements SbomerApi {
     }else {
     }
 
+    this.rememberCursor(url, pagination, data.nextCursor);
+
     return { data: sboms, total: data.totalHits };
   }
 
@@ -171,9 +194,8 @@ export class DefaultSbomerApiV2 implements SbomerApi {
     pageSize: number;
     pageIndex: number;
   }): Promise<{ data: SbomerGeneration[]; total: number }> {
-    const response = await fetch(
-      `${this.baseUrl}/api/v1beta2/generations?pageSize=${pagination.pageSize}&pageIndex=${pagination.pageIndex}`,
-    );
+    const url = `${this.baseUrl}/api/v1beta2/generations`;
+    const response = await fetch(this.paginatedUrl(url, pagination));
 
     if (response.status != 200) {
       const body = await response.text();
@@ -193,6 +215,8 @@ export class DefaultSbomerApiV2 implements SbomerApi {
       });
     }
 
+    this.rememberCursor(url, pagination, data.nextCursor);
+
     return { data: requests, total: data.totalHits };
   }
 